@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 import com.palantir.atlasdb.metrics.Timed;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
@@ -490,6 +491,21 @@ public interface KeyValueService extends AutoCloseable, AsyncKeyValueService {
             Iterable<RangeRequest> rangeRequests,
             long timestamp);
 
+    /**
+     * Splits a table into at most {@code desiredParallelism} disjoint ranges of rows, in order, that together cover
+     * the whole table. Implementations try to make the splits hold similar amounts of data, using what the backing
+     * store knows about how the table is distributed, so that the splits can be scanned in parallel.
+     * <p>
+     * The returned ranges select all columns and have no batch hint; callers may adjust them with
+     * {@link RangeRequest#getBuilder()}. The default implementation returns a single range covering the whole table.
+     */
+    @DoDelegate
+    @Idempotent
+    @Timed
+    default List<RangeRequest> getTableSplits(TableReference tableRef, int desiredParallelism) {
+        return ImmutableList.of(RangeRequest.all());
+    }
+
     ////////////////////////////////////////////////////////////
     // TABLE CREATION AND METADATA
     ////////////////////////////////////////////////////////////
@@ -16,8 +16,11 @@
 
 package com.palantir.atlasdb.keyvalue.api.watch;
 
+import java.util.Map;
 import java.util.Set;
 
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.common.annotation.Idempotent;
 import com.palantir.lock.watch.IdentifiedVersion;
 import com.palantir.lock.watch.LockWatchReferences;
@@ -37,4 +40,22 @@ public interface LockWatchManager {
      * @param lastKnownVersion exclusive start version to get events from
      */
     TransactionsLockWatchEvents getEventsForTransactions(Set<Long> startTimestamps, IdentifiedVersion lastKnownVersion);
+
+    /**
+     * Returns the cached values for those of the given cells whose cached value is guaranteed to be what the
+     * transaction with the given start timestamp would read from the key value service. Cells without such a value
+     * are absent from the returned map; an empty value denotes a cell with no visible committed value.
+     */
+    Map<Cell, byte[]> getCachedValues(long startTimestamp, TableReference tableRef, Set<Cell> cells);
+
+    /**
+     * Offers post-filtered values read by the transaction with the given start timestamp for caching. Only values of
+     * watched cells that no lock watch event has referenced since the start of the transaction are cached.
+     */
+    void cacheValuesRead(long startTimestamp, TableReference tableRef, Map<Cell, byte[]> values);
+
+    /**
+     * Releases the lock watch state associated with the transaction with the given start timestamp.
+     */
+    void removeTransactionState(long startTimestamp);
 }
@@ -16,8 +16,11 @@
 
 package com.palantir.atlasdb.keyvalue.api.watch;
 
+import java.util.Map;
 import java.util.Set;
 
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.lock.watch.IdentifiedVersion;
 import com.palantir.lock.watch.LockWatchEventCache;
 import com.palantir.lock.watch.LockWatchReferences;
@@ -28,10 +31,12 @@ import com.palantir.lock.watch.TransactionsLockWatchEvents;
 public final class LockWatchManagerImpl implements LockWatchManager {
     private final NamespacedLockWatchingRpcClient lockWatchingRpcClient;
     private final LockWatchEventCache cache;
+    private final LockWatchValueCache valueCache;
 
     public LockWatchManagerImpl(NamespacedLockWatchingRpcClient lockWatchingRpcClient, LockWatchEventCache cache) {
         this.lockWatchingRpcClient = lockWatchingRpcClient;
         this.cache = cache;
+        this.valueCache = new LockWatchValueCache(cache);
     }
 
     @Override
@@ -43,4 +48,19 @@ public final class LockWatchManagerImpl implements LockWatchManager {
     public TransactionsLockWatchEvents getEventsForTransactions(Set<Long> startTimestamps, IdentifiedVersion version) {
         return cache.getEventsForTransactions(startTimestamps, version);
     }
+
+    @Override
+    public Map<Cell, byte[]> getCachedValues(long startTimestamp, TableReference tableRef, Set<Cell> cells) {
+        return valueCache.getCached(startTimestamp, tableRef, cells);
+    }
+
+    @Override
+    public void cacheValuesRead(long startTimestamp, TableReference tableRef, Map<Cell, byte[]> values) {
+        valueCache.maybeCacheValuesRead(startTimestamp, tableRef, values);
+    }
+
+    @Override
+    public void removeTransactionState(long startTimestamp) {
+        cache.removeTimestampFromCache(startTimestamp);
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.api.watch;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.immutables.value.Value;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.CellReference;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.lock.AtlasCellLockDescriptor;
+import com.palantir.lock.AtlasRowLockDescriptor;
+import com.palantir.lock.watch.IdentifiedVersion;
+import com.palantir.lock.watch.LockWatchEventCache;
+
+/**
+ * Caches committed values of watched cells across transactions.
+ *
+ * A value is cached together with the lock watch version at the start of the transaction that read it, and only if
+ * lock watches guarantee it was the latest committed value at that version. A later transaction may be served the
+ * cached value if no lock or unlock of the row or cell lock descriptor guarding the cell was logged between the two
+ * versions, as any writer must hold one of those locks while committing.
+ */
+final class LockWatchValueCache {
+    private static final long DEFAULT_MAX_CACHED_CELLS = 100_000;
+
+    private final LockWatchEventCache eventCache;
+    private final Cache<CellReference, CachedValue> values;
+
+    LockWatchValueCache(LockWatchEventCache eventCache) {
+        this(eventCache, DEFAULT_MAX_CACHED_CELLS);
+    }
+
+    LockWatchValueCache(LockWatchEventCache eventCache, long maxCachedCells) {
+        this.eventCache = eventCache;
+        this.values = Caffeine.newBuilder().maximumSize(maxCachedCells).build();
+    }
+
+    Map<Cell, byte[]> getCached(long startTimestamp, TableReference tableRef, Set<Cell> cells) {
+        Optional<IdentifiedVersion> startVersion = eventCache.getStartVersion(startTimestamp);
+        if (!startVersion.isPresent()) {
+            return ImmutableMap.of();
+        }
+
+        Map<Cell, byte[]> result = new HashMap<>();
+        for (Cell cell : cells) {
+            CellReference cellReference = CellReference.of(tableRef, cell);
+            CachedValue cached = values.getIfPresent(cellReference);
+            if (cached == null) {
+                continue;
+            }
+            if (isUnchangedBetween(tableRef, cell, cached.version(), startVersion.get())) {
+                result.put(cell, cached.value());
+            } else if (!isUnchangedBetween(tableRef, cell, cached.version(), eventCache.lastKnownVersion())) {
+                values.asMap().remove(cellReference, cached);
+            }
+        }
+        return result;
+    }
+
+    void maybeCacheValuesRead(long startTimestamp, TableReference tableRef, Map<Cell, byte[]> valuesRead) {
+        Optional<IdentifiedVersion> startVersion = eventCache.getStartVersion(startTimestamp);
+        if (!startVersion.isPresent()) {
+            return;
+        }
+
+        valuesRead.forEach((cell, value) -> {
+            if (isWatchedAndUnchangedSince(tableRef, cell, startVersion.get())) {
+                values.put(CellReference.of(tableRef, cell), CachedValue.of(value, startVersion.get()));
+            }
+        });
+    }
+
+    private boolean isWatchedAndUnchangedSince(TableReference tableRef, Cell cell, IdentifiedVersion version) {
+        String tableName = tableRef.getQualifiedName();
+        return eventCache.isWatchedAndUnchangedSince(
+                AtlasRowLockDescriptor.of(tableName, cell.getRowName()), version)
+                && eventCache.isWatchedAndUnchangedSince(
+                        AtlasCellLockDescriptor.of(tableName, cell.getRowName(), cell.getColumnName()), version);
+    }
+
+    private boolean isUnchangedBetween(TableReference tableRef, Cell cell, IdentifiedVersion startVersion,
+            IdentifiedVersion endVersion) {
+        String tableName = tableRef.getQualifiedName();
+        return eventCache.isUnchangedBetween(
+                AtlasRowLockDescriptor.of(tableName, cell.getRowName()), startVersion, endVersion)
+                && eventCache.isUnchangedBetween(
+                        AtlasCellLockDescriptor.of(tableName, cell.getRowName(), cell.getColumnName()),
+                        startVersion,
+                        endVersion);
+    }
+
+    @Value.Immutable
+    interface CachedValue {
+        @Value.Parameter
+        byte[] value();
+        @Value.Parameter
+        IdentifiedVersion version();
+
+        static CachedValue of(byte[] value, IdentifiedVersion version) {
+            return ImmutableCachedValue.of(value, version);
+        }
+    }
+}
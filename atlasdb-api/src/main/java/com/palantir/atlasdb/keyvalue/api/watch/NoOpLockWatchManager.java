@@ -16,8 +16,12 @@
 
 package com.palantir.atlasdb.keyvalue.api.watch;
 
+import java.util.Map;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.lock.watch.IdentifiedVersion;
 import com.palantir.lock.watch.LockWatchReferences;
 import com.palantir.lock.watch.NoOpLockWatchEventCache;
@@ -40,4 +44,19 @@ public final class NoOpLockWatchManager implements LockWatchManager {
             IdentifiedVersion lastKnownVersion) {
         return NoOpLockWatchEventCache.INSTANCE.getEventsForTransactions(startTimestamps, lastKnownVersion);
     }
+
+    @Override
+    public Map<Cell, byte[]> getCachedValues(long startTimestamp, TableReference tableRef, Set<Cell> cells) {
+        return ImmutableMap.of();
+    }
+
+    @Override
+    public void cacheValuesRead(long startTimestamp, TableReference tableRef, Map<Cell, byte[]> values) {
+        // noop
+    }
+
+    @Override
+    public void removeTransactionState(long startTimestamp) {
+        // noop
+    }
 }
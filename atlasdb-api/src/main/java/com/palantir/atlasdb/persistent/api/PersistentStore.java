@@ -19,12 +19,14 @@ package com.palantir.atlasdb.persistent.api;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.annotation.Nonnull;
 
 import org.immutables.value.Value;
 
+import com.palantir.common.base.ClosableIterator;
 import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 
 import okio.ByteString;
@@ -84,6 +86,54 @@ public interface PersistentStore extends AutoCloseable {
      */
     void put(PersistentStore.Handle handle, Map<ByteString, ByteString> toWrite);
 
+    /**
+     * Returns an iterator over the entries of the store space whose keys lie in the given range, in ascending unsigned
+     * lexicographical order of keys. The iterator must be closed by the caller.
+     *
+     * @param handle         of the store space
+     * @param startInclusive first key of the range; {@link ByteString#EMPTY} to start at the first entry
+     * @param endExclusive   key after the end of the range; {@link ByteString#EMPTY} to read to the last entry
+     * @return iterator over the entries in the range
+     * @throws SafeIllegalArgumentException when referencing a non existing store space
+     */
+    ClosableIterator<Map.Entry<ByteString, ByteString>> getRange(
+            PersistentStore.Handle handle,
+            @Nonnull ByteString startInclusive,
+            @Nonnull ByteString endExclusive);
+
+    /**
+     * Deletes the entries specified by {@code keys}. Keys which are not present in the store are ignored.
+     *
+     * @param handle of the store space
+     * @param keys   keys of the entries to delete
+     * @throws SafeIllegalArgumentException when referencing a non existing store space
+     */
+    void delete(PersistentStore.Handle handle, Set<ByteString> keys);
+
+    /**
+     * Deletes all entries whose keys lie in the given range. Range bounds follow the same conventions as
+     * {@link #getRange(Handle, ByteString, ByteString)}.
+     *
+     * @param handle         of the store space
+     * @param startInclusive first key of the range; {@link ByteString#EMPTY} to start at the first entry
+     * @param endExclusive   key after the end of the range; {@link ByteString#EMPTY} to delete to the last entry
+     * @throws SafeIllegalArgumentException when referencing a non existing store space
+     */
+    void deleteRange(
+            PersistentStore.Handle handle,
+            @Nonnull ByteString startInclusive,
+            @Nonnull ByteString endExclusive);
+
+    /**
+     * Atomically applies all puts and deletes in {@code writeBatch}. Deletes are applied before puts, so a key both
+     * deleted and put in the same batch ends up with the put value.
+     *
+     * @param handle     of the store space
+     * @param writeBatch puts and deletes to apply
+     * @throws SafeIllegalArgumentException when referencing a non existing store space
+     */
+    void write(PersistentStore.Handle handle, WriteBatch writeBatch);
+
     /**
      * Creates a store space to be used to store key-value pairs. Each call creates a new store space.
      *
@@ -99,4 +149,15 @@ public interface PersistentStore extends AutoCloseable {
      * @throws SafeIllegalArgumentException if the {@code handle} points to a non-existing store space
      */
     void dropStoreSpace(PersistentStore.Handle handle);
+
+    /**
+     * A set of writes to be applied atomically to a single store space.
+     */
+    @Value.Immutable
+    interface WriteBatch {
+        Map<ByteString, ByteString> puts();
+        Set<ByteString> deletes();
+
+        class Builder extends ImmutableWriteBatch.Builder {}
+    }
 }
@@ -208,6 +208,13 @@ public class MetricsManager {
         return histogram;
     }
 
+    public Timer registerOrGetTaggedTimer(Class clazz, String metricName, Map<String, String> tags) {
+        MetricName name = getTaggedMetricName(clazz, metricName, tags);
+        Timer timer = taggedMetricRegistry.timer(name);
+        registerTaggedMetricName(name);
+        return timer;
+    }
+
     public Counter registerOrGetTaggedCounter(
             Class clazz,
             String metricName,
@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.api.watch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.lock.AtlasCellLockDescriptor;
+import com.palantir.lock.AtlasRowLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.watch.LockEvent;
+import com.palantir.lock.watch.LockWatchEvent;
+import com.palantir.lock.watch.LockWatchEventCacheImpl;
+import com.palantir.lock.watch.LockWatchReferences;
+import com.palantir.lock.watch.LockWatchStateUpdate;
+import com.palantir.lock.watch.UnlockEvent;
+
+public class LockWatchValueCacheTest {
+    private static final UUID LOG_ID = UUID.randomUUID();
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final TableReference UNWATCHED_TABLE = TableReference.createFromFullyQualifiedName("test.other");
+    private static final Cell CELL = Cell.create(bytes("row"), bytes("col"));
+    private static final Cell OTHER_CELL = Cell.create(bytes("other"), bytes("col"));
+    private static final byte[] VALUE = bytes("value");
+    private static final LockToken TOKEN = LockToken.of(UUID.randomUUID());
+
+    private final LockWatchEventCacheImpl eventCache = LockWatchEventCacheImpl.create(10, 10);
+    private final LockWatchValueCache valueCache = new LockWatchValueCache(eventCache);
+
+    @Test
+    public void servesValueToTransactionsAtTheSameVersion() {
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(1L, 2L), snapshot(5L));
+
+        valueCache.maybeCacheValuesRead(1L, TABLE, ImmutableMap.of(CELL, VALUE));
+
+        assertThat(valueCache.getCached(2L, TABLE, ImmutableSet.of(CELL, OTHER_CELL)))
+                .containsOnlyKeys(CELL)
+                .containsEntry(CELL, VALUE);
+    }
+
+    @Test
+    public void servesValueToLaterTransactionsIfOnlyOtherDescriptorsWereLocked() {
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        valueCache.maybeCacheValuesRead(1L, TABLE, ImmutableMap.of(CELL, VALUE));
+
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(2L), success(6L,
+                lock(6L, AtlasRowLockDescriptor.of(TABLE.getQualifiedName(), OTHER_CELL.getRowName()))));
+
+        assertThat(valueCache.getCached(2L, TABLE, ImmutableSet.of(CELL))).containsEntry(CELL, VALUE);
+    }
+
+    @Test
+    public void rowLockEventInvalidatesCachedValue() {
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        valueCache.maybeCacheValuesRead(1L, TABLE, ImmutableMap.of(CELL, VALUE));
+
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(2L), success(6L,
+                lock(6L, AtlasRowLockDescriptor.of(TABLE.getQualifiedName(), CELL.getRowName()))));
+
+        assertThat(valueCache.getCached(2L, TABLE, ImmutableSet.of(CELL))).isEmpty();
+    }
+
+    @Test
+    public void cellLockEventInvalidatesCachedValueEvenAfterUnlock() {
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        valueCache.maybeCacheValuesRead(1L, TABLE, ImmutableMap.of(CELL, VALUE));
+
+        LockDescriptor cellDescriptor = AtlasCellLockDescriptor.of(
+                TABLE.getQualifiedName(), CELL.getRowName(), CELL.getColumnName());
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(2L), success(7L,
+                lock(6L, cellDescriptor),
+                unlock(7L, cellDescriptor)));
+
+        assertThat(valueCache.getCached(2L, TABLE, ImmutableSet.of(CELL))).isEmpty();
+    }
+
+    @Test
+    public void doesNotCacheValuesReadAfterTheCellWasLocked() {
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(2L), success(6L,
+                lock(6L, AtlasRowLockDescriptor.of(TABLE.getQualifiedName(), CELL.getRowName()))));
+
+        valueCache.maybeCacheValuesRead(1L, TABLE, ImmutableMap.of(CELL, VALUE));
+
+        assertThat(valueCache.getCached(2L, TABLE, ImmutableSet.of(CELL))).isEmpty();
+    }
+
+    @Test
+    public void doesNotCacheValuesOfTablesThatAreNotWatched() {
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(1L, 2L), snapshot(5L));
+
+        valueCache.maybeCacheValuesRead(1L, UNWATCHED_TABLE, ImmutableMap.of(CELL, VALUE));
+
+        assertThat(valueCache.getCached(2L, UNWATCHED_TABLE, ImmutableSet.of(CELL))).isEmpty();
+    }
+
+    @Test
+    public void doesNotServeTransactionsWithoutStartVersion() {
+        eventCache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        valueCache.maybeCacheValuesRead(1L, TABLE, ImmutableMap.of(CELL, VALUE));
+
+        assertThat(valueCache.getCached(2L, TABLE, ImmutableSet.of(CELL))).isEmpty();
+    }
+
+    private static LockWatchStateUpdate snapshot(long version) {
+        return LockWatchStateUpdate.snapshot(
+                LOG_ID,
+                version,
+                ImmutableSet.of(),
+                ImmutableSet.of(LockWatchReferences.entireTable(TABLE.getQualifiedName())));
+    }
+
+    private static LockWatchStateUpdate success(long version, LockWatchEvent... events) {
+        return LockWatchStateUpdate.success(LOG_ID, version, ImmutableList.copyOf(events));
+    }
+
+    private static LockWatchEvent lock(long sequence, LockDescriptor descriptor) {
+        return LockEvent.builder(ImmutableSet.of(descriptor), TOKEN).build(sequence);
+    }
+
+    private static LockWatchEvent unlock(long sequence, LockDescriptor descriptor) {
+        return UnlockEvent.builder(ImmutableSet.of(descriptor)).build(sequence);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
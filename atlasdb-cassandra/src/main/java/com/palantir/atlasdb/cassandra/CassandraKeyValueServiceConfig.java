@@ -138,6 +138,30 @@ public interface CassandraKeyValueServiceConfig extends KeyValueServiceConfig {
         return 1.0;
     }
 
+    /**
+     * If true, hosts are picked by their recent latency and open requests rather than only by their open requests,
+     * so that slow hosts receive less traffic before they start failing requests.
+     */
+    @Value.Default
+    default boolean latencyAwareHostSelection() {
+        return false;
+    }
+
+    /**
+     * If present, idempotent reads that have not completed after this quantile of their host's recent read latency are
+     * also sent to another host, and the first response is used. Must be between 0 and 1 exclusive.
+     */
+    Optional<Double> hedgedReadQuantile();
+
+    /**
+     * The largest fraction of idempotent reads that may be hedged when {@link #hedgedReadQuantile()} is present, so
+     * that a cluster-wide slowdown does not multiply the load on the cluster. Must be between 0 and 1 inclusive.
+     */
+    @Value.Default
+    default double hedgedReadMaxRatio() {
+        return 0.05;
+    }
+
     /**
      * Overrides the behaviour of the host location supplier.
      */
@@ -343,5 +367,11 @@ public interface CassandraKeyValueServiceConfig extends KeyValueServiceConfig {
 
         Preconditions.checkArgument(localHostWeighting() >= 0.0 && localHostWeighting() <= 1.0,
                 "'localHostWeighting' must be between 0 and 1 inclusive");
+
+        hedgedReadQuantile().ifPresent(quantile -> Preconditions.checkArgument(quantile > 0.0 && quantile < 1.0,
+                "'hedgedReadQuantile' must be between 0 and 1 exclusive"));
+
+        Preconditions.checkArgument(hedgedReadMaxRatio() >= 0.0 && hedgedReadMaxRatio() <= 1.0,
+                "'hedgedReadMaxRatio' must be between 0 and 1 inclusive");
     }
 }
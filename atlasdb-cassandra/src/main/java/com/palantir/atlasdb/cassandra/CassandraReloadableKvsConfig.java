@@ -98,6 +98,21 @@ public class CassandraReloadableKvsConfig implements CassandraKeyValueServiceCon
         return config.localHostWeighting();
     }
 
+    @Override
+    public boolean latencyAwareHostSelection() {
+        return config.latencyAwareHostSelection();
+    }
+
+    @Override
+    public Optional<Double> hedgedReadQuantile() {
+        return config.hedgedReadQuantile();
+    }
+
+    @Override
+    public double hedgedReadMaxRatio() {
+        return config.hedgedReadMaxRatio();
+    }
+
     @Override
     public Optional<HostLocation> overrideHostLocation() {
         return config.overrideHostLocation();
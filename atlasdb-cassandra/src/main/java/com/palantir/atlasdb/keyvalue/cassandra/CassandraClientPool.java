@@ -16,8 +16,10 @@
 package com.palantir.atlasdb.keyvalue.cassandra;
 
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.Map;
 
+import com.google.common.collect.RangeMap;
 import com.palantir.common.base.FunctionCheckedException;
 import com.palantir.processors.AutoDelegate;
 
@@ -31,7 +33,17 @@ public interface CassandraClientPool {
             InetSocketAddress specifiedHost,
             FunctionCheckedException<CassandraClient, V, K> fn) throws K;
     <V, K extends Exception> V runWithRetry(FunctionCheckedException<CassandraClient, V, K> fn) throws K;
+
+    /**
+     * As {@link #runWithRetryOnHost(InetSocketAddress, FunctionCheckedException)}, but if hedged reads are enabled
+     * the function may also be run on another host when the specified host is slow to respond. The function must
+     * therefore be idempotent and free of side effects other than its result.
+     */
+    <V, K extends Exception> V runIdempotentWithRetryOnHost(
+            InetSocketAddress specifiedHost,
+            FunctionCheckedException<CassandraClient, V, K> fn) throws K;
     InetSocketAddress getRandomHostForKey(byte[] key);
+    RangeMap<LightweightOppToken, List<InetSocketAddress>> getTokenMap();
     Map<InetSocketAddress, CassandraClientPoolingContainer> getCurrentPools();
     void shutdown();
 }
@@ -20,9 +20,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.apache.cassandra.thrift.NotFoundException;
@@ -39,6 +45,12 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.RangeMap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.palantir.async.initializer.AsyncInitializer;
 import com.palantir.atlasdb.AtlasDbConstants;
@@ -47,8 +59,10 @@ import com.palantir.atlasdb.cassandra.CassandraKeyValueServiceRuntimeConfig;
 import com.palantir.atlasdb.cassandra.CassandraServersConfigs;
 import com.palantir.atlasdb.keyvalue.cassandra.pool.CassandraClientPoolMetrics;
 import com.palantir.atlasdb.keyvalue.cassandra.pool.CassandraService;
+import com.palantir.atlasdb.keyvalue.cassandra.pool.HedgedReadBudget;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.base.FunctionCheckedException;
+import com.palantir.common.base.Throwables;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.UnsafeArg;
@@ -110,6 +124,8 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
     private final StartupChecks startupChecks;
     private final ScheduledExecutorService refreshDaemon;
     private final CassandraClientPoolMetrics metrics;
+    private final ListeningExecutorService hedgingExecutor;
+    private final HedgedReadBudget hedgedReadBudget;
     private final InitializingWrapper wrapper = new InitializingWrapper();
 
     private ScheduledFuture<?> refreshPoolFuture;
@@ -208,6 +224,18 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
         this.exceptionHandler = exceptionHandler;
         this.cassandra = cassandra;
         this.metrics = metrics;
+        // Each read that may hedge uses at most two threads, and the budget bounds how many such reads are in flight.
+        // Requests left to complete after the read has returned can still fill the pool, and then reads do not hedge.
+        this.hedgingExecutor = MoreExecutors.listeningDecorator(PTExecutors.newThreadPoolExecutor(
+                0,
+                2 * HedgedReadBudget.MAX_TOKENS,
+                1, TimeUnit.MINUTES,
+                new SynchronousQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("CassandraClientPoolHedgedRead-%d")
+                        .build()));
+        this.hedgedReadBudget = new HedgedReadBudget(config::hedgedReadMaxRatio);
     }
 
     private void tryInitialize() {
@@ -249,6 +277,7 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
     public void shutdown() {
         cassandra.close();
         refreshDaemon.shutdown();
+        hedgingExecutor.shutdown();
         cassandra.getPools().forEach((address, cassandraClientPoolingContainer) ->
                 cassandraClientPoolingContainer.shutdownPooling());
     }
@@ -272,8 +301,8 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
         return cassandra.getPools();
     }
 
-    @VisibleForTesting
-    RangeMap<LightweightOppToken, List<InetSocketAddress>> getTokenMap() {
+    @Override
+    public RangeMap<LightweightOppToken, List<InetSocketAddress>> getTokenMap() {
         return cassandra.getTokenMap();
     }
 
@@ -394,6 +423,13 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
     public <V, K extends Exception> V runWithRetryOnHost(
             InetSocketAddress specifiedHost,
             FunctionCheckedException<CassandraClient, V, K> fn) throws K {
+        return runWithRetryOnHost(specifiedHost, fn, false);
+    }
+
+    private <V, K extends Exception> V runWithRetryOnHost(
+            InetSocketAddress specifiedHost,
+            FunctionCheckedException<CassandraClient, V, K> fn,
+            boolean isRead) throws K {
         RetryableCassandraRequest<V, K> req = new RetryableCassandraRequest<>(specifiedHost, fn);
 
         while (true) {
@@ -404,7 +440,7 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
             CassandraClientPoolingContainer hostPool = getPreferredHostOrFallBack(req);
 
             try {
-                V response = runWithPooledResourceRecordingMetrics(hostPool, req.getFunction());
+                V response = runWithPooledResourceRecordingMetrics(hostPool, req.getFunction(), isRead);
                 removeFromBlacklistAfterResponse(hostPool.getHost());
                 return response;
             } catch (Exception ex) {
@@ -413,6 +449,101 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
         }
     }
 
+    @Override
+    public <V, K extends Exception> V runIdempotentWithRetryOnHost(
+            InetSocketAddress specifiedHost,
+            FunctionCheckedException<CassandraClient, V, K> fn) throws K {
+        CassandraClientPoolingContainer hostPool = cassandra.getPools().get(specifiedHost);
+        long hedgeDelayNanos = hostPool == null
+                ? 0
+                : config.hedgedReadQuantile().map(hostPool::getReadLatencyQuantileNanos).orElse(0L);
+        // Reads that cannot hedge run on the calling thread. Those that can must run elsewhere, so that the calling
+        // thread is free to return the result of the hedge if it completes first.
+        if (hedgeDelayNanos <= 0 || !hedgedReadBudget.tryReserve()) {
+            return runWithRetryOnHost(specifiedHost, fn, true);
+        }
+
+        boolean hedged = false;
+        try {
+            Optional<ListenableFuture<V>> primary =
+                    trySubmitForHedging(() -> runWithRetryOnHost(specifiedHost, fn, true));
+            if (!primary.isPresent()) {
+                return runWithRetryOnHost(specifiedHost, fn, true);
+            }
+            try {
+                return primary.get().get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // the specified host is slower than usual, so hedge below
+            } catch (ExecutionException e) {
+                return getResult(primary.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Throwables.throwUncheckedException(e);
+            }
+
+            Optional<ListenableFuture<V>> hedge = cassandra
+                    .getRandomGoodHostForPredicate(address -> !address.equals(specifiedHost))
+                    .flatMap(hedgeHostPool -> trySubmitForHedging(
+                            () -> runWithRetryOnHost(hedgeHostPool.getHost(), fn, true)));
+            if (!hedge.isPresent()) {
+                return getResult(primary.get());
+            }
+            hedged = true;
+            metrics.recordHedgedRequest();
+            return getResult(firstSuccessful(primary.get(), hedge.get()));
+        } finally {
+            if (!hedged) {
+                hedgedReadBudget.release();
+            }
+        }
+    }
+
+    private <V> Optional<ListenableFuture<V>> trySubmitForHedging(Callable<V> task) {
+        try {
+            return Optional.of(hedgingExecutor.submit(task));
+        } catch (RejectedExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Completes with the first of the given futures to succeed, or with the last failure if neither succeeds. The
+     * other request is left to complete on its own, as interrupting a Thrift call would break its connection.
+     */
+    private static <V> ListenableFuture<V> firstSuccessful(ListenableFuture<V> primary, ListenableFuture<V> hedge) {
+        SettableFuture<V> result = SettableFuture.create();
+        AtomicInteger failures = new AtomicInteger();
+        FutureCallback<V> callback = new FutureCallback<V>() {
+            @Override
+            public void onSuccess(V value) {
+                result.set(value);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                if (failures.incrementAndGet() == 2) {
+                    result.setException(throwable);
+                }
+            }
+        };
+        Futures.addCallback(primary, callback, MoreExecutors.directExecutor());
+        Futures.addCallback(hedge, callback, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    @SuppressWarnings("unchecked") // the functions run by the futures only throw K or unchecked exceptions
+    private static <V, K extends Exception> V getResult(ListenableFuture<V> future) throws K {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwables.throwIfUncheckedException(e.getCause());
+            throw (K) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.throwUncheckedException(e);
+        }
+    }
+
     private <V, K extends Exception> CassandraClientPoolingContainer getPreferredHostOrFallBack(
             RetryableCassandraRequest<V, K> req) {
         CassandraClientPoolingContainer hostPool = cassandra.getPools().get(req.getPreferredHost());
@@ -438,7 +569,7 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
     public <V, K extends Exception> V runOnHost(InetSocketAddress specifiedHost,
             FunctionCheckedException<CassandraClient, V, K> fn) throws K {
         CassandraClientPoolingContainer hostPool = cassandra.getPools().get(specifiedHost);
-        V response = runWithPooledResourceRecordingMetrics(hostPool, fn);
+        V response = runWithPooledResourceRecordingMetrics(hostPool, fn, false);
         removeFromBlacklistAfterResponse(specifiedHost);
         return response;
     }
@@ -453,9 +584,11 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
 
     private <V, K extends Exception> V runWithPooledResourceRecordingMetrics(
             CassandraClientPoolingContainer hostPool,
-            FunctionCheckedException<CassandraClient, V, K> fn) throws K {
+            FunctionCheckedException<CassandraClient, V, K> fn,
+            boolean isRead) throws K {
 
         metrics.recordRequestOnHost(hostPool);
+        long startNanos = System.nanoTime();
         try {
             return hostPool.runWithPooledResource(fn);
         } catch (Exception e) {
@@ -464,6 +597,11 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
                 metrics.recordConnectionExceptionOnHost(hostPool);
             }
             throw e;
+        } finally {
+            if (isRead) {
+                // the hedge delay is derived from reads alone, as other requests may be much slower
+                hostPool.recordReadLatency(System.nanoTime() - startNanos);
+            }
         }
     }
 
@@ -38,12 +38,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.SlidingWindowReservoir;
+import com.codahale.metrics.Snapshot;
 import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.cassandra.CassandraKeyValueServiceConfig;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.cassandra.pool.CassandraClientPoolMetrics;
+import com.palantir.atlasdb.keyvalue.cassandra.pool.DecayingLatencyEwma;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.base.FunctionCheckedException;
 import com.palantir.common.pooling.PoolingContainer;
@@ -52,12 +58,17 @@ import com.palantir.logsafe.UnsafeArg;
 
 public class CassandraClientPoolingContainer implements PoolingContainer<CassandraClient> {
     private static final Logger log = LoggerFactory.getLogger(CassandraClientPoolingContainer.class);
+    private static final int LATENCY_SAMPLES = 1024;
 
     private final InetSocketAddress host;
     private final CassandraKeyValueServiceConfig config;
     private final MetricsManager metricsManager;
     private final AtomicLong count = new AtomicLong();
     private final AtomicInteger openRequests = new AtomicInteger();
+    private final DecayingLatencyEwma latencyEwma = new DecayingLatencyEwma(System::nanoTime);
+    private final Histogram readLatencies = new Histogram(new SlidingWindowReservoir(LATENCY_SAMPLES));
+    private final Supplier<Snapshot> readLatencySnapshot =
+            Suppliers.memoizeWithExpiration(readLatencies::getSnapshot, 1, TimeUnit.SECONDS);
     private final GenericObjectPool<CassandraClient> clientPool;
     private final int poolNumber;
     private final CassandraClientPoolMetrics poolMetrics;
@@ -90,6 +101,31 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
         return openRequests.get();
     }
 
+    /**
+     * Exponentially weighted moving average of the latency of recent requests to
+     * {@link #runWithPooledResource(FunctionCheckedException)}, or zero if no request has completed yet. The average
+     * decays towards zero while no requests complete (see {@link DecayingLatencyEwma}).
+     */
+    public long getLatencyEwmaNanos() {
+        return latencyEwma.getNanos();
+    }
+
+    /**
+     * The given quantile of the latency of recent reads recorded by {@link #recordReadLatency(long)}, refreshed at
+     * most once a second, or zero if no read has been recorded yet.
+     */
+    public long getReadLatencyQuantileNanos(double quantile) {
+        return (long) readLatencySnapshot.get().getValue(quantile);
+    }
+
+    /**
+     * Records the latency of a read from this host. Reads are tracked apart from other requests, such as writes and
+     * schema changes, whose latencies would otherwise skew {@link #getReadLatencyQuantileNanos(double)}.
+     */
+    public void recordReadLatency(long nanos) {
+        readLatencies.update(nanos);
+    }
+
     // returns negative if not available; only expected use is debugging
     public int getActiveCheckouts() {
         return clientPool.getNumActive();
@@ -108,6 +144,7 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
                 + " calling cassandra host " + host
                 + " started at " + DateTimeFormatter.ISO_INSTANT.format(Instant.now())
                 + " - " + count.getAndIncrement());
+        long startNanos = System.nanoTime();
         try {
             openRequests.getAndIncrement();
             return runWithGoodResource(fn);
@@ -128,6 +165,7 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
             throw t;
         } finally {
             openRequests.getAndDecrement();
+            latencyEwma.record(System.nanoTime() - startNanos);
             Thread.currentThread().setName(origName);
         }
     }
@@ -67,6 +67,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Bytes;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.UncheckedExecutionException;
@@ -114,6 +115,7 @@ import com.palantir.atlasdb.keyvalue.impl.CheckAndSetResult;
 import com.palantir.atlasdb.keyvalue.impl.IterablePartitioner;
 import com.palantir.atlasdb.keyvalue.impl.KeyValueServices;
 import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.impl.TableSplits;
 import com.palantir.atlasdb.logging.LoggingArgs;
 import com.palantir.atlasdb.table.description.TableMetadata;
 import com.palantir.atlasdb.util.AnnotatedCallable;
@@ -681,7 +683,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             final TableReference tableRef,
             List<KeyPredicate> query,
             final long startTs) throws Exception {
-        return clientPool.runWithRetryOnHost(
+        return clientPool.runIdempotentWithRetryOnHost(
                 host,
                 new FunctionCheckedException<CassandraClient, Map<ByteBuffer, List<ColumnOrSuperColumn>>, Exception>() {
                     @Override
@@ -1385,6 +1387,29 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
      *
      * @throws UncheckedExecutionException if there are multiple schema mutation lock tables.
      */
+    /**
+     * Splits the table at the boundaries of the token ranges of the ring, so that each split is owned by a single
+     * set of replicas. If the ring has more token ranges than the desired parallelism, adjacent token ranges are
+     * grouped together.
+     */
+    @Override
+    public List<RangeRequest> getTableSplits(TableReference tableRef, int desiredParallelism) {
+        List<byte[]> tokenRangeEnds = clientPool.getTokenMap().asMapOfRanges().keySet().stream()
+                .filter(range -> range.hasUpperBound())
+                .map(range -> successor(range.upperEndpoint().bytes))
+                .sorted(PtBytes.BYTES_COMPARATOR)
+                .collect(Collectors.toList());
+        return TableSplits.splitAt(TableSplits.evenlySpacedBoundaries(tokenRangeEnds, desiredParallelism));
+    }
+
+    /**
+     * Token ranges include their upper endpoint, whereas row ranges exclude it, so the row range boundary for a token
+     * range is the smallest row after its upper endpoint.
+     */
+    private static byte[] successor(byte[] row) {
+        return Bytes.concat(row, new byte[] {0});
+    }
+
     @Override
     public void dropTable(final TableReference tableRef) {
         dropTables(ImmutableSet.of(tableRef));
@@ -1803,6 +1828,10 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
      * interleave.  However, concurrent writes to the same Cell will not both report success.
      * One of them will throw {@link KeyAlreadyExistsException}.
      * <p>
+     * Each row is written with a separate lightweight transaction, sent to a host owning that row. Rows are written
+     * concurrently, so a row failing does not prevent the other rows from being written; the thrown
+     * {@link KeyAlreadyExistsException} contains the existing cells of every row that failed.
+     * <p>
      * Requires a quorum of Cassandra nodes to be reachable.
      *
      * @param tableRef the name of the table to put values into.
@@ -1815,26 +1844,31 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
     public void putUnlessExists(final TableReference tableRef, final Map<Cell, byte[]> values)
             throws KeyAlreadyExistsException {
         try {
-            Optional<KeyAlreadyExistsException> failure = clientPool.runWithRetry(client -> {
-                Map<ByteString, Map<Cell, byte[]>> partitionedEntries = partitionPerRow(values);
-
-                for (Map.Entry<ByteString, Map<Cell, byte[]>> partition : partitionedEntries.entrySet()) {
-                    CASResult casResult = putUnlessExistsSinglePartition(
-                            tableRef, client, partition.getKey(), partition.getValue());
-                    if (!casResult.isSuccess()) {
-                        return Optional.of(new KeyAlreadyExistsException(
-                                String.format("The cells in table %s already exist.", tableRef.getQualifiedName()),
-                                casResult.getCurrent_values().stream()
-                                        .map(column -> Cell.create(partition.getKey().toByteArray(),
-                                                CassandraKeyValueServices.decompose(column.bufferForName()).lhSide))
-                                        .collect(Collectors.toList())));
-                    }
+            Map<InetSocketAddress, List<Map.Entry<ByteString, Map<Cell, byte[]>>>> partitionsByHost =
+                    HostPartitioner.partitionByHost(
+                            clientPool, partitionPerRow(values).entrySet(), entry -> entry.getKey().toByteArray());
+
+            List<Callable<List<Cell>>> tasks = Lists.newArrayListWithCapacity(values.size());
+            for (Map.Entry<InetSocketAddress, List<Map.Entry<ByteString, Map<Cell, byte[]>>>> hostAndPartitions
+                    : partitionsByHost.entrySet()) {
+                InetSocketAddress host = hostAndPartitions.getKey();
+                for (Map.Entry<ByteString, Map<Cell, byte[]>> partition : hostAndPartitions.getValue()) {
+                    tasks.add(AnnotatedCallable.wrapWithThreadName(AnnotationType.PREPEND,
+                            "Atlas putUnlessExists " + partition.getValue().size()
+                                    + " cells into " + tableRef + " on " + host,
+                            () -> putUnlessExistsSinglePartition(
+                                    host, tableRef, partition.getKey(), partition.getValue())));
                 }
-                return Optional.empty();
-            });
-            failure.ifPresent(exception -> {
-                throw exception;
-            });
+            }
+
+            List<Cell> existingCells = taskRunner.runAllTasksCancelOnFailure(tasks).stream()
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+            if (!existingCells.isEmpty()) {
+                throw new KeyAlreadyExistsException(
+                        String.format("The cells in table %s already exist.", tableRef.getQualifiedName()),
+                        existingCells);
+            }
         } catch (KeyAlreadyExistsException e) {
             throw e;
         } catch (Exception e) {
@@ -1849,12 +1883,15 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                         Collectors.toMap(Entry::getKey, Entry::getValue)));
     }
 
-    private static CASResult putUnlessExistsSinglePartition(
+    /**
+     * Returns the cells of the partition that already existed, which is empty if the partition was written.
+     */
+    private List<Cell> putUnlessExistsSinglePartition(
+            InetSocketAddress host,
             TableReference tableRef,
-            CassandraClient client,
             ByteString row,
             Map<Cell, byte[]> partition) throws TException {
-        return client.put_unless_exists(
+        CASResult casResult = clientPool.runWithRetryOnHost(host, client -> client.put_unless_exists(
                 tableRef,
                 ByteBuffer.wrap(row.toByteArray()),
                 partition.entrySet()
@@ -1862,7 +1899,14 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                         .map(CassandraKeyValueServiceImpl::prepareColumnForPutUnlessExists)
                         .collect(Collectors.toList()),
                 ConsistencyLevel.SERIAL,
-                WRITE_CONSISTENCY);
+                WRITE_CONSISTENCY));
+        if (casResult.isSuccess()) {
+            return ImmutableList.of();
+        }
+        return casResult.getCurrent_values().stream()
+                .map(column -> Cell.create(row.toByteArray(),
+                        CassandraKeyValueServices.decompose(column.bufferForName()).lhSide))
+                .collect(Collectors.toList());
     }
 
     private static Column prepareColumnForPutUnlessExists(Entry<Cell, byte[]> insertion) {
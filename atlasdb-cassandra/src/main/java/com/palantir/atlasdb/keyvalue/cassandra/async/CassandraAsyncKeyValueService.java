@@ -16,13 +16,26 @@
 
 package com.palantir.atlasdb.keyvalue.cassandra.async;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.futures.FuturesCombiner;
 import com.palantir.atlasdb.keyvalue.api.AsyncKeyValueService;
 import com.palantir.atlasdb.keyvalue.api.Cell;
@@ -33,13 +46,33 @@ import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec.GetQueryParameters;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableMultiGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec.MultiGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec.MultiGetResult;
 import com.palantir.atlasdb.logging.LoggingArgs;
-import com.palantir.common.streams.KeyedStream;
 import com.palantir.logsafe.SafeArg;
 
+/**
+ * Implements {@link AsyncKeyValueService#getAsync} over CQL. Only point reads are available asynchronously; row,
+ * column range and range scan reads and writes go through the Thrift based {@code CassandraKeyValueService}.
+ */
 public final class CassandraAsyncKeyValueService implements AsyncKeyValueService {
     private static final Logger log = LoggerFactory.getLogger(CassandraAsyncKeyValueService.class);
 
+    /**
+     * Cells of the same row read at the same timestamp are fetched with a single query, up to this many at a time.
+     * Larger batches are split to keep the size of the {@code IN} restriction and of each response bounded.
+     */
+    private static final int MAX_CELLS_PER_QUERY = 100;
+
+    /**
+     * Number of visible versions of each cell a multi-cell query reads before giving up on the cells it did not reach.
+     * Tables in {@link AtlasDbConstants#ATOMIC_TABLES} are only written with putUnlessExists or checkAndSet and keep
+     * a single version of each cell; other tables keep older versions until they are swept.
+     */
+    private static final int EXPECTED_VERSIONS_PER_CELL = 4;
+
     private final String keyspace;
     private final CqlClient cqlClient;
     private final FuturesCombiner futuresCombiner;
@@ -62,18 +95,36 @@ public final class CassandraAsyncKeyValueService implements AsyncKeyValueService
                     LoggingArgs.tableRef(tableReference));
         }
 
-        Map<Cell, ListenableFuture<Optional<Value>>> cellListenableFutureMap = KeyedStream.stream(timestampByCell)
-                .map((cell, timestamp) -> getCellAsync(tableReference, cell, timestamp))
-                .collectToMap();
-
-        return futuresCombiner.allAsMap(cellListenableFutureMap);
-    }
-
-    private ListenableFuture<Optional<Value>> getCellAsync(TableReference tableReference, Cell cell, long timestamp) {
         CqlQueryContext queryContext = ImmutableCqlQueryContext.builder()
                 .tableReference(tableReference)
                 .keyspace(keyspace)
                 .build();
+        int expectedVersionsPerCell = AtlasDbConstants.ATOMIC_TABLES.contains(tableReference)
+                ? 1
+                : EXPECTED_VERSIONS_PER_CELL;
+        Map<Cell, ListenableFuture<Optional<Value>>> singleCellFutures = new HashMap<>();
+        List<ListenableFuture<Map<Cell, Value>>> resultFutures = new ArrayList<>();
+
+        ImmutableListMultimap<Map.Entry<ByteBuffer, Long>, Cell> cellsByRowAndTimestamp = Multimaps.index(
+                timestampByCell.keySet(),
+                cell -> Maps.immutableEntry(ByteBuffer.wrap(cell.getRowName()), timestampByCell.get(cell)));
+        cellsByRowAndTimestamp.asMap().forEach((rowAndTimestamp, cells) -> {
+            long timestamp = rowAndTimestamp.getValue();
+            if (cells.size() == 1) {
+                Cell cell = Iterables.getOnlyElement(cells);
+                singleCellFutures.put(cell, getCellAsync(queryContext, cell, timestamp));
+            } else {
+                for (List<Cell> batch : Iterables.partition(cells, MAX_CELLS_PER_QUERY)) {
+                    resultFutures.add(getCellsAsync(queryContext, batch, timestamp, expectedVersionsPerCell));
+                }
+            }
+        });
+        resultFutures.add(futuresCombiner.allAsMap(singleCellFutures));
+
+        return mergeAsync(resultFutures);
+    }
+
+    private ListenableFuture<Optional<Value>> getCellAsync(CqlQueryContext queryContext, Cell cell, long timestamp) {
         GetQueryParameters getQueryParameters = ImmutableGetQueryParameters.builder()
                 .cell(cell)
                 .humanReadableTimestamp(timestamp)
@@ -82,6 +133,57 @@ public final class CassandraAsyncKeyValueService implements AsyncKeyValueService
         return cqlClient.executeQuery(new GetQuerySpec(queryContext, getQueryParameters));
     }
 
+    private ListenableFuture<Map<Cell, Value>> getCellsAsync(
+            CqlQueryContext queryContext,
+            List<Cell> cells,
+            long timestamp,
+            int expectedVersionsPerCell) {
+        MultiGetQueryParameters multiGetQueryParameters = ImmutableMultiGetQueryParameters.builder()
+                .cells(cells)
+                .humanReadableTimestamp(timestamp)
+                .expectedVersionsPerCell(expectedVersionsPerCell)
+                .build();
+
+        ListenableFuture<MultiGetResult> result =
+                cqlClient.executeQuery(new MultiGetQuerySpec(queryContext, multiGetQueryParameters));
+        return Futures.transformAsync(
+                result,
+                multiGetResult -> getUnresolvedCellsAsync(queryContext, multiGetResult, timestamp),
+                MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Cells the multi-cell query did not reach before its row limit are read one at a time, so that a few cells with
+     * many versions cost at most one extra round trip instead of transferring all of their versions.
+     */
+    private ListenableFuture<Map<Cell, Value>> getUnresolvedCellsAsync(
+            CqlQueryContext queryContext,
+            MultiGetResult multiGetResult,
+            long timestamp) {
+        Set<Cell> unresolvedCells = multiGetResult.unresolvedCells();
+        if (unresolvedCells.isEmpty()) {
+            return Futures.immediateFuture(multiGetResult.values());
+        }
+        Map<Cell, ListenableFuture<Optional<Value>>> singleCellFutures = new HashMap<>();
+        unresolvedCells.forEach(cell -> singleCellFutures.put(cell, getCellAsync(queryContext, cell, timestamp)));
+        return mergeAsync(ImmutableList.of(
+                Futures.immediateFuture(multiGetResult.values()),
+                futuresCombiner.allAsMap(singleCellFutures)));
+    }
+
+    private static ListenableFuture<Map<Cell, Value>> mergeAsync(List<ListenableFuture<Map<Cell, Value>>> futures) {
+        return Futures.transform(
+                Futures.allAsList(futures),
+                CassandraAsyncKeyValueService::merge,
+                MoreExecutors.directExecutor());
+    }
+
+    private static Map<Cell, Value> merge(List<Map<Cell, Value>> results) {
+        Map<Cell, Value> merged = new HashMap<>();
+        results.forEach(merged::putAll);
+        return merged;
+    }
+
     @Override
     public void close() {
         cqlClient.close();
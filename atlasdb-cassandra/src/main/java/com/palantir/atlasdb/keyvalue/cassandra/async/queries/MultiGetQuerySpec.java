@@ -0,0 +1,218 @@
+/*
+ * (c) Copyright 2019 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import com.palantir.logsafe.Preconditions;
+
+/**
+ * Reads the latest visible value of several cells of the same row with a single query. Since all cells live in the
+ * same partition, the query is routed to a replica owning it by the token aware load balancing policy.
+ */
+public final class MultiGetQuerySpec implements CqlQuerySpec<MultiGetQuerySpec.MultiGetResult> {
+
+    /**
+     * Unlike {@link GetQuerySpec} we cannot ask CQL to limit the result to one version per column, so every version
+     * older than the timestamp is returned. Cells are clustered in ASC order by {@code column1/column} and
+     * {@code column2/timestamp} and timestamps are stored as bitwise complements, so the first row returned for each
+     * column is the freshest visible one and the rest are ignored. To bound the amount of data read for cells with
+     * many versions, the query is limited to {@link MultiGetQueryParameters#rowLimit()} rows. If the limit is reached,
+     * columns that were not returned at all may still have visible values; they are reported as
+     * {@link MultiGetResult#unresolvedCells()} and have to be read some other way.
+     */
+    private static final String QUERY_FORMAT = "SELECT column1, column2, value FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 IN :columns AND column2 > :timestamp "
+            + "LIMIT :max_rows;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final MultiGetQueryParameters multiGetQueryParameters;
+    private final MultiGetQueryAccumulator multiGetQueryAccumulator;
+
+    public MultiGetQuerySpec(CqlQueryContext cqlQueryContext, MultiGetQueryParameters multiGetQueryParameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.multiGetQueryParameters = multiGetQueryParameters;
+        this.multiGetQueryAccumulator = new MultiGetQueryAccumulator(multiGetQueryParameters);
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return QueryType.MULTIGET;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        List<ByteBuffer> columns = multiGetQueryParameters.cells().stream()
+                .map(cell -> toReadOnlyByteBuffer(cell.getColumnName()))
+                .collect(Collectors.toList());
+        return preparedStatement.bind()
+                .setBytes("row", toReadOnlyByteBuffer(multiGetQueryParameters.row()))
+                .setList("columns", columns, ByteBuffer.class)
+                .setLong("timestamp", multiGetQueryParameters.queryTimestamp())
+                .setInt("max_rows", multiGetQueryParameters.rowLimit());
+    }
+
+    private static ByteBuffer toReadOnlyByteBuffer(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<MultiGetResult> rowStreamAccumulator() {
+        return multiGetQueryAccumulator;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface MultiGetQueryParameters {
+        /**
+         * Cells to read, which must all belong to the same row.
+         */
+        List<Cell> cells();
+
+        long humanReadableTimestamp();
+
+        /**
+         * Number of versions of each cell expected to be visible at the read timestamp. The query reads at most this
+         * many rows per requested cell.
+         */
+        int expectedVersionsPerCell();
+
+        default int rowLimit() {
+            return cells().size() * expectedVersionsPerCell();
+        }
+
+        default byte[] row() {
+            return cells().get(0).getRowName();
+        }
+
+        default long queryTimestamp() {
+            return ~humanReadableTimestamp();
+        }
+
+        @org.immutables.value.Value.Check
+        default void check() {
+            Preconditions.checkState(!cells().isEmpty(), "Must read at least one cell");
+            Preconditions.checkState(expectedVersionsPerCell() > 0, "Must read at least one version of each cell");
+            Preconditions.checkState(
+                    cells().stream().allMatch(cell -> Arrays.equals(cell.getRowName(), row())),
+                    "All cells of a multiget query must belong to the same row");
+        }
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface MultiGetResult {
+        /**
+         * Freshest visible value of each cell that was returned by the query.
+         */
+        Map<Cell, Value> values();
+
+        /**
+         * Cells that were not returned because the query reached its row limit first. Their visibility is unknown.
+         */
+        Set<Cell> unresolvedCells();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        MultiGetQuerySpec that = (MultiGetQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext)
+                && multiGetQueryParameters.equals(that.multiGetQueryParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, multiGetQueryParameters);
+    }
+
+    private static class MultiGetQueryAccumulator implements RowStreamAccumulator<MultiGetResult> {
+
+        private final MultiGetQueryParameters parameters;
+        private final Map<Cell, Value> resultValues = new HashMap<>();
+        private int rowsSeen = 0;
+
+        MultiGetQueryAccumulator(MultiGetQueryParameters parameters) {
+            this.parameters = parameters;
+        }
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            // rows may span several pages, but the freshest version of each column is always seen first
+            rowStream.forEach(cqlRow -> {
+                rowsSeen++;
+                resultValues.putIfAbsent(
+                        Cell.create(parameters.row(), getBytes(cqlRow, 0)),
+                        Value.create(getBytes(cqlRow, 2), ~cqlRow.getLong(1)));
+            });
+        }
+
+        @Override
+        public MultiGetResult result() {
+            ImmutableMultiGetResult.Builder result = ImmutableMultiGetResult.builder().values(resultValues);
+            if (rowsSeen >= parameters.rowLimit()) {
+                parameters.cells().stream()
+                        .filter(cell -> !resultValues.containsKey(cell))
+                        .forEach(result::addUnresolvedCells);
+            }
+            return result.build();
+        }
+
+        private static byte[] getBytes(Row cqlRow, int index) {
+            ByteBuffer buffer = cqlRow.getBytes(index);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+    }
+}
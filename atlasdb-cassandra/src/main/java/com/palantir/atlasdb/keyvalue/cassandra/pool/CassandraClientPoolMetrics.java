@@ -35,12 +35,14 @@ public class CassandraClientPoolMetrics {
     // Tracks occurrences of client pool exhaustions.
     // Not bundled in with request metrics, as we seek to not produce host-level metrics for economic reasons.
     private final Counter poolExhaustionCounter;
+    private final Meter hedgedRequests;
 
     public CassandraClientPoolMetrics(MetricsManager metricsManager) {
         this.metricsManager = metricsManager;
         this.aggregateRequestMetrics = new RequestMetrics(metricsManager, null);
         this.poolExhaustionCounter
                 = metricsManager.registerOrGetCounter(CassandraClientPoolMetrics.class, "pool-exhaustion");
+        this.hedgedRequests = metricsManager.registerOrGetMeter(CassandraClientPool.class, "hedgedRequests");
     }
 
     public void registerAggregateMetrics(Supplier<Integer> blacklistSize) {
@@ -72,6 +74,10 @@ public class CassandraClientPoolMetrics {
         poolExhaustionCounter.inc();
     }
 
+    public void recordHedgedRequest() {
+        hedgedRequests.mark();
+    }
+
     private void updateMetricOnAggregateAndHost(
             CassandraClientPoolingContainer hostPool,
             Consumer<RequestMetrics> metricsConsumer) {
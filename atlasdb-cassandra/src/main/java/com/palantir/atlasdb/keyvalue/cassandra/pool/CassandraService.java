@@ -316,6 +316,9 @@ public class CassandraService implements AutoCloseable {
             return Optional.empty();
         }
 
+        if (config.latencyAwareHostSelection()) {
+            return Optional.of(LatencyAwareHosts.getRandomHost(matchingPools));
+        }
         return Optional.of(WeightedHosts.create(matchingPools).getRandomHost());
     }
 
@@ -0,0 +1,75 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * An exponentially weighted moving average of latencies that decays towards zero while no samples are recorded.
+ * Without the decay, a host that stops receiving requests because it was slow would be judged on its stale average
+ * forever; with it, such a host is tried again once it has been idle for a few seconds, and the first sample after
+ * a quiet period mostly replaces the stale average.
+ */
+public final class DecayingLatencyEwma {
+    private static final double MIN_SAMPLE_WEIGHT = 0.2;
+    private static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Average> average = new AtomicReference<>();
+
+    public DecayingLatencyEwma(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the decayed average, or zero if no sample has been recorded.
+     */
+    public long getNanos() {
+        Average current = average.get();
+        return current == null ? 0 : (long) (current.nanos * decayFactor(current, nanoClock.getAsLong()));
+    }
+
+    /**
+     * Samples are weighted by at least {@link #MIN_SAMPLE_WEIGHT}, and by as much as the average has decayed since
+     * the previous sample if that is more.
+     */
+    public void record(long nanos) {
+        long nowNanos = nanoClock.getAsLong();
+        average.getAndUpdate(current -> {
+            if (current == null) {
+                return new Average(nanos, nowNanos);
+            }
+            double weight = Math.max(MIN_SAMPLE_WEIGHT, 1 - decayFactor(current, nowNanos));
+            return new Average(current.nanos + (long) (weight * (nanos - current.nanos)), nowNanos);
+        });
+    }
+
+    private static double decayFactor(Average average, long nowNanos) {
+        return Math.exp(-(double) Math.max(nowNanos - average.updatedAtNanos, 0) / DECAY_NANOS);
+    }
+
+    private static final class Average {
+        private final long nanos;
+        private final long updatedAtNanos;
+
+        private Average(long nanos, long updatedAtNanos) {
+            this.nanos = nanos;
+            this.updatedAtNanos = updatedAtNanos;
+        }
+    }
+}
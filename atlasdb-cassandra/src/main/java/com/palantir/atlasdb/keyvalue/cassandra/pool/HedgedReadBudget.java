@@ -0,0 +1,63 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import java.util.function.DoubleSupplier;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * A token bucket that limits hedged reads to a fraction of all reads. Every read earns that fraction of a token, up to
+ * {@link #MAX_TOKENS}, and a read may only hedge if it can reserve a whole token before it starts. A read that
+ * completes without hedging releases its token again, so the number of reads in flight that may hedge is also bounded
+ * by {@link #MAX_TOKENS}.
+ */
+public final class HedgedReadBudget {
+    public static final int MAX_TOKENS = 16;
+
+    private final DoubleSupplier maxRatio;
+
+    @GuardedBy("this")
+    private double tokens = 0;
+
+    public HedgedReadBudget(DoubleSupplier maxRatio) {
+        this.maxRatio = maxRatio;
+    }
+
+    /**
+     * Records a read, and returns true if a token was reserved for it to hedge with. If so, the caller must call
+     * {@link #release()} unless it hedges.
+     */
+    public synchronized boolean tryReserve() {
+        tokens = Math.min(MAX_TOKENS, tokens + maxRatio.getAsDouble());
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized void release() {
+        tokens = Math.min(MAX_TOKENS, tokens + 1);
+    }
+
+    @VisibleForTesting
+    synchronized double getTokens() {
+        return tokens;
+    }
+}
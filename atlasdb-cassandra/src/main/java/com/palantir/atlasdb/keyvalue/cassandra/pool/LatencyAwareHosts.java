@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+import com.palantir.logsafe.Preconditions;
+
+/**
+ * Picks hosts by the power of two choices: two hosts are sampled at random and the one with the lower expected time
+ * to serve a request is picked. The expected time is the moving average of the host's recent latencies scaled by its
+ * number of open requests, so that a host that is slow but not saturated, e.g. one in a GC pause or compacting, stops
+ * receiving most of the traffic. The moving average decays while a host completes no requests, so a host that was
+ * avoided for being slow is tried again once it has been idle for a few seconds.
+ */
+public final class LatencyAwareHosts {
+    private LatencyAwareHosts() {
+        // Static class
+    }
+
+    public static InetSocketAddress getRandomHost(Map<InetSocketAddress, CassandraClientPoolingContainer> pools) {
+        return getRandomHost(pools, ThreadLocalRandom.current());
+    }
+
+    @VisibleForTesting
+    static InetSocketAddress getRandomHost(
+            Map<InetSocketAddress, CassandraClientPoolingContainer> pools,
+            Random random) {
+        Preconditions.checkArgument(!pools.isEmpty(), "pools should be non-empty");
+        List<CassandraClientPoolingContainer> candidates = new ArrayList<>(pools.values());
+        if (candidates.size() == 1) {
+            return candidates.get(0).getHost();
+        }
+
+        int first = random.nextInt(candidates.size());
+        int second = (first + 1 + random.nextInt(candidates.size() - 1)) % candidates.size();
+        CassandraClientPoolingContainer firstPool = candidates.get(first);
+        CassandraClientPoolingContainer secondPool = candidates.get(second);
+        return expectedCost(firstPool) <= expectedCost(secondPool) ? firstPool.getHost() : secondPool.getHost();
+    }
+
+    /**
+     * Hosts without any latency samples yet have a cost of zero, so they are tried as soon as they are sampled.
+     */
+    private static double expectedCost(CassandraClientPoolingContainer pool) {
+        return (double) pool.getLatencyEwmaNanos() * (Math.max(pool.getOpenRequests(), 0) + 1);
+    }
+}
@@ -17,11 +17,19 @@
 package com.palantir.atlasdb.keyvalue.cassandra.async;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -30,7 +38,10 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.encoding.PtBytes;
@@ -44,6 +55,10 @@ import com.palantir.atlasdb.keyvalue.cassandra.async.queries.CqlQueryContext;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableMultiGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableMultiGetResult;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
 import com.palantir.common.random.RandomBytes;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -59,6 +74,11 @@ public class CassandraAsyncKeyValueServiceTests {
             .keyspace(KEYSPACE)
             .tableReference(TABLE)
             .build();
+    private static final TableReference SINGLE_VERSION_TABLE = TransactionConstants.TRANSACTIONS2_TABLE;
+    private static final CqlQueryContext SINGLE_VERSION_CQL_QUERY_CONTEXT = ImmutableCqlQueryContext.builder()
+            .keyspace(KEYSPACE)
+            .tableReference(SINGLE_VERSION_TABLE)
+            .build();
 
     private AsyncKeyValueService asyncKeyValueService;
     @Mock
@@ -89,8 +109,8 @@ public class CassandraAsyncKeyValueServiceTests {
 
     @Test
     public void testFilteringNonVisible() throws Exception {
-        setUpVisibleCells(VISIBLE_CELL_1);
-        setUpNonVisibleCells(NON_VISIBLE_CELL);
+        setUpRowQuery(CQL_QUERY_CONTEXT, 4, ImmutableList.of(NON_VISIBLE_CELL, VISIBLE_CELL_1),
+                ImmutableList.of(VISIBLE_CELL_1), ImmutableSet.of());
 
         Map<Cell, Long> request = ImmutableMap.of(
                 NON_VISIBLE_CELL, TIMESTAMP,
@@ -102,14 +122,113 @@ public class CassandraAsyncKeyValueServiceTests {
 
     @Test
     public void testAllVisible() throws Exception {
-        setUpVisibleCells(VISIBLE_CELL_1, VISIBLE_CELL_2);
+        setUpRowQuery(CQL_QUERY_CONTEXT, 4, ImmutableList.of(VISIBLE_CELL_1, VISIBLE_CELL_2),
+                ImmutableList.of(VISIBLE_CELL_1, VISIBLE_CELL_2), ImmutableSet.of());
+
+        Map<Cell, Long> request = ImmutableMap.of(
+                VISIBLE_CELL_1, TIMESTAMP,
+                VISIBLE_CELL_2, TIMESTAMP);
+        Map<Cell, Value> result = asyncKeyValueService.getAsync(TABLE, request).get();
+
+        assertThat(result).containsOnlyKeys(VISIBLE_CELL_1, VISIBLE_CELL_2);
+    }
+
+    @Test
+    public void testCellsOfSameRowOfSingleVersionTableReadWithOneQuery() throws Exception {
+        setUpRowQuery(SINGLE_VERSION_CQL_QUERY_CONTEXT, 1,
+                ImmutableList.of(NON_VISIBLE_CELL, VISIBLE_CELL_1, VISIBLE_CELL_2),
+                ImmutableList.of(VISIBLE_CELL_1, VISIBLE_CELL_2), ImmutableSet.of());
+
+        Map<Cell, Long> request = ImmutableMap.of(
+                NON_VISIBLE_CELL, TIMESTAMP,
+                VISIBLE_CELL_1, TIMESTAMP,
+                VISIBLE_CELL_2, TIMESTAMP);
+        asyncKeyValueService.getAsync(SINGLE_VERSION_TABLE, request).get();
+
+        verify(cqlClient).executeQuery(any(MultiGetQuerySpec.class));
+        verifyNoMoreInteractions(cqlClient);
+    }
+
+    @Test
+    public void testCellsOfSameRowOfOtherTablesReadWithOneQueryBoundedByVersions() throws Exception {
+        setUpRowQuery(CQL_QUERY_CONTEXT, 4, ImmutableList.of(VISIBLE_CELL_1, VISIBLE_CELL_2),
+                ImmutableList.of(VISIBLE_CELL_1, VISIBLE_CELL_2), ImmutableSet.of());
+
+        Map<Cell, Long> request = ImmutableMap.of(
+                VISIBLE_CELL_1, TIMESTAMP,
+                VISIBLE_CELL_2, TIMESTAMP);
+        asyncKeyValueService.getAsync(TABLE, request).get();
+
+        verify(cqlClient).executeQuery(any(MultiGetQuerySpec.class));
+        verifyNoMoreInteractions(cqlClient);
+    }
+
+    @Test
+    public void testCellsNotReachedBeforeRowLimitReadOneAtATime() throws Exception {
+        setUpRowQuery(CQL_QUERY_CONTEXT, 4, ImmutableList.of(VISIBLE_CELL_1, NON_VISIBLE_CELL, VISIBLE_CELL_2),
+                ImmutableList.of(VISIBLE_CELL_1), ImmutableSet.of(NON_VISIBLE_CELL, VISIBLE_CELL_2));
+        setUpVisibleCells(VISIBLE_CELL_2);
+        setUpNonVisibleCells(NON_VISIBLE_CELL);
 
         Map<Cell, Long> request = ImmutableMap.of(
                 VISIBLE_CELL_1, TIMESTAMP,
+                NON_VISIBLE_CELL, TIMESTAMP,
                 VISIBLE_CELL_2, TIMESTAMP);
         Map<Cell, Value> result = asyncKeyValueService.getAsync(TABLE, request).get();
 
         assertThat(result).containsOnlyKeys(VISIBLE_CELL_1, VISIBLE_CELL_2);
+        verify(cqlClient).executeQuery(any(MultiGetQuerySpec.class));
+        verify(cqlClient, times(2)).executeQuery(any(GetQuerySpec.class));
+        verifyNoMoreInteractions(cqlClient);
+    }
+
+    @Test
+    public void testCellsOfSameRowAtDifferentTimestampsNotBatched() throws Exception {
+        when(cqlClient.executeQuery(new GetQuerySpec(SINGLE_VERSION_CQL_QUERY_CONTEXT,
+                buildGetQueryParameter(VISIBLE_CELL_1))))
+                .thenReturn(Futures.immediateFuture(Optional.of(Value.create(RandomBytes.ofLength(10), 0))));
+        when(cqlClient.executeQuery(new GetQuerySpec(SINGLE_VERSION_CQL_QUERY_CONTEXT,
+                buildGetQueryParameter(VISIBLE_CELL_2, TIMESTAMP + 1))))
+                .thenReturn(Futures.immediateFuture(Optional.empty()));
+
+        Map<Cell, Long> request = ImmutableMap.of(
+                VISIBLE_CELL_1, TIMESTAMP,
+                VISIBLE_CELL_2, TIMESTAMP + 1);
+        Map<Cell, Value> result = asyncKeyValueService.getAsync(SINGLE_VERSION_TABLE, request).get();
+
+        assertThat(result).containsOnlyKeys(VISIBLE_CELL_1);
+    }
+
+    @Test
+    public void testLargeRowsSplitIntoSeveralQueries() throws Exception {
+        List<Cell> cells = IntStream.range(0, 250)
+                .mapToObj(column -> Cell.create(PtBytes.toBytes(100), PtBytes.toBytes(column)))
+                .collect(Collectors.toList());
+        when(cqlClient.executeQuery(any(MultiGetQuerySpec.class)))
+                .thenReturn(Futures.immediateFuture(ImmutableMultiGetResult.builder().build()));
+
+        Map<Cell, Long> request = Maps.toMap(cells, unused -> TIMESTAMP);
+        asyncKeyValueService.getAsync(SINGLE_VERSION_TABLE, request).get();
+
+        verify(cqlClient, times(3)).executeQuery(any(MultiGetQuerySpec.class));
+    }
+
+    private void setUpRowQuery(
+            CqlQueryContext queryContext,
+            int expectedVersionsPerCell,
+            List<Cell> requestedCells,
+            List<Cell> visibleCells,
+            Set<Cell> unresolvedCells) {
+        MultiGetQuerySpec.MultiGetQueryParameters parameters = ImmutableMultiGetQueryParameters.builder()
+                .cells(requestedCells)
+                .humanReadableTimestamp(TIMESTAMP)
+                .expectedVersionsPerCell(expectedVersionsPerCell)
+                .build();
+        when(cqlClient.executeQuery(new MultiGetQuerySpec(queryContext, parameters)))
+                .thenReturn(Futures.immediateFuture(ImmutableMultiGetResult.builder()
+                        .values(Maps.toMap(visibleCells, unused -> Value.create(RandomBytes.ofLength(10), 0)))
+                        .unresolvedCells(unresolvedCells)
+                        .build()));
     }
 
     private void setUpVisibleCells(Cell... cells) {
@@ -132,9 +251,13 @@ public class CassandraAsyncKeyValueServiceTests {
     }
 
     private static GetQuerySpec.GetQueryParameters buildGetQueryParameter(Cell cell) {
+        return buildGetQueryParameter(cell, TIMESTAMP);
+    }
+
+    private static GetQuerySpec.GetQueryParameters buildGetQueryParameter(Cell cell, long timestamp) {
         return ImmutableGetQueryParameters.builder()
                 .cell(cell)
-                .humanReadableTimestamp(TIMESTAMP)
+                .humanReadableTimestamp(timestamp)
                 .build();
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * (c) Copyright 2019 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.datastax.driver.core.Row;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableMultiGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec.MultiGetResult;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowStreamAccumulator;
+
+public class MultiGetQuerySpecTest {
+    private static final byte[] ROW = PtBytes.toBytes("row");
+    private static final Cell CELL_1 = Cell.create(ROW, PtBytes.toBytes("col1"));
+    private static final Cell CELL_2 = Cell.create(ROW, PtBytes.toBytes("col2"));
+
+    private final MultiGetQuerySpec querySpec = new MultiGetQuerySpec(
+            ImmutableCqlQueryContext.builder()
+                    .keyspace("foo")
+                    .tableReference(TableReference.create(Namespace.DEFAULT_NAMESPACE, "bar"))
+                    .build(),
+            ImmutableMultiGetQueryParameters.builder()
+                    .addCells(CELL_1, CELL_2)
+                    .humanReadableTimestamp(20L)
+                    .expectedVersionsPerCell(2)
+                    .build());
+
+    @Test
+    public void keepsFreshestVersionOfEachColumnAcrossPages() {
+        RowStreamAccumulator<?> accumulator = querySpec.rowStreamAccumulator();
+        accumulator.accumulateRowStream(Stream.of(cqlRow(CELL_1, 15L, "a"), cqlRow(CELL_1, 10L, "b")));
+        accumulator.accumulateRowStream(Stream.of(cqlRow(CELL_1, 5L, "c"), cqlRow(CELL_2, 12L, "d")));
+
+        MultiGetResult result = querySpec.rowStreamAccumulator().result();
+        assertThat(result.values()).hasSize(2);
+        assertThat(result.values().get(CELL_1).getTimestamp()).isEqualTo(15L);
+        assertThat(result.values().get(CELL_1).getContents()).isEqualTo(PtBytes.toBytes("a"));
+        assertThat(result.values().get(CELL_2).getTimestamp()).isEqualTo(12L);
+        assertThat(result.unresolvedCells()).isEmpty();
+    }
+
+    @Test
+    public void returnsEmptyResultIfNothingVisible() {
+        querySpec.rowStreamAccumulator().accumulateRowStream(Stream.empty());
+
+        assertThat(querySpec.rowStreamAccumulator().result().values()).isEmpty();
+        assertThat(querySpec.rowStreamAccumulator().result().unresolvedCells()).isEmpty();
+    }
+
+    @Test
+    public void cellsNotReachedBeforeRowLimitAreUnresolved() {
+        querySpec.rowStreamAccumulator().accumulateRowStream(Stream.of(
+                cqlRow(CELL_1, 15L, "a"),
+                cqlRow(CELL_1, 10L, "b"),
+                cqlRow(CELL_1, 5L, "c"),
+                cqlRow(CELL_1, 3L, "d")));
+
+        MultiGetResult result = querySpec.rowStreamAccumulator().result();
+        assertThat(result.values()).containsOnlyKeys(CELL_1);
+        assertThat(result.values().get(CELL_1).getTimestamp()).isEqualTo(15L);
+        assertThat(result.unresolvedCells()).containsExactly(CELL_2);
+    }
+
+    @Test
+    public void allCellsResolvedIfEachReturnedAtRowLimit() {
+        querySpec.rowStreamAccumulator().accumulateRowStream(Stream.of(
+                cqlRow(CELL_1, 15L, "a"),
+                cqlRow(CELL_1, 10L, "b"),
+                cqlRow(CELL_1, 5L, "c"),
+                cqlRow(CELL_2, 12L, "d")));
+
+        assertThat(querySpec.rowStreamAccumulator().result().values()).containsOnlyKeys(CELL_1, CELL_2);
+        assertThat(querySpec.rowStreamAccumulator().result().unresolvedCells()).isEmpty();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cellsMustBelongToTheSameRow() {
+        ImmutableMultiGetQueryParameters.builder()
+                .addCells(CELL_1, Cell.create(PtBytes.toBytes("other"), PtBytes.toBytes("col1")))
+                .humanReadableTimestamp(20L)
+                .expectedVersionsPerCell(1)
+                .build();
+    }
+
+    private static Row cqlRow(Cell cell, long timestamp, String value) {
+        Row row = mock(Row.class);
+        when(row.getBytes(0)).thenReturn(ByteBuffer.wrap(cell.getColumnName()));
+        when(row.getLong(1)).thenReturn(~timestamp);
+        when(row.getBytes(2)).thenReturn(ByteBuffer.wrap(PtBytes.toBytes(value)));
+        return row;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class DecayingLatencyEwmaTest {
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final DecayingLatencyEwma ewma = new DecayingLatencyEwma(clock::get);
+
+    @Test
+    public void isZeroWithoutSamples() {
+        assertThat(ewma.getNanos()).isZero();
+    }
+
+    @Test
+    public void firstSampleIsTheAverage() {
+        ewma.record(100 * MILLISECOND);
+
+        assertThat(ewma.getNanos()).isEqualTo(100 * MILLISECOND);
+    }
+
+    @Test
+    public void samplesInQuickSuccessionAreAveraged() {
+        ewma.record(100 * MILLISECOND);
+        ewma.record(200 * MILLISECOND);
+
+        assertThat(ewma.getNanos()).isEqualTo(120 * MILLISECOND);
+    }
+
+    @Test
+    public void decaysWhileIdle() {
+        ewma.record(100 * MILLISECOND);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        long decayedOnce = ewma.getNanos();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertThat(decayedOnce).isBetween(36 * MILLISECOND, 37 * MILLISECOND);
+        assertThat(ewma.getNanos()).isLessThan(MILLISECOND);
+    }
+
+    @Test
+    public void firstSampleAfterLongIdlePeriodReplacesStaleAverage() {
+        ewma.record(1_000 * MILLISECOND);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        ewma.record(10 * MILLISECOND);
+
+        assertThat(ewma.getNanos()).isBetween(10 * MILLISECOND, 11 * MILLISECOND);
+    }
+}
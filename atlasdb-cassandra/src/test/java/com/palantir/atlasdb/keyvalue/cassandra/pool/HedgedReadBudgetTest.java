@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class HedgedReadBudgetTest {
+    @Test
+    public void reservesOneTokenPerRatioOfReads() {
+        HedgedReadBudget budget = new HedgedReadBudget(() -> 0.25);
+
+        assertThat(IntStream.range(0, 3).mapToObj(unused -> budget.tryReserve())).containsOnly(false);
+        assertThat(budget.tryReserve()).isTrue();
+        assertThat(budget.tryReserve()).isFalse();
+    }
+
+    @Test
+    public void limitsHedgesToRatioOfReads() {
+        HedgedReadBudget budget = new HedgedReadBudget(() -> 0.05);
+
+        long reserved = IntStream.range(0, 10_000).filter(unused -> budget.tryReserve()).count();
+
+        assertThat(reserved).isBetween(495L, 500L);
+    }
+
+    @Test
+    public void releasedTokensCanBeReservedAgain() {
+        HedgedReadBudget budget = new HedgedReadBudget(() -> 0.5);
+        budget.tryReserve();
+        assertThat(budget.tryReserve()).isTrue();
+
+        budget.release();
+
+        assertThat(budget.tryReserve()).isTrue();
+    }
+
+    @Test
+    public void tokensAreCapped() {
+        HedgedReadBudget budget = new HedgedReadBudget(() -> 1.0);
+        IntStream.range(0, 100).forEach(unused -> budget.release());
+
+        assertThat(budget.getTokens()).isEqualTo(HedgedReadBudget.MAX_TOKENS);
+    }
+
+    @Test
+    public void neverReservesIfRatioIsZero() {
+        HedgedReadBudget budget = new HedgedReadBudget(() -> 0.0);
+
+        assertThat(IntStream.range(0, 1_000).filter(unused -> budget.tryReserve()).count()).isZero();
+    }
+}
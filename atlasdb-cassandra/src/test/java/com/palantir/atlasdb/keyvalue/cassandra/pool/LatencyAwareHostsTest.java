@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+
+public class LatencyAwareHostsTest {
+    private static final InetSocketAddress HOST_1 = new InetSocketAddress(1);
+    private static final InetSocketAddress HOST_2 = new InetSocketAddress(2);
+    private static final InetSocketAddress HOST_3 = new InetSocketAddress(3);
+
+    private final Random random = new Random(0);
+
+    @Test
+    public void picksOnlyHost() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, createMockPool(HOST_1, 1_000_000, 100));
+
+        assertThat(LatencyAwareHosts.getRandomHost(pools, random)).isEqualTo(HOST_1);
+    }
+
+    @Test
+    public void picksFasterOfTwoHosts() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, createMockPool(HOST_1, 50_000_000, 0),
+                HOST_2, createMockPool(HOST_2, 1_000_000, 0));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(LatencyAwareHosts.getRandomHost(pools, random)).isEqualTo(HOST_2);
+        }
+    }
+
+    @Test
+    public void accountsForOpenRequests() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, createMockPool(HOST_1, 1_000_000, 20),
+                HOST_2, createMockPool(HOST_2, 2_000_000, 0));
+
+        assertThat(LatencyAwareHosts.getRandomHost(pools, random)).isEqualTo(HOST_2);
+    }
+
+    @Test
+    public void prefersHostsWithoutLatencySamples() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, createMockPool(HOST_1, 1_000_000, 0),
+                HOST_2, createMockPool(HOST_2, 0, 0));
+
+        assertThat(LatencyAwareHosts.getRandomHost(pools, random)).isEqualTo(HOST_2);
+    }
+
+    @Test
+    public void neverPicksSlowestOfThreeHosts() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, createMockPool(HOST_1, 1_000_000, 0),
+                HOST_2, createMockPool(HOST_2, 2_000_000, 0),
+                HOST_3, createMockPool(HOST_3, 100_000_000, 0));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(LatencyAwareHosts.getRandomHost(pools, random)).isNotEqualTo(HOST_3);
+        }
+    }
+
+    @Test
+    public void throwsOnEmptyPools() {
+        assertThatThrownBy(() -> LatencyAwareHosts.getRandomHost(ImmutableMap.of(), random))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CassandraClientPoolingContainer createMockPool(
+            InetSocketAddress host,
+            long latencyEwmaNanos,
+            int openRequests) {
+        CassandraClientPoolingContainer pool = mock(CassandraClientPoolingContainer.class);
+        when(pool.getHost()).thenReturn(host);
+        when(pool.getLatencyEwmaNanos()).thenReturn(latencyEwmaNanos);
+        when(pool.getOpenRequests()).thenReturn(openRequests);
+        return pool;
+    }
+}
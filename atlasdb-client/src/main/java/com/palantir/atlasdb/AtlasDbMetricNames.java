@@ -38,6 +38,8 @@ public final class AtlasDbMetricNames {
     public static final String SNAPSHOT_TRANSACTION_TOO_MANY_BYTES_READ = "tooManyBytesRead";
     public static final String SNAPSHOT_TRANSACTION_BYTES_WRITTEN = "bytesWritten";
     public static final String NUMBER_OF_TRANSACTIONS_READ_FROM_DB = "transactionsReadFromDB";
+    public static final String SERIALIZABLE_TRANSACTION_READ_VERIFICATION = "readVerification";
+    public static final String LOCK_WATCH_CACHE_HITS = "lockWatchCacheHits";
 
     public static final String CELLS_EXAMINED = "cellTimestampPairsExamined";
     public static final String CELLS_SWEPT = "staleValuesDeleted";
@@ -33,9 +33,10 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Futures;
 import com.palantir.atlasdb.autobatch.Autobatchers;
 import com.palantir.atlasdb.autobatch.CoalescingRequestFunction;
@@ -48,22 +49,35 @@ import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
 
 import okio.ByteString;
 
+/**
+ * An {@link OffHeapCache} backed by a {@link PersistentStore}.
+ *
+ * Entries are written to a sequence of store spaces (segments). New entries always go to the newest segment; once it
+ * holds its share of {@code maxSize} entries, a new segment is created and, if there are more than
+ * {@code numSegments} segments, the oldest one is dropped. Since entries are mostly cached in increasing start
+ * timestamp order, this evicts roughly the oldest {@code 1 / numSegments} of the cache at a time instead of wiping it
+ * entirely. Reads check segments from newest to oldest.
+ */
 public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
     private static final Logger log = LoggerFactory.getLogger(DefaultOffHeapCache.class);
     private static final String BATCHER_PURPOSE = "off-heap-cache";
+    private static final int DEFAULT_NUM_SEGMENTS = 4;
     private static final MetricName CACHE_HIT = constructCacheMetricName("cacheHit");
     private static final MetricName CACHE_MISS = constructCacheMetricName("cacheMiss");
     private static final MetricName CACHE_NUKE = constructCacheMetricName("cacheNuke");
+    private static final MetricName CACHE_SEGMENT_EVICTION = constructCacheMetricName("cacheSegmentEviction");
     private static final MetricName CACHE_SIZE = constructCacheMetricName("cacheSize");
 
     private final PersistentStore persistentStore;
     private final EntryMapper<K, V> entryMapper;
     private final LongSupplier maxSize;
-    private final AtomicReference<CacheDescriptor> cacheDescriptor = new AtomicReference<>();
+    private final int numSegments;
+    private final AtomicReference<List<CacheDescriptor>> segments = new AtomicReference<>();
     private final DisruptorAutobatcher<Map.Entry<K, V>, Void> valuePutter;
     private final Meter cacheHit;
     private final Meter cacheMiss;
     private final Counter cacheNuke;
+    private final Counter cacheSegmentEviction;
 
     public interface EntryMapper<K, V> {
         ByteString serializeKey(K key);
@@ -77,18 +91,22 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
             EntryMapper<K, V> entryMapper,
             TaggedMetricRegistry taggedMetricRegistry,
             LongSupplier maxSize) {
-        PersistentStore.Handle handle = persistentStore.createSpace();
-
-        CacheDescriptor cacheDescriptor = ImmutableCacheDescriptor.builder()
-                .currentSize(new AtomicInteger())
-                .handle(handle)
-                .build();
+        return create(persistentStore, entryMapper, taggedMetricRegistry, maxSize, DEFAULT_NUM_SEGMENTS);
+    }
 
-        return new DefaultOffHeapCache(
+    @VisibleForTesting
+    static <K, V> OffHeapCache<K, V> create(
+            PersistentStore persistentStore,
+            EntryMapper<K, V> entryMapper,
+            TaggedMetricRegistry taggedMetricRegistry,
+            LongSupplier maxSize,
+            int numSegments) {
+        return new DefaultOffHeapCache<>(
                 persistentStore,
                 entryMapper,
-                cacheDescriptor,
+                createNamespaceAndConstructCacheProposal(persistentStore),
                 maxSize,
+                numSegments,
                 taggedMetricRegistry);
     }
 
@@ -97,18 +115,23 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
             EntryMapper<K, V> entryMapper,
             CacheDescriptor cacheDescriptor,
             LongSupplier maxSize,
+            int numSegments,
             TaggedMetricRegistry taggedMetricRegistry) {
         this.persistentStore = persistentStore;
         this.entryMapper = entryMapper;
-        this.cacheDescriptor.set(cacheDescriptor);
+        this.segments.set(ImmutableList.of(cacheDescriptor));
         this.maxSize = maxSize;
+        this.numSegments = numSegments;
         this.cacheHit = taggedMetricRegistry.meter(CACHE_HIT);
         this.cacheMiss = taggedMetricRegistry.meter(CACHE_MISS);
         this.cacheNuke = taggedMetricRegistry.counter(CACHE_NUKE);
+        this.cacheSegmentEviction = taggedMetricRegistry.counter(CACHE_SEGMENT_EVICTION);
         this.valuePutter = Autobatchers.coalescing(new WriteBatcher<>(this))
                 .safeLoggablePurpose(BATCHER_PURPOSE)
                 .build();
-        Gauge<Integer> cacheSizeGauge = () -> this.cacheDescriptor.get().currentSize().intValue();
+        Gauge<Integer> cacheSizeGauge = () -> this.segments.get().stream()
+                .mapToInt(segment -> segment.currentSize().intValue())
+                .sum();
         taggedMetricRegistry.gauge(CACHE_SIZE, cacheSizeGauge);
     }
 
@@ -116,10 +139,9 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
     public void clear() {
         CacheDescriptor proposedCacheDescriptor = createNamespaceAndConstructCacheProposal(persistentStore);
 
-        CacheDescriptor previous = cacheDescriptor.getAndUpdate(prev -> proposedCacheDescriptor);
-        if (previous != null) {
-            persistentStore.dropStoreSpace(previous.handle());
-        }
+        List<CacheDescriptor> previous = segments.getAndSet(ImmutableList.of(proposedCacheDescriptor));
+        cacheNuke.inc();
+        previous.forEach(this::dropSegment);
     }
 
     @Override
@@ -130,11 +152,73 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
     @Override
     public Optional<V> get(K key) {
         ByteString serializedKey = entryMapper.serializeKey(key);
-        Optional<ByteString> value = persistentStore.get(cacheDescriptor.get().handle(), serializedKey);
+        Optional<ByteString> value = Optional.empty();
+        for (CacheDescriptor segment : segments.get()) {
+            value = getFromSegment(segment, serializedKey);
+            if (value.isPresent()) {
+                break;
+            }
+        }
         getCacheMeter(value.isPresent()).mark();
         return value.map(v -> entryMapper.deserializeValue(serializedKey, v));
     }
 
+    private Optional<ByteString> getFromSegment(CacheDescriptor segment, ByteString serializedKey) {
+        try {
+            return persistentStore.get(segment.handle(), serializedKey);
+        } catch (SafeIllegalArgumentException exception) {
+            // happens when the segment is dropped by a concurrent rotation or clear
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Starts a new segment if the newest one is full, dropping the oldest segment if there are too many. Only called
+     * from the single write batcher thread, so rotations never race with each other; they may race with
+     * {@link #clear()}, in which case the rotation is abandoned.
+     */
+    private CacheDescriptor maybeRotate() {
+        List<CacheDescriptor> current = segments.get();
+        CacheDescriptor newest = current.get(0);
+        if (newest.currentSize().get() < segmentCapacity()) {
+            return newest;
+        }
+
+        CacheDescriptor proposal = createNamespaceAndConstructCacheProposal(persistentStore);
+        List<CacheDescriptor> rotated = ImmutableList.<CacheDescriptor>builder()
+                .add(proposal)
+                .addAll(current.subList(0, Math.min(current.size(), effectiveSegments() - 1)))
+                .build();
+        if (!segments.compareAndSet(current, rotated)) {
+            dropSegment(proposal);
+            return segments.get().get(0);
+        }
+        current.subList(rotated.size() - 1, current.size()).forEach(evicted -> {
+            cacheSegmentEviction.inc();
+            dropSegment(evicted);
+        });
+        return proposal;
+    }
+
+    private long segmentCapacity() {
+        return Math.max(1, maxSize.getAsLong() / effectiveSegments());
+    }
+
+    /**
+     * Caches smaller than the number of segments use one single-entry segment per cached entry instead.
+     */
+    private int effectiveSegments() {
+        return (int) Math.max(1, Math.min(numSegments, maxSize.getAsLong()));
+    }
+
+    private void dropSegment(CacheDescriptor segment) {
+        try {
+            persistentStore.dropStoreSpace(segment.handle());
+        } catch (SafeIllegalArgumentException exception) {
+            log.warn("Off-heap cache segment was already dropped", exception);
+        }
+    }
+
     private Meter getCacheMeter(boolean cacheOutcome) {
         return cacheOutcome ? cacheHit : cacheMiss;
     }
@@ -162,29 +246,19 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
 
         @Override
         public Map<Map.Entry<K, V>, Void> apply(Set<Map.Entry<K, V>> request) {
-            CacheDescriptor cacheDescriptor = offHeapCache.cacheDescriptor.get();
-            if (cacheDescriptor.currentSize().get() >= offHeapCache.maxSize.getAsLong()) {
-                offHeapCache.cacheNuke.inc();
-                offHeapCache.clear();
-            }
-            cacheDescriptor = offHeapCache.cacheDescriptor.get();
+            CacheDescriptor cacheDescriptor = offHeapCache.maybeRotate();
             Set<Map.Entry<ByteString, ByteString>> serializedRequest = request.stream()
                     .map(this::serializeEntry)
                     .collect(Collectors.toSet());
             try {
-                List<ByteString> toWrite = serializedRequest.stream()
-                        .map(Map.Entry::getKey)
-                        .collect(Collectors.toList());
-                Map<ByteString, ByteString> response =
-                        offHeapCache.persistentStore.get(cacheDescriptor.handle(), toWrite);
-
-                int sizeIncrease = Sets.difference(request, response.entrySet()).size();
-                cacheDescriptor.currentSize().addAndGet(sizeIncrease);
+                // start timestamps are cached at most once in the common case, so every write is counted as a new
+                // entry instead of reading the segment first; overwrites only make the segment rotate a little early
                 offHeapCache.persistentStore.put(
                         cacheDescriptor.handle(),
                         ImmutableMap.copyOf(serializedRequest));
+                cacheDescriptor.currentSize().addAndGet(serializedRequest.size());
             } catch (SafeIllegalArgumentException exception) {
-                // happens when a store is dropped by a concurrent call to clear
+                // happens when a segment is dropped by a concurrent call to clear
                 log.warn("Clear called concurrently, writing failed", exception);
             }
             return KeyedStream.of(request.stream()).<Void>map(value -> null).collectToMap();
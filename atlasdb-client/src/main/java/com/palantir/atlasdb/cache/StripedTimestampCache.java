@@ -0,0 +1,284 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.IntMath;
+import com.palantir.logsafe.Preconditions;
+
+/**
+ * A {@link TimestampCache} that stores start and commit timestamps in primitive arrays, so that neither lookups nor
+ * insertions allocate per-entry objects.
+ *
+ * The cache is split into a fixed number of stripes, each guarded by its own {@link StampedLock}. Within a stripe,
+ * entries are organised as a set-associative table: a start timestamp hashes to a bucket of {@link #WAYS} adjacent
+ * slots, and a lookup scans only that bucket under an optimistic read. When a bucket is full, a slot is chosen for
+ * replacement with the CLOCK algorithm: every hit sets the slot's reference bit, and the bucket's clock hand skips
+ * (and clears) referenced slots before evicting the first unreferenced one.
+ *
+ * The configured size is checked periodically on insertion rather than on every lookup. When it changes, stripes are
+ * reallocated lazily and their contents dropped.
+ */
+public final class StripedTimestampCache implements TimestampCache {
+    @VisibleForTesting
+    static final int WAYS = 8;
+    private static final int DEFAULT_STRIPES = 64;
+    private static final int RESIZE_CHECK_SHIFT = 22;
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final LongSupplier size;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int stripeBits;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile long currentSize;
+
+    @VisibleForTesting
+    StripedTimestampCache(LongSupplier size, int numStripes) {
+        Preconditions.checkArgument(IntMath.isPowerOfTwo(numStripes), "Number of stripes must be a power of two");
+        this.size = size;
+        this.currentSize = size.getAsLong();
+        this.stripes = new Stripe[numStripes];
+        this.stripeMask = numStripes - 1;
+        this.stripeBits = Integer.numberOfTrailingZeros(numStripes);
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new Stripe(bucketsPerStripe(currentSize, numStripes));
+        }
+    }
+
+    public StripedTimestampCache(MetricRegistry metricRegistry, LongSupplier size) {
+        this(size, DEFAULT_STRIPES);
+        registerMetrics(metricRegistry, MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp"));
+    }
+
+    public static TimestampCache createForTests() {
+        return new StripedTimestampCache(new MetricRegistry(), () -> 1000L);
+    }
+
+    @Override
+    @Nullable
+    public Long getCommitTimestampIfPresent(Long startTimestamp) {
+        long key = startTimestamp;
+        if (key == EMPTY) {
+            return null;
+        }
+        int hash = hash(key);
+        long commitTimestamp = stripes[hash & stripeMask].get(key, hash >>> stripeBits);
+        if (commitTimestamp == EMPTY) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return commitTimestamp;
+    }
+
+    @Override
+    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
+        long key = startTimestamp;
+        if (key == EMPTY) {
+            return;
+        }
+        int hash = hash(key);
+        maybeResize(hash);
+        if (stripes[hash & stripeMask].put(key, commitTimestamp, hash >>> stripeBits)) {
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public void clear() {
+        long newSize = size.getAsLong();
+        currentSize = newSize;
+        int buckets = bucketsPerStripe(newSize, stripes.length);
+        for (Stripe stripe : stripes) {
+            stripe.reset(buckets);
+        }
+    }
+
+    /**
+     * Re-reads the configured size for roughly one in every thousand insertions, selected by the otherwise unused
+     * high bits of the key's hash, to avoid both a shared counter and a supplier call on every operation.
+     */
+    private void maybeResize(int hash) {
+        if ((hash >>> RESIZE_CHECK_SHIFT) != 0) {
+            return;
+        }
+        long newSize = size.getAsLong();
+        if (newSize != currentSize) {
+            clear();
+        }
+    }
+
+    private void registerMetrics(MetricRegistry metricRegistry, String prefix) {
+        if (metricRegistry.getMetrics().keySet().stream().anyMatch(name -> name.startsWith(prefix))) {
+            return;
+        }
+        metricRegistry.register(MetricRegistry.name(prefix, "hit", "count"), (Gauge<Long>) hits::sum);
+        metricRegistry.register(MetricRegistry.name(prefix, "miss", "count"), (Gauge<Long>) misses::sum);
+        metricRegistry.register(MetricRegistry.name(prefix, "eviction", "count"), (Gauge<Long>) evictions::sum);
+        metricRegistry.register(MetricRegistry.name(prefix, "hit", "ratio"), (Gauge<Double>) () -> {
+            long hitCount = hits.sum();
+            long requestCount = hitCount + misses.sum();
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        });
+    }
+
+    private static int hash(long key) {
+        long mixed = key * HASH_MULTIPLIER;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static int bucketsPerStripe(long totalSize, int numStripes) {
+        long entriesPerStripe = Math.max(1, (totalSize + numStripes - 1) / numStripes);
+        long buckets = Math.max(1, (entriesPerStripe + WAYS - 1) / WAYS);
+        return IntMath.ceilingPowerOfTwo((int) Math.min(buckets, 1 << 24));
+    }
+
+    /**
+     * A set-associative table of {@code buckets * WAYS} slots. Keys and values for a bucket are stored contiguously
+     * in parallel arrays. Reference bits are only hints, so hits set them without holding the write lock.
+     */
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+
+        private long[] keys;
+        private long[] values;
+        private boolean[] referenced;
+        private byte[] hands;
+        private int bucketMask;
+
+        Stripe(int buckets) {
+            allocate(buckets);
+        }
+
+        long get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            long result = find(key, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    result = find(key, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return result;
+        }
+
+        private long find(long key, int hash) {
+            long[] currentKeys = keys;
+            long[] currentValues = values;
+            boolean[] currentReferenced = referenced;
+            int base = (hash & bucketMask) * WAYS;
+            if (base + WAYS > currentKeys.length
+                    || currentKeys.length != currentValues.length
+                    || currentKeys.length != currentReferenced.length) {
+                // torn read of a concurrent resize; the caller will validate and retry under the read lock
+                return EMPTY;
+            }
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (currentKeys[slot] == key) {
+                    currentReferenced[slot] = true;
+                    return currentValues[slot];
+                }
+            }
+            return EMPTY;
+        }
+
+        /**
+         * Inserts the entry and returns whether a live entry had to be evicted to make room for it.
+         */
+        boolean put(long key, long value, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                int bucket = hash & bucketMask;
+                int base = bucket * WAYS;
+                int free = -1;
+                for (int slot = base; slot < base + WAYS; slot++) {
+                    if (keys[slot] == key) {
+                        values[slot] = value;
+                        return false;
+                    }
+                    if (free == -1 && keys[slot] == EMPTY) {
+                        free = slot;
+                    }
+                }
+                if (free != -1) {
+                    store(free, key, value);
+                    return false;
+                }
+                store(base + advanceClock(bucket, base), key, value);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int advanceClock(int bucket, int base) {
+            int hand = hands[bucket];
+            while (referenced[base + hand]) {
+                referenced[base + hand] = false;
+                hand = (hand + 1) % WAYS;
+            }
+            hands[bucket] = (byte) ((hand + 1) % WAYS);
+            return hand;
+        }
+
+        private void store(int slot, long key, long value) {
+            keys[slot] = key;
+            values[slot] = value;
+            referenced[slot] = false;
+        }
+
+        void reset(int buckets) {
+            long stamp = lock.writeLock();
+            try {
+                if (buckets == bucketMask + 1) {
+                    Arrays.fill(keys, EMPTY);
+                    Arrays.fill(referenced, false);
+                } else {
+                    allocate(buckets);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void allocate(int buckets) {
+            keys = new long[buckets * WAYS];
+            values = new long[buckets * WAYS];
+            referenced = new boolean[buckets * WAYS];
+            hands = new byte[buckets];
+            bucketMask = buckets - 1;
+            Arrays.fill(keys, EMPTY);
+        }
+    }
+}
@@ -171,6 +171,11 @@ public class DualWriteKeyValueService implements KeyValueService {
         return delegate1.getFirstBatchForRanges(tableRef, rangeRequests, timestamp);
     }
 
+    @Override
+    public List<RangeRequest> getTableSplits(TableReference tableRef, int desiredParallelism) {
+        return delegate1.getTableSplits(tableRef, desiredParallelism);
+    }
+
     @Override
     public void dropTable(TableReference tableRef) {
         delegate1.dropTable(tableRef);
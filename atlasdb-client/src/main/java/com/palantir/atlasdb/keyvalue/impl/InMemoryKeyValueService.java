@@ -167,6 +167,17 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
         return KeyValueServices.getFirstBatchForRangesUsingGetRange(this, tableRef, rangeRequests, timestamp);
     }
 
+    @Override
+    public List<RangeRequest> getTableSplits(TableReference tableRef, int desiredParallelism) {
+        List<byte[]> rows = new ArrayList<>();
+        for (Key key : getTableMap(tableRef).entries.keySet()) {
+            if (rows.isEmpty() || !key.matchesRow(rows.get(rows.size() - 1))) {
+                rows.add(key.row);
+            }
+        }
+        return TableSplits.splitAt(TableSplits.evenlySpacedBoundaries(rows, desiredParallelism));
+    }
+
     @Override
     public ClosableIterator<RowResult<Value>> getRange(
             TableReference tableRef,
@@ -256,6 +256,12 @@ public final class ProfilingKeyValueService implements KeyValueService {
                 logTimeAndTable("getFirstBatchForRanges", tableRef));
     }
 
+    @Override
+    public List<RangeRequest> getTableSplits(TableReference tableRef, int desiredParallelism) {
+        return maybeLog(() -> delegate.getTableSplits(tableRef, desiredParallelism),
+                logTimeAndTable("getTableSplits", tableRef));
+    }
+
     @Override
     public Map<Cell, Long> getLatestTimestamps(TableReference tableRef, Map<Cell, Long> timestampByCell) {
         return maybeLog(() -> delegate.getLatestTimestamps(tableRef, timestampByCell),
@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+
+/**
+ * Helpers for implementing {@link KeyValueService#getTableSplits}.
+ */
+public final class TableSplits {
+    private TableSplits() {
+        // utility
+    }
+
+    /**
+     * Returns ranges that together cover all rows, split at each of the given boundaries. The boundaries must be
+     * sorted; empty and repeated boundaries are ignored.
+     */
+    public static List<RangeRequest> splitAt(List<byte[]> sortedBoundaries) {
+        List<RangeRequest> splits = new ArrayList<>(sortedBoundaries.size() + 1);
+        byte[] start = PtBytes.EMPTY_BYTE_ARRAY;
+        for (byte[] boundary : sortedBoundaries) {
+            if (PtBytes.compareTo(boundary, start) > 0) {
+                splits.add(RangeRequest.builder().startRowInclusive(start).endRowExclusive(boundary).build());
+                start = boundary;
+            }
+        }
+        splits.add(RangeRequest.builder().startRowInclusive(start).build());
+        return splits;
+    }
+
+    /**
+     * Picks up to {@code desiredParallelism - 1} boundaries from the given sorted candidates, so that splitting at
+     * them yields at most {@code desiredParallelism} ranges containing similar numbers of candidates.
+     */
+    public static List<byte[]> evenlySpacedBoundaries(List<byte[]> sortedCandidates, int desiredParallelism) {
+        List<byte[]> boundaries = new ArrayList<>(Math.max(desiredParallelism - 1, 0));
+        for (int split = 1; split < desiredParallelism; split++) {
+            int index = (int) ((long) split * sortedCandidates.size() / desiredParallelism);
+            if (index > 0 && index < sortedCandidates.size()) {
+                boundaries.add(sortedCandidates.get(index));
+            }
+        }
+        return boundaries;
+    }
+}
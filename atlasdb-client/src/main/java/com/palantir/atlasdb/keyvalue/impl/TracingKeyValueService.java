@@ -253,6 +253,15 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         }
     }
 
+    @Override
+    public List<RangeRequest> getTableSplits(TableReference tableRef, int desiredParallelism) {
+        //noinspection unused - try-with-resources closes trace
+        try (CloseableTrace trace = startLocalTrace("getTableSplits({}, {} splits)",
+                LoggingArgs.safeTableOrPlaceholder(tableRef), desiredParallelism)) {
+            return delegate().getTableSplits(tableRef, desiredParallelism);
+        }
+    }
+
     @Override
     public Map<Cell, Long> getLatestTimestamps(TableReference tableRef,
             Map<Cell, Long> timestampByCell) {
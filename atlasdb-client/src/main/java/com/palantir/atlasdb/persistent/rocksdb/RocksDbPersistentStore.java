@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -38,14 +39,20 @@ import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import com.palantir.atlasdb.persistent.api.PersistentStore;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.ClosableIterators;
 import com.palantir.common.streams.KeyedStream;
 import com.palantir.logsafe.Preconditions;
 import com.palantir.tracing.Tracers.ThrowingCallable;
@@ -98,7 +105,75 @@ public final class RocksDbPersistentStore implements PersistentStore {
 
     @Override
     public void put(PersistentStore.Handle handle, Map<ByteString, ByteString> toWrite) {
-        KeyedStream.stream(toWrite).forEach((key, value) -> put(handle, key, value));
+        checkStoreSpaceExists(handle);
+        try {
+            writeBatch(
+                    availableColumnFamilies.get(handle.id()),
+                    new PersistentStore.WriteBatch.Builder().puts(toWrite).build());
+        } catch (RocksDBException exception) {
+            log.warn("Rocks db raised an exception", exception);
+        }
+    }
+
+    @Override
+    public ClosableIterator<Map.Entry<ByteString, ByteString>> getRange(
+            PersistentStore.Handle handle,
+            @Nonnull ByteString startInclusive,
+            @Nonnull ByteString endExclusive) {
+        checkStoreSpaceExists(handle);
+
+        RocksIterator iterator = rocksDB.newIterator(availableColumnFamilies.get(handle.id()));
+        iterator.seek(startInclusive.toByteArray());
+        return ClosableIterators.wrap(new RangeIterator(iterator, endExclusive), iterator::close);
+    }
+
+    @Override
+    public void delete(PersistentStore.Handle handle, Set<ByteString> keys) {
+        write(handle, new PersistentStore.WriteBatch.Builder().deletes(keys).build());
+    }
+
+    @Override
+    public void deleteRange(
+            PersistentStore.Handle handle,
+            @Nonnull ByteString startInclusive,
+            @Nonnull ByteString endExclusive) {
+        checkStoreSpaceExists(handle);
+        ColumnFamilyHandle columnFamilyHandle = availableColumnFamilies.get(handle.id());
+
+        callWithExceptionHandling(() -> {
+            try (WriteBatch writeBatch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+                if (endExclusive.size() > 0) {
+                    writeBatch.deleteRange(
+                            columnFamilyHandle,
+                            startInclusive.toByteArray(),
+                            endExclusive.toByteArray());
+                } else {
+                    // DeleteRange needs an upper bound, so delete up to and including the current last key
+                    Optional<ByteString> lastKey = getLastKey(columnFamilyHandle);
+                    if (!lastKey.isPresent() || lastKey.get().compareTo(startInclusive) < 0) {
+                        return null;
+                    }
+                    writeBatch.deleteRange(
+                            columnFamilyHandle,
+                            startInclusive.toByteArray(),
+                            lastKey.get().toByteArray());
+                    writeBatch.delete(columnFamilyHandle, lastKey.get().toByteArray());
+                }
+                rocksDB.write(writeOptions, writeBatch);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void write(PersistentStore.Handle handle, PersistentStore.WriteBatch writeBatch) {
+        checkStoreSpaceExists(handle);
+        ColumnFamilyHandle columnFamilyHandle = availableColumnFamilies.get(handle.id());
+
+        callWithExceptionHandling(() -> {
+            writeBatch(columnFamilyHandle, writeBatch);
+            return null;
+        });
     }
 
     @Override
@@ -153,11 +228,16 @@ public final class RocksDbPersistentStore implements PersistentStore {
         }
     }
 
+    /**
+     * Returns values positionally aligned with {@code keys}, with null for keys that are not present.
+     */
     private List<ByteString> multiGetValueByteStrings(ColumnFamilyHandle columnFamilyHandle, List<ByteString> keys) {
         List<byte[]> values = multiGetValueBytes(
                 columnFamilyHandle,
                 keys.stream().map(ByteString::toByteArray).collect(Collectors.toList()));
-        return values.stream().filter(Objects::nonNull).map(ByteString::of).collect(Collectors.toList());
+        return values.stream()
+                .map(value -> value == null ? null : ByteString.of(value))
+                .collect(Collectors.toList());
     }
 
     private List<byte[]> multiGetValueBytes(ColumnFamilyHandle columnFamilyHandle, List<byte[]> keys) {
@@ -169,6 +249,26 @@ public final class RocksDbPersistentStore implements PersistentStore {
         }
     }
 
+    private Optional<ByteString> getLastKey(ColumnFamilyHandle columnFamilyHandle) {
+        try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
+            iterator.seekToLast();
+            return iterator.isValid() ? Optional.of(ByteString.of(iterator.key())) : Optional.empty();
+        }
+    }
+
+    private void writeBatch(ColumnFamilyHandle columnFamilyHandle, PersistentStore.WriteBatch toWrite)
+            throws RocksDBException {
+        try (WriteBatch writeBatch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            for (ByteString key : toWrite.deletes()) {
+                writeBatch.delete(columnFamilyHandle, key.toByteArray());
+            }
+            for (Map.Entry<ByteString, ByteString> entry : toWrite.puts().entrySet()) {
+                writeBatch.put(columnFamilyHandle, entry.getKey().toByteArray(), entry.getValue().toByteArray());
+            }
+            rocksDB.write(writeOptions, writeBatch);
+        }
+    }
+
     private void putEntry(ColumnFamilyHandle columnFamilyHandle, ByteString key, ByteString value) {
         try {
             rocksDB.put(columnFamilyHandle, key.toByteArray(), value.toByteArray());
@@ -185,4 +285,35 @@ public final class RocksDbPersistentStore implements PersistentStore {
             throw new RuntimeException(exception);
         }
     }
+
+    /**
+     * Iterates over a RocksDB iterator positioned at the start of a range until the end of the range.
+     */
+    private static final class RangeIterator extends AbstractIterator<Map.Entry<ByteString, ByteString>> {
+        private final RocksIterator iterator;
+        private final ByteString endExclusive;
+
+        private RangeIterator(RocksIterator iterator, ByteString endExclusive) {
+            this.iterator = iterator;
+            this.endExclusive = endExclusive;
+        }
+
+        @Override
+        protected Map.Entry<ByteString, ByteString> computeNext() {
+            if (!iterator.isValid()) {
+                callWithExceptionHandling(() -> {
+                    iterator.status();
+                    return null;
+                });
+                return endOfData();
+            }
+            ByteString key = ByteString.of(iterator.key());
+            if (endExclusive.size() > 0 && key.compareTo(endExclusive) >= 0) {
+                return endOfData();
+            }
+            Map.Entry<ByteString, ByteString> entry = Maps.immutableEntry(key, ByteString.of(iterator.value()));
+            iterator.next();
+            return entry;
+        }
+    }
 }
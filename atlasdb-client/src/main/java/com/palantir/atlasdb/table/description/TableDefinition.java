@@ -347,6 +347,18 @@ public class TableDefinition extends AbstractDefinition {
         return javaTableName;
     }
 
+    /**
+     * Coarsens the commit locks taken for writes to this table into the given number of buckets, bounding the number
+     * of locks a transaction takes for the table however many rows or cells it writes. Unrelated writes that hash to
+     * the same bucket will wait for each other, and cells of the table are not served from the lock watch value
+     * cache. The number of buckets must not be changed while any client is writing to the table.
+     */
+    public void lockCoarseningBuckets(int buckets) {
+        com.palantir.logsafe.Preconditions.checkArgument(buckets > 0,
+                "Number of lock coarsening buckets must be positive");
+        lockCoarseningBuckets = buckets;
+    }
+
     public boolean hasV2TableEnabled() {
         return this.v2TableEnabled;
     }
@@ -396,6 +408,7 @@ public class TableDefinition extends AbstractDefinition {
     private LogSafety tableNameSafety = LogSafety.UNSAFE;
     private LogSafety defaultNamedComponentLogSafety = LogSafety.UNSAFE;
     private boolean v2TableEnabled = false;
+    private int lockCoarseningBuckets = 0;
 
     public TableMetadata toTableMetadata() {
         com.palantir.logsafe.Preconditions.checkState(!rowNameComponents.isEmpty(), "No row name components defined.");
@@ -419,6 +432,7 @@ public class TableDefinition extends AbstractDefinition {
                 .sweepStrategy(sweepStrategy)
                 .appendHeavyAndReadLight(appendHeavyAndReadLight)
                 .nameLogSafety(tableNameSafety)
+                .lockCoarseningBuckets(lockCoarseningBuckets)
                 .build();
     }
 
@@ -28,6 +28,8 @@ import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrat
 import com.palantir.atlasdb.transaction.api.ConflictHandler;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.persist.Persistable;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
 
 @Value.Immutable
 @Value.Style(get = {"get*", "is*", "has*"})
@@ -92,6 +94,23 @@ public abstract class TableMetadata implements Persistable {
         return false;
     }
 
+    /**
+     * @return the number of lock buckets that commit locks for this table are coarsened into, or zero if each written
+     * row or cell is locked individually. This is part of the table metadata rather than client configuration because
+     * every writer to the table must agree on it for write-write conflicts to be detected.
+     */
+    @Value.Default
+    public int getLockCoarseningBuckets() {
+        return 0;
+    }
+
+    @Value.Check
+    protected void check() {
+        Preconditions.checkArgument(getLockCoarseningBuckets() >= 0,
+                "Number of lock coarsening buckets must not be negative",
+                SafeArg.of("buckets", getLockCoarseningBuckets()));
+    }
+
     public static TableMetadata allDefault() {
         return builder().build();
     }
@@ -168,6 +187,9 @@ public abstract class TableMetadata implements Persistable {
         if (hasDenselyAccessedWideRows()) {
             builder.setDenselyAccessedWideRows(hasDenselyAccessedWideRows());
         }
+        if (getLockCoarseningBuckets() != 0) {
+            builder.setLockCoarseningBuckets(getLockCoarseningBuckets());
+        }
         return builder;
     }
 
@@ -201,6 +223,9 @@ public abstract class TableMetadata implements Persistable {
         if (message.hasDenselyAccessedWideRows()) {
             builder.denselyAccessedWideRows(message.getDenselyAccessedWideRows());
         }
+        if (message.hasLockCoarseningBuckets()) {
+            builder.lockCoarseningBuckets(message.getLockCoarseningBuckets());
+        }
 
         return builder.build();
     }
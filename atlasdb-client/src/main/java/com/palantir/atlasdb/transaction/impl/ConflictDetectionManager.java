@@ -27,6 +27,7 @@ import com.palantir.atlasdb.transaction.api.ConflictHandler;
 
 public class ConflictDetectionManager {
     private final LoadingCache<TableReference, ConflictHandler> cache;
+    private final LoadingCache<TableReference, Integer> lockCoarseningBucketsCache;
 
     /**
      *  This class does not make the mistake of attempting cache invalidation,
@@ -41,9 +42,22 @@ public class ConflictDetectionManager {
      *  (This has always been the behavior of this class; I'm simply calling it out)
      */
     public ConflictDetectionManager(CacheLoader<TableReference, ConflictHandler> loader) {
+        this(loader, CacheLoader.from(tableRef -> 0));
+    }
+
+    /**
+     * The same caveats apply to the number of lock coarsening buckets as to conflict handlers, with the same
+     * justification.
+     */
+    public ConflictDetectionManager(
+            CacheLoader<TableReference, ConflictHandler> loader,
+            CacheLoader<TableReference, Integer> lockCoarseningBucketsLoader) {
         this.cache = CacheBuilder.newBuilder()
                 .maximumSize(100_000)
                 .build(loader);
+        this.lockCoarseningBucketsCache = CacheBuilder.newBuilder()
+                .maximumSize(100_000)
+                .build(lockCoarseningBucketsLoader);
     }
 
     public void warmCacheWith(Map<TableReference, ConflictHandler> preload) {
@@ -58,4 +72,12 @@ public class ConflictDetectionManager {
     public ConflictHandler get(TableReference tableReference) {
         return cache.getUnchecked(tableReference);
     }
+
+    /**
+     * Returns the number of buckets that commit locks for the given table are coarsened into, or zero if they are
+     * not coarsened.
+     */
+    public int getLockCoarseningBuckets(TableReference tableReference) {
+        return lockCoarseningBucketsCache.getUnchecked(tableReference);
+    }
 }
@@ -77,6 +77,16 @@ public final class ConflictDetectionManagers {
                             return getConflictHandlerFromMetadata(metadata);
                         }
                     }
+                },
+                new CacheLoader<TableReference, Integer>() {
+                    @Override
+                    public Integer load(TableReference tableReference) throws Exception {
+                        byte[] metadata = kvs.getMetadataForTable(tableReference);
+                        if (metadata == null || metadata.length == 0) {
+                            return 0;
+                        }
+                        return TableMetadata.BYTES_HYDRATOR.hydrateFromBytes(metadata).getLockCoarseningBuckets();
+                    }
                 });
         if (warmCache) {
             // kick off an async thread that attempts to fully warm this cache
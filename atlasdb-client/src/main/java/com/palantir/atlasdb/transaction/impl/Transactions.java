@@ -16,14 +16,21 @@
 package com.palantir.atlasdb.transaction.impl;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 import com.google.common.collect.Maps;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.common.base.BatchingVisitable;
 
 public class Transactions {
     private Transactions() { /* */ }
@@ -67,4 +74,18 @@ public class Transactions {
         return Arrays.equals(v1, v2);
     }
 
+    /**
+     * Scans a whole table in the given transaction, splitting it into up to {@code parallelism} ranges with
+     * {@link KeyValueService#getTableSplits(TableReference, int)} and processing the ranges concurrently.
+     */
+    public static <T> Stream<T> scanTableInParallel(
+            KeyValueService keyValueService,
+            Transaction t,
+            TableReference tableRef,
+            int parallelism,
+            BiFunction<RangeRequest, BatchingVisitable<RowResult<byte[]>>, T> visitableProcessor) {
+        List<RangeRequest> splits = keyValueService.getTableSplits(tableRef, parallelism);
+        return t.getRanges(tableRef, splits, parallelism, visitableProcessor);
+    }
+
 }
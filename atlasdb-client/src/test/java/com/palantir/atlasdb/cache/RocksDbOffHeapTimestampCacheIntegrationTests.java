@@ -72,7 +72,7 @@ public final class RocksDbOffHeapTimestampCacheIntegrationTests {
     }
 
     @Test
-    public void cacheNukedWhenSizeLimitExceeded() {
+    public void oldestSegmentEvictedWhenSizeLimitExceeded() {
         offHeapTimestampCache.putAlreadyCommittedTransaction(1L, 3L);
         offHeapTimestampCache.putAlreadyCommittedTransaction(2L, 4L);
         offHeapTimestampCache.putAlreadyCommittedTransaction(5L, 6L);
@@ -80,19 +80,18 @@ public final class RocksDbOffHeapTimestampCacheIntegrationTests {
         assertThat(offHeapTimestampCache.getCommitTimestampIfPresent(1L))
                 .isNull();
         assertThat(offHeapTimestampCache.getCommitTimestampIfPresent(2L))
-                .isNull();
+                .isEqualTo(4L);
         assertThat(offHeapTimestampCache.getCommitTimestampIfPresent(5L))
                 .isEqualTo(6L);
     }
 
     @Test
-    public void clearCache() {
+    public void clearRemovesAllSegments() {
         offHeapTimestampCache.putAlreadyCommittedTransaction(1L, 3L);
-        assertThat(offHeapTimestampCache.getCommitTimestampIfPresent(1L))
-                .isEqualTo(3L);
-
+        offHeapTimestampCache.putAlreadyCommittedTransaction(2L, 4L);
         offHeapTimestampCache.clear();
-        assertThat(offHeapTimestampCache.getCommitTimestampIfPresent(1L))
-                .isNull();
+
+        assertThat(offHeapTimestampCache.getCommitTimestampIfPresent(1L)).isNull();
+        assertThat(offHeapTimestampCache.getCommitTimestampIfPresent(2L)).isNull();
     }
 }
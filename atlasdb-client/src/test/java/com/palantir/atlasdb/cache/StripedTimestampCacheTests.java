@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+public final class StripedTimestampCacheTests {
+    private final AtomicLong size = new AtomicLong(1000);
+    private final StripedTimestampCache cache = new StripedTimestampCache(size::get, 4);
+
+    @Test
+    public void returnsNullForAbsentTimestamps() {
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void returnsCachedCommitTimestamps() {
+        cache.putAlreadyCommittedTransaction(1L, 3L);
+        cache.putAlreadyCommittedTransaction(2L, 5L);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(3L);
+        assertThat(cache.getCommitTimestampIfPresent(2L)).isEqualTo(5L);
+        assertThat(cache.getCommitTimestampIfPresent(3L)).isNull();
+    }
+
+    @Test
+    public void overwritesExistingEntries() {
+        cache.putAlreadyCommittedTransaction(1L, 3L);
+        cache.putAlreadyCommittedTransaction(1L, 4L);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(4L);
+    }
+
+    @Test
+    public void clearRemovesAllEntries() {
+        cache.putAlreadyCommittedTransaction(1L, 3L);
+        cache.clear();
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void sizeIsBoundedByCapacity() {
+        LongStream.range(1, 100_000).forEach(ts -> cache.putAlreadyCommittedTransaction(ts, ts + 1));
+
+        long cached = LongStream.range(1, 100_000)
+                .filter(ts -> cache.getCommitTimestampIfPresent(ts) != null)
+                .count();
+        assertThat(cached).isLessThanOrEqualTo(1024).isGreaterThan(500);
+    }
+
+    @Test
+    public void recentlyReadEntriesSurviveEviction() {
+        int capacity = 4 * StripedTimestampCache.WAYS;
+        StripedTimestampCache smallCache = new StripedTimestampCache(() -> capacity, 4);
+        smallCache.putAlreadyCommittedTransaction(1L, 2L);
+        for (long ts = 2; ts < 1000; ts++) {
+            assertThat(smallCache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+            smallCache.putAlreadyCommittedTransaction(ts, ts + 1);
+        }
+    }
+
+    @Test
+    public void clearPicksUpNewSize() {
+        size.set(10);
+        cache.clear();
+        LongStream.range(1, 1000).forEach(ts -> cache.putAlreadyCommittedTransaction(ts, ts + 1));
+
+        long cached = LongStream.range(1, 1000)
+                .filter(ts -> cache.getCommitTimestampIfPresent(ts) != null)
+                .count();
+        assertThat(cached).isLessThanOrEqualTo(4 * StripedTimestampCache.WAYS);
+    }
+}
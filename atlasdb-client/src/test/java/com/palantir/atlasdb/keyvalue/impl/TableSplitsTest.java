@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+
+public class TableSplitsTest {
+    private static final byte[] ROW_1 = PtBytes.toBytes("row1");
+    private static final byte[] ROW_2 = PtBytes.toBytes("row2");
+
+    @Test
+    public void noBoundariesCoverWholeTable() {
+        assertThat(TableSplits.splitAt(ImmutableList.of())).containsExactly(RangeRequest.all());
+    }
+
+    @Test
+    public void splitsAtEachBoundary() {
+        assertThat(TableSplits.splitAt(ImmutableList.of(ROW_1, ROW_2))).containsExactly(
+                RangeRequest.builder().endRowExclusive(ROW_1).build(),
+                RangeRequest.builder().startRowInclusive(ROW_1).endRowExclusive(ROW_2).build(),
+                RangeRequest.builder().startRowInclusive(ROW_2).build());
+    }
+
+    @Test
+    public void ignoresEmptyAndRepeatedBoundaries() {
+        assertThat(TableSplits.splitAt(ImmutableList.of(PtBytes.EMPTY_BYTE_ARRAY, ROW_1, ROW_1))).containsExactly(
+                RangeRequest.builder().endRowExclusive(ROW_1).build(),
+                RangeRequest.builder().startRowInclusive(ROW_1).build());
+    }
+
+    @Test
+    public void picksEvenlySpacedBoundaries() {
+        List<byte[]> candidates = IntStream.range(0, 100)
+                .mapToObj(i -> PtBytes.toBytes(String.format("row%03d", i)))
+                .collect(Collectors.toList());
+
+        assertThat(TableSplits.evenlySpacedBoundaries(candidates, 4)).containsExactly(
+                candidates.get(25), candidates.get(50), candidates.get(75));
+    }
+
+    @Test
+    public void picksNoBoundariesWithoutParallelism() {
+        assertThat(TableSplits.evenlySpacedBoundaries(ImmutableList.of(ROW_1, ROW_2), 1)).isEmpty();
+    }
+
+    @Test
+    public void picksAtMostOneBoundaryPerCandidate() {
+        assertThat(TableSplits.evenlySpacedBoundaries(ImmutableList.of(ROW_1, ROW_2), 10))
+                .containsOnly(ROW_2);
+    }
+}
@@ -20,6 +20,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.File;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.After;
 import org.junit.Before;
@@ -30,7 +32,11 @@ import org.rocksdb.RocksDB;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.palantir.atlasdb.persistent.api.PersistentStore;
+import com.palantir.common.base.ClosableIterator;
 import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 
 import okio.ByteString;
@@ -44,6 +50,8 @@ public final class RocksDbPersistentStoreTests {
     private static final ByteString VALUE = ByteString.encodeUtf8("value");
     private static final ByteString KEY2 = ByteString.encodeUtf8("key2");
     private static final ByteString VALUE2 = ByteString.encodeUtf8("value2");
+    private static final ByteString KEY3 = ByteString.encodeUtf8("key3");
+    private static final ByteString VALUE3 = ByteString.encodeUtf8("value3");
 
     private PersistentStore persistentStore;
     private PersistentStore.Handle defaultNamespace;
@@ -132,4 +140,77 @@ public final class RocksDbPersistentStoreTests {
                         KEY2, VALUE2)
                 );
     }
+
+    @Test
+    public void multiGetAlignsValuesWithKeysWhenSomeAreMissing() {
+        persistentStore.put(defaultNamespace, KEY2, VALUE2);
+
+        assertThat(persistentStore.get(defaultNamespace, ImmutableList.of(KEY, KEY2)))
+                .containsExactlyInAnyOrderEntriesOf(ImmutableMap.of(KEY2, VALUE2));
+    }
+
+    @Test
+    public void getRangeReturnsEntriesInRangeInOrder() {
+        persistentStore.put(defaultNamespace, ImmutableMap.of(KEY, VALUE, KEY2, VALUE2, KEY3, VALUE3));
+
+        assertThat(getRange(KEY2, ByteString.EMPTY))
+                .containsExactly(Maps.immutableEntry(KEY2, VALUE2), Maps.immutableEntry(KEY3, VALUE3));
+        assertThat(getRange(ByteString.EMPTY, KEY3))
+                .containsExactly(Maps.immutableEntry(KEY, VALUE), Maps.immutableEntry(KEY2, VALUE2));
+    }
+
+    @Test
+    public void deleteRangeRemovesOnlyEntriesInRange() {
+        persistentStore.put(defaultNamespace, ImmutableMap.of(KEY, VALUE, KEY2, VALUE2, KEY3, VALUE3));
+
+        persistentStore.deleteRange(defaultNamespace, KEY, KEY3);
+
+        assertThat(getRange(ByteString.EMPTY, ByteString.EMPTY)).containsExactly(Maps.immutableEntry(KEY3, VALUE3));
+    }
+
+    @Test
+    public void unboundedDeleteRangeRemovesLastEntry() {
+        persistentStore.put(defaultNamespace, ImmutableMap.of(KEY, VALUE, KEY2, VALUE2, KEY3, VALUE3));
+
+        persistentStore.deleteRange(defaultNamespace, KEY2, ByteString.EMPTY);
+
+        assertThat(getRange(ByteString.EMPTY, ByteString.EMPTY)).containsExactly(Maps.immutableEntry(KEY, VALUE));
+    }
+
+    @Test
+    public void deleteRemovesEntries() {
+        persistentStore.put(defaultNamespace, ImmutableMap.of(KEY, VALUE, KEY2, VALUE2));
+
+        persistentStore.delete(defaultNamespace, ImmutableSet.of(KEY, KEY3));
+
+        assertThat(persistentStore.get(defaultNamespace, KEY)).isEmpty();
+        assertThat(persistentStore.get(defaultNamespace, KEY2)).hasValue(VALUE2);
+    }
+
+    @Test
+    public void writeBatchAppliesDeletesBeforePuts() {
+        persistentStore.put(defaultNamespace, ImmutableMap.of(KEY, VALUE, KEY2, VALUE2));
+
+        persistentStore.write(defaultNamespace, new PersistentStore.WriteBatch.Builder()
+                .putPuts(KEY, VALUE3)
+                .putPuts(KEY3, VALUE3)
+                .addDeletes(KEY, KEY2)
+                .build());
+
+        assertThat(getRange(ByteString.EMPTY, ByteString.EMPTY))
+                .containsExactly(Maps.immutableEntry(KEY, VALUE3), Maps.immutableEntry(KEY3, VALUE3));
+    }
+
+    @Test
+    public void getRangeOnNonExistingFails() {
+        assertThatThrownBy(() -> persistentStore.getRange(NON_EXISTING_NAMESPACE, ByteString.EMPTY, ByteString.EMPTY))
+                .isInstanceOf(SafeIllegalArgumentException.class);
+    }
+
+    private List<Map.Entry<ByteString, ByteString>> getRange(ByteString start, ByteString end) {
+        try (ClosableIterator<Map.Entry<ByteString, ByteString>> iterator =
+                persistentStore.getRange(defaultNamespace, start, end)) {
+            return Lists.newArrayList(iterator);
+        }
+    }
 }
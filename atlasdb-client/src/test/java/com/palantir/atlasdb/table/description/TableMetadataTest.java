@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.table.description;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.Test;
 
@@ -33,6 +34,7 @@ public class TableMetadataTest {
             .appendHeavyAndReadLight(true)
             .nameLogSafety(LogSafety.SAFE)
             .denselyAccessedWideRows(true)
+            .lockCoarseningBuckets(64)
             .build();
 
     @Test
@@ -40,6 +42,17 @@ public class TableMetadataTest {
         assertThat(DEFAULT_TABLE_METADATA.getNameLogSafety()).isEqualTo(LogSafety.UNSAFE);
     }
 
+    @Test
+    public void commitLocksAreNotCoarsenedByDefault() {
+        assertThat(DEFAULT_TABLE_METADATA.getLockCoarseningBuckets()).isZero();
+    }
+
+    @Test
+    public void negativeNumberOfLockCoarseningBucketsIsRejected() {
+        assertThatThrownBy(() -> TableMetadata.builder().lockCoarseningBuckets(-1).build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void canSerializeAndDeserializeDefaultMetadata() {
         assertCanSerializeAndDeserialize(DEFAULT_TABLE_METADATA);
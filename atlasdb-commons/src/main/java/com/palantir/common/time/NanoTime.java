@@ -66,6 +66,14 @@ public abstract class NanoTime implements Comparable<NanoTime> {
         return create(time() + duration.toNanos());
     }
 
+    /**
+     * Returns the number of nanoseconds elapsed from {@code other} to this time, which is negative if this time is
+     * before {@code other}.
+     */
+    public long nanosSince(NanoTime other) {
+        return nanosBetween(other, this);
+    }
+
     public boolean isBefore(NanoTime other) {
         return compareTo(other) < 0;
     }
@@ -164,6 +164,7 @@ import com.palantir.lock.LockService;
 import com.palantir.lock.NamespaceAgnosticLockRpcClient;
 import com.palantir.lock.SimpleTimeDuration;
 import com.palantir.lock.client.LockRefreshingLockService;
+import com.palantir.lock.client.MultiClientStartTransactionsBatcher;
 import com.palantir.lock.client.NamespacedConjureTimelockService;
 import com.palantir.lock.client.ProfilingTimelockService;
 import com.palantir.lock.client.RemoteLockServiceAdapter;
@@ -175,9 +176,9 @@ import com.palantir.lock.v2.NamespacedTimelockRpcClient;
 import com.palantir.lock.v2.TimelockRpcClient;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.watch.LockWatchEventCache;
+import com.palantir.lock.watch.LockWatchEventCacheImpl;
 import com.palantir.lock.watch.LockWatchingRpcClient;
 import com.palantir.lock.watch.NamespacedLockWatchingRpcClient;
-import com.palantir.lock.watch.NoOpLockWatchEventCache;
 import com.palantir.logsafe.Preconditions;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
@@ -263,6 +264,13 @@ public abstract class TransactionManagers {
     // TODO(fdesouza): Remove this once PDS-95791 is resolved.
     abstract Optional<ClientLockDiagnosticCollector> lockDiagnosticInfoCollector();
 
+    /**
+     * If present, start transactions calls to TimeLock are batched through this shared instance together with those of
+     * other transaction managers talking to the same TimeLock cluster, instead of being made by this transaction
+     * manager alone. The transaction manager does not close it.
+     */
+    abstract Optional<MultiClientStartTransactionsBatcher> multiClientStartTransactionsBatcher();
+
     @Value.Default
     LockWatchingCache lockWatchingCache() {
         return NoOpLockWatchingCache.INSTANCE;
@@ -361,7 +369,8 @@ public abstract class TransactionManagers {
                 managedTimestampSupplier,
                 atlasFactory.getTimestampStoreInvalidator(),
                 userAgent(),
-                lockDiagnosticInfoCollector());
+                lockDiagnosticInfoCollector(),
+                multiClientStartTransactionsBatcher());
         adapter.setTimestampService(lockAndTimestampServices.managedTimestampService());
 
         KvsProfilingLogger.setSlowLogThresholdMillis(config().getKvsSlowLogThresholdMillis());
@@ -814,6 +823,7 @@ public abstract class TransactionManagers {
                         time,
                         invalidator,
                         UserAgents.tryParse(userAgent),
+                        Optional.empty(),
                         Optional.empty());
         TimeLockClient timeLockClient = TimeLockClient.withSynchronousUnlocker(lockAndTimestampServices.timelock());
         return ImmutableLockAndTimestampServices.builder()
@@ -835,6 +845,30 @@ public abstract class TransactionManagers {
             TimestampStoreInvalidator invalidator,
             UserAgent userAgent,
             Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector) {
+        return createLockAndTimestampServices(
+                metricsManager,
+                config,
+                runtimeConfigSupplier,
+                env,
+                lock,
+                time,
+                invalidator,
+                userAgent,
+                lockDiagnosticCollector,
+                Optional.empty());
+    }
+
+    private static LockAndTimestampServices createLockAndTimestampServices(
+            MetricsManager metricsManager,
+            AtlasDbConfig config,
+            Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier,
+            Consumer<Object> env,
+            Supplier<LockService> lock,
+            Supplier<ManagedTimestampService> time,
+            TimestampStoreInvalidator invalidator,
+            UserAgent userAgent,
+            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector,
+            Optional<MultiClientStartTransactionsBatcher> multiClientStartTransactionsBatcher) {
         LockAndTimestampServices lockAndTimestampServices = createRawInstrumentedServices(
                 metricsManager,
                 config,
@@ -844,7 +878,8 @@ public abstract class TransactionManagers {
                 time,
                 invalidator,
                 userAgent,
-                lockDiagnosticCollector);
+                lockDiagnosticCollector,
+                multiClientStartTransactionsBatcher);
         return withMetrics(metricsManager,
                 withCorroboratingTimestampService(
                         withRefreshingLockService(lockAndTimestampServices)));
@@ -904,7 +939,8 @@ public abstract class TransactionManagers {
             Supplier<ManagedTimestampService> time,
             TimestampStoreInvalidator invalidator,
             UserAgent userAgent,
-            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector) {
+            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector,
+            Optional<MultiClientStartTransactionsBatcher> multiClientStartTransactionsBatcher) {
         AtlasDbRuntimeConfig initialRuntimeConfig = runtimeConfigSupplier.get();
         assertNoSpuriousTimeLockBlockInRuntimeConfig(config, initialRuntimeConfig);
         if (config.leader().isPresent()) {
@@ -913,7 +949,13 @@ public abstract class TransactionManagers {
             return createRawRemoteServices(metricsManager, config, runtimeConfigSupplier, userAgent);
         } else if (isUsingTimeLock(config, initialRuntimeConfig)) {
             return createRawServicesFromTimeLock(
-                    metricsManager, config, runtimeConfigSupplier, invalidator, userAgent, lockDiagnosticCollector);
+                    metricsManager,
+                    config,
+                    runtimeConfigSupplier,
+                    invalidator,
+                    userAgent,
+                    lockDiagnosticCollector,
+                    multiClientStartTransactionsBatcher);
         } else {
             return createRawEmbeddedServices(metricsManager, env, lock, time);
         }
@@ -942,7 +984,8 @@ public abstract class TransactionManagers {
             Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier,
             TimestampStoreInvalidator invalidator,
             UserAgent userAgent,
-            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector) {
+            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector,
+            Optional<MultiClientStartTransactionsBatcher> multiClientStartTransactionsBatcher) {
         Supplier<ServerListConfig> serverListConfigSupplier =
                 getServerListConfigSupplierForTimeLock(config, runtimeConfigSupplier);
 
@@ -955,7 +998,8 @@ public abstract class TransactionManagers {
                         () -> runtimeConfigSupplier.get().remotingClient(),
                         userAgent,
                         timelockNamespace,
-                        lockDiagnosticCollector);
+                        lockDiagnosticCollector,
+                        multiClientStartTransactionsBatcher);
 
         TimeLockMigrator migrator = TimeLockMigrator.create(
                 lockAndTimestampServices.managedTimestampService(),
@@ -985,7 +1029,8 @@ public abstract class TransactionManagers {
             Supplier<RemotingClientConfig> remotingConfigSupplier,
             UserAgent userAgent,
             String timelockNamespace,
-            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector) {
+            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector,
+            Optional<MultiClientStartTransactionsBatcher> multiClientStartTransactionsBatcher) {
         ServiceCreator creator = ServiceCreator.withPayloadLimiter(
                 metricsManager, timelockServerListConfig, userAgent, remotingConfigSupplier);
 
@@ -1011,9 +1056,10 @@ public abstract class TransactionManagers {
         NamespacedTimelockRpcClient namespacedTimelockRpcClient
                 = new NamespacedTimelockRpcClient(timelockClient, timelockNamespace);
         NamespacedConjureTimelockService namespacedConjureTimelockService
-                = new NamespacedConjureTimelockService(withDiagnosticsConjureTimelockService, timelockNamespace);
+                = new NamespacedConjureTimelockService(
+                        withDiagnosticsConjureTimelockService, timelockNamespace, multiClientStartTransactionsBatcher);
 
-        LockWatchEventCache lockWatchEventCache = NoOpLockWatchEventCache.INSTANCE;
+        LockWatchEventCache lockWatchEventCache = LockWatchEventCacheImpl.create();
         NamespacedLockWatchingRpcClient namespacedLockWatchingRpcClient = new NamespacedLockWatchingRpcClient(
                 creator.createService(LockWatchingRpcClient.class), timelockNamespace);
         LockWatchManager lockWatcher = new LockWatchManagerImpl(namespacedLockWatchingRpcClient, lockWatchEventCache);
@@ -30,6 +30,8 @@ import com.palantir.atlasdb.timelock.api.ConjureUnlockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureWaitForLocksResponse;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsResponse;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.tokens.auth.AuthHeader;
 
@@ -53,6 +55,12 @@ public final class BlockingSensitiveConjureTimelockService implements ConjureTim
         return nonBlocking.startTransactions(authHeader, namespace, request);
     }
 
+    @Override
+    public MultiClientStartTransactionsResponse startTransactionsForClients(AuthHeader authHeader,
+            MultiClientStartTransactionsRequest request) {
+        return nonBlocking.startTransactionsForClients(authHeader, request);
+    }
+
     @Override
     public ConjureGetFreshTimestampsResponse getFreshTimestamps(AuthHeader authHeader, String namespace,
             ConjureGetFreshTimestampsRequest request) {
@@ -53,6 +53,11 @@ public final class TimestampCorroboratingTimelockService implements AutoDelegate
         return checkAndUpdateLowerBound(delegate::getFreshTimestamp, x -> x, x -> x);
     }
 
+    @Override
+    public long getCommitTimestamp() {
+        return checkAndUpdateLowerBound(delegate::getCommitTimestamp, x -> x, x -> x);
+    }
+
     @Override
     public TimestampRange getFreshTimestamps(int numTimestampsRequested) {
         return checkAndUpdateLowerBound(() -> delegate.getFreshTimestamps(numTimestampsRequested),
@@ -60,6 +60,13 @@ public class TimestampCorroboratingTimelockServiceTest {
         assertThrowsOnSecondCall(timelockService::getFreshTimestamp);
     }
 
+    @Test
+    public void getCommitTimestampShouldFail() {
+        when(rawTimelockService.getCommitTimestamp()).thenReturn(1L);
+
+        assertThrowsOnSecondCall(timelockService::getCommitTimestamp);
+    }
+
     @Test
     public void getFreshTimestampsShouldFail() {
         TimestampRange timestampRange = TimestampRange.createInclusiveRange(1, 2);
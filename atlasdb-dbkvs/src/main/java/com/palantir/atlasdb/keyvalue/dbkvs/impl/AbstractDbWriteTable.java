@@ -75,11 +75,7 @@ public abstract class AbstractDbWriteTable implements DbWriteTable {
 
     private void put(List<Object[]> args) {
         try {
-            String prefixedTableName = prefixedTableNames.get(tableRef, conns);
-            conns.get().insertManyUnregisteredQuery("/* INSERT_ONE (" + prefixedTableName + ") */"
-                    + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
-                    + " VALUES (?, ?, ?, ?) ",
-                    args);
+            insertRows(prefixedTableNames.get(tableRef, conns), args);
         } catch (PalantirSqlException e) {
             if (ExceptionCheck.isUniqueConstraintViolation(e)) {
                 throw new KeyAlreadyExistsException("primary key violation", e);
@@ -88,34 +84,51 @@ public abstract class AbstractDbWriteTable implements DbWriteTable {
         }
     }
 
+    /**
+     * Inserts the given (row_name, col_name, ts, val) rows, throwing on a primary key violation. By default this
+     * is a JDBC batch of single-row inserts; dialects that support it may override this to use fewer statements.
+     */
+    protected void insertRows(String prefixedTableName, List<Object[]> args) {
+        conns.get().insertManyUnregisteredQuery("/* INSERT_ONE (" + prefixedTableName + ") */"
+                + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
+                + " VALUES (?, ?, ?, ?) ",
+                args);
+    }
+
     @Override
     public void putSentinels(Iterable<Cell> cells) {
+        for (List<Cell> batch : Lists.partition(Ordering.natural().immutableSortedCopy(cells), 1000)) {
+            insertSentinelsIfAbsent(prefixedTableNames.get(tableRef, conns), batch);
+        }
+    }
+
+    /**
+     * Writes an empty value at {@link Value#INVALID_VALUE_TIMESTAMP} for each of the given cells, leaving cells
+     * that already have a sentinel untouched.
+     */
+    protected void insertSentinelsIfAbsent(String prefixedTableName, List<Cell> cells) {
         byte[] value = new byte[0];
         long ts = Value.INVALID_VALUE_TIMESTAMP;
-        for (List<Cell> batch : Lists.partition(Ordering.natural().immutableSortedCopy(cells), 1000)) {
-            List<Object[]> args = Lists.newArrayListWithCapacity(batch.size());
-            for (Cell cell : batch) {
-                args.add(new Object[] {cell.getRowName(), cell.getColumnName(), ts, value,
-                        cell.getRowName(), cell.getColumnName(), ts});
-            }
-            while (true) {
-                try {
-                    String prefixedTableName = prefixedTableNames.get(tableRef, conns);
-                    conns.get().insertManyUnregisteredQuery("/* INSERT_WHERE_NOT_EXISTS (" + prefixedTableName + ") */"
-                            + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
-                            + " SELECT ?, ?, ?, ? FROM DUAL"
-                            + " WHERE NOT EXISTS (SELECT * FROM " + prefixedTableName + " WHERE"
-                            + " row_name = ? AND"
-                            + " col_name = ? AND"
-                            + " ts = ?)",
-                            args);
-                    break;
-                } catch (PalantirSqlException e) {
-                    // we can't do atomic put if not exists, so retry if we get constraint violations
-                    // TODO(jboreiko): Actually you can. Evaluate use of MERGE or UPSERT here.
-                    if (!ExceptionCheck.isUniqueConstraintViolation(e)) {
-                        throw e;
-                    }
+        List<Object[]> args = Lists.newArrayListWithCapacity(cells.size());
+        for (Cell cell : cells) {
+            args.add(new Object[] {cell.getRowName(), cell.getColumnName(), ts, value,
+                    cell.getRowName(), cell.getColumnName(), ts});
+        }
+        while (true) {
+            try {
+                conns.get().insertManyUnregisteredQuery("/* INSERT_WHERE_NOT_EXISTS (" + prefixedTableName + ") */"
+                        + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
+                        + " SELECT ?, ?, ?, ? FROM DUAL"
+                        + " WHERE NOT EXISTS (SELECT * FROM " + prefixedTableName + " WHERE"
+                        + " row_name = ? AND"
+                        + " col_name = ? AND"
+                        + " ts = ?)",
+                        args);
+                return;
+            } catch (PalantirSqlException e) {
+                // we can't do atomic put if not exists, so retry if we get constraint violations
+                if (!ExceptionCheck.isUniqueConstraintViolation(e)) {
+                    throw e;
                 }
             }
         }
@@ -0,0 +1,210 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+
+/**
+ * Runs {@link com.palantir.atlasdb.keyvalue.api.KeyValueService#get} calls on a bounded executor, merging calls for
+ * the same table that arrive while an earlier call is still waiting for a thread into a single query.
+ *
+ * If the executor rejects a batch because its queue is full, the batch is run on the calling thread instead, so
+ * callers are slowed down to the rate at which the database can serve them rather than queueing without bound.
+ */
+final class CoalescingAsyncGetter implements AutoCloseable {
+    /**
+     * Calls are only merged while the merged call reads at most this many cells, so that one slow query does not
+     * hold up a large number of callers. A single call for more cells is never split.
+     */
+    private static final int DEFAULT_MAX_CELLS_PER_GET = 10_000;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final BiFunction<TableReference, Map<Cell, Long>, Map<Cell, Value>> getter;
+    private final ExecutorService executor;
+    private final int maxCellsPerGet;
+    private final ConcurrentMap<TableReference, PendingGet> pendingGets = new ConcurrentHashMap<>();
+    private final Set<PendingGet> queuedGets = ConcurrentHashMap.newKeySet();
+
+    CoalescingAsyncGetter(
+            BiFunction<TableReference, Map<Cell, Long>, Map<Cell, Value>> getter,
+            ExecutorService executor) {
+        this(getter, executor, DEFAULT_MAX_CELLS_PER_GET);
+    }
+
+    @VisibleForTesting
+    CoalescingAsyncGetter(
+            BiFunction<TableReference, Map<Cell, Long>, Map<Cell, Value>> getter,
+            ExecutorService executor,
+            int maxCellsPerGet) {
+        this.getter = getter;
+        this.executor = executor;
+        this.maxCellsPerGet = maxCellsPerGet;
+    }
+
+    ListenableFuture<Map<Cell, Value>> get(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        if (timestampByCell.isEmpty()) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        while (true) {
+            // The new pending get holds our request before it is published, so whichever request publishes a pending
+            // get is always the one that submits it, even if it would not have fit alongside requests merged into it.
+            PendingGet newPendingGet = new PendingGet(tableRef, timestampByCell);
+            PendingGet existing = pendingGets.putIfAbsent(tableRef, newPendingGet);
+            if (existing == null) {
+                submit(newPendingGet);
+                return newPendingGet.firstFuture;
+            }
+
+            SettableFuture<Map<Cell, Value>> future = existing.tryAdd(timestampByCell);
+            if (future != null) {
+                return future;
+            }
+            // The pending get has already started, is full, or wants a different timestamp for one of our cells.
+            pendingGets.remove(tableRef, existing);
+        }
+    }
+
+    private void submit(PendingGet pendingGet) {
+        queuedGets.add(pendingGet);
+        try {
+            executor.execute(pendingGet::run);
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                pendingGet.failIfNotStarted(new SafeIllegalStateException("The key value service has been closed"));
+            } else {
+                pendingGet.run();
+            }
+        }
+    }
+
+    /**
+     * Waits for queued and running gets to complete, so that they are not left to run against closed connections.
+     * Gets that have not started by the time the timeout expires are failed rather than left incomplete.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        SafeIllegalStateException failure = new SafeIllegalStateException("The key value service has been closed");
+        queuedGets.forEach(pendingGet -> pendingGet.failIfNotStarted(failure));
+    }
+
+    private final class PendingGet {
+        private final TableReference tableRef;
+        private final Map<Cell, Long> timestampByCell = new HashMap<>();
+        private final List<Request> requests = new ArrayList<>();
+        private final SettableFuture<Map<Cell, Value>> firstFuture = SettableFuture.create();
+        private boolean started = false;
+
+        PendingGet(TableReference tableRef, Map<Cell, Long> firstRequest) {
+            this.tableRef = tableRef;
+            timestampByCell.putAll(firstRequest);
+            requests.add(new Request(firstRequest, firstFuture));
+        }
+
+        synchronized SettableFuture<Map<Cell, Value>> tryAdd(Map<Cell, Long> request) {
+            if (started) {
+                return null;
+            }
+            if (timestampByCell.size() + request.size() > maxCellsPerGet) {
+                return null;
+            }
+            for (Map.Entry<Cell, Long> entry : request.entrySet()) {
+                Long timestamp = timestampByCell.get(entry.getKey());
+                if (timestamp != null && !timestamp.equals(entry.getValue())) {
+                    return null;
+                }
+            }
+            timestampByCell.putAll(request);
+            SettableFuture<Map<Cell, Value>> future = SettableFuture.create();
+            requests.add(new Request(request, future));
+            return future;
+        }
+
+        void run() {
+            if (!start()) {
+                return;
+            }
+            try {
+                Map<Cell, Value> results = getter.apply(tableRef, timestampByCell);
+                for (Request request : requests) {
+                    request.future.set(requests.size() == 1
+                            ? results
+                            : Maps.newHashMap(Maps.filterKeys(results, request.timestampByCell::containsKey)));
+                }
+            } catch (Throwable t) {
+                requests.forEach(request -> request.future.setException(t));
+            }
+        }
+
+        void failIfNotStarted(Throwable failure) {
+            if (start()) {
+                requests.forEach(request -> request.future.setException(failure));
+            }
+        }
+
+        private boolean start() {
+            pendingGets.remove(tableRef, this);
+            queuedGets.remove(this);
+            synchronized (this) {
+                if (started) {
+                    return false;
+                }
+                started = true;
+                return true;
+            }
+        }
+    }
+
+    private static final class Request {
+        private final Map<Cell, Long> timestampByCell;
+        private final SettableFuture<Map<Cell, Value>> future;
+
+        Request(Map<Cell, Long> timestampByCell, SettableFuture<Map<Cell, Value>> future) {
+            this.timestampByCell = timestampByCell;
+            this.future = future;
+        }
+    }
+}
@@ -69,7 +69,6 @@ import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Atomics;
-import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
@@ -117,6 +116,7 @@ import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.Cells;
 import com.palantir.atlasdb.keyvalue.impl.IterablePartitioner;
 import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.impl.TableSplits;
 import com.palantir.common.annotation.Output;
 import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
@@ -144,6 +144,13 @@ public final class DbKvs extends AbstractKeyValueService {
     public static final String VAL = "val";
     public static final long DEFAULT_GET_RANGE_OF_TS_BATCH = 1_000_000L;
 
+    private static final String TABLE_SPLITS_TEMPLATE =
+            " /* TABLE_SPLITS (%s) */ "
+            + " SELECT MIN(row_name) AS row_name "
+            + " FROM (SELECT row_name, NTILE(?) OVER (ORDER BY row_name) AS split_num FROM %s) splits "
+            + " GROUP BY split_num "
+            + " ORDER BY split_num";
+
     private long maxRangeOfTimestampsBatchSize = DEFAULT_GET_RANGE_OF_TS_BATCH;
 
     private final DdlConfig config;
@@ -153,6 +160,7 @@ public final class DbKvs extends AbstractKeyValueService {
     private final OverflowValueLoader overflowValueLoader;
     private final DbKvsGetRange getRangeStrategy;
     private final DbKvsGetCandidateCellsForSweeping getCandidateCellsForSweepingStrategy;
+    private final CoalescingAsyncGetter asyncGetter;
 
     public static DbKvs create(DbKeyValueServiceConfig config, SqlConnectionSupplier sqlConnSupplier) {
         DbKvs dbKvs = createNoInit(config.ddl(), sqlConnSupplier);
@@ -247,6 +255,7 @@ public final class DbKvs extends AbstractKeyValueService {
         this.overflowValueLoader = overflowValueLoader;
         this.getRangeStrategy = getRangeStrategy;
         this.getCandidateCellsForSweepingStrategy = getCandidateCellsForSweepingStrategy;
+        this.asyncGetter = new CoalescingAsyncGetter(this::get, newAsyncReadPool(config.poolSize()));
     }
 
     private static ThreadPoolExecutor newFixedThreadPool(int maxPoolSize) {
@@ -259,6 +268,17 @@ public final class DbKvs extends AbstractKeyValueService {
         return pool;
     }
 
+    /**
+     * One thread per connection in the pool; the queue is bounded to the same size so that a burst of asynchronous
+     * reads pushes back on its callers instead of piling up work that could not get a connection anyway.
+     */
+    private static ThreadPoolExecutor newAsyncReadPool(int poolSize) {
+        return PTExecutors.newThreadPoolExecutor(poolSize, poolSize,
+                15L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(poolSize),
+                new NamedThreadFactory("Atlas DbKvs async reader", true /* daemon */));
+    }
+
     private void init() {
         checkDatabaseVersion();
         databaseSpecificInitialization();
@@ -285,6 +305,8 @@ public final class DbKvs extends AbstractKeyValueService {
     @Override
     public void close() {
         super.close();
+        // Asynchronous reads still in flight need the connections and the query runner.
+        asyncGetter.close();
         dbTables.close();
         connections.close();
         batchingQueryRunner.close();
@@ -623,6 +645,28 @@ public final class DbKvs extends AbstractKeyValueService {
                 .getFirstBatchForRanges(tableRef, rangeRequests, timestamp);
     }
 
+    /**
+     * Splits the table at quantiles of its row names, as computed by the database.
+     */
+    @Override
+    public List<RangeRequest> getTableSplits(TableReference tableRef, int desiredParallelism) {
+        if (desiredParallelism <= 1) {
+            return ImmutableList.of(RangeRequest.all());
+        }
+        try (ConnectionSupplier conns = new ConnectionSupplier(connections)) {
+            String query = String.format(TABLE_SPLITS_TEMPLATE,
+                    internalTableName(tableRef),
+                    dbTables.getPrefixedTableNames().get(tableRef, conns));
+            AgnosticResultSet results = conns.get().selectResultSetUnregisteredQuery(query, desiredParallelism);
+            List<byte[]> splitStarts = new ArrayList<>(results.size());
+            for (AgnosticResultRow row : results.rows()) {
+                splitStarts.add(row.getBytes(ROW));
+            }
+            // The first split starts at the first row of the table, which the first range covers anyway.
+            return TableSplits.splitAt(splitStarts.subList(Math.min(1, splitStarts.size()), splitStarts.size()));
+        }
+    }
+
     @Override
     public ClosableIterator<RowResult<Value>> getRange(
             TableReference tableRef,
@@ -1250,7 +1294,7 @@ public final class DbKvs extends AbstractKeyValueService {
 
     @Override
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
-        return Futures.immediateFuture(get(tableRef, timestampByCell));
+        return asyncGetter.get(tableRef, timestampByCell);
     }
 
     @Override
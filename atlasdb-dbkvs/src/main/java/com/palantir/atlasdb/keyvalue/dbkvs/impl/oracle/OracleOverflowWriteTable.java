@@ -159,25 +159,22 @@ public final class OracleOverflowWriteTable implements DbWriteTable {
         for (List<Cell> batch : Lists.partition(Ordering.natural().immutableSortedCopy(cells), 1000)) {
             List<Object[]> args = Lists.newArrayListWithCapacity(batch.size());
             for (Cell cell : batch) {
-                args.add(new Object[] {cell.getRowName(), cell.getColumnName(), ts, value, null,
-                        cell.getRowName(), cell.getColumnName(), ts});
+                args.add(new Object[] {cell.getRowName(), cell.getColumnName(), ts, value, null});
             }
             while (true) {
                 try {
                     String shortTableName = oraclePrefixedTableNames.get(tableRef, conns);
-                    conns.get().insertManyUnregisteredQuery("/* INSERT_WHERE_NOT_EXISTS (" + shortTableName + ") */"
-                            + " INSERT INTO " + shortTableName
-                            + "   (row_name, col_name, ts, val, overflow)"
-                            + " SELECT ?, ?, ?, ?, ? FROM DUAL"
-                            + " WHERE NOT EXISTS ("
-                            + "   SELECT * FROM " + shortTableName
-                            + "   WHERE row_name = ?"
-                            + "     AND col_name = ?"
-                            + "     AND ts = ?)",
+                    conns.get().insertManyUnregisteredQuery("/* MERGE_SENTINEL (" + shortTableName + ") */"
+                            + " MERGE /*+ INDEX(m " + PrimaryKeyConstraintNames.get(shortTableName) + ") */"
+                            + " INTO " + shortTableName + " m"
+                            + " USING (SELECT ? row_name, ? col_name, ? ts, ? val, ? overflow FROM DUAL) s"
+                            + " ON (m.row_name = s.row_name AND m.col_name = s.col_name AND m.ts = s.ts)"
+                            + " WHEN NOT MATCHED THEN INSERT (row_name, col_name, ts, val, overflow)"
+                            + " VALUES (s.row_name, s.col_name, s.ts, s.val, s.overflow)",
                             args);
                     break;
                 } catch (PalantirSqlException e) {
-                    // we can't do atomic put if not exists, so retry if we get constraint violations
+                    // a concurrent writer can still win the race against MERGE, in which case the sentinel exists
                     if (!ExceptionCheck.isUniqueConstraintViolation(e)) {
                         throw e;
                     }
@@ -15,11 +15,18 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.oracle;
 
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.dbkvs.DdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbWriteTable;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.OraclePrefixedTableNames;
+import com.palantir.exception.PalantirSqlException;
+import com.palantir.nexus.db.sql.ExceptionCheck;
 
 public class OracleWriteTable extends AbstractDbWriteTable {
     public OracleWriteTable(
@@ -29,4 +36,33 @@ public class OracleWriteTable extends AbstractDbWriteTable {
             TableReference tableRef) {
         super(config, conns, tableRef, oraclePrefixedTableNames);
     }
+
+    @Override
+    protected void insertSentinelsIfAbsent(String prefixedTableName, List<Cell> cells) {
+        byte[] value = new byte[0];
+        long ts = Value.INVALID_VALUE_TIMESTAMP;
+        List<Object[]> args = Lists.newArrayListWithCapacity(cells.size());
+        for (Cell cell : cells) {
+            args.add(new Object[] {cell.getRowName(), cell.getColumnName(), ts, value});
+        }
+        while (true) {
+            try {
+                conns.get().insertManyUnregisteredQuery("/* MERGE_SENTINEL (" + prefixedTableName + ") */"
+                        + " MERGE /*+ INDEX(m " + PrimaryKeyConstraintNames.get(prefixedTableName) + ") */"
+                        + " INTO " + prefixedTableName + " m"
+                        + " USING (SELECT ? row_name, ? col_name, ? ts, ? val FROM DUAL) s"
+                        + " ON (m.row_name = s.row_name AND m.col_name = s.col_name AND m.ts = s.ts)"
+                        + " WHEN NOT MATCHED THEN INSERT (row_name, col_name, ts, val)"
+                        + " VALUES (s.row_name, s.col_name, s.ts, s.val)",
+                        args);
+                return;
+            } catch (PalantirSqlException e) {
+                // MERGE is not atomic with respect to a concurrent insert of the same key, so a racing writer can
+                // still cause a constraint violation; the sentinel is then already present and retrying is safe.
+                if (!ExceptionCheck.isUniqueConstraintViolation(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
 }
@@ -15,13 +15,26 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
 
+import java.util.List;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.dbkvs.DdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbWriteTable;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.PrefixedTableNames;
 
 public class PostgresWriteTable extends AbstractDbWriteTable {
+    /**
+     * Rows per multi-row statement. Four parameters per row keeps us well below the driver's limit of 32767 bind
+     * parameters, and a fixed size means all but the last statement of a batch share the same prepared text.
+     */
+    @VisibleForTesting
+    static final int ROWS_PER_STATEMENT = 256;
+
     public PostgresWriteTable(
             DdlConfig config,
             ConnectionSupplier conns,
@@ -29,4 +42,56 @@ public class PostgresWriteTable extends AbstractDbWriteTable {
             PrefixedTableNames prefixedTableNames) {
         super(config, conns, tableRef, prefixedTableNames);
     }
+
+    @Override
+    protected void insertRows(String prefixedTableName, List<Object[]> args) {
+        for (List<Object[]> chunk : Lists.partition(args, ROWS_PER_STATEMENT)) {
+            conns.get().insertOneUnregisteredQuery("/* INSERT_MANY (" + prefixedTableName + ") */"
+                    + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
+                    + " VALUES " + valuesClause(chunk.size()),
+                    flatten(chunk));
+        }
+    }
+
+    @Override
+    protected void insertSentinelsIfAbsent(String prefixedTableName, List<Cell> cells) {
+        byte[] value = new byte[0];
+        long ts = Value.INVALID_VALUE_TIMESTAMP;
+        for (List<Cell> chunk : Lists.partition(cells, ROWS_PER_STATEMENT)) {
+            Object[] args = new Object[chunk.size() * 4];
+            int index = 0;
+            for (Cell cell : chunk) {
+                args[index++] = cell.getRowName();
+                args[index++] = cell.getColumnName();
+                args[index++] = ts;
+                args[index++] = value;
+            }
+            conns.get().insertOneUnregisteredQuery("/* INSERT_ON_CONFLICT_DO_NOTHING (" + prefixedTableName + ") */"
+                    + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
+                    + " VALUES " + valuesClause(chunk.size())
+                    + " ON CONFLICT DO NOTHING",
+                    args);
+        }
+    }
+
+    private static String valuesClause(int rows) {
+        StringBuilder sb = new StringBuilder(rows * 16);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("(?, ?, ?, ?)");
+        }
+        return sb.toString();
+    }
+
+    private static Object[] flatten(List<Object[]> rows) {
+        Object[] args = new Object[rows.size() * 4];
+        int index = 0;
+        for (Object[] row : rows) {
+            System.arraycopy(row, 0, args, index, row.length);
+            index += row.length;
+        }
+        return args;
+    }
 }
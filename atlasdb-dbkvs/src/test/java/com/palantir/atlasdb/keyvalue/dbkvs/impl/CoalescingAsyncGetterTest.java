@@ -0,0 +1,230 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+
+public class CoalescingAsyncGetterTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("ns.test");
+    private static final Cell CELL_1 = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("col"));
+    private static final Cell CELL_2 = Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("col"));
+    private static final Cell CELL_3 = Cell.create(PtBytes.toBytes("row3"), PtBytes.toBytes("col"));
+
+    private final ExecutorService executor = mock(ExecutorService.class);
+    private final List<Runnable> submittedTasks = new ArrayList<>();
+    private final List<Map<Cell, Long>> queries = new ArrayList<>();
+
+    private CoalescingAsyncGetter asyncGetter;
+
+    @Before
+    public void setUp() {
+        doAnswer(invocation -> submittedTasks.add(invocation.getArgument(0))).when(executor).execute(any());
+        asyncGetter = new CoalescingAsyncGetter(this::recordQuery, executor);
+    }
+
+    @Test
+    public void requestsWaitingForTheSameTableShareOneQuery() throws Exception {
+        ListenableFuture<Map<Cell, Value>> first = asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+        ListenableFuture<Map<Cell, Value>> second = asyncGetter.get(TABLE, ImmutableMap.of(CELL_2, 10L));
+        runSubmittedTasks();
+
+        assertThat(queries).containsExactly(ImmutableMap.of(CELL_1, 10L, CELL_2, 10L));
+        assertThat(first.get()).containsOnlyKeys(CELL_1);
+        assertThat(second.get()).containsOnlyKeys(CELL_2);
+    }
+
+    @Test
+    public void requestsForTheSameCellAtDifferentTimestampsAreNotMerged() throws Exception {
+        ListenableFuture<Map<Cell, Value>> first = asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+        ListenableFuture<Map<Cell, Value>> second = asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 20L));
+        runSubmittedTasks();
+
+        assertThat(queries).containsExactly(ImmutableMap.of(CELL_1, 10L), ImmutableMap.of(CELL_1, 20L));
+        assertThat(first.get().get(CELL_1).getTimestamp()).isEqualTo(9L);
+        assertThat(second.get().get(CELL_1).getTimestamp()).isEqualTo(19L);
+    }
+
+    @Test
+    public void requestsArrivingAfterAQueryStartedAreNotMerged() {
+        asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+        runSubmittedTasks();
+        asyncGetter.get(TABLE, ImmutableMap.of(CELL_2, 10L));
+        runSubmittedTasks();
+
+        assertThat(queries).containsExactly(ImmutableMap.of(CELL_1, 10L), ImmutableMap.of(CELL_2, 10L));
+    }
+
+    @Test
+    public void runsOnCallingThreadWhenExecutorIsSaturated() throws Exception {
+        doThrow(new RejectedExecutionException()).when(executor).execute(any());
+
+        ListenableFuture<Map<Cell, Value>> future = asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+
+        assertThat(future.isDone()).isTrue();
+        assertThat(future.get()).containsOnlyKeys(CELL_1);
+    }
+
+    @Test
+    public void failuresArePropagatedToEveryMergedRequest() {
+        RuntimeException failure = new RuntimeException("boom");
+        asyncGetter = new CoalescingAsyncGetter((tableRef, timestampByCell) -> {
+            throw failure;
+        }, executor);
+
+        ListenableFuture<Map<Cell, Value>> first = asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+        ListenableFuture<Map<Cell, Value>> second = asyncGetter.get(TABLE, ImmutableMap.of(CELL_2, 10L));
+        runSubmittedTasks();
+
+        assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+        assertThatThrownBy(second::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+    }
+
+    @Test
+    public void requestsAreOnlyMergedUpToTheMaximumNumberOfCells() {
+        asyncGetter = new CoalescingAsyncGetter(this::recordQuery, executor, 2);
+
+        asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+        asyncGetter.get(TABLE, ImmutableMap.of(CELL_2, 10L));
+        asyncGetter.get(TABLE, ImmutableMap.of(CELL_3, 10L));
+        runSubmittedTasks();
+
+        assertThat(queries).containsExactly(
+                ImmutableMap.of(CELL_1, 10L, CELL_2, 10L),
+                ImmutableMap.of(CELL_3, 10L));
+    }
+
+    @Test
+    public void requestsLargerThanTheMaximumNumberOfCellsAreNotSplit() {
+        asyncGetter = new CoalescingAsyncGetter(this::recordQuery, executor, 2);
+
+        asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L, CELL_2, 10L, CELL_3, 10L));
+        asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+        runSubmittedTasks();
+
+        assertThat(queries).containsExactly(
+                ImmutableMap.of(CELL_1, 10L, CELL_2, 10L, CELL_3, 10L),
+                ImmutableMap.of(CELL_1, 10L));
+    }
+
+    @Test
+    public void closeWaitsForQueuedRequests() throws Exception {
+        when(executor.awaitTermination(anyLong(), any())).thenAnswer(invocation -> {
+            runSubmittedTasks();
+            return true;
+        });
+        ListenableFuture<Map<Cell, Value>> future = asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+
+        asyncGetter.close();
+
+        verify(executor).shutdown();
+        assertThat(future.get()).containsOnlyKeys(CELL_1);
+    }
+
+    @Test
+    public void closeFailsRequestsThatDidNotStartInTime() {
+        ListenableFuture<Map<Cell, Value>> future = asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+
+        asyncGetter.close();
+        runSubmittedTasks();
+
+        verify(executor).shutdownNow();
+        assertThatThrownBy(future::get).hasCauseInstanceOf(SafeIllegalStateException.class);
+        assertThat(queries).isEmpty();
+    }
+
+    @Test
+    public void requestsAfterCloseFail() {
+        asyncGetter.close();
+        when(executor.isShutdown()).thenReturn(true);
+        doThrow(new RejectedExecutionException()).when(executor).execute(any());
+
+        ListenableFuture<Map<Cell, Value>> future = asyncGetter.get(TABLE, ImmutableMap.of(CELL_1, 10L));
+
+        assertThatThrownBy(future::get).hasCauseInstanceOf(SafeIllegalStateException.class);
+        assertThat(queries).isEmpty();
+    }
+
+    @Test
+    public void everyRequestCompletesWhenRequestsAreCreatedAndJoinedConcurrently() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        ExecutorService getterExecutor = Executors.newSingleThreadExecutor();
+        asyncGetter = new CoalescingAsyncGetter(CoalescingAsyncGetterTest::readAtTimestamp, getterExecutor, 2);
+
+        try {
+            // Small merged gets and clashing timestamps make joins fail, which used to strand requests merged into a
+            // pending get whose creator then failed to join it.
+            List<Future<ListenableFuture<Map<Cell, Value>>>> futures = IntStream.range(0, 10_000)
+                    .mapToObj(index -> callers.submit(() -> asyncGetter.get(
+                            TABLE, ImmutableMap.of(index % 2 == 0 ? CELL_1 : CELL_2, index % 3L))))
+                    .collect(Collectors.toList());
+
+            for (Future<ListenableFuture<Map<Cell, Value>>> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS)).hasSize(1);
+            }
+        } finally {
+            callers.shutdownNow();
+            getterExecutor.shutdownNow();
+        }
+    }
+
+    private Map<Cell, Value> recordQuery(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        queries.add(ImmutableMap.copyOf(timestampByCell));
+        return readAtTimestamp(tableRef, timestampByCell);
+    }
+
+    private static Map<Cell, Value> readAtTimestamp(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        return timestampByCell.entrySet().stream().collect(Collectors.toMap(
+                Map.Entry::getKey,
+                entry -> Value.create(PtBytes.toBytes(entry.getValue()), entry.getValue() - 1)));
+    }
+
+    private void runSubmittedTasks() {
+        List<Runnable> tasks = new ArrayList<>(submittedTasks);
+        submittedTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutablePostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.PrefixedTableNames;
+import com.palantir.exception.PalantirSqlException;
+import com.palantir.nexus.db.sql.SqlConnection;
+
+public class PostgresWriteTableTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("ns.test");
+    private static final String PREFIXED_TABLE_NAME = "a_ns__test";
+
+    private final ConnectionSupplier conns = mock(ConnectionSupplier.class);
+    private final SqlConnection connection = mock(SqlConnection.class);
+    private final PrefixedTableNames prefixedTableNames = mock(PrefixedTableNames.class);
+
+    private PostgresWriteTable writeTable;
+
+    @Before
+    public void setUp() {
+        when(conns.get()).thenReturn(connection);
+        when(prefixedTableNames.get(TABLE, conns)).thenReturn(PREFIXED_TABLE_NAME);
+        writeTable = new PostgresWriteTable(
+                ImmutablePostgresDdlConfig.builder().build(), conns, TABLE, prefixedTableNames);
+    }
+
+    @Test
+    public void putWritesManyRowsPerStatement() {
+        List<Integer> argsPerStatement = new ArrayList<>();
+        when(connection.insertOneUnregisteredQuery(anyString(), any())).thenAnswer(invocation -> {
+            argsPerStatement.add(invocation.getArguments().length - 1);
+            return true;
+        });
+
+        writeTable.put(entries(PostgresWriteTable.ROWS_PER_STATEMENT + 1), 5L);
+
+        assertThat(argsPerStatement).containsExactly(4 * PostgresWriteTable.ROWS_PER_STATEMENT, 4);
+    }
+
+    @Test
+    public void putMapsPrimaryKeyViolationsToKeyAlreadyExists() {
+        when(connection.insertOneUnregisteredQuery(anyString(), any()))
+                .thenThrow(PalantirSqlException.create("duplicate key value violates unique constraint"));
+
+        assertThatThrownBy(() -> writeTable.put(entries(1), 5L)).isInstanceOf(KeyAlreadyExistsException.class);
+    }
+
+    @Test
+    public void sentinelsIgnoreExistingRows() {
+        List<Cell> cells = entries(3).stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        writeTable.putSentinels(cells);
+
+        verify(connection).insertOneUnregisteredQuery(endsWith("ON CONFLICT DO NOTHING"), any());
+    }
+
+    private static List<Map.Entry<Cell, byte[]>> entries(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Maps.immutableEntry(
+                        Cell.create(PtBytes.toBytes("row" + i), PtBytes.toBytes("col")), PtBytes.toBytes(i)))
+                .collect(Collectors.toList());
+    }
+}
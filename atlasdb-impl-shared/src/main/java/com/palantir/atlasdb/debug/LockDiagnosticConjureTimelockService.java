@@ -32,6 +32,8 @@ import com.palantir.atlasdb.timelock.api.ConjureUnlockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureWaitForLocksResponse;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsResponse;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.tokens.auth.AuthHeader;
 
@@ -62,6 +64,21 @@ public class LockDiagnosticConjureTimelockService implements ConjureTimelockServ
         return response;
     }
 
+    @Override
+    public MultiClientStartTransactionsResponse startTransactionsForClients(AuthHeader authHeader,
+            MultiClientStartTransactionsRequest request) {
+        MultiClientStartTransactionsResponse response =
+                conjureDelegate.startTransactionsForClients(authHeader, request);
+        for (int i = 0; i < response.getResponses().size(); i++) {
+            ConjureStartTransactionsResponse namespaceResponse = response.getResponses().get(i);
+            lockDiagnosticCollector.collect(
+                    namespaceResponse.getTimestamps().stream(),
+                    namespaceResponse.getImmutableTimestamp().getImmutableTimestamp(),
+                    request.getRequests().get(i).getRequest().getRequestId());
+        }
+        return response;
+    }
+
     @Override
     public ConjureGetFreshTimestampsResponse getFreshTimestamps(AuthHeader authHeader, String namespace,
             ConjureGetFreshTimestampsRequest request) {
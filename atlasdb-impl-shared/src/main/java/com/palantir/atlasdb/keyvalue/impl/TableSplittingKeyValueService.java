@@ -231,6 +231,11 @@ public final class TableSplittingKeyValueService implements KeyValueService {
         return getDelegate(tableRef).getFirstBatchForRanges(tableRef, rangeRequests, timestamp);
     }
 
+    @Override
+    public List<RangeRequest> getTableSplits(TableReference tableRef, int desiredParallelism) {
+        return getDelegate(tableRef).getTableSplits(tableRef, desiredParallelism);
+    }
+
     @Override
     public Map<Cell, Long> getLatestTimestamps(TableReference tableRef, Map<Cell, Long> timestampByCell) {
         return getDelegate(tableRef).getLatestTimestamps(tableRef, timestampByCell);
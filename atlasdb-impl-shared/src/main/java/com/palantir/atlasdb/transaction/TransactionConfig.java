@@ -52,6 +52,57 @@ public abstract class TransactionConfig {
         return false;
     }
 
+    /**
+     * If true, commit stages that do not depend on each other run concurrently: conflict checking overlaps with
+     * writing to the targeted sweep queue, and user pre-commit conditions overlap with the read-write conflict check
+     * of serializable transactions. Ordering between dependent stages is unchanged.
+     */
+    @Value.Default
+    public boolean pipelineCommitStages() {
+        return false;
+    }
+
+    /**
+     * If true, serializable transactions remember a 128-bit digest of each value they read rather than the value
+     * itself, and compare digests when checking for read-write conflicts at commit time. This bounds the memory used
+     * by large serializable transactions by the number of cells read, at the cost of hashing every value read twice.
+     */
+    @Value.Default
+    public boolean compactSerializableReadSet() {
+        return false;
+    }
+
+    /**
+     * If positive, gets of more than this many cells are split into chunks of at most this size, each of which is read
+     * and post-filtered independently, so that commit timestamp lookups for one chunk overlap with reading the next.
+     * Synchronous gets read chunks on the getRanges executor as well as the calling thread, bounded by the default
+     * getRanges concurrency. Zero disables chunking.
+     */
+    @Value.Default
+    public int pipelinedGetChunkSize() {
+        return 0;
+    }
+
+    /**
+     * If true, {@code getRanges} requests the first pages of its groups of ranges concurrently, bounded by the
+     * default getRanges concurrency, and range scans fetch and post-filter their next page in the background while the
+     * caller consumes the current one. At most one page per range is fetched ahead.
+     */
+    @Value.Default
+    public boolean pipelineRangeReads() {
+        return false;
+    }
+
+    /**
+     * The maximum number of tables or ranges whose reads a serializable transaction verifies concurrently at commit
+     * time, using the shared getRanges executor in addition to the committing thread. A value of one verifies reads
+     * sequentially on the committing thread.
+     */
+    @Value.Default
+    public int serializableReadVerificationConcurrency() {
+        return 1;
+    }
+
     /**
      * TODO(fdesouza): Remove this once PDS-95791 is resolved.
      * @deprecated Remove this once PDS-95791 is resolved.
@@ -0,0 +1,114 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.common.base.Throwables;
+import com.palantir.tracing.Tracers;
+
+/**
+ * Runs tasks with bounded parallelism without ever waiting on an executor that may be saturated, or whose threads
+ * are themselves waiting on this call.
+ * <p>
+ * The calling thread takes part in running the tasks, and helpers are offered to the executor. A helper that has not
+ * started by the time the calling thread runs out of tasks is abandoned, so running the tasks never takes longer than
+ * running them in sequence on the calling thread plus the tasks already in progress on helpers.
+ */
+final class ParallelTasks {
+    private ParallelTasks() {
+        // utility
+    }
+
+    /**
+     * Returns the results of the given tasks, in order. Once a task fails no new tasks are started, and the first
+     * failure is thrown unchanged if it is unchecked.
+     */
+    static <T> List<T> run(List<? extends Supplier<T>> tasks, Executor executor, int parallelism) {
+        @SuppressWarnings("unchecked")
+        T[] results = (T[]) new Object[tasks.size()];
+        AtomicInteger nextTask = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            int task;
+            while (failure.get() == null && (task = nextTask.getAndIncrement()) < tasks.size()) {
+                try {
+                    results[task] = tasks.get(task).get();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }
+        };
+
+        int helpers = Math.min(parallelism, tasks.size()) - 1;
+        List<Helper> offeredHelpers = new ArrayList<>();
+        for (int i = 0; i < helpers; i++) {
+            Helper helper = new Helper(worker);
+            try {
+                executor.execute(Tracers.wrap(helper));
+                offeredHelpers.add(helper);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+
+        worker.run();
+        offeredHelpers.forEach(Helper::awaitIfStarted);
+
+        if (failure.get() != null) {
+            throw Throwables.throwUncheckedException(failure.get());
+        }
+        return Arrays.asList(results);
+    }
+
+    private static final class Helper implements Runnable {
+        private final Runnable worker;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        Helper(Runnable worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                worker.run();
+            } finally {
+                done.countDown();
+            }
+        }
+
+        void awaitIfStarted() {
+            if (!claimed.compareAndSet(false, true)) {
+                Uninterruptibles.awaitUninterruptibly(done);
+            }
+        }
+    }
+}
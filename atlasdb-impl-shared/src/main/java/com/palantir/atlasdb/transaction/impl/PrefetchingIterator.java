@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.tracing.Tracers;
+
+/**
+ * Wraps an iterator whose elements are expensive to compute, such as pages of a range scan, and computes the next
+ * element on the given executor while the consumer works on the current one. At most one element is computed ahead,
+ * and the delegate is only ever accessed by one thread at a time.
+ * <p>
+ * If the executor has not started computing an element by the time the consumer asks for it, the consumer computes
+ * it itself, so a busy executor never makes iteration slower than iterating the delegate directly.
+ */
+final class PrefetchingIterator<T> extends AbstractIterator<T> implements AutoCloseable {
+    private final Iterator<T> delegate;
+    private final Executor executor;
+
+    private Prefetch pending;
+
+    PrefetchingIterator(Iterator<T> delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    protected T computeNext() {
+        Prefetch current = pending != null ? pending : new Prefetch();
+        pending = null;
+        Optional<T> next = current.await();
+        if (!next.isPresent()) {
+            return endOfData();
+        }
+
+        pending = new Prefetch();
+        try {
+            executor.execute(Tracers.wrap(pending));
+        } catch (RejectedExecutionException e) {
+            // the consumer will compute the element when it needs it
+        }
+        return next.get();
+    }
+
+    /**
+     * Waits for an element being computed in the background, if any, so that the delegate can be safely released.
+     */
+    @Override
+    public void close() {
+        if (pending != null) {
+            pending.cancelOrAwait();
+            pending = null;
+        }
+    }
+
+    private final class Prefetch implements Runnable {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final SettableFuture<Optional<T>> result = SettableFuture.create();
+
+        @Override
+        public void run() {
+            if (claimed.compareAndSet(false, true)) {
+                compute();
+            }
+        }
+
+        Optional<T> await() {
+            run();
+            try {
+                return Uninterruptibles.getUninterruptibly(result);
+            } catch (ExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        void cancelOrAwait() {
+            if (!claimed.compareAndSet(false, true)) {
+                try {
+                    Uninterruptibles.getUninterruptibly(result);
+                } catch (ExecutionException e) {
+                    // the element is no longer needed
+                }
+            }
+        }
+
+        private void compute() {
+            try {
+                result.set(delegate.hasNext() ? Optional.of(delegate.next()) : Optional.empty());
+            } catch (Throwable t) {
+                result.setException(t);
+            }
+        }
+    }
+}
@@ -41,6 +41,7 @@ import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Functions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
@@ -56,10 +57,12 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.AtlasDbMetricNames;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.NoOpCleaner;
 import com.palantir.atlasdb.cleaner.api.Cleaner;
@@ -123,6 +126,8 @@ public class SerializableTransaction extends SnapshotTransaction {
     final ConcurrentMap<TableReference, Set<Cell>> cellsRead = Maps.newConcurrentMap();
     final ConcurrentMap<TableReference, Set<RowRead>> rowsRead = Maps.newConcurrentMap();
 
+    private final boolean compactReadSet;
+
     public SerializableTransaction(MetricsManager metricsManager,
                                    KeyValueService keyValueService,
                                    TimelockService timelockService,
@@ -171,6 +176,7 @@ public class SerializableTransaction extends SnapshotTransaction {
               validateLocksOnReads,
               transactionConfig,
               conflictTracer);
+        this.compactReadSet = transactionConfig.get().compactSerializableReadSet();
     }
 
     @Override
@@ -402,7 +408,7 @@ public class SerializableTransaction extends SnapshotTransaction {
         if (!isSerializableTable(table)) {
             return;
         }
-        getReadsForTable(table).putAll(transformGetsForTesting(result));
+        getReadsForTable(table).putAll(toReadSetValues(transformGetsForTesting(result)));
         Set<Cell> cellsForTable = cellsRead.computeIfAbsent(table, unused -> ConcurrentHashMap.newKeySet());
         cellsForTable.addAll(searched);
     }
@@ -415,7 +421,7 @@ public class SerializableTransaction extends SnapshotTransaction {
         for (RowResult<byte[]> row : result) {
             Map<Cell, byte[]> map = Maps2.fromEntries(row.getCells());
             map = transformGetsForTesting(map);
-            reads.putAll(map);
+            reads.putAll(toReadSetValues(map));
         }
         setRangeEnd(table, range, Iterables.getLast(result).getRowName());
     }
@@ -430,10 +436,27 @@ public class SerializableTransaction extends SnapshotTransaction {
         }
         ConcurrentNavigableMap<Cell, byte[]> reads = getReadsForTable(table);
         Map<Cell, byte[]> map = Maps2.fromEntries(result);
-        reads.putAll(transformGetsForTesting(map));
+        reads.putAll(toReadSetValues(transformGetsForTesting(map)));
         setColumnRangeEnd(table, row, range, Iterables.getLast(result).getKey().getColumnName());
     }
 
+    /**
+     * In compact mode, the read set holds a fixed-size digest of each value instead of the value itself, so the memory
+     * used by a serializable transaction grows with the number of cells read rather than with their size. Values
+     * read again at commit time are digested the same way before being compared.
+     */
+    private Map<Cell, byte[]> toReadSetValues(Map<Cell, byte[]> values) {
+        return compactReadSet ? Maps.transformValues(values, SerializableTransaction::digest) : values;
+    }
+
+    private byte[] toReadSetValue(byte[] value) {
+        return compactReadSet ? digest(value) : value;
+    }
+
+    private static byte[] digest(byte[] value) {
+        return Hashing.murmur3_128().hashBytes(value).asBytes();
+    }
+
     private static class RowRead {
         final ImmutableList<byte[]> rows;
         final ColumnSelection cols;
@@ -455,7 +478,7 @@ public class SerializableTransaction extends SnapshotTransaction {
         ConcurrentNavigableMap<Cell, byte[]> reads = getReadsForTable(table);
         for (RowResult<byte[]> row : result) {
             Map<Cell, byte[]> map = Maps2.fromEntries(row.getCells());
-            reads.putAll(transformGetsForTesting(map));
+            reads.putAll(toReadSetValues(transformGetsForTesting(map)));
         }
 
         Set<RowRead> rowReads = rowsRead.computeIfAbsent(table, unused -> ConcurrentHashMap.newKeySet());
@@ -488,28 +511,60 @@ public class SerializableTransaction extends SnapshotTransaction {
     @Override
     protected void throwIfReadWriteConflictForSerializable(long commitTimestamp) {
         Transaction ro = getReadOnlyTransaction(commitTimestamp);
-        verifyRanges(ro);
-        verifyColumnRanges(ro);
-        verifyCells(ro);
-        verifyRows(ro);
-    }
-
-    private void verifyRows(Transaction ro) {
-        for (Map.Entry<TableReference, Set<RowRead>> tableAndRowsEntry : rowsRead.entrySet()) {
-            TableReference table = tableAndRowsEntry.getKey();
-            Set<RowRead> rows = tableAndRowsEntry.getValue();
-
-            ConcurrentNavigableMap<Cell, byte[]> readsForTable = getReadsForTable(table);
-            Multimap<ColumnSelection, byte[]> rowsReadByColumns = Multimaps.newSortedSetMultimap(
-                    Maps.newHashMap(),
-                    () -> Sets.newTreeSet(UnsignedBytes.lexicographicalComparator()));
-            for (RowRead r : rows) {
-                rowsReadByColumns.putAll(r.cols, r.rows);
-            }
-            for (ColumnSelection cols : rowsReadByColumns.keySet()) {
-                verifyColumns(ro, table, readsForTable, rowsReadByColumns, cols);
+        List<ReadVerification> verifications = Lists.newArrayList();
+        rangeEndByTable.forEach((table, rangeEnds) -> rangeEnds.forEach((range, rangeEnd) -> verifications.add(
+                new ReadVerification(table, () -> verifyRange(ro, table, range, rangeEnd)))));
+        columnRangeEndsByTable.forEach((table, columnRangeEnds) -> verifications.add(
+                new ReadVerification(table, () -> verifyColumnRanges(ro, table, columnRangeEnds))));
+        cellsRead.forEach((table, cells) -> verifications.add(
+                new ReadVerification(table, () -> verifyCells(ro, table, cells))));
+        rowsRead.forEach((table, rows) -> verifications.add(
+                new ReadVerification(table, () -> verifyRows(ro, table, rows))));
+        ParallelTasks.run(
+                verifications,
+                getRangesExecutor,
+                transactionConfig.get().serializableReadVerificationConcurrency());
+    }
+
+    /**
+     * Verifies part of the reads of a table. Verifications may run concurrently, on the committing thread and on
+     * {@link #getRangesExecutor}.
+     */
+    private final class ReadVerification implements Supplier<Void> {
+        private final TableReference table;
+        private final Runnable verification;
+
+        ReadVerification(TableReference table, Runnable verification) {
+            this.table = table;
+            this.verification = verification;
+        }
+
+        @Override
+        public Void get() {
+            try (Timer.Context timer = getVerificationTimer(table).time()) {
+                verification.run();
             }
+            return null;
+        }
+    }
+
+    private Timer getVerificationTimer(TableReference table) {
+        return metricsManager.registerOrGetTaggedTimer(
+                SerializableTransaction.class,
+                AtlasDbMetricNames.SERIALIZABLE_TRANSACTION_READ_VERIFICATION,
+                metricsManager.getTableNameTagFor(table));
+    }
 
+    private void verifyRows(Transaction ro, TableReference table, Set<RowRead> rows) {
+        ConcurrentNavigableMap<Cell, byte[]> readsForTable = getReadsForTable(table);
+        Multimap<ColumnSelection, byte[]> rowsReadByColumns = Multimaps.newSortedSetMultimap(
+                Maps.newHashMap(),
+                () -> Sets.newTreeSet(UnsignedBytes.lexicographicalComparator()));
+        for (RowRead r : rows) {
+            rowsReadByColumns.putAll(r.cols, r.rows);
+        }
+        for (ColumnSelection cols : rowsReadByColumns.keySet()) {
+            verifyColumns(ro, table, readsForTable, rowsReadByColumns, cols);
         }
     }
 
@@ -548,7 +603,7 @@ public class SerializableTransaction extends SnapshotTransaction {
                     handleTransactionConflict(table);
                 }
 
-                Map<Cell, byte[]> currentCells = Maps2.fromEntries(currentRow.getCells());
+                Map<Cell, byte[]> currentCells = toReadSetValues(Maps2.fromEntries(currentRow.getCells()));
                 if (writesByTable.get(table) != null) {
                     // We don't want to verify any reads that we wrote to cause
                     // we will just read our own values.
@@ -580,56 +635,46 @@ public class SerializableTransaction extends SnapshotTransaction {
         return true;
     }
 
-    private void verifyCells(Transaction readOnlyTransaction) {
-        for (Entry<TableReference, Set<Cell>> tableAndCellsEntry : cellsRead.entrySet()) {
-            TableReference table = tableAndCellsEntry.getKey();
-            Set<Cell> cells = tableAndCellsEntry.getValue();
-
-            final ConcurrentNavigableMap<Cell, byte[]> readsForTable = getReadsForTable(table);
-            for (Iterable<Cell> batch : Iterables.partition(cells, BATCH_SIZE)) {
-                // We don't want to verify any reads that we wrote to cause we will just read our own values.
-                // NB: If the value has changed between read and write, our normal SI checking handles this case
-                Iterable<Cell> batchWithoutWrites = writesByTable.get(table) != null
-                        ? Iterables.filter(batch, Predicates.not(Predicates.in(writesByTable.get(table).keySet())))
-                        : batch;
-                ImmutableSet<Cell> batchWithoutWritesSet = ImmutableSet.copyOf(batchWithoutWrites);
-                Map<Cell, byte[]> currentBatch = readOnlyTransaction.get(table, batchWithoutWritesSet);
-                ImmutableMap<Cell, byte[]> originalReads = Maps.toMap(
-                        Sets.intersection(batchWithoutWritesSet, readsForTable.keySet()),
-                        Functions.forMap(readsForTable));
-                if (!areMapsEqual(currentBatch, originalReads)) {
-                    handleTransactionConflict(table);
-                }
+    private void verifyCells(Transaction readOnlyTransaction, TableReference table, Set<Cell> cells) {
+        final ConcurrentNavigableMap<Cell, byte[]> readsForTable = getReadsForTable(table);
+        for (Iterable<Cell> batch : Iterables.partition(cells, BATCH_SIZE)) {
+            // We don't want to verify any reads that we wrote to cause we will just read our own values.
+            // NB: If the value has changed between read and write, our normal SI checking handles this case
+            Iterable<Cell> batchWithoutWrites = writesByTable.get(table) != null
+                    ? Iterables.filter(batch, Predicates.not(Predicates.in(writesByTable.get(table).keySet())))
+                    : batch;
+            ImmutableSet<Cell> batchWithoutWritesSet = ImmutableSet.copyOf(batchWithoutWrites);
+            Map<Cell, byte[]> currentBatch =
+                    toReadSetValues(readOnlyTransaction.get(table, batchWithoutWritesSet));
+            ImmutableMap<Cell, byte[]> originalReads = Maps.toMap(
+                    Sets.intersection(batchWithoutWritesSet, readsForTable.keySet()),
+                    Functions.forMap(readsForTable));
+            if (!areMapsEqual(currentBatch, originalReads)) {
+                handleTransactionConflict(table);
             }
         }
     }
 
-    private void verifyRanges(Transaction readOnlyTransaction) {
-        // verify each set of reads to ensure they are the same.
-        for (Entry<TableReference, ConcurrentMap<RangeRequest, byte[]>> tableAndRange : rangeEndByTable.entrySet()) {
-            TableReference table = tableAndRange.getKey();
-            Map<RangeRequest, byte[]> rangeEnds = tableAndRange.getValue();
-
-            for (Entry<RangeRequest, byte[]> rangeAndRangeEndEntry : rangeEnds.entrySet()) {
-                RangeRequest range = rangeAndRangeEndEntry.getKey();
-                byte[] rangeEnd = rangeAndRangeEndEntry.getValue();
-
-                if (rangeEnd.length != 0 && !RangeRequests.isTerminalRow(range.isReverse(), rangeEnd)) {
-                    range = range.getBuilder()
-                            .endRowExclusive(RangeRequests.getNextStartRow(range.isReverse(), rangeEnd))
-                            .build();
-                }
+    private void verifyRange(
+            Transaction readOnlyTransaction,
+            TableReference table,
+            RangeRequest rangeRead,
+            byte[] rangeEnd) {
+        RangeRequest range = rangeRead;
+        if (rangeEnd.length != 0 && !RangeRequests.isTerminalRow(range.isReverse(), rangeEnd)) {
+            range = range.getBuilder()
+                    .endRowExclusive(RangeRequests.getNextStartRow(range.isReverse(), rangeEnd))
+                    .build();
+        }
 
-                ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(table);
-                BatchingVisitableView<RowResult<byte[]>> bv = BatchingVisitableView.of(
-                        readOnlyTransaction.getRange(table, range));
-                NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
-                        getReadsInRange(table, range),
-                        ByteBuffer::wrap);
-                if (!bv.transformBatch(input -> filterWritesFromRows(input, writes)).isEqual(readsInRange.entrySet())) {
-                    handleTransactionConflict(table);
-                }
-            }
+        ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(table);
+        BatchingVisitableView<RowResult<byte[]>> bv = BatchingVisitableView.of(
+                readOnlyTransaction.getRange(table, range));
+        NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
+                getReadsInRange(table, range),
+                ByteBuffer::wrap);
+        if (!bv.transformBatch(input -> filterWritesFromRows(input, writes)).isEqual(readsInRange.entrySet())) {
+            handleTransactionConflict(table);
         }
     }
 
@@ -657,47 +702,40 @@ public class SerializableTransaction extends SnapshotTransaction {
         return reads;
     }
 
-    private void verifyColumnRanges(Transaction readOnlyTransaction) {
-        // verify each set of reads to ensure they are the same.
-        for (Entry<TableReference,
-                ConcurrentMap<ByteBuffer, ConcurrentMap<BatchColumnRangeSelection, byte[]>>> tableAndColumnRangeEnds :
-                columnRangeEndsByTable.entrySet()) {
-
-            Map<ByteBuffer, ConcurrentMap<BatchColumnRangeSelection, byte[]>> columnRangeEnds =
-                    tableAndColumnRangeEnds.getValue();
-
-            Multimap<BatchColumnRangeSelection, byte[]> rangesToRows = LinkedListMultimap.create();
-            for (Entry<ByteBuffer, ConcurrentMap<BatchColumnRangeSelection, byte[]>> rowAndRangeEnds :
-                    columnRangeEnds.entrySet()) {
-                byte[] row = rowAndRangeEnds.getKey().array();
-                Map<BatchColumnRangeSelection, byte[]> rangeEnds = rowAndRangeEnds.getValue();
-                for (Entry<BatchColumnRangeSelection, byte[]> e : rangeEnds.entrySet()) {
-                    BatchColumnRangeSelection range = e.getKey();
-                    byte[] rangeEnd = e.getValue();
-                    rangesToRows.put(nextLexicographicalRangeEnd(range, rangeEnd), row);
-                }
+    private void verifyColumnRanges(
+            Transaction readOnlyTransaction,
+            TableReference table,
+            Map<ByteBuffer, ConcurrentMap<BatchColumnRangeSelection, byte[]>> columnRangeEnds) {
+        Multimap<BatchColumnRangeSelection, byte[]> rangesToRows = LinkedListMultimap.create();
+        for (Entry<ByteBuffer, ConcurrentMap<BatchColumnRangeSelection, byte[]>> rowAndRangeEnds :
+                columnRangeEnds.entrySet()) {
+            byte[] row = rowAndRangeEnds.getKey().array();
+            Map<BatchColumnRangeSelection, byte[]> rangeEnds = rowAndRangeEnds.getValue();
+            for (Entry<BatchColumnRangeSelection, byte[]> e : rangeEnds.entrySet()) {
+                BatchColumnRangeSelection range = e.getKey();
+                byte[] rangeEnd = e.getValue();
+                rangesToRows.put(nextLexicographicalRangeEnd(range, rangeEnd), row);
             }
+        }
 
-            TableReference table = tableAndColumnRangeEnds.getKey();
-            rangesToRows.asMap().forEach((columnRange, rows) -> {
-                Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> result =
-                        readOnlyTransaction.getRowsColumnRange(table, rows, columnRange);
-
-                for (Entry<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> cellValuesForRow : result.entrySet()) {
-                    byte[] row = cellValuesForRow.getKey();
-                    BatchingVisitableView<Entry<Cell, byte[]>> visitable =
-                            BatchingVisitableView.of(cellValuesForRow.getValue());
-                    NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
-                            getReadsInColumnRangeSkippingWrites(table, row, columnRange),
-                            ByteBuffer::wrap);
-                    boolean isEqual = visitable.transformBatch(cellValues -> filterWritesFromCells(cellValues, table))
-                            .isEqual(readsInRange.entrySet());
-                    if (!isEqual) {
-                        handleTransactionConflict(table);
-                    }
+        rangesToRows.asMap().forEach((columnRange, rows) -> {
+            Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> result =
+                    readOnlyTransaction.getRowsColumnRange(table, rows, columnRange);
+
+            for (Entry<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> cellValuesForRow : result.entrySet()) {
+                byte[] row = cellValuesForRow.getKey();
+                BatchingVisitableView<Entry<Cell, byte[]>> visitable =
+                        BatchingVisitableView.of(cellValuesForRow.getValue());
+                NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
+                        getReadsInColumnRangeSkippingWrites(table, row, columnRange),
+                        ByteBuffer::wrap);
+                boolean isEqual = visitable.transformBatch(cellValues -> filterWritesFromCells(cellValues, table))
+                        .isEqual(readsInRange.entrySet());
+                if (!isEqual) {
+                    handleTransactionConflict(table);
                 }
-            });
-        }
+            }
+        });
     }
 
     private static BatchColumnRangeSelection nextLexicographicalRangeEnd(
@@ -719,7 +757,7 @@ public class SerializableTransaction extends SnapshotTransaction {
         return filterWritesFromCells(cells, writesByTable.get(table));
     }
 
-    private static List<Entry<Cell, ByteBuffer>> filterWritesFromCells(
+    private List<Entry<Cell, ByteBuffer>> filterWritesFromCells(
             Iterable<Entry<Cell, byte[]>> cells,
             @Nullable Map<Cell, byte[]> writes) {
         List<Entry<Cell, ByteBuffer>> cellsWithoutWrites = Lists.newArrayList();
@@ -727,13 +765,14 @@ public class SerializableTransaction extends SnapshotTransaction {
             // NB: We filter our write set out here because our normal SI
             // checking handles this case to ensure the value hasn't changed.
             if (writes == null || !writes.containsKey(cell.getKey())) {
-                cellsWithoutWrites.add(Maps.immutableEntry(cell.getKey(), ByteBuffer.wrap(cell.getValue())));
+                cellsWithoutWrites.add(
+                        Maps.immutableEntry(cell.getKey(), ByteBuffer.wrap(toReadSetValue(cell.getValue()))));
             }
         }
         return cellsWithoutWrites;
     }
 
-    private static List<Entry<Cell, ByteBuffer>> filterWritesFromRows(
+    private List<Entry<Cell, ByteBuffer>> filterWritesFromRows(
             Iterable<RowResult<byte[]>> rows,
             @Nullable Map<Cell, byte[]> writes) {
         List<Entry<Cell, ByteBuffer>> rowsWithoutWrites = Lists.newArrayList();
@@ -30,9 +30,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
@@ -50,11 +53,13 @@ import org.slf4j.LoggerFactory;
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
@@ -72,10 +77,13 @@ import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbMetricNames;
 import com.palantir.atlasdb.AtlasDbPerformanceConstants;
@@ -140,6 +148,7 @@ import com.palantir.common.streams.MoreStreams;
 import com.palantir.lock.AtlasCellLockDescriptor;
 import com.palantir.lock.AtlasRowLockDescriptor;
 import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.StringLockDescriptor;
 import com.palantir.lock.v2.ImmutableLockRequest;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
@@ -154,6 +163,7 @@ import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 import com.palantir.logsafe.exceptions.SafeRuntimeException;
 import com.palantir.tracing.CloseableTracer;
+import com.palantir.tracing.Tracers;
 import com.palantir.util.AssertUtils;
 import com.palantir.util.paging.TokenBackedBasicResultsPage;
 
@@ -178,6 +188,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     private static final Logger constraintLogger = LoggerFactory.getLogger("dualschema.constraints");
 
     private static final int BATCH_SIZE_GET_FIRST_PAGE = 1000;
+    private static final String COARSENED_LOCK_PREFIX = "atlasdb-commit-lock-bucket/";
 
     private enum State {
         UNCOMMITTED,
@@ -646,14 +657,30 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             }
         }
 
-        // We don't need to read any cells that were written locally.
+        // Cells of watched tables may be served from the lock watch value cache, provided no lock event has
+        // invalidated them since they were cached.
+        boolean useValueCache = canUseValueCache(tableRef);
+        Map<Cell, byte[]> cached = useValueCache
+                ? lockWatchManager.getCachedValues(
+                        getStartTimestamp(), tableRef, Sets.difference(cells, result.keySet()))
+                : ImmutableMap.of();
+        if (!cached.isEmpty()) {
+            result.putAll(cached);
+            getCounter(AtlasDbMetricNames.LOCK_WATCH_CACHE_HITS, tableRef).inc(cached.size());
+        }
+
+        // We don't need to read any cells that were written locally or are cached.
+        Set<Cell> toRead = ImmutableSet.copyOf(Sets.difference(cells, result.keySet()));
         return Futures.transform(
                 getFromKeyValueService(
                         tableRef,
-                        Sets.difference(cells, result.keySet()),
+                        toRead,
                         asyncKeyValueService,
                         asyncTransactionService),
                 fromKeyValueService -> {
+                    if (useValueCache) {
+                        cacheValuesRead(tableRef, toRead, fromKeyValueService);
+                    }
                     result.putAll(fromKeyValueService);
 
                     long getMillis = TimeUnit.NANOSECONDS.toMillis(timer.stop());
@@ -671,6 +698,33 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 MoreExecutors.directExecutor());
     }
 
+    /**
+     * Cached values are only invalidated by lock events for the row or cell descriptors of a write. Writers to tables
+     * that ignore conflicts take no such locks, and writers to tables with coarsened commit locks take bucket locks
+     * instead, so neither kind of table can be cached.
+     */
+    private boolean canUseValueCache(TableReference tableRef) {
+        ConflictHandler conflictHandler = conflictDetectionManager.get(tableRef);
+        return conflictHandler != null
+                && (conflictHandler.lockCellsForConflicts() || conflictHandler.lockRowsForConflicts())
+                && conflictDetectionManager.getLockCoarseningBuckets(tableRef) == 0;
+    }
+
+    /**
+     * Offers the post-filtered values read from the key value service to the lock watch value cache. Cells that were
+     * read but have no visible value are cached as empty values, which is how deletes are represented.
+     */
+    private void cacheValuesRead(TableReference tableRef, Set<Cell> cellsRead, Map<Cell, byte[]> valuesRead) {
+        if (cellsRead.isEmpty()) {
+            return;
+        }
+        Map<Cell, byte[]> toCache = Maps.newHashMapWithExpectedSize(cellsRead.size());
+        for (Cell cell : cellsRead) {
+            toCache.put(cell, valuesRead.getOrDefault(cell, PtBytes.EMPTY_BYTE_ARRAY));
+        }
+        lockWatchManager.cacheValuesRead(getStartTimestamp(), tableRef, toCache);
+    }
+
     @Override
     public Map<Cell, byte[]> getIgnoringLocalWrites(TableReference tableRef, Set<Cell> cells) {
         checkGetPreconditions(tableRef);
@@ -699,6 +753,41 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             Set<Cell> cells,
             AsyncKeyValueService asyncKeyValueService,
             AsyncTransactionService asyncTransactionService) {
+        int chunkSize = transactionConfig.get().pipelinedGetChunkSize();
+        if (chunkSize <= 0 || cells.size() <= chunkSize) {
+            return getChunkFromKeyValueService(tableRef, cells, asyncKeyValueService, asyncTransactionService);
+        }
+
+        List<Set<Cell>> chunks = Lists.transform(
+                Lists.partition(ImmutableList.copyOf(cells), chunkSize), ImmutableSet::copyOf);
+        if (asyncKeyValueService == immediateKeyValueService) {
+            // Reads through the immediate key value service complete before they return, so chunks only overlap if
+            // they are read on other threads.
+            List<Supplier<Map<Cell, byte[]>>> chunkReads = Lists.transform(chunks,
+                    chunk -> () -> AtlasFutures.getUnchecked(getChunkFromKeyValueService(
+                            tableRef, chunk, asyncKeyValueService, asyncTransactionService)));
+            List<Map<Cell, byte[]>> chunkResults =
+                    ParallelTasks.run(chunkReads, getRangesExecutor, defaultGetRangesConcurrency);
+            return Futures.immediateFuture(mergeChunks(chunkResults));
+        }
+        return Futures.transform(
+                Futures.allAsList(Lists.transform(chunks, chunk -> getChunkFromKeyValueService(
+                        tableRef, chunk, asyncKeyValueService, asyncTransactionService))),
+                SnapshotTransaction::mergeChunks,
+                MoreExecutors.directExecutor());
+    }
+
+    private static Map<Cell, byte[]> mergeChunks(List<Map<Cell, byte[]>> chunkResults) {
+        ImmutableMap.Builder<Cell, byte[]> merged = ImmutableMap.builder();
+        chunkResults.forEach(merged::putAll);
+        return merged.build();
+    }
+
+    private ListenableFuture<Map<Cell, byte[]>> getChunkFromKeyValueService(
+            TableReference tableRef,
+            Set<Cell> cells,
+            AsyncKeyValueService asyncKeyValueService,
+            AsyncTransactionService asyncTransactionService) {
         Map<Cell, Long> toRead = Cells.constantValueMap(cells, getStartTimestamp());
         ListenableFuture<Collection<Map.Entry<Cell, byte[]>>> postFilteredResults =
                 Futures.transformAsync(
@@ -737,61 +826,80 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             hasReads = true;
         }
 
-        return FluentIterable.from(Iterables.partition(rangeRequests, BATCH_SIZE_GET_FIRST_PAGE))
-                .transformAndConcat(input -> {
-                    Timer.Context timer = getTimer("processedRangeMillis").time();
-                    Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> firstPages =
-                            keyValueService.getFirstBatchForRanges(tableRef, input, getStartTimestamp());
-                    validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
+        Iterable<List<RangeRequest>> groups = Iterables.partition(rangeRequests, BATCH_SIZE_GET_FIRST_PAGE);
+        if (!transactionConfig.get().pipelineRangeReads() || defaultGetRangesConcurrency <= 1) {
+            return FluentIterable.from(groups).transformAndConcat(input -> getFirstPages(tableRef, input));
+        }
+        // The calling thread takes part in reading each window of groups, so a saturated executor cannot stall it.
+        return FluentIterable.from(Iterables.partition(groups, defaultGetRangesConcurrency))
+                .transformAndConcat(window -> getFirstPagesInParallel(tableRef, window));
+    }
 
-                    SortedMap<Cell, byte[]> postFiltered = postFilterPages(
-                            tableRef,
-                            firstPages.values());
-
-                    List<BatchingVisitable<RowResult<byte[]>>> ret = Lists.newArrayListWithCapacity(input.size());
-                    for (RangeRequest rangeRequest : input) {
-                        TokenBackedBasicResultsPage<RowResult<Value>, byte[]> prePostFilter =
-                                firstPages.get(rangeRequest);
-                        byte[] nextStartRowName = getNextStartRowName(
-                                rangeRequest,
-                                prePostFilter);
-                        List<Map.Entry<Cell, byte[]>> mergeIterators = getPostFilteredWithLocalWrites(
-                                tableRef,
-                                postFiltered,
-                                rangeRequest,
-                                prePostFilter.getResults(),
-                                nextStartRowName);
-                        ret.add(new AbstractBatchingVisitable<RowResult<byte[]>>() {
-                            @Override
-                            protected <K extends Exception> void batchAcceptSizeHint(
-                                    int batchSizeHint,
-                                    ConsistentVisitor<RowResult<byte[]>, K> visitor)
-                                    throws K {
-                                checkGetPreconditions(tableRef);
-                                final Iterator<RowResult<byte[]>> rowResults = Cells.createRowView(mergeIterators);
-                                while (rowResults.hasNext()) {
-                                    if (!visitor.visit(ImmutableList.of(rowResults.next()))) {
-                                        return;
-                                    }
-                                }
-                                if ((nextStartRowName.length == 0) || !prePostFilter.moreResultsAvailable()) {
-                                    return;
-                                }
-                                RangeRequest newRange = rangeRequest.getBuilder()
-                                        .startRowInclusive(nextStartRowName)
-                                        .build();
-                                getRange(tableRef, newRange)
-                                        .batchAccept(batchSizeHint, visitor);
-                            }
-                        });
+    private List<BatchingVisitable<RowResult<byte[]>>> getFirstPagesInParallel(
+            TableReference tableRef,
+            List<List<RangeRequest>> groups) {
+        List<Supplier<List<BatchingVisitable<RowResult<byte[]>>>>> reads =
+                Lists.transform(groups, group -> () -> getFirstPages(tableRef, group));
+        List<List<BatchingVisitable<RowResult<byte[]>>>> firstPages =
+                ParallelTasks.run(reads, getRangesExecutor, defaultGetRangesConcurrency);
+        return ImmutableList.copyOf(Iterables.concat(firstPages));
+    }
+
+    private List<BatchingVisitable<RowResult<byte[]>>> getFirstPages(
+            TableReference tableRef,
+            List<RangeRequest> input) {
+        Timer.Context timer = getTimer("processedRangeMillis").time();
+        Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> firstPages =
+                keyValueService.getFirstBatchForRanges(tableRef, input, getStartTimestamp());
+        validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
+
+        SortedMap<Cell, byte[]> postFiltered = postFilterPages(
+                tableRef,
+                firstPages.values());
+
+        List<BatchingVisitable<RowResult<byte[]>>> ret = Lists.newArrayListWithCapacity(input.size());
+        for (RangeRequest rangeRequest : input) {
+            TokenBackedBasicResultsPage<RowResult<Value>, byte[]> prePostFilter =
+                    firstPages.get(rangeRequest);
+            byte[] nextStartRowName = getNextStartRowName(
+                    rangeRequest,
+                    prePostFilter);
+            List<Map.Entry<Cell, byte[]>> mergeIterators = getPostFilteredWithLocalWrites(
+                    tableRef,
+                    postFiltered,
+                    rangeRequest,
+                    prePostFilter.getResults(),
+                    nextStartRowName);
+            ret.add(new AbstractBatchingVisitable<RowResult<byte[]>>() {
+                @Override
+                protected <K extends Exception> void batchAcceptSizeHint(
+                        int batchSizeHint,
+                        ConsistentVisitor<RowResult<byte[]>, K> visitor)
+                        throws K {
+                    checkGetPreconditions(tableRef);
+                    final Iterator<RowResult<byte[]>> rowResults = Cells.createRowView(mergeIterators);
+                    while (rowResults.hasNext()) {
+                        if (!visitor.visit(ImmutableList.of(rowResults.next()))) {
+                            return;
+                        }
+                    }
+                    if ((nextStartRowName.length == 0) || !prePostFilter.moreResultsAvailable()) {
+                        return;
                     }
-                    long processedRangeMillis = TimeUnit.NANOSECONDS.toMillis(timer.stop());
-                    log.trace("Processed {} range requests for {} in {}ms",
-                            SafeArg.of("numRequests", input.size()),
-                            LoggingArgs.tableRef(tableRef),
-                            SafeArg.of("millis", processedRangeMillis));
-                    return ret;
-                });
+                    RangeRequest newRange = rangeRequest.getBuilder()
+                            .startRowInclusive(nextStartRowName)
+                            .build();
+                    getRange(tableRef, newRange)
+                            .batchAccept(batchSizeHint, visitor);
+                }
+            });
+        }
+        long processedRangeMillis = TimeUnit.NANOSECONDS.toMillis(timer.stop());
+        log.trace("Processed {} range requests for {} in {}ms",
+                SafeArg.of("numRequests", input.size()),
+                LoggingArgs.tableRef(tableRef),
+                SafeArg.of("millis", processedRangeMillis));
+        return ret;
     }
 
     @Override
@@ -1049,7 +1157,10 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             }
         };
 
-        final Iterator<RowResult<T>> rows = Iterators.concat(batchedPostFiltered);
+        PrefetchingIterator<Iterator<RowResult<T>>> prefetched = transactionConfig.get().pipelineRangeReads()
+                ? new PrefetchingIterator<>(batchedPostFiltered, getRangesExecutor)
+                : null;
+        final Iterator<RowResult<T>> rows = Iterators.concat(prefetched != null ? prefetched : batchedPostFiltered);
         return new ForwardingClosableIterator<RowResult<T>>() {
             @Override
             protected ClosableIterator<RowResult<T>> delegate() {
@@ -1058,6 +1169,9 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
 
             @Override
             public void close() {
+                if (prefetched != null) {
+                    prefetched.close();
+                }
                 results.close();
             }
         };
@@ -1577,6 +1691,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             return;
         }
 
+        boolean pipelineCommitStages = transactionConfig.get().pipelineCommitStages();
         timedAndTraced("commitStage", () -> {
             // Acquire row locks and a lock on the start timestamp row in the transactions table.
             // This must happen before conflict checking, otherwise we could complete the checks and then have someone
@@ -1585,12 +1700,14 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             try {
                 // Conflict checking. We can actually do this later without compromising correctness, but there is no
                 // reason to postpone this check - we waste resources writing unnecessarily if these are going to fail.
-                timedAndTraced("commitCheckingForConflicts",
-                        () -> throwIfConflictOnCommit(commitLocksToken, transactionService));
-
                 // Write to the targeted sweep queue. We must do this before writing to the key value service -
                 // otherwise we may have hanging values that targeted sweep won't know about.
-                timedAndTraced("writingToSweepQueue", () -> sweepQueue.enqueue(writesByTable, getStartTimestamp()));
+                // Neither of these stages depends on the other, so they may be pipelined.
+                runCommitStages(pipelineCommitStages,
+                        () -> timedAndTraced("commitCheckingForConflicts",
+                                () -> throwIfConflictOnCommit(commitLocksToken, transactionService)),
+                        () -> timedAndTraced("writingToSweepQueue",
+                                () -> sweepQueue.enqueue(writesByTable, getStartTimestamp())));
 
                 // Write to the key value service. We must do this before getting the commit timestamp - otherwise
                 // we risk another transaction starting at a timestamp after our commit timestamp not seeing our writes.
@@ -1599,7 +1716,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 // Now that all writes are done, get the commit timestamp
                 // We must do this before we check that our locks are still valid to ensure that other transactions that
                 // will hold these locks are sure to have start timestamps after our commit timestamp.
-                long commitTimestamp = timedAndTraced("getCommitTimestamp", timelockService::getFreshTimestamp);
+                long commitTimestamp = timedAndTraced("getCommitTimestamp", timelockService::getCommitTimestamp);
                 commitTsForScrubbing = commitTimestamp;
 
                 // Punch on commit so that if hard delete is the only thing happening on a system,
@@ -1613,14 +1730,15 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 // commitTs + 1. This must happen before the lock check for thorough tables, because the lock check
                 // verifies the immutable timestamp hasn't moved forward - thorough sweep might sweep a conflict out
                 // from underneath us.
-                timedAndTraced("readWriteConflictCheck",
-                        () -> throwIfReadWriteConflictForSerializable(commitTimestamp));
-
                 // Verify that our locks and pre-commit conditions are still valid before we actually commit;
                 // this throwIfPreCommitRequirementsNotMet is required by the transaction protocol for correctness.
                 // We check the pre-commit conditions first since they may operate similarly to read write conflict
                 // handling - we should check lock validity last to ensure that sweep hasn't affected the checks.
-                timedAndTraced("userPreCommitCondition", () -> throwIfPreCommitConditionInvalid(commitTimestamp));
+                runCommitStages(pipelineCommitStages,
+                        () -> timedAndTraced("readWriteConflictCheck",
+                                () -> throwIfReadWriteConflictForSerializable(commitTimestamp)),
+                        () -> timedAndTraced("userPreCommitCondition",
+                                () -> throwIfPreCommitConditionInvalid(commitTimestamp)));
                 timedAndTraced("preCommitLockCheck", () -> throwIfImmutableTsOrCommitLocksExpired(commitLocksToken));
 
                 timedAndTraced("commitPutCommitTs",
@@ -1636,6 +1754,55 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         });
     }
 
+    /**
+     * Runs two commit stages that do not depend on each other, in order if {@code concurrently} is false. Otherwise
+     * the second stage is offered to {@link #getRangesExecutor} while the first runs on the calling thread; if the
+     * executor has not picked up the second stage by the time the first completes, the calling thread runs it itself,
+     * so a busy executor never delays the commit. Both stages have completed when this method returns normally. If
+     * the first stage fails, the second stage is not started if it has not been already.
+     */
+    private void runCommitStages(boolean concurrently, Runnable first, Runnable second) {
+        if (!concurrently) {
+            first.run();
+            second.run();
+            return;
+        }
+
+        AtomicBoolean secondStageClaimed = new AtomicBoolean();
+        Runnable claimAndRunSecond = () -> {
+            if (secondStageClaimed.compareAndSet(false, true)) {
+                second.run();
+            }
+        };
+        Future<?> secondStage = submitCommitStage(claimAndRunSecond);
+
+        try {
+            first.run();
+        } catch (RuntimeException | Error e) {
+            secondStageClaimed.set(true);
+            throw e;
+        }
+
+        if (secondStageClaimed.compareAndSet(false, true)) {
+            second.run();
+        } else {
+            try {
+                Uninterruptibles.getUninterruptibly(secondStage);
+            } catch (ExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    private Future<?> submitCommitStage(Runnable stage) {
+        try {
+            return getRangesExecutor.submit(Tracers.wrap(stage));
+        } catch (RejectedExecutionException e) {
+            return Futures.immediateFuture(null);
+        }
+    }
+
     private void timedAndTraced(String timerName, Runnable runnable) {
         try (Timer.Context timer = getTimer(timerName).time();
                 CloseableTracer tracer = CloseableTracer.startSpan(timerName)) {
@@ -2001,6 +2168,12 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         Set<LockDescriptor> result = Sets.newHashSet();
         for (TableReference tableRef : writesByTable.keySet()) {
             ConflictHandler conflictHandler = getConflictHandlerForTable(tableRef);
+            int buckets = conflictDetectionManager.getLockCoarseningBuckets(tableRef);
+            if (buckets > 0) {
+                addCoarsenedLocksForWrites(result, tableRef, conflictHandler, buckets);
+                continue;
+            }
+
             if (conflictHandler.lockCellsForConflicts()) {
                 for (Cell cell : getLocalWrites(tableRef).keySet()) {
                     result.add(
@@ -2029,6 +2202,40 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return result;
     }
 
+    /**
+     * Locks one of a fixed number of buckets per written row (or cell, if the table does not lock rows), so the
+     * number of locks taken for a table is bounded by its number of buckets. Writes to the same row or cell always
+     * map to the same bucket, so this preserves write-write conflict detection as long as every writer to the table
+     * uses the same number of buckets, which is why the number is part of the table metadata. Unrelated writes that
+     * share a bucket merely wait for each other.
+     */
+    private void addCoarsenedLocksForWrites(
+            Set<LockDescriptor> result,
+            TableReference tableRef,
+            ConflictHandler conflictHandler,
+            int buckets) {
+        if (!conflictHandler.lockCellsForConflicts() && !conflictHandler.lockRowsForConflicts()) {
+            return;
+        }
+        for (Cell cell : getLocalWrites(tableRef).keySet()) {
+            Hasher hasher = Hashing.murmur3_32().newHasher().putBytes(cell.getRowName());
+            if (!conflictHandler.lockRowsForConflicts()) {
+                hasher.putBytes(cell.getColumnName());
+            }
+            result.add(coarsenedLockDescriptor(tableRef, Math.floorMod(hasher.hash().asInt(), buckets)));
+        }
+    }
+
+    /**
+     * Bucket locks live in their own descriptor namespace. Row and cell lock descriptors always contain a null byte
+     * after the table name, which this string descriptor never does, so a bucket lock can never be mistaken for the
+     * lock of a real row or cell, nor fall into a lock watch range over a table.
+     */
+    @VisibleForTesting
+    static LockDescriptor coarsenedLockDescriptor(TableReference tableRef, int bucket) {
+        return StringLockDescriptor.of(COARSENED_LOCK_PREFIX + tableRef.getQualifiedName() + "/" + bucket);
+    }
+
     /**
      * We will block here until the passed transactions have released their lock.  This means that
      * the committing transaction is either complete or it has failed and we are allowed to roll
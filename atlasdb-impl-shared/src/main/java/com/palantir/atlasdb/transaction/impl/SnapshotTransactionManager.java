@@ -202,6 +202,7 @@ import com.palantir.timestamp.TimestampService;
         } finally {
             postTaskContext = postTaskTimer.time();
             timelockService.tryUnlock(ImmutableSet.of(txAndLock.immutableTsLock()));
+            lockWatchManager.removeTransactionState(tx.getTimestamp());
         }
         scrubForAggressiveHardDelete(extractSnapshotTransaction(tx));
         postTaskContext.stop();
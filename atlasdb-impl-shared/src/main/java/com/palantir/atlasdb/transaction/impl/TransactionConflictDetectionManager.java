@@ -32,6 +32,7 @@ public final class TransactionConflictDetectionManager {
 
     private final ConflictDetectionManager delegate;
     private final Map<TableReference, Optional<ConflictHandler>> conflictHandlers = new ConcurrentHashMap<>();
+    private final Map<TableReference, Integer> lockCoarseningBuckets = new ConcurrentHashMap<>();
 
     public TransactionConflictDetectionManager(ConflictDetectionManager delegate) {
         this.delegate = delegate;
@@ -73,4 +74,12 @@ public final class TransactionConflictDetectionManager {
         return conflictHandlers.computeIfAbsent(tableReference,
                 tableRef -> Optional.ofNullable(delegate.get(tableRef))).orElse(null);
     }
+
+    /**
+     * Returns the number of buckets that commit locks for the given table are coarsened into, or zero if they are
+     * not coarsened. The value is fixed for the lifetime of the transaction, so reads and commit locks agree.
+     */
+    public int getLockCoarseningBuckets(TableReference tableReference) {
+        return lockCoarseningBuckets.computeIfAbsent(tableReference, delegate::getLockCoarseningBuckets);
+    }
 }
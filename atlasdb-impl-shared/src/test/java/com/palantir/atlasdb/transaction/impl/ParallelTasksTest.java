@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class ParallelTasksTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsResultsInTaskOrder() {
+        List<Supplier<Integer>> tasks = IntStream.range(0, 100)
+                .<Supplier<Integer>>mapToObj(i -> () -> i * i)
+                .collect(Collectors.toList());
+
+        assertThat(ParallelTasks.run(tasks, executor, 4))
+                .containsExactlyElementsOf(IntStream.range(0, 100).mapToObj(i -> i * i).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void runsAllTasksOnCallingThreadIfExecutorNeverRunsHelpers() {
+        List<Runnable> neverRun = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        List<Supplier<Boolean>> tasks = ImmutableList.of(
+                () -> Thread.currentThread() == caller,
+                () -> Thread.currentThread() == caller,
+                () -> Thread.currentThread() == caller);
+
+        assertThat(ParallelTasks.run(tasks, neverRun::add, 3)).containsExactly(true, true, true);
+        assertThat(neverRun).hasSize(2);
+    }
+
+    @Test
+    public void throwsFirstFailureAndStopsStartingTasks() {
+        AtomicInteger started = new AtomicInteger();
+        List<Supplier<Integer>> tasks = IntStream.range(0, 100)
+                .<Supplier<Integer>>mapToObj(i -> () -> {
+                    started.incrementAndGet();
+                    throw new IllegalStateException("boom");
+                })
+                .collect(Collectors.toList());
+
+        assertThatThrownBy(() -> ParallelTasks.run(tasks, Runnable::run, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+        assertThat(started.get()).isEqualTo(1);
+    }
+}
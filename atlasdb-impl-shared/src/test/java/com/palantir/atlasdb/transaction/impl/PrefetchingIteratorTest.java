@@ -0,0 +1,108 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+
+public class PrefetchingIteratorTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsAllElementsInOrder() {
+        List<Integer> elements = ImmutableList.of(1, 2, 3, 4, 5);
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(elements.iterator(), executor);
+
+        assertThat(ImmutableList.copyOf(iterator)).containsExactlyElementsOf(elements);
+    }
+
+    @Test
+    public void returnsNoElementsForEmptyDelegate() {
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(ImmutableList.<Integer>of().iterator(),
+                executor);
+
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void computesAtMostOneElementAhead() {
+        AtomicInteger computed = new AtomicInteger();
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(countingIterator(computed, 10), executor);
+
+        assertThat(iterator.next()).isEqualTo(0);
+        iterator.close();
+
+        assertThat(computed.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void computesElementsOnCallingThreadIfExecutorDoesNotRunThem() {
+        List<Runnable> neverRun = new ArrayList<>();
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(
+                ImmutableList.of(1, 2, 3).iterator(),
+                neverRun::add);
+
+        assertThat(ImmutableList.copyOf(iterator)).containsExactly(1, 2, 3);
+        neverRun.forEach(Runnable::run);
+    }
+
+    @Test
+    public void propagatesExceptionsFromDelegate() {
+        Iterator<Integer> failing = new AbstractIterator<Integer>() {
+            private int next = 0;
+
+            @Override
+            protected Integer computeNext() {
+                if (next == 1) {
+                    throw new IllegalStateException("boom");
+                }
+                return next++;
+            }
+        };
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(failing, executor);
+
+        assertThat(iterator.next()).isEqualTo(0);
+        assertThatThrownBy(iterator::next).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    private static Iterator<Integer> countingIterator(AtomicInteger computed, int size) {
+        return new AbstractIterator<Integer>() {
+            @Override
+            protected Integer computeNext() {
+                int next = computed.getAndIncrement();
+                return next < size ? next : endOfData();
+            }
+        };
+    }
+}
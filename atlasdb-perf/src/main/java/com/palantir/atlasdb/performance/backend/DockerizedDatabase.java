@@ -38,6 +38,10 @@ public final class DockerizedDatabase implements Closeable {
     private static final String DOCKER_LOGS_DIR = "container-logs";
 
     public static DockerizedDatabase start(KeyValueServiceInstrumentation type) {
+        if (!type.isDockerized()) {
+            InetSocketAddress addr = InetSocketAddress.createUnresolved("localhost", type.getKeyValueServicePort());
+            return new DockerizedDatabase(null, new DockerizedDatabaseUri(type, addr));
+        }
         DockerComposeRule docker = DockerComposeRule.builder()
                 .file(getDockerComposeFileAbsolutePath(type.getDockerComposeResourceFileName()))
                 .waitingForHostNetworkedPort(type.getKeyValueServicePort(), toBeOpen())
@@ -36,6 +36,7 @@ public abstract class KeyValueServiceInstrumentation {
     static {
         addNewBackendType(new CassandraKeyValueServiceInstrumentation());
         addNewBackendType(new PostgresKeyValueServiceInstrumentation());
+        addNewBackendType(new RocksDbKeyValueServiceInstrumentation());
     }
 
     KeyValueServiceInstrumentation(int kvsPort, String dockerComposeFileName) {
@@ -51,6 +52,13 @@ public abstract class KeyValueServiceInstrumentation {
         return kvsPort;
     }
 
+    /**
+     * Whether the backend runs in docker. Embedded backends return false and are not started through docker compose.
+     */
+    public boolean isDockerized() {
+        return true;
+    }
+
     public abstract KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr);
     public abstract boolean canConnect(InetSocketAddress addr);
 
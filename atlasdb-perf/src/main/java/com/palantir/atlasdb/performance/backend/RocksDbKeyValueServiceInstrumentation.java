@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.backend;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+
+import com.palantir.atlasdb.keyvalue.rocksdb.ImmutableRocksDbKeyValueServiceConfig;
+import com.palantir.atlasdb.spi.KeyValueServiceConfig;
+import com.palantir.logsafe.exceptions.SafeRuntimeException;
+
+public class RocksDbKeyValueServiceInstrumentation extends KeyValueServiceInstrumentation {
+
+    public RocksDbKeyValueServiceInstrumentation() {
+        super(0, null);
+    }
+
+    @Override
+    public boolean isDockerized() {
+        return false;
+    }
+
+    @Override
+    public KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr) {
+        try {
+            return ImmutableRocksDbKeyValueServiceConfig.builder()
+                    .dataDirectory(Files.createTempDirectory("atlasdb-perf-rocksdb").toFile())
+                    .syncWrites(false)
+                    .build();
+        } catch (IOException e) {
+            throw new SafeRuntimeException("Unable to create a data directory for RocksDB.", e);
+        }
+    }
+
+    @Override
+    public boolean canConnect(InetSocketAddress addr) {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ROCKSDB";
+    }
+}
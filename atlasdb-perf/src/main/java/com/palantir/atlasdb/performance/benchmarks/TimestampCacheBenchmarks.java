@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codahale.metrics.MetricRegistry;
+import com.palantir.atlasdb.cache.DefaultTimestampCache;
+import com.palantir.atlasdb.cache.StripedTimestampCache;
+import com.palantir.atlasdb.cache.TimestampCache;
+
+/**
+ * Compares the Caffeine backed {@link DefaultTimestampCache} with the primitive {@link StripedTimestampCache}. Reads
+ * hit a working set that is smaller than the cache, while writes cycle through a larger key space so that both caches
+ * evict. Run with {@code -prof gc} to compare allocation rates.
+ */
+@Measurement(iterations = 10, time = 2)
+@Warmup(iterations = 5, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimestampCacheBenchmarks {
+    private static final long CACHE_SIZE = 1_000_000L;
+    private static final long WORKING_SET = 500_000L;
+    private static final long KEY_SPACE = 4_000_000L;
+
+    @Param({"caffeine", "striped"})
+    public String implementation;
+
+    private TimestampCache cache;
+
+    @Setup
+    public void setup() {
+        cache = createCache(implementation);
+        for (long startTs = 1; startTs <= WORKING_SET; startTs++) {
+            cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long getSingleThreaded() {
+        return cache.getCommitTimestampIfPresent(randomKeyInWorkingSet());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Long getContended() {
+        return cache.getCommitTimestampIfPresent(randomKeyInWorkingSet());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Long getAndPutContended() {
+        long startTs = ThreadLocalRandom.current().nextLong(1, KEY_SPACE);
+        Long commitTs = cache.getCommitTimestampIfPresent(startTs);
+        if (commitTs == null) {
+            cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+        return commitTs;
+    }
+
+    private static long randomKeyInWorkingSet() {
+        return ThreadLocalRandom.current().nextLong(1, WORKING_SET + 1);
+    }
+
+    private static TimestampCache createCache(String implementation) {
+        switch (implementation) {
+            case "caffeine":
+                return new DefaultTimestampCache(new MetricRegistry(), () -> CACHE_SIZE);
+            case "striped":
+                return new StripedTimestampCache(new MetricRegistry(), () -> CACHE_SIZE);
+            default:
+                throw new IllegalArgumentException("Unknown timestamp cache implementation " + implementation);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.atlasdb.performance.backend.AtlasDbServicesConnector;
+import com.palantir.atlasdb.services.AtlasDbServices;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.timestamp.TimestampRange;
+
+/**
+ * Looks up the commit timestamps of a batch of transactions. The asynchronous lookup goes through
+ * {@code KeyValueService#getAsync}, which on Cassandra with CQL enabled reads the cells of each row of the
+ * transactions table with a single query.
+ */
+@State(Scope.Benchmark)
+public class TransactionServiceGetBenchmarks {
+    private static final int NUM_TRANSACTIONS = 5_000;
+
+    private AtlasDbServicesConnector connector;
+    private TransactionService transactionService;
+    private List<Long> startTimestamps;
+
+    @Setup
+    public void setup(AtlasDbServicesConnector conn) {
+        connector = conn;
+        AtlasDbServices services = conn.connect();
+        transactionService = services.getTransactionService();
+        TimestampRange range = services.getManagedTimestampService().getFreshTimestamps(2 * NUM_TRANSACTIONS);
+        startTimestamps = LongStream.range(0, NUM_TRANSACTIONS)
+                .mapToObj(index -> range.getLowerBound() + 2 * index)
+                .collect(Collectors.toList());
+        transactionService.putUnlessExistsMultiple(startTimestamps.stream()
+                .collect(Collectors.toMap(Function.identity(), startTimestamp -> startTimestamp + 1)));
+    }
+
+    @TearDown
+    public void cleanup() throws Exception {
+        connector.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 30, timeUnit = TimeUnit.SECONDS)
+    public Object getCommitTimestamps() {
+        return checkAllCommitted(transactionService.get(startTimestamps));
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 30, timeUnit = TimeUnit.SECONDS)
+    public Object getCommitTimestampsAsync() {
+        return checkAllCommitted(Futures.getUnchecked(transactionService.getAsync(startTimestamps)));
+    }
+
+    private static Map<Long, Long> checkAllCommitted(Map<Long, Long> commitTimestamps) {
+        Preconditions.checkState(commitTimestamps.size() == NUM_TRANSACTIONS,
+                "Should be %s commit timestamps, but were: %s", NUM_TRANSACTIONS, commitTimestamps.size());
+        return commitTimestamps;
+    }
+}
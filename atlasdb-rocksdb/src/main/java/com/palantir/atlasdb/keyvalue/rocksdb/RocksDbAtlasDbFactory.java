@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.rocksdb;
+
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.auto.service.AutoService;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.config.LeaderConfig;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.spi.AtlasDbFactory;
+import com.palantir.atlasdb.spi.KeyValueServiceConfig;
+import com.palantir.atlasdb.spi.KeyValueServiceRuntimeConfig;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.versions.AtlasDbVersion;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.timestamp.ManagedTimestampService;
+import com.palantir.timestamp.PersistentTimestampServiceImpl;
+
+@AutoService(AtlasDbFactory.class)
+public class RocksDbAtlasDbFactory implements AtlasDbFactory {
+    private static final Logger log = LoggerFactory.getLogger(RocksDbAtlasDbFactory.class);
+    public static final String TYPE = "rocksdb";
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    /**
+     * Creates a RocksDbKeyValueService.
+     *
+     * @param config Configuration file.
+     * @param runtimeConfig unused.
+     * @param leaderConfig unused.
+     * @param namespace unused.
+     * @param unusedLongSupplier unused.
+     * @param initializeAsync unused. Async initialization has not been implemented and is not propagated.
+     * @return The requested KeyValueService instance
+     */
+    @Override
+    public KeyValueService createRawKeyValueService(
+            MetricsManager metricsManager,
+            KeyValueServiceConfig config,
+            Supplier<Optional<KeyValueServiceRuntimeConfig>> runtimeConfig,
+            Optional<LeaderConfig> leaderConfig,
+            Optional<String> namespace,
+            LongSupplier unusedLongSupplier,
+            boolean initializeAsync) {
+        if (initializeAsync) {
+            log.warn("Asynchronous initialization not implemented, will initialize synchronously.");
+        }
+
+        Preconditions.checkArgument(config instanceof RocksDbKeyValueServiceConfig,
+                "RocksDbAtlasDbFactory expects a configuration of type RocksDbKeyValueServiceConfig",
+                SafeArg.of("configClass", config.getClass()));
+        AtlasDbVersion.ensureVersionReported();
+        return RocksDbKeyValueService.create((RocksDbKeyValueServiceConfig) config);
+    }
+
+    @Override
+    public ManagedTimestampService createManagedTimestampService(
+            KeyValueService rawKvs,
+            Optional<TableReference> timestampTable,
+            boolean initializeAsync) {
+        if (initializeAsync) {
+            log.warn("Asynchronous initialization not implemented, will initialize synchronously.");
+        }
+
+        AtlasDbVersion.ensureVersionReported();
+        return PersistentTimestampServiceImpl.create(
+                RocksDbTimestampBoundStore.create(rawKvs, timestampTable.orElse(AtlasDbConstants.TIMESTAMP_TABLE)));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.rocksdb;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import com.google.common.primitives.Longs;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+
+/**
+ * Encodes (row, column, timestamp) triples as RocksDB keys whose unsigned lexicographical order matches AtlasDB's
+ * ordering: rows ascending, then columns ascending, then timestamps <em>descending</em>.
+ *
+ * Rows and columns are escaped so that each component is self-delimiting: every {@code 0x00} byte is written as
+ * {@code 0x00 0xFF}, and the component ends with {@code 0x00 0x01}. This keeps the encoding order preserving and
+ * prefix free, so all keys of a row (or cell) share the encoded row (or row and column) as a prefix. Timestamps are
+ * written as eight big-endian bytes of {@code ts ^ Long.MAX_VALUE}, so the newest version of a cell sorts first and a
+ * seek to {@code (row, column, ts)} lands on the latest version at or below {@code ts}.
+ */
+final class RocksDbKeyEncoding {
+    private static final byte ESCAPE = 0x00;
+    private static final byte ESCAPED_ZERO = (byte) 0xFF;
+    private static final byte TERMINATOR = 0x01;
+
+    private RocksDbKeyEncoding() {
+        // utility
+    }
+
+    static byte[] rowPrefix(byte[] row) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(row.length + 2);
+        writeEscaped(output, row);
+        return output.toByteArray();
+    }
+
+    static byte[] cellPrefix(byte[] row, byte[] column) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(row.length + column.length + 4);
+        writeEscaped(output, row);
+        writeEscaped(output, column);
+        return output.toByteArray();
+    }
+
+    static byte[] key(Cell cell, long timestamp) {
+        return key(cellPrefix(cell.getRowName(), cell.getColumnName()), timestamp);
+    }
+
+    static byte[] key(byte[] cellPrefix, long timestamp) {
+        byte[] key = Arrays.copyOf(cellPrefix, cellPrefix.length + Long.BYTES);
+        System.arraycopy(Longs.toByteArray(timestamp ^ Long.MAX_VALUE), 0, key, cellPrefix.length, Long.BYTES);
+        return key;
+    }
+
+    /**
+     * Returns the encoded row and column of a full key.
+     */
+    static byte[] cellPrefixOf(byte[] key) {
+        return Arrays.copyOf(key, key.length - Long.BYTES);
+    }
+
+    static byte[] decodeRow(byte[] key) {
+        return readEscaped(key, 0);
+    }
+
+    /**
+     * Decodes the column of a full key whose encoded row is {@code rowPrefixLength} bytes long.
+     */
+    static byte[] decodeColumn(byte[] key, int rowPrefixLength) {
+        return readEscaped(key, rowPrefixLength);
+    }
+
+    static long decodeTimestamp(byte[] key) {
+        return Longs.fromBytes(
+                key[key.length - 8], key[key.length - 7], key[key.length - 6], key[key.length - 5],
+                key[key.length - 4], key[key.length - 3], key[key.length - 2], key[key.length - 1])
+                ^ Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the smallest byte string that is greater than every key starting with {@code prefix}, where
+     * {@code prefix} is an encoded row or cell. Since a terminator byte can only be followed by an escaped byte or
+     * another terminator in valid keys, incrementing it cannot collide with a key of a later row or cell.
+     */
+    static byte[] successor(byte[] prefix) {
+        byte[] successor = Arrays.copyOf(prefix, prefix.length);
+        successor[successor.length - 1]++;
+        return successor;
+    }
+
+    static boolean startsWith(byte[] key, byte[] prefix) {
+        if (key.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (key[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeEscaped(ByteArrayOutputStream output, byte[] bytes) {
+        for (byte value : bytes) {
+            output.write(value);
+            if (value == ESCAPE) {
+                output.write(ESCAPED_ZERO);
+            }
+        }
+        output.write(ESCAPE);
+        output.write(TERMINATOR);
+    }
+
+    private static byte[] readEscaped(byte[] key, int offset) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int position = offset;
+        while (position < key.length - 1) {
+            if (key[position] != ESCAPE) {
+                output.write(key[position]);
+                position++;
+            } else if (key[position + 1] == ESCAPED_ZERO) {
+                output.write(ESCAPE);
+                position += 2;
+            } else if (key[position + 1] == TERMINATOR) {
+                return output.toByteArray();
+            } else {
+                break;
+            }
+        }
+        throw new SafeIllegalArgumentException("Malformed RocksDB key");
+    }
+}
@@ -0,0 +1,818 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.rocksdb;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Striped;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweeping;
+import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweepingRequest;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.CheckAndSetCompatibility;
+import com.palantir.atlasdb.keyvalue.api.CheckAndSetException;
+import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
+import com.palantir.atlasdb.keyvalue.api.ClusterAvailabilityStatus;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.TimestampRangeDelete;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.GetCandidateCellsForSweepingShim;
+import com.palantir.atlasdb.keyvalue.impl.KeyValueServices;
+import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.ClosableIterators;
+import com.palantir.common.exception.TableMappingNotFoundException;
+import com.palantir.logsafe.exceptions.SafeRuntimeException;
+import com.palantir.tracing.Tracers.ThrowingCallable;
+import com.palantir.util.paging.TokenBackedBasicResultsPage;
+
+/**
+ * Durable embedded key-value store on top of RocksDB, for single-node deployments.
+ * <p>
+ * Each AtlasDB table is a RocksDB column family, and table metadata lives in the default column family. Keys are
+ * encoded by {@link RocksDbKeyEncoding} so that all versions of a cell are adjacent with the newest first; a read at
+ * a timestamp is a single seek per cell, and row and range scans skip over older versions by seeking to the next
+ * cell. Multi-cell writes are applied atomically with a write batch. {@link #putUnlessExists} and
+ * {@link #checkAndSet} are made atomic with per-cell lock striping, and are only exclusive with each other, not with
+ * plain puts, which matches how AtlasDB uses them.
+ */
+@ThreadSafe
+public final class RocksDbKeyValueService extends AbstractKeyValueService {
+    private static final int CELL_LOCK_STRIPES = 1024;
+
+    private final RocksDB db;
+    private final DBOptions dbOptions;
+    private final ColumnFamilyOptions columnFamilyOptions;
+    private final WriteOptions writeOptions;
+    private final ColumnFamilyHandle metadataColumnFamily;
+    private final ConcurrentMap<TableReference, ColumnFamilyHandle> tables = new ConcurrentHashMap<>();
+    private final Striped<Lock> cellLocks = Striped.lock(CELL_LOCK_STRIPES);
+
+    private RocksDbKeyValueService(
+            RocksDB db,
+            DBOptions dbOptions,
+            ColumnFamilyOptions columnFamilyOptions,
+            WriteOptions writeOptions,
+            ColumnFamilyHandle metadataColumnFamily,
+            Map<TableReference, ColumnFamilyHandle> existingTables) {
+        super(MoreExecutors.newDirectExecutorService());
+        this.db = db;
+        this.dbOptions = dbOptions;
+        this.columnFamilyOptions = columnFamilyOptions;
+        this.writeOptions = writeOptions;
+        this.metadataColumnFamily = metadataColumnFamily;
+        this.tables.putAll(existingTables);
+    }
+
+    public static RocksDbKeyValueService create(RocksDbKeyValueServiceConfig config) {
+        return create(config.dataDirectory(), config.syncWrites());
+    }
+
+    public static RocksDbKeyValueService create(File dataDirectory, boolean syncWrites) {
+        RocksDB.loadLibrary();
+        String path = dataDirectory.getAbsolutePath();
+        dataDirectory.mkdirs();
+
+        DBOptions dbOptions = new DBOptions()
+                .setCreateIfMissing(true)
+                .setCreateMissingColumnFamilies(true);
+        ColumnFamilyOptions columnFamilyOptions = new ColumnFamilyOptions();
+
+        List<byte[]> columnFamilyNames = run(() -> {
+            if (!new File(dataDirectory, "CURRENT").exists()) {
+                return ImmutableList.of();
+            }
+            try (Options options = new Options()) {
+                return RocksDB.listColumnFamilies(options, path);
+            }
+        });
+        List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+        descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions));
+        columnFamilyNames.stream()
+                .filter(name -> !Arrays.equals(name, RocksDB.DEFAULT_COLUMN_FAMILY))
+                .forEach(name -> descriptors.add(new ColumnFamilyDescriptor(name, columnFamilyOptions)));
+
+        List<ColumnFamilyHandle> handles = new ArrayList<>();
+        RocksDB db = run(() -> RocksDB.open(dbOptions, path, descriptors, handles));
+        Map<TableReference, ColumnFamilyHandle> existingTables = Maps.newHashMap();
+        for (int i = 1; i < descriptors.size(); i++) {
+            String tableName = new String(descriptors.get(i).getName(), StandardCharsets.UTF_8);
+            existingTables.put(TableReference.createUnsafe(tableName), handles.get(i));
+        }
+        return new RocksDbKeyValueService(
+                db,
+                dbOptions,
+                columnFamilyOptions,
+                new WriteOptions().setSync(syncWrites),
+                handles.get(0),
+                existingTables);
+    }
+
+    @Override
+    public Map<Cell, Value> getRows(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection,
+            long timestamp) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        Map<Cell, Value> result = Maps.newHashMap();
+        try (RocksIterator iterator = db.newIterator(columnFamily)) {
+            for (byte[] row : rows) {
+                if (columnSelection.allColumnsSelected()) {
+                    scanRow(iterator, row, ArrayUtils.EMPTY_BYTE_ARRAY, ArrayUtils.EMPTY_BYTE_ARRAY, column -> true,
+                            (column, cellIterator) -> readLatestValue(cellIterator, timestamp).ifPresent(
+                                    value -> result.put(Cell.create(row, column), value)));
+                } else {
+                    for (byte[] column : columnSelection.getSelectedColumns()) {
+                        byte[] cellPrefix = RocksDbKeyEncoding.cellPrefix(row, column);
+                        readLatestValue(iterator, cellPrefix, timestamp)
+                                .ifPresent(value -> result.put(Cell.create(row, column), value));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Cell, Value> get(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        Map<Cell, Value> result = Maps.newHashMap();
+        try (RocksIterator iterator = db.newIterator(columnFamily)) {
+            timestampByCell.forEach((cell, timestamp) -> {
+                byte[] cellPrefix = RocksDbKeyEncoding.cellPrefix(cell.getRowName(), cell.getColumnName());
+                readLatestValue(iterator, cellPrefix, timestamp).ifPresent(value -> result.put(cell, value));
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        return Futures.immediateFuture(get(tableRef, timestampByCell));
+    }
+
+    @Override
+    public Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> getFirstBatchForRanges(
+            TableReference tableRef,
+            Iterable<RangeRequest> rangeRequests,
+            long timestamp) {
+        return KeyValueServices.getFirstBatchForRangesUsingGetRange(this, tableRef, rangeRequests, timestamp);
+    }
+
+    @Override
+    public ClosableIterator<RowResult<Value>> getRange(
+            TableReference tableRef,
+            RangeRequest range,
+            long timestamp) {
+        return getRangeInternal(tableRef, range, iterator -> readLatestValue(iterator, timestamp).orElse(null));
+    }
+
+    @Override
+    public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(
+            TableReference tableRef,
+            RangeRequest range,
+            long timestamp) {
+        return getRangeInternal(tableRef, range, iterator -> {
+            Set<Long> timestamps = readTimestamps(iterator, timestamp);
+            return timestamps.isEmpty() ? null : timestamps;
+        });
+    }
+
+    @Override
+    public ClosableIterator<List<CandidateCellForSweeping>> getCandidateCellsForSweeping(
+            TableReference tableRef,
+            CandidateCellForSweepingRequest request) {
+        return new GetCandidateCellsForSweepingShim(this).getCandidateCellsForSweeping(tableRef, request);
+    }
+
+    @Override
+    public Map<byte[], RowColumnRangeIterator> getRowsColumnRange(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        ColumnRangeSelection columnRangeSelection = new ColumnRangeSelection(
+                batchColumnRangeSelection.getStartCol(),
+                batchColumnRangeSelection.getEndCol());
+        Map<byte[], RowColumnRangeIterator> result = Maps.newHashMap();
+        try (RocksIterator iterator = db.newIterator(columnFamily)) {
+            for (byte[] row : rows) {
+                result.put(row, getColumnRangeForSingleRow(iterator, row, columnRangeSelection, timestamp));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public RowColumnRangeIterator getRowsColumnRange(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnRangeSelection columnRangeSelection,
+            int cellBatchHint,
+            long timestamp) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        Iterator<RowColumnRangeIterator> rowColumnRanges = Iterators.transform(rows.iterator(), row -> {
+            try (RocksIterator iterator = db.newIterator(columnFamily)) {
+                return getColumnRangeForSingleRow(iterator, row, columnRangeSelection, timestamp);
+            }
+        });
+        return new LocalRowColumnRangeIterator(Iterators.concat(rowColumnRanges));
+    }
+
+    private RowColumnRangeIterator getColumnRangeForSingleRow(
+            RocksIterator iterator,
+            byte[] row,
+            ColumnRangeSelection columnRangeSelection,
+            long timestamp) {
+        Map<Cell, Value> rowResults = new LinkedHashMap<>();
+        scanRow(iterator, row, columnRangeSelection.getStartCol(), columnRangeSelection.getEndCol(), column -> true,
+                (column, cellIterator) -> readLatestValue(cellIterator, timestamp)
+                        .ifPresent(value -> rowResults.put(Cell.create(row, column), value)));
+        return new LocalRowColumnRangeIterator(rowResults.entrySet().iterator());
+    }
+
+    @Override
+    public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            valuesByTable.forEach((tableRef, values) -> {
+                ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+                values.forEach((cell, contents) -> run(() -> {
+                    writeBatch.put(columnFamily, RocksDbKeyEncoding.key(cell, timestamp), contents);
+                    return null;
+                }));
+            });
+            write(writeBatch);
+        }
+    }
+
+    @Override
+    public void put(TableReference tableRef, Map<Cell, byte[]> values, long timestamp) {
+        multiPut(ImmutableMap.of(tableRef, values), timestamp);
+    }
+
+    @Override
+    public void putWithTimestamps(TableReference tableRef, Multimap<Cell, Value> values) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            values.forEach((cell, value) -> run(() -> {
+                writeBatch.put(columnFamily, RocksDbKeyEncoding.key(cell, value.getTimestamp()), value.getContents());
+                return null;
+            }));
+            write(writeBatch);
+        }
+    }
+
+    @Override
+    public void putUnlessExists(TableReference tableRef, Map<Cell, byte[]> values) throws KeyAlreadyExistsException {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        runWithCellLocks(values.keySet(), () -> {
+            List<Cell> existingCells = new ArrayList<>();
+            for (Cell cell : values.keySet()) {
+                if (readExact(columnFamily, cell, AtlasDbConstants.TRANSACTION_TS) != null) {
+                    existingCells.add(cell);
+                }
+            }
+            if (!existingCells.isEmpty()) {
+                throw new KeyAlreadyExistsException("We already have a value for this timestamp", existingCells);
+            }
+            try (WriteBatch writeBatch = new WriteBatch()) {
+                values.forEach((cell, contents) -> run(() -> {
+                    byte[] key = RocksDbKeyEncoding.key(cell, AtlasDbConstants.TRANSACTION_TS);
+                    writeBatch.put(columnFamily, key, contents);
+                    return null;
+                }));
+                write(writeBatch);
+            }
+        });
+    }
+
+    @Override
+    public CheckAndSetCompatibility getCheckAndSetCompatibility() {
+        return CheckAndSetCompatibility.SUPPORTED_DETAIL_ON_FAILURE;
+    }
+
+    @Override
+    public void checkAndSet(CheckAndSetRequest request) throws CheckAndSetException {
+        ColumnFamilyHandle columnFamily = getColumnFamily(request.table());
+        Cell cell = request.cell();
+        runWithCellLocks(ImmutableSet.of(cell), () -> {
+            byte[] storedValue = readExact(columnFamily, cell, AtlasDbConstants.TRANSACTION_TS);
+            Optional<byte[]> oldValue = request.oldValue();
+            boolean matches = oldValue.map(expected -> Arrays.equals(expected, storedValue))
+                    .orElse(storedValue == null);
+            if (!matches) {
+                throw new CheckAndSetException(
+                        cell,
+                        request.table(),
+                        oldValue.orElse(null),
+                        storedValue == null ? ImmutableList.of() : ImmutableList.of(storedValue));
+            }
+            run(() -> {
+                db.put(columnFamily,
+                        writeOptions,
+                        RocksDbKeyEncoding.key(cell, AtlasDbConstants.TRANSACTION_TS),
+                        request.newValue());
+                return null;
+            });
+        });
+    }
+
+    @Override
+    public void delete(TableReference tableRef, Multimap<Cell, Long> keys) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            keys.forEach((cell, timestamp) -> run(() -> {
+                writeBatch.delete(columnFamily, RocksDbKeyEncoding.key(cell, timestamp));
+                return null;
+            }));
+            write(writeBatch);
+        }
+    }
+
+    @Override
+    public void deleteRange(TableReference tableRef, RangeRequest range) {
+        if (range.isReverse() || !range.getColumnNames().isEmpty()) {
+            super.deleteRange(tableRef, range);
+            return;
+        }
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        byte[] start = range.getStartInclusive().length == 0
+                ? ArrayUtils.EMPTY_BYTE_ARRAY
+                : RocksDbKeyEncoding.rowPrefix(range.getStartInclusive());
+        byte[] end = range.getEndExclusive().length == 0
+                ? null
+                : RocksDbKeyEncoding.rowPrefix(range.getEndExclusive());
+        deleteKeyRange(columnFamily, start, end);
+    }
+
+    @Override
+    public void deleteAllTimestamps(TableReference tableRef, Map<Cell, TimestampRangeDelete> deletes) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        try (WriteBatch writeBatch = new WriteBatch();
+                RocksIterator iterator = db.newIterator(columnFamily)) {
+            deletes.forEach((cell, delete) -> {
+                byte[] cellPrefix = RocksDbKeyEncoding.cellPrefix(cell.getRowName(), cell.getColumnName());
+                iterator.seek(RocksDbKeyEncoding.key(cellPrefix, delete.maxTimestampToDelete()));
+                while (iterator.isValid()
+                        && RocksDbKeyEncoding.startsWith(iterator.key(), cellPrefix)
+                        && RocksDbKeyEncoding.decodeTimestamp(iterator.key()) >= delete.minTimestampToDelete()) {
+                    byte[] key = iterator.key();
+                    run(() -> {
+                        writeBatch.delete(columnFamily, key);
+                        return null;
+                    });
+                    iterator.next();
+                }
+                checkStatus(iterator);
+            });
+            write(writeBatch);
+        }
+    }
+
+    @Override
+    public Multimap<Cell, Long> getAllTimestamps(TableReference tableRef, Set<Cell> cells, long timestamp) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        Multimap<Cell, Long> result = HashMultimap.create();
+        try (RocksIterator iterator = db.newIterator(columnFamily)) {
+            for (Cell cell : cells) {
+                byte[] cellPrefix = RocksDbKeyEncoding.cellPrefix(cell.getRowName(), cell.getColumnName());
+                iterator.seek(cellPrefix);
+                if (iterator.isValid() && RocksDbKeyEncoding.startsWith(iterator.key(), cellPrefix)) {
+                    result.putAll(cell, readTimestamps(iterator, timestamp));
+                }
+                checkStatus(iterator);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void addGarbageCollectionSentinelValues(TableReference tableRef, Iterable<Cell> cells) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            for (Cell cell : cells) {
+                run(() -> {
+                    writeBatch.put(
+                            columnFamily,
+                            RocksDbKeyEncoding.key(cell, Value.INVALID_VALUE_TIMESTAMP),
+                            ArrayUtils.EMPTY_BYTE_ARRAY);
+                    return null;
+                });
+            }
+            write(writeBatch);
+        }
+    }
+
+    @Override
+    public synchronized void createTable(TableReference tableRef, byte[] metadata) {
+        if (!tables.containsKey(tableRef)) {
+            ColumnFamilyHandle columnFamily = run(() -> db.createColumnFamily(
+                    new ColumnFamilyDescriptor(tableName(tableRef), columnFamilyOptions)));
+            tables.put(tableRef, columnFamily);
+        }
+        putMetadataForTable(tableRef, metadata);
+    }
+
+    @Override
+    public synchronized void dropTable(TableReference tableRef) {
+        ColumnFamilyHandle columnFamily = tables.remove(tableRef);
+        if (columnFamily == null) {
+            return;
+        }
+        run(() -> {
+            db.dropColumnFamily(columnFamily);
+            db.delete(metadataColumnFamily, writeOptions, tableName(tableRef));
+            return null;
+        });
+        columnFamily.close();
+    }
+
+    @Override
+    public void truncateTable(TableReference tableRef) {
+        ColumnFamilyHandle columnFamily = tables.get(tableRef);
+        if (columnFamily == null) {
+            throw tableMappingException(tableRef);
+        }
+        deleteKeyRange(columnFamily, ArrayUtils.EMPTY_BYTE_ARRAY, null);
+    }
+
+    @Override
+    public void putMetadataForTable(TableReference tableRef, byte[] metadata) {
+        if (!tables.containsKey(tableRef)) {
+            throw tableMappingException(tableRef);
+        }
+        run(() -> {
+            db.put(metadataColumnFamily, writeOptions, tableName(tableRef), metadata);
+            return null;
+        });
+    }
+
+    @Override
+    public byte[] getMetadataForTable(TableReference tableRef) {
+        if (!tables.containsKey(tableRef)) {
+            return AtlasDbConstants.EMPTY_TABLE_METADATA;
+        }
+        byte[] metadata = run(() -> db.get(metadataColumnFamily, tableName(tableRef)));
+        return metadata == null ? ArrayUtils.EMPTY_BYTE_ARRAY : metadata;
+    }
+
+    @Override
+    public Set<TableReference> getAllTableNames() {
+        return ImmutableSet.copyOf(tables.keySet());
+    }
+
+    @Override
+    public void compactInternally(TableReference tableRef) {
+        ColumnFamilyHandle columnFamily = getColumnFamily(tableRef);
+        run(() -> {
+            db.compactRange(columnFamily);
+            return null;
+        });
+    }
+
+    @Override
+    public ClusterAvailabilityStatus getClusterAvailabilityStatus() {
+        return ClusterAvailabilityStatus.ALL_AVAILABLE;
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        tables.values().forEach(ColumnFamilyHandle::close);
+        tables.clear();
+        metadataColumnFamily.close();
+        db.close();
+        writeOptions.close();
+        columnFamilyOptions.close();
+        dbOptions.close();
+    }
+
+    private <T> ClosableIterator<RowResult<T>> getRangeInternal(
+            TableReference tableRef,
+            RangeRequest range,
+            CellReader<T> cellReader) {
+        RocksIterator iterator = db.newIterator(getColumnFamily(tableRef));
+        return ClosableIterators.wrap(new RowIterator<>(iterator, range, cellReader), iterator::close);
+    }
+
+    /**
+     * Visits the cells of {@code row} whose columns are in {@code [startColumn, endColumn)} and which pass
+     * {@code columnFilter}, in column order. For each cell, {@code cellVisitor} is given the iterator positioned at the
+     * newest version of the cell; it may move the iterator within the cell.
+     */
+    private static void scanRow(
+            RocksIterator iterator,
+            byte[] row,
+            byte[] startColumn,
+            byte[] endColumn,
+            Predicate<byte[]> columnFilter,
+            BiConsumer<byte[], RocksIterator> cellVisitor) {
+        byte[] rowPrefix = RocksDbKeyEncoding.rowPrefix(row);
+        iterator.seek(startColumn.length == 0 ? rowPrefix : RocksDbKeyEncoding.cellPrefix(row, startColumn));
+        while (iterator.isValid() && RocksDbKeyEncoding.startsWith(iterator.key(), rowPrefix)) {
+            byte[] key = iterator.key();
+            byte[] column = RocksDbKeyEncoding.decodeColumn(key, rowPrefix.length);
+            if (endColumn.length != 0 && UnsignedBytes.lexicographicalComparator().compare(column, endColumn) >= 0) {
+                break;
+            }
+            byte[] cellPrefix = RocksDbKeyEncoding.cellPrefixOf(key);
+            if (columnFilter.test(column)) {
+                cellVisitor.accept(column, iterator);
+            }
+            iterator.seek(RocksDbKeyEncoding.successor(cellPrefix));
+        }
+        checkStatus(iterator);
+    }
+
+    /**
+     * Returns the newest version of the cell visible at {@code timestamp} with a single seek.
+     */
+    private static Optional<Value> readLatestValue(RocksIterator iterator, byte[] cellPrefix, long timestamp) {
+        if (timestamp == Long.MIN_VALUE) {
+            return Optional.empty();
+        }
+        iterator.seek(RocksDbKeyEncoding.key(cellPrefix, timestamp - 1));
+        if (!iterator.isValid() || !RocksDbKeyEncoding.startsWith(iterator.key(), cellPrefix)) {
+            checkStatus(iterator);
+            return Optional.empty();
+        }
+        byte[] key = iterator.key();
+        return Optional.of(Value.create(iterator.value(), RocksDbKeyEncoding.decodeTimestamp(key)));
+    }
+
+    /**
+     * Returns the newest version of the cell the iterator is positioned in that is visible at {@code timestamp},
+     * i.e. has a strictly smaller timestamp.
+     */
+    private static Optional<Value> readLatestValue(RocksIterator iterator, long timestamp) {
+        if (!seekToLatestVisibleVersion(iterator, timestamp)) {
+            return Optional.empty();
+        }
+        byte[] key = iterator.key();
+        return Optional.of(Value.create(iterator.value(), RocksDbKeyEncoding.decodeTimestamp(key)));
+    }
+
+    /**
+     * Returns the timestamps, below {@code timestamp}, of all versions of the cell the iterator is positioned in.
+     */
+    private static Set<Long> readTimestamps(RocksIterator iterator, long timestamp) {
+        Set<Long> timestamps = Sets.newTreeSet();
+        if (!seekToLatestVisibleVersion(iterator, timestamp)) {
+            return timestamps;
+        }
+        byte[] cellPrefix = RocksDbKeyEncoding.cellPrefixOf(iterator.key());
+        while (iterator.isValid() && RocksDbKeyEncoding.startsWith(iterator.key(), cellPrefix)) {
+            timestamps.add(RocksDbKeyEncoding.decodeTimestamp(iterator.key()));
+            iterator.next();
+        }
+        checkStatus(iterator);
+        return timestamps;
+    }
+
+    /**
+     * Moves an iterator positioned at some version of a cell to the newest version with a timestamp below
+     * {@code timestamp}, returning false if there is none.
+     */
+    private static boolean seekToLatestVisibleVersion(RocksIterator iterator, long timestamp) {
+        byte[] key = iterator.key();
+        if (RocksDbKeyEncoding.decodeTimestamp(key) < timestamp) {
+            return true;
+        }
+        if (timestamp == Long.MIN_VALUE) {
+            return false;
+        }
+        byte[] cellPrefix = RocksDbKeyEncoding.cellPrefixOf(key);
+        iterator.seek(RocksDbKeyEncoding.key(cellPrefix, timestamp - 1));
+        boolean found = iterator.isValid() && RocksDbKeyEncoding.startsWith(iterator.key(), cellPrefix);
+        checkStatus(iterator);
+        return found;
+    }
+
+    @Nullable
+    private byte[] readExact(ColumnFamilyHandle columnFamily, Cell cell, long timestamp) {
+        return run(() -> db.get(columnFamily, RocksDbKeyEncoding.key(cell, timestamp)));
+    }
+
+    /**
+     * Deletes all keys in {@code [start, end)}, where a null {@code end} means up to and including the last key.
+     */
+    private void deleteKeyRange(ColumnFamilyHandle columnFamily, byte[] start, @Nullable byte[] end) {
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            if (end != null) {
+                run(() -> {
+                    writeBatch.deleteRange(columnFamily, start, end);
+                    return null;
+                });
+            } else {
+                byte[] lastKey;
+                try (RocksIterator iterator = db.newIterator(columnFamily)) {
+                    iterator.seekToLast();
+                    checkStatus(iterator);
+                    lastKey = iterator.isValid() ? iterator.key() : null;
+                }
+                if (lastKey == null || UnsignedBytes.lexicographicalComparator().compare(lastKey, start) < 0) {
+                    return;
+                }
+                run(() -> {
+                    writeBatch.deleteRange(columnFamily, start, lastKey);
+                    writeBatch.delete(columnFamily, lastKey);
+                    return null;
+                });
+            }
+            write(writeBatch);
+        }
+    }
+
+    private void runWithCellLocks(Set<Cell> cells, Runnable task) {
+        List<Lock> locks = Lists.newArrayList(cellLocks.bulkGet(cells));
+        locks.forEach(Lock::lock);
+        try {
+            task.run();
+        } finally {
+            Lists.reverse(locks).forEach(Lock::unlock);
+        }
+    }
+
+    private void write(WriteBatch writeBatch) {
+        run(() -> {
+            db.write(writeOptions, writeBatch);
+            return null;
+        });
+    }
+
+    private ColumnFamilyHandle getColumnFamily(TableReference tableRef) {
+        ColumnFamilyHandle columnFamily = tables.get(tableRef);
+        if (columnFamily == null) {
+            throw tableMappingException(tableRef);
+        }
+        return columnFamily;
+    }
+
+    private static byte[] tableName(TableReference tableRef) {
+        return tableRef.getQualifiedName().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static IllegalArgumentException tableMappingException(TableReference tableReference) {
+        return new IllegalArgumentException(
+                new TableMappingNotFoundException(
+                        "Table " + tableReference.getQualifiedName() + " does not exist"));
+    }
+
+    private static void checkStatus(RocksIterator iterator) {
+        run(() -> {
+            iterator.status();
+            return null;
+        });
+    }
+
+    private static <T> T run(ThrowingCallable<T, RocksDBException> callable) {
+        try {
+            return callable.call();
+        } catch (RocksDBException e) {
+            throw new SafeRuntimeException("RocksDB operation failed", e);
+        }
+    }
+
+    private interface CellReader<T> {
+        /**
+         * Reads the cell the iterator is positioned in, returning null if nothing should be included for it.
+         */
+        @Nullable
+        T read(RocksIterator iterator);
+    }
+
+    /**
+     * Iterates over the rows of a range request one row at a time, in either direction. Rows are always scanned
+     * forwards, and reverse iteration moves to the previous row with a single {@code seekForPrev}.
+     */
+    private static final class RowIterator<T> extends AbstractIterator<RowResult<T>> {
+        private final RocksIterator iterator;
+        private final RangeRequest range;
+        private final CellReader<T> cellReader;
+
+        RowIterator(RocksIterator iterator, RangeRequest range, CellReader<T> cellReader) {
+            this.iterator = iterator;
+            this.range = range;
+            this.cellReader = cellReader;
+            byte[] start = range.getStartInclusive();
+            if (!range.isReverse()) {
+                iterator.seek(start.length == 0 ? ArrayUtils.EMPTY_BYTE_ARRAY : RocksDbKeyEncoding.rowPrefix(start));
+            } else if (start.length == 0) {
+                iterator.seekToLast();
+            } else {
+                iterator.seekForPrev(RocksDbKeyEncoding.successor(RocksDbKeyEncoding.rowPrefix(start)));
+            }
+        }
+
+        @Override
+        protected RowResult<T> computeNext() {
+            while (true) {
+                if (!iterator.isValid()) {
+                    checkStatus(iterator);
+                    return endOfData();
+                }
+                byte[] row = RocksDbKeyEncoding.decodeRow(iterator.key());
+                if (isPastEnd(row)) {
+                    return endOfData();
+                }
+
+                ImmutableSortedMap.Builder<byte[], T> columns =
+                        ImmutableSortedMap.orderedBy(UnsignedBytes.lexicographicalComparator());
+                scanRow(iterator, row, ArrayUtils.EMPTY_BYTE_ARRAY, ArrayUtils.EMPTY_BYTE_ARRAY,
+                        range::containsColumn,
+                        (column, cellIterator) -> {
+                            T result = cellReader.read(cellIterator);
+                            if (result != null) {
+                                columns.put(column, result);
+                            }
+                        });
+                if (range.isReverse()) {
+                    iterator.seekForPrev(RocksDbKeyEncoding.rowPrefix(row));
+                }
+
+                SortedMap<byte[], T> builtColumns = columns.build();
+                if (!builtColumns.isEmpty()) {
+                    return RowResult.create(row, builtColumns);
+                }
+            }
+        }
+
+        private boolean isPastEnd(byte[] row) {
+            byte[] end = range.getEndExclusive();
+            if (end.length == 0) {
+                return false;
+            }
+            int comparison = UnsignedBytes.lexicographicalComparator().compare(row, end);
+            return range.isReverse() ? comparison <= 0 : comparison >= 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.rocksdb;
+
+import java.io.File;
+import java.util.Optional;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.auto.service.AutoService;
+import com.palantir.atlasdb.spi.KeyValueServiceConfig;
+
+/**
+ * Configuration for an embedded {@link RocksDbKeyValueService}. A RocksDB data directory can only be opened by a
+ * single process at a time, so this is only suitable for single-node deployments.
+ */
+@AutoService(KeyValueServiceConfig.class)
+@JsonDeserialize(as = ImmutableRocksDbKeyValueServiceConfig.class)
+@JsonSerialize(as = ImmutableRocksDbKeyValueServiceConfig.class)
+@JsonTypeName(RocksDbAtlasDbFactory.TYPE)
+@Value.Immutable
+public abstract class RocksDbKeyValueServiceConfig implements KeyValueServiceConfig {
+    /**
+     * Directory holding the RocksDB database. It is created if it does not exist.
+     */
+    public abstract File dataDirectory();
+
+    /**
+     * Whether every write is synced to disk before it is acknowledged. When disabled, acknowledged writes survive a
+     * process crash but may be lost on a power failure or operating system crash.
+     */
+    @Value.Default
+    public boolean syncWrites() {
+        return true;
+    }
+
+    @Override
+    public final String type() {
+        return RocksDbAtlasDbFactory.TYPE;
+    }
+
+    @Override
+    @JsonIgnore
+    @Value.Derived
+    public Optional<String> namespace() {
+        return Optional.empty();
+    }
+
+    @Override
+    @Value.Default
+    public int concurrentGetRangesThreadPoolSize() {
+        return 16;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.rocksdb;
+
+import java.util.Optional;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.CheckAndSetException;
+import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.timestamp.MultipleRunningTimestampServiceError;
+import com.palantir.timestamp.TimestampBoundStore;
+
+/**
+ * Stores the timestamp upper limit in a single cell of a key value service table, updated with check and set.
+ */
+public final class RocksDbTimestampBoundStore implements TimestampBoundStore {
+    private static final Cell BOUND_CELL = Cell.create(PtBytes.toBytes("ts"), PtBytes.toBytes("b"));
+    private static final long INITIAL_VALUE = 10000L;
+
+    private final KeyValueService kvs;
+    private final TableReference timestampTable;
+
+    @GuardedBy("this")
+    private long currentLimit;
+
+    private RocksDbTimestampBoundStore(KeyValueService kvs, TableReference timestampTable) {
+        this.kvs = kvs;
+        this.timestampTable = timestampTable;
+    }
+
+    public static TimestampBoundStore create(KeyValueService kvs, TableReference timestampTable) {
+        kvs.createTable(timestampTable, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        return new RocksDbTimestampBoundStore(kvs, timestampTable);
+    }
+
+    @Override
+    public synchronized long getUpperLimit() {
+        Optional<Long> storedLimit = readLimit();
+        if (!storedLimit.isPresent()) {
+            try {
+                kvs.checkAndSet(CheckAndSetRequest.newCell(
+                        timestampTable,
+                        BOUND_CELL,
+                        Longs.toByteArray(INITIAL_VALUE)));
+            } catch (CheckAndSetException e) {
+                // another store initialised the bound concurrently; read it back below
+            }
+            storedLimit = readLimit();
+        }
+        currentLimit = storedLimit.orElse(INITIAL_VALUE);
+        return currentLimit;
+    }
+
+    @Override
+    public synchronized void storeUpperLimit(long limit) throws MultipleRunningTimestampServiceError {
+        try {
+            kvs.checkAndSet(CheckAndSetRequest.singleCell(
+                    timestampTable,
+                    BOUND_CELL,
+                    Longs.toByteArray(currentLimit),
+                    Longs.toByteArray(limit)));
+        } catch (CheckAndSetException e) {
+            throw new MultipleRunningTimestampServiceError("Timestamp limit changed underneath us (limit in memory: "
+                    + currentLimit + ", limit in db: " + readLimit().orElse(null) + "). This may indicate that "
+                    + "another timestamp service is running against this database!", e);
+        }
+        currentLimit = limit;
+    }
+
+    private Optional<Long> readLimit() {
+        Value value = kvs.get(timestampTable, ImmutableMap.of(BOUND_CELL, Long.MAX_VALUE)).get(BOUND_CELL);
+        return Optional.ofNullable(value).map(storedValue -> Longs.fromByteArray(storedValue.getContents()));
+    }
+}
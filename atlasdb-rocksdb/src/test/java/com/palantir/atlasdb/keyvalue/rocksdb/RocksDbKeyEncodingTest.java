@@ -0,0 +1,76 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.rocksdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+
+public class RocksDbKeyEncodingTest {
+    private static final Comparator<byte[]> COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+    @Test
+    public void roundTripsRowsColumnsAndTimestampsContainingZeroBytes() {
+        byte[] row = {0, 1, 0, 0, (byte) 0xFF};
+        byte[] column = {0};
+        byte[] key = RocksDbKeyEncoding.key(Cell.create(row, column), -1L);
+
+        assertThat(RocksDbKeyEncoding.decodeRow(key)).containsExactly(row);
+        assertThat(RocksDbKeyEncoding.decodeColumn(key, RocksDbKeyEncoding.rowPrefix(row).length))
+                .containsExactly(column);
+        assertThat(RocksDbKeyEncoding.decodeTimestamp(key)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void ordersByRowThenColumnThenDescendingTimestamp() {
+        assertOrdered(key("a", "z", 1), key("aa", "a", 1));
+        assertOrdered(key("a", "a", 1), key("a", "b", 1));
+        assertOrdered(key("a", "a", 5), key("a", "a", 4));
+        assertOrdered(key("a", "a", 0), key("a", "a", -1));
+        assertOrdered(key(new byte[] {1}, "a"), key(new byte[] {1, 0}, "a"));
+    }
+
+    @Test
+    public void successorOfRowIsAfterAllItsKeysAndBeforeLaterRows() {
+        byte[] successor = RocksDbKeyEncoding.successor(RocksDbKeyEncoding.rowPrefix(bytes("a")));
+
+        assertOrdered(key("a", "zzz", Long.MIN_VALUE), successor);
+        assertOrdered(successor, key(new byte[] {'a', 0}, "a"));
+        assertOrdered(successor, key("b", "a", Long.MAX_VALUE));
+    }
+
+    private static void assertOrdered(byte[] first, byte[] second) {
+        assertThat(COMPARATOR.compare(first, second)).isNegative();
+    }
+
+    private static byte[] key(String row, String column, long timestamp) {
+        return RocksDbKeyEncoding.key(Cell.create(bytes(row), bytes(column)), timestamp);
+    }
+
+    private static byte[] key(byte[] row, String column) {
+        return RocksDbKeyEncoding.key(Cell.create(row, bytes(column)), 1L);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
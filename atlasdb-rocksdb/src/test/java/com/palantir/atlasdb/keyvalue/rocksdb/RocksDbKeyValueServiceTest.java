@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.rocksdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueServiceTest;
+import com.palantir.atlasdb.keyvalue.impl.TestResourceManager;
+
+public class RocksDbKeyValueServiceTest extends AbstractKeyValueServiceTest {
+    private static final TemporaryFolder TEMPORARY_FOLDER = new TemporaryFolder();
+    private static final TestResourceManager TRM = new TestResourceManager(
+            () -> RocksDbKeyValueService.create(newFolder(), false));
+
+    @ClassRule
+    public static final RuleChain RULES = RuleChain.outerRule(TEMPORARY_FOLDER).around(TRM);
+
+    public RocksDbKeyValueServiceTest() {
+        super(TRM);
+    }
+
+    @Test
+    public void tablesAndValuesSurviveReopening() {
+        File dataDirectory = newFolder();
+        TableReference table = TableReference.createFromFullyQualifiedName("ns.durable");
+        Cell cell = Cell.create(new byte[] {1}, new byte[] {2});
+
+        try (RocksDbKeyValueService kvs = RocksDbKeyValueService.create(dataDirectory, true)) {
+            kvs.createTable(table, AtlasDbConstants.GENERIC_TABLE_METADATA);
+            kvs.put(table, ImmutableMap.of(cell, new byte[] {3}), 5L);
+        }
+
+        try (RocksDbKeyValueService kvs = RocksDbKeyValueService.create(dataDirectory, true)) {
+            assertThat(kvs.getAllTableNames()).contains(table);
+            assertThat(kvs.getMetadataForTable(table)).isEqualTo(AtlasDbConstants.GENERIC_TABLE_METADATA);
+            assertThat(kvs.get(table, ImmutableMap.of(cell, 6L)).get(cell).getContents()).containsExactly(3);
+        }
+    }
+
+    private static File newFolder() {
+        try {
+            return TEMPORARY_FOLDER.newFolder();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -763,6 +763,29 @@ public abstract class AbstractKeyValueServiceTest {
         rangeResult.close();
     }
 
+    @Test
+    public void tableSplitsCoverEveryRowExactlyOnceAndInOrder() {
+        Map<Cell, byte[]> values = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            values.put(Cell.create(row(i), column(0)), val(i, 0));
+            values.put(Cell.create(row(i), column(1)), val(i, 1));
+        }
+        keyValueService.put(TEST_TABLE, values, TEST_TIMESTAMP);
+
+        List<RangeRequest> splits = keyValueService.getTableSplits(TEST_TABLE, 4);
+        assertTrue(!splits.isEmpty() && splits.size() <= 4);
+
+        List<byte[]> rows = new ArrayList<>();
+        for (RangeRequest split : splits) {
+            try (ClosableIterator<RowResult<Value>> range =
+                    keyValueService.getRange(TEST_TABLE, split, TEST_TIMESTAMP + 1)) {
+                range.forEachRemaining(rowResult -> rows.add(rowResult.getRowName()));
+            }
+        }
+        assertEquals(100, rows.size());
+        assertTrue(PtBytes.BYTES_COMPARATOR.isStrictlyOrdered(rows));
+    }
+
     @Test
     public void testGetRangePaging() {
         for (int numColumnsInMetadata = 1; numColumnsInMetadata <= 3; ++numColumnsInMetadata) {
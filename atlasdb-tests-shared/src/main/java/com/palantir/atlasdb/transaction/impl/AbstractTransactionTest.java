@@ -100,8 +100,6 @@ import com.palantir.util.paging.TokenBackedBasicResultsPage;
 
 @SuppressWarnings({"checkstyle:all","DefaultCharset"}) // TODO(someonebored): clean this horrible test class up!
 public abstract class AbstractTransactionTest extends TransactionTestSetup {
-    private static final TransactionConfig TRANSACTION_CONFIG = ImmutableTransactionConfig.builder().build();
-
     public AbstractTransactionTest(KvsManager kvsManager, TransactionManagerManager tmManager) {
         super(kvsManager, tmManager);
     }
@@ -142,10 +140,14 @@ public abstract class AbstractTransactionTest extends TransactionTestSetup {
                 MultiTableSweepQueueWriter.NO_OP,
                 MoreExecutors.newDirectExecutorService(),
                 true,
-                () -> TRANSACTION_CONFIG,
+                this::getTransactionConfig,
                 ConflictTracer.NO_OP);
     }
 
+    protected TransactionConfig getTransactionConfig() {
+        return ImmutableTransactionConfig.builder().build();
+    }
+
     @Test
     public void testMultipleBigValues() {
         testBigValue(0);
@@ -32,6 +32,7 @@ import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.cleaner.NoOpCleaner;
 import com.palantir.atlasdb.debug.ConflictTracer;
@@ -148,13 +149,49 @@ public class CommitLockTest extends TransactionTestSetup {
         commitWriteWith(canAcquireLockOnDifferentCell, conflictHandler);
     }
 
+    @Theory
+    public void shouldAcquireCoarsenedLockInsteadOfRowAndCellLocksIfCoarsened(ConflictHandler conflictHandler) {
+        Assume.assumeTrue(conflictHandler.lockCellsForConflicts() || conflictHandler.lockRowsForConflicts());
+
+        PreCommitCondition onlyCoarsenedLockAcquired = (ignored) -> {
+            assertFalse(lock(SnapshotTransaction.coarsenedLockDescriptor(TEST_TABLE, 0)).wasSuccessful());
+            assertTrue(acquireRowLock(ROW).wasSuccessful());
+            assertTrue(acquireCellLock(ROW, COLUMN).wasSuccessful());
+            assertTrue(lock(AtlasRowLockDescriptor.of(TEST_TABLE.getQualifiedName(), Ints.toByteArray(0)))
+                    .wasSuccessful());
+        };
+
+        commitWriteWith(onlyCoarsenedLockAcquired, conflictHandler, 1);
+    }
+
+    @Theory
+    public void shouldNotAcquireCoarsenedLockIfDoesNotLockForConflicts(ConflictHandler conflictHandler) {
+        Assume.assumeFalse(conflictHandler.lockCellsForConflicts() || conflictHandler.lockRowsForConflicts());
+
+        PreCommitCondition canAcquireCoarsenedLock = (ignored) -> {
+            assertTrue(lock(SnapshotTransaction.coarsenedLockDescriptor(TEST_TABLE, 0)).wasSuccessful());
+        };
+
+        commitWriteWith(canAcquireCoarsenedLock, conflictHandler, 1);
+    }
+
     private void commitWriteWith(PreCommitCondition preCommitCondition, ConflictHandler conflictHandler) {
-        Transaction transaction = startTransaction(preCommitCondition, conflictHandler);
+        commitWriteWith(preCommitCondition, conflictHandler, 0);
+    }
+
+    private void commitWriteWith(
+            PreCommitCondition preCommitCondition,
+            ConflictHandler conflictHandler,
+            int lockCoarseningBuckets) {
+        Transaction transaction = startTransaction(preCommitCondition, conflictHandler, lockCoarseningBuckets);
         put(transaction, ROW, COLUMN, "100");
         transaction.commit();
     }
 
-    private Transaction startTransaction(PreCommitCondition preCommitCondition, ConflictHandler conflictHandler) {
+    private Transaction startTransaction(
+            PreCommitCondition preCommitCondition,
+            ConflictHandler conflictHandler,
+            int lockCoarseningBuckets) {
         ImmutableMap<TableReference, ConflictHandler> tablesToWriteWrite = ImmutableMap.of(
                 TEST_TABLE,
                 conflictHandler,
@@ -168,7 +205,9 @@ public class CommitLockTest extends TransactionTestSetup {
                 transactionService,
                 NoOpCleaner.INSTANCE,
                 Suppliers.ofInstance(timestampService.getFreshTimestamp()),
-                TestConflictDetectionManagers.createWithStaticConflictDetection(tablesToWriteWrite),
+                TestConflictDetectionManagers.createWithStaticConflictDetection(
+                        tablesToWriteWrite,
+                        ImmutableMap.of(TEST_TABLE, lockCoarseningBuckets)),
                 SweepStrategyManagers.createDefault(keyValueService),
                 0L,
                 Optional.empty(),
@@ -19,6 +19,7 @@ import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.transaction.api.ConflictHandler;
 
@@ -28,6 +29,13 @@ public final class TestConflictDetectionManagers {
     @VisibleForTesting
     static ConflictDetectionManager createWithStaticConflictDetection(
             Map<TableReference, ConflictHandler> staticMap) {
+        return createWithStaticConflictDetection(staticMap, ImmutableMap.of());
+    }
+
+    @VisibleForTesting
+    static ConflictDetectionManager createWithStaticConflictDetection(
+            Map<TableReference, ConflictHandler> staticMap,
+            Map<TableReference, Integer> lockCoarseningBuckets) {
         return new ConflictDetectionManager(
                 new CacheLoader<TableReference, ConflictHandler>() {
                     @Override
@@ -35,6 +43,12 @@ public final class TestConflictDetectionManagers {
                         return staticMap.getOrDefault(
                                 tableReference, ConflictHandler.RETRY_ON_WRITE_WRITE);
                     }
+                },
+                new CacheLoader<TableReference, Integer>() {
+                    @Override
+                    public Integer load(TableReference tableReference) throws Exception {
+                        return lockCoarseningBuckets.getOrDefault(tableReference, 0);
+                    }
                 });
     }
 }
@@ -17,6 +17,8 @@ package com.palantir.atlasdb.transaction.impl;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasEntry;
@@ -24,13 +26,17 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -74,6 +80,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.mockito.ArgumentCaptor;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Suppliers;
@@ -106,6 +113,7 @@ import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.api.watch.LockWatchManager;
 import com.palantir.atlasdb.keyvalue.api.watch.NoOpLockWatchManager;
 import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
@@ -295,6 +303,7 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
             TableReference.createFromFullyQualifiedName("default.table5");
 
     private static final Cell TEST_CELL = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("column1"));
+    private static final Cell OTHER_TEST_CELL = Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("column1"));
 
     @Override
     @Before
@@ -1391,6 +1400,115 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
 
     }
 
+    @Test
+    public void pipelinedCommitWritesValues() {
+        setTransactionConfig(ImmutableTransactionConfig.builder()
+                .pipelineCommitStages(true)
+                .build());
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        long transactionTs = timelockService.getFreshTimestamp();
+        LockImmutableTimestampResponse res = timelockService.lockImmutableTimestamp();
+
+        Transaction transaction = getSnapshotTransactionWith(
+                timelockService,
+                () -> transactionTs,
+                res,
+                PreCommitConditions.NO_OP);
+        transaction.put(TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+        transaction.commit();
+        timelockService.unlock(ImmutableSet.of(res.getLock()));
+
+        Transaction readTransaction = txManager.createNewTransaction();
+        assertThat(readTransaction.get(TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL),
+                is(PtBytes.toBytes("value")));
+    }
+
+    @Test
+    public void pipelinedCommitFailsIfPreCommitConditionFails() {
+        setTransactionConfig(ImmutableTransactionConfig.builder()
+                .pipelineCommitStages(true)
+                .build());
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        long transactionTs = timelockService.getFreshTimestamp();
+        LockImmutableTimestampResponse res = timelockService.lockImmutableTimestamp();
+
+        Transaction transaction = getSnapshotTransactionWith(
+                timelockService,
+                () -> transactionTs,
+                res,
+                ALWAYS_FAILS_CONDITION);
+        transaction.put(TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        assertThatExceptionOfType(TransactionFailedRetriableException.class)
+                .isThrownBy(transaction::commit)
+                .withMessageContaining("Condition failed");
+        timelockService.unlock(ImmutableSet.of(res.getLock()));
+    }
+
+    @Test
+    public void servesWatchedCellsFromLockWatchValueCache() {
+        LockWatchManager lockWatchManager = mock(LockWatchManager.class);
+        byte[] cachedValue = PtBytes.toBytes("cached");
+        when(lockWatchManager.getCachedValues(anyLong(), eq(TABLE), eq(ImmutableSet.of(TEST_CELL))))
+                .thenReturn(ImmutableMap.of(TEST_CELL, cachedValue));
+        Transaction transaction = getSnapshotTransactionWithLockWatchManager(
+                lockWatchManager, ConflictHandler.RETRY_ON_WRITE_WRITE);
+
+        Map<Cell, byte[]> result = transaction.get(TABLE, ImmutableSet.of(TEST_CELL));
+
+        assertArrayEquals(cachedValue, result.get(TEST_CELL));
+        verify(lockWatchManager, never()).cacheValuesRead(anyLong(), any(), any());
+    }
+
+    @Test
+    public void offersCommittedValuesReadToLockWatchValueCache() {
+        byte[] value = PtBytes.toBytes("value");
+        writeCells(TABLE, ImmutableMap.of(TEST_CELL, value));
+        LockWatchManager lockWatchManager = mock(LockWatchManager.class);
+        Transaction transaction = getSnapshotTransactionWithLockWatchManager(
+                lockWatchManager, ConflictHandler.RETRY_ON_WRITE_WRITE);
+
+        transaction.get(TABLE, ImmutableSet.of(TEST_CELL, OTHER_TEST_CELL));
+
+        Map<Cell, byte[]> cached = captureValuesOfferedToCache(lockWatchManager);
+        assertThat(cached.keySet(), containsInAnyOrder(TEST_CELL, OTHER_TEST_CELL));
+        assertArrayEquals(value, cached.get(TEST_CELL));
+        assertArrayEquals(PtBytes.EMPTY_BYTE_ARRAY, cached.get(OTHER_TEST_CELL));
+    }
+
+    @Test
+    public void doesNotOfferLocallyWrittenValuesToLockWatchValueCache() {
+        LockWatchManager lockWatchManager = mock(LockWatchManager.class);
+        Transaction transaction = getSnapshotTransactionWithLockWatchManager(
+                lockWatchManager, ConflictHandler.RETRY_ON_WRITE_WRITE);
+        transaction.put(TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("local")));
+
+        transaction.get(TABLE, ImmutableSet.of(TEST_CELL, OTHER_TEST_CELL));
+
+        verify(lockWatchManager).getCachedValues(anyLong(), eq(TABLE), eq(ImmutableSet.of(OTHER_TEST_CELL)));
+        assertThat(captureValuesOfferedToCache(lockWatchManager).keySet(), contains(OTHER_TEST_CELL));
+    }
+
+    @Test
+    public void doesNotUseLockWatchValueCacheForTablesIgnoringConflicts() {
+        writeCells(TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+        LockWatchManager lockWatchManager = mock(LockWatchManager.class);
+        Transaction transaction = getSnapshotTransactionWithLockWatchManager(
+                lockWatchManager, ConflictHandler.IGNORE_ALL);
+
+        transaction.get(TABLE, ImmutableSet.of(TEST_CELL));
+
+        verify(lockWatchManager, never()).getCachedValues(anyLong(), any(), any());
+        verify(lockWatchManager, never()).cacheValuesRead(anyLong(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Cell, byte[]> captureValuesOfferedToCache(LockWatchManager lockWatchManager) {
+        ArgumentCaptor<Map<Cell, byte[]>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(lockWatchManager).cacheValuesRead(anyLong(), eq(TABLE), captor.capture());
+        return captor.getValue();
+    }
+
     private void setTransactionConfig(TransactionConfig config) {
         transactionConfig = config;
     }
@@ -1414,18 +1532,52 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
             LockImmutableTimestampResponse lockImmutableTimestampResponse,
             PreCommitCondition preCommitCondition,
             boolean validateLocksOnReads) {
+        return getSnapshotTransactionWith(
+                timelockService,
+                startTs,
+                lockImmutableTimestampResponse,
+                preCommitCondition,
+                validateLocksOnReads,
+                NoOpLockWatchManager.INSTANCE,
+                ConflictHandler.RETRY_ON_WRITE_WRITE);
+    }
+
+    private Transaction getSnapshotTransactionWithLockWatchManager(
+            LockWatchManager lockWatchManager,
+            ConflictHandler conflictHandler) {
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        long transactionTs = timelockService.getFreshTimestamp();
+        LockImmutableTimestampResponse res = timelockService.lockImmutableTimestamp();
+        return getSnapshotTransactionWith(
+                timelockService,
+                () -> transactionTs,
+                res,
+                PreCommitConditions.NO_OP,
+                true,
+                lockWatchManager,
+                conflictHandler);
+    }
+
+    private Transaction getSnapshotTransactionWith(
+            TimelockService timelockService,
+            Supplier<Long> startTs,
+            LockImmutableTimestampResponse lockImmutableTimestampResponse,
+            PreCommitCondition preCommitCondition,
+            boolean validateLocksOnReads,
+            LockWatchManager lockWatchManager,
+            ConflictHandler conflictHandler) {
         PathTypeTracker pathTypeTracker = PathTypeTrackers.constructSynchronousTracker();
         return transactionWrapper.apply(
                 new SnapshotTransaction(
                         metricsManager,
                         keyValueServiceWrapper.apply(keyValueService, pathTypeTracker),
                         timelockService,
-                        NoOpLockWatchManager.INSTANCE,
+                        lockWatchManager,
                         transactionService,
                         NoOpCleaner.INSTANCE,
                         startTs,
                         TestConflictDetectionManagers.createWithStaticConflictDetection(
-                                ImmutableMap.of(TABLE, ConflictHandler.RETRY_ON_WRITE_WRITE)),
+                                ImmutableMap.of(TABLE, conflictHandler)),
                         SweepStrategyManagers.createDefault(keyValueService),
                         lockImmutableTimestampResponse.getImmutableTimestamp(),
                         Optional.of(lockImmutableTimestampResponse.getLock()),
@@ -62,4 +62,12 @@ public interface PaxosStateLog<V extends Persistable & Versionable> {
      */
     void truncate(long toDeleteInclusive);
 
+    /**
+     * Closes any file handles this log keeps open between operations. The log remains usable, and reopens them as
+     * needed.
+     */
+    default void releaseFileHandles() {
+        // nothing kept open by default
+    }
+
 }
@@ -42,6 +42,8 @@ public final class LeaderElectionServiceBuilder {
     @Nullable private Duration randomWaitBeforeProposingLeadership;
     @Nullable private Duration leaderAddressCacheTtl;
     @Nullable private UUID leaderUuid;
+    private Duration leaderLeaseDuration = Duration.ZERO;
+    private Duration leaderLeaseSafetyMargin = Duration.ZERO;
     private UnaryOperator<PaxosProposer> proposerDecorator = paxosProposer -> paxosProposer;
 
     public LeaderElectionServiceBuilder acceptorClient(PaxosAcceptorNetworkClient acceptorClient) {
@@ -99,6 +101,24 @@ public final class LeaderElectionServiceBuilder {
         return this;
     }
 
+    /**
+     * Enables leader leases. While its lease is valid, the leader answers leadership checks without contacting a
+     * quorum. The acceptors of every node in the cluster must be created with the same {@code leaseDuration}
+     * (see {@link com.palantir.paxos.PaxosAcceptorImpl#newAcceptor(String, Duration)}); the leader gives up its lease
+     * {@code safetyMargin} early, to allow for clocks on different nodes running at different rates.
+     */
+    public LeaderElectionServiceBuilder leaderLease(Duration leaseDuration, Duration safetyMargin) {
+        Preconditions.checkNotNull(leaseDuration, "leaseDuration cannot be null");
+        Preconditions.checkNotNull(safetyMargin, "safetyMargin cannot be null");
+        Preconditions.checkArgument(!leaseDuration.isNegative(), "leaseDuration must be positive");
+        Preconditions.checkArgument(!safetyMargin.isNegative(), "safetyMargin must be positive");
+        Preconditions.checkArgument(leaseDuration.isZero() || safetyMargin.compareTo(leaseDuration) < 0,
+                "safetyMargin must be shorter than leaseDuration");
+        this.leaderLeaseDuration = leaseDuration;
+        this.leaderLeaseSafetyMargin = safetyMargin;
+        return this;
+    }
+
     public LeaderElectionServiceBuilder decorateProposer(UnaryOperator<PaxosProposer> proposerDecorator) {
         this.proposerDecorator = Preconditions.checkNotNull(proposerDecorator, "proposerDecorator cannot be null");
         return this;
@@ -114,7 +134,8 @@ public final class LeaderElectionServiceBuilder {
                 pingRate(),
                 randomWaitBeforeProposingLeadership(),
                 leaderAddressCacheTtl(),
-                eventRecorder());
+                eventRecorder(),
+                leaderLease());
     }
 
     private PaxosProposer buildProposer() {
@@ -154,6 +175,13 @@ public final class LeaderElectionServiceBuilder {
         return Preconditions.checkNotNull(leaderAddressCacheTtl, "leaderAddressCacheTtl not set");
     }
 
+    private Duration leaderLease() {
+        if (leaderLeaseDuration.isZero()) {
+            return Duration.ZERO;
+        }
+        return leaderLeaseDuration.minus(leaderLeaseSafetyMargin);
+    }
+
     private UUID leaderUuid() {
         return Preconditions.checkNotNull(leaderUuid, "leaderUuid not set");
     }
@@ -19,6 +19,7 @@ import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.immutables.value.Value;
@@ -81,6 +82,14 @@ public class PaxosLeaderElectionService implements LeaderElectionService {
 
     private final Cache<UUID, HostAndPort> leaderAddressCache;
 
+    private final long leaderLeaseNanos;
+    private final AtomicReference<LeaderLease> leaderLease = new AtomicReference<>(LeaderLease.NONE);
+
+    /**
+     * If {@code leaderLeaseDuration} is positive, then after a quorum of acceptors has confirmed that this node is
+     * still leading, further checks are answered locally for that duration. The lease must be shorter than the leases
+     * held by the acceptors, by a safety margin that accounts for clock drift between nodes.
+     */
     PaxosLeaderElectionService(
             PaxosProposer proposer,
             PaxosLearner knowledge,
@@ -90,7 +99,8 @@ public class PaxosLeaderElectionService implements LeaderElectionService {
             Duration updatePollingWait,
             Duration randomWaitBeforeProposingLeadership,
             Duration leaderAddressCacheTtl,
-            PaxosLeaderElectionEventRecorder eventRecorder) {
+            PaxosLeaderElectionEventRecorder eventRecorder,
+            Duration leaderLeaseDuration) {
         this.proposer = proposer;
         this.knowledge = knowledge;
         this.leaderPinger = leaderPinger;
@@ -103,6 +113,7 @@ public class PaxosLeaderElectionService implements LeaderElectionService {
         this.leaderAddressCache = Caffeine.newBuilder()
                 .expireAfterWrite(leaderAddressCacheTtl)
                 .build();
+        this.leaderLeaseNanos = leaderLeaseDuration.toNanos();
     }
 
     @Override
@@ -244,12 +255,32 @@ public class PaxosLeaderElectionService implements LeaderElectionService {
             return Futures.immediateFuture(StillLeadingStatus.NOT_LEADING);
         }
 
+        if (leaderLease.get().isValidFor(value.getRound(), System.nanoTime())) {
+            return Futures.immediateFuture(StillLeadingStatus.LEADING);
+        }
+
+        // verification is guaranteed to start after this point, so acceptors' leases start no earlier than this
+        long verificationStartNanos = System.nanoTime();
         return Futures.transform(
                 latestRoundVerifier.isLatestRoundAsync(value.getRound()),
-                PaxosQuorumStatus::toStillLeadingStatus,
+                quorumStatus -> {
+                    StillLeadingStatus status = quorumStatus.toStillLeadingStatus();
+                    if (status == StillLeadingStatus.LEADING) {
+                        extendLeaderLease(value.getRound(), verificationStartNanos);
+                    }
+                    return status;
+                },
                 MoreExecutors.directExecutor());
     }
 
+    private void extendLeaderLease(long round, long verificationStartNanos) {
+        if (leaderLeaseNanos <= 0) {
+            return;
+        }
+        LeaderLease newLease = new LeaderLease(round, verificationStartNanos + leaderLeaseNanos);
+        leaderLease.accumulateAndGet(newLease, LeaderLease::later);
+    }
+
     private boolean isLatestRound(PaxosValue value) {
         return isLatestRound(Optional.of(value));
     }
@@ -299,6 +330,7 @@ public class PaxosLeaderElectionService implements LeaderElectionService {
 
     @Override
     public boolean stepDown() {
+        leaderLease.set(LeaderLease.NONE);
         LeadershipState leadershipState = determineLeadershipState();
         StillLeadingStatus status = leadershipState.status();
         if (status == StillLeadingStatus.LEADING) {
@@ -359,6 +391,32 @@ public class PaxosLeaderElectionService implements LeaderElectionService {
         return paxosValue.map(PaxosValue::getRound).orElse(PaxosAcceptor.NO_LOG_ENTRY) + 1;
     }
 
+    private static final class LeaderLease {
+        static final LeaderLease NONE = new LeaderLease(PaxosAcceptor.NO_LOG_ENTRY, Long.MIN_VALUE);
+
+        private final long round;
+        private final long expiryNanos;
+
+        LeaderLease(long round, long expiryNanos) {
+            this.round = round;
+            this.expiryNanos = expiryNanos;
+        }
+
+        boolean isValidFor(long leaderRound, long nowNanos) {
+            return this != NONE && round == leaderRound && nowNanos - expiryNanos < 0;
+        }
+
+        LeaderLease later(LeaderLease other) {
+            if (this == NONE || other.round > round) {
+                return other;
+            }
+            if (other.round == round && other.expiryNanos - expiryNanos > 0) {
+                return other;
+            }
+            return this;
+        }
+    }
+
     @Value.Immutable
     interface LeadershipState {
 
@@ -15,39 +15,120 @@
  */
 package com.palantir.paxos;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentSkipListMap;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.palantir.common.base.Throwables;
 import com.palantir.logsafe.SafeArg;
 
 public final class PaxosAcceptorImpl implements PaxosAcceptor {
     private static final Logger logger = LoggerFactory.getLogger(PaxosAcceptorImpl.class);
+    private static final String LEADER_LEASE_FILE_NAME = "leader-lease";
 
     public static PaxosAcceptor newAcceptor(String logDir) {
-        PaxosStateLog<PaxosAcceptorState> log = new PaxosStateLogImpl<>(logDir);
-        return new PaxosAcceptorImpl(
+        return newAcceptor(logDir, Duration.ZERO);
+    }
+
+    /**
+     * Creates an acceptor that backs leader leases of the given duration. Each time the acceptor reports its latest
+     * sequence, which is how a leader verifies that it is still leading, it refuses to promise any later sequence for
+     * {@code leaderLeaseDuration}. A leader that has verified its leadership with a quorum of such acceptors can
+     * therefore serve requests without checking again until its lease expires. A zero duration disables leases.
+     *
+     * The sequence covered by the most recent lease is persisted in the log directory before it is reported. An
+     * acceptor that restarts cannot know how long ago that lease was granted, so it treats it as granted at startup.
+     */
+    public static PaxosAcceptor newAcceptor(String logDir, Duration leaderLeaseDuration) {
+        return newAcceptor(logDir, leaderLeaseDuration, false);
+    }
+
+    /**
+     * As {@link #newAcceptor(String, Duration)}, storing rounds in a {@link SegmentedPaxosStateLog} if
+     * {@code useSegmentedLog} is set (see {@link SegmentedPaxosStateLog#open(String, boolean)}).
+     */
+    public static PaxosAcceptorImpl newAcceptor(
+            String logDir,
+            Duration leaderLeaseDuration,
+            boolean useSegmentedLog) {
+        PaxosStateLog<PaxosAcceptorState> log = SegmentedPaxosStateLog.open(logDir, useSegmentedLog);
+        PaxosAcceptorImpl acceptor = new PaxosAcceptorImpl(
                 new ConcurrentSkipListMap<>(),
                 log,
-                log.getGreatestLogEntry());
+                log.getGreatestLogEntry(),
+                leaderLeaseDuration.toNanos(),
+                new File(logDir, LEADER_LEASE_FILE_NAME).toPath());
+        acceptor.restoreLeaderLease();
+        return acceptor;
     }
 
     private final ConcurrentSkipListMap<Long, PaxosAcceptorState> state;
     private final PaxosStateLog<PaxosAcceptorState> log;
     private final long greatestInLogAtStartup;
+    private final long leaderLeaseNanos;
+    private final Path leaseFile;
+
+    private final Object leaseLock = new Object();
+    @GuardedBy("leaseLock")
+    private boolean leaseGranted = false;
+    @GuardedBy("leaseLock")
+    private long leaseGrantedAtNanos;
+    @GuardedBy("leaseLock")
+    private long leaseSequence;
 
     private PaxosAcceptorImpl(ConcurrentSkipListMap<Long, PaxosAcceptorState> state,
                               PaxosStateLog<PaxosAcceptorState> log,
-                              long greatestInLogAtStartup) {
+                              long greatestInLogAtStartup,
+                              long leaderLeaseNanos,
+                              Path leaseFile) {
         this.state = state;
         this.log = log;
         this.greatestInLogAtStartup = greatestInLogAtStartup;
+        this.leaderLeaseNanos = leaderLeaseNanos;
+        this.leaseFile = leaseFile;
+    }
+
+    private void restoreLeaderLease() {
+        if (leaderLeaseNanos <= 0) {
+            return;
+        }
+        OptionalLong persistedLeaseSequence = readLeaseSequence();
+        if (persistedLeaseSequence.isPresent()) {
+            synchronized (leaseLock) {
+                leaseGrantedAtNanos = System.nanoTime();
+                leaseSequence = persistedLeaseSequence.getAsLong();
+                leaseGranted = true;
+            }
+        }
     }
 
     @Override
     public PaxosPromise prepare(long seq, PaxosProposalId pid) {
+        if (leaderLeaseNanos <= 0) {
+            return prepareInternal(seq, pid);
+        }
+        synchronized (leaseLock) {
+            if (isHeldByLeaderLease(seq)) {
+                return PaxosPromise.reject(pid);
+            }
+            return prepareInternal(seq, pid);
+        }
+    }
+
+    private PaxosPromise prepareInternal(long seq, PaxosProposalId pid) {
         try {
             checkLogIfNeeded(seq);
         } catch (Exception e) {
@@ -115,6 +196,68 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
 
     @Override
     public long getLatestSequencePreparedOrAccepted() {
+        if (leaderLeaseNanos <= 0) {
+            return getLatestSequencePreparedOrAcceptedInternal();
+        }
+        synchronized (leaseLock) {
+            // the lease must start no later than the point at which we read the latest sequence
+            long grantedAtNanos = System.nanoTime();
+            long sequence = getLatestSequencePreparedOrAcceptedInternal();
+            if (!leaseGranted || sequence != leaseSequence) {
+                // if this fails we must not grant the lease, since we would forget it on restart
+                persistLeaseSequence(sequence);
+            }
+            leaseGrantedAtNanos = grantedAtNanos;
+            leaseSequence = sequence;
+            leaseGranted = true;
+            return leaseSequence;
+        }
+    }
+
+    /**
+     * Closes any file handles kept open by this acceptor's log; the acceptor remains usable.
+     */
+    public void releaseFileHandles() {
+        log.releaseFileHandles();
+    }
+
+    private OptionalLong readLeaseSequence() {
+        try {
+            String contents = new String(Files.readAllBytes(leaseFile), StandardCharsets.UTF_8).trim();
+            return OptionalLong.of(Long.parseLong(contents));
+        } catch (NoSuchFileException e) {
+            return OptionalLong.empty();
+        } catch (IOException | NumberFormatException e) {
+            // we may have granted a lease that we cannot read back, so assume it covers nothing beyond the log
+            logger.warn("Could not read the persisted leader lease, assuming one was granted at startup", e);
+            return OptionalLong.of(greatestInLogAtStartup);
+        }
+    }
+
+    @GuardedBy("leaseLock")
+    private void persistLeaseSequence(long sequence) {
+        Path tmpFile = leaseFile.resolveSibling(LEADER_LEASE_FILE_NAME + ".tmp");
+        try {
+            Files.write(tmpFile, Long.toString(sequence).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.SYNC);
+            Files.move(tmpFile, leaseFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.error("Failed to persist leader lease for sequence {}", SafeArg.of("sequence", sequence), e);
+            throw Throwables.throwUncheckedException(e);
+        }
+    }
+
+    @GuardedBy("leaseLock")
+    private boolean isHeldByLeaderLease(long seq) {
+        return leaseGranted
+                && seq > leaseSequence
+                && System.nanoTime() - leaseGrantedAtNanos < leaderLeaseNanos;
+    }
+
+    private long getLatestSequencePreparedOrAcceptedInternal() {
         if (state.isEmpty()) {
             return greatestInLogAtStartup;
         } else {
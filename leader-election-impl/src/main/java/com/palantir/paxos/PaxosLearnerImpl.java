@@ -40,7 +40,18 @@ public final class PaxosLearnerImpl implements PaxosLearner {
     }
 
     public static PaxosLearner newLearner(String logDir, PaxosKnowledgeEventRecorder eventRecorder) {
-        PaxosStateLogImpl<PaxosValue> log = new PaxosStateLogImpl<PaxosValue>(logDir);
+        return newLearner(logDir, eventRecorder, false);
+    }
+
+    /**
+     * Creates a learner that stores rounds in a {@link SegmentedPaxosStateLog} if {@code useSegmentedLog} is set (see
+     * {@link SegmentedPaxosStateLog#open(String, boolean)}).
+     */
+    public static PaxosLearnerImpl newLearner(
+            String logDir,
+            PaxosKnowledgeEventRecorder eventRecorder,
+            boolean useSegmentedLog) {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.open(logDir, useSegmentedLog);
         ConcurrentSkipListMap<Long, PaxosValue> state = new ConcurrentSkipListMap<Long, PaxosValue>();
 
         byte[] greatestValidValue = PaxosStateLogs.getGreatestValidLogEntry(log);
@@ -112,4 +123,11 @@ public final class PaxosLearnerImpl implements PaxosLearner {
         }
         return Optional.ofNullable(state.get(state.lastKey()));
     }
+
+    /**
+     * Closes any file handles kept open by this learner's log; the learner remains usable.
+     */
+    public void releaseFileHandles() {
+        log.releaseFileHandles();
+    }
 }
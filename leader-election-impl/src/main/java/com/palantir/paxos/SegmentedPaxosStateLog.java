@@ -0,0 +1,601 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.CoalescingSupplier;
+import com.palantir.common.persist.Persistable;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+
+/**
+ * A {@link PaxosStateLog} that appends rounds to a sequence of segment files instead of writing one file per round.
+ *
+ * Each record carries a CRC32 checksum of its contents. The location of the latest record for every sequence number
+ * is kept in memory, so reads do a single positioned read and {@link #getLeastLogEntry()} and
+ * {@link #getGreatestLogEntry()} never list the directory. Writers append under a lock and then wait for an fsync
+ * that started after their append; concurrent writers share the same fsync. When the active segment grows past its
+ * maximum size it is synced, sealed and a new segment is started. Truncation is recorded in the log and whole
+ * segments are deleted once every round in them has been truncated.
+ *
+ * On startup, rounds stored in the per-round file format of {@link PaxosStateLogImpl} in the same directory that are
+ * not yet in the segmented log are imported. The old files are left in place, and are only deleted once the log is
+ * truncated past them. The segmented format is opt-in (see {@link #open(String, boolean)}); opening a directory with
+ * it disabled exports the segments back to the per-round format, so that turning it off and restarting leaves a log
+ * that older versions can read.
+ */
+public final class SegmentedPaxosStateLog<V extends Persistable & Versionable> implements PaxosStateLog<V> {
+    private static final Logger log = LoggerFactory.getLogger(SegmentedPaxosStateLog.class);
+
+    private static final long DEFAULT_MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private static final int SEGMENT_MAGIC = 0x50784c67;
+    private static final int SEGMENT_FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private static final byte ROUND_RECORD = 0;
+    private static final byte TRUNCATION_RECORD = 1;
+    // length and checksum of the body, followed by the body: record type, sequence number and payload
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int RECORD_BODY_PREFIX_SIZE = 1 + Long.BYTES;
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentSkipListMap<Long, Location> index = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<Long, Long> seqToVersionMap = new HashMap<>();
+    private final CoalescingSupplier<Void> syncer = new CoalescingSupplier<>(this::syncActiveSegment);
+
+    private volatile Segment activeSegment;
+    private long truncatedUpTo = Long.MIN_VALUE;
+
+    private SegmentedPaxosStateLog(File directory, long maxSegmentSize) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    public static <V extends Persistable & Versionable> SegmentedPaxosStateLog<V> create(String path) {
+        return create(path, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the paxos state log in the given directory, in the segmented format if {@code useSegmentedLog} is set and
+     * in the per-round file format of {@link PaxosStateLogImpl} otherwise. In the latter case, rounds in any existing
+     * segments are first written back as per-round files and the segments are deleted. This must be done, by turning
+     * the option off and restarting, before rolling back to a version that does not know about segmented logs.
+     */
+    public static <V extends Persistable & Versionable> PaxosStateLog<V> open(String path, boolean useSegmentedLog) {
+        if (useSegmentedLog) {
+            return create(path);
+        }
+        exportToLegacyFormat(path);
+        return new PaxosStateLogImpl<>(path);
+    }
+
+    @VisibleForTesting
+    static void exportToLegacyFormat(String path) {
+        File[] files = new File(path).listFiles();
+        if (files == null || Arrays.stream(files).noneMatch(file -> file.getName().endsWith(SEGMENT_SUFFIX))) {
+            return;
+        }
+        SegmentedPaxosStateLog<RawRound> stateLog = create(path);
+        try {
+            stateLog.exportAndDeleteSegments();
+        } catch (IOException e) {
+            throw new RuntimeException("IO problem related to the path " + new File(path).getAbsolutePath(), e);
+        }
+    }
+
+    @VisibleForTesting
+    static <V extends Persistable & Versionable> SegmentedPaxosStateLog<V> create(String path, long maxSegmentSize) {
+        SegmentedPaxosStateLog<V> stateLog = new SegmentedPaxosStateLog<>(new File(path), maxSegmentSize);
+        try {
+            stateLog.initialize();
+        } catch (IOException e) {
+            throw new RuntimeException("IO problem related to the path " + new File(path).getAbsolutePath(), e);
+        }
+        return stateLog;
+    }
+
+    private void initialize() throws IOException {
+        lock.lock();
+        try {
+            FileUtils.forceMkdir(directory);
+            recoverSegments();
+            importLegacyRounds();
+            if (index.isEmpty() && truncatedUpTo == Long.MIN_VALUE) {
+                // As in PaxosStateLogImpl, a brand new log gets a lowest entry so that #getLeastLogEntry returns
+                // NO_LOG_ENTRY until the log is truncated; otherwise we could miss seq 0, accept seq 1 and then
+                // ignore seq 0 after restarting.
+                append(ROUND_RECORD, PaxosAcceptor.NO_LOG_ENTRY, EMPTY_PAYLOAD);
+                activeSegment.sync();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void writeRound(long seq, V round) {
+        lock.lock();
+        try {
+            // reject old state
+            Long latestVersion = seqToVersionMap.get(seq);
+            if (latestVersion != null && round.getVersion() < latestVersion) {
+                return;
+            }
+            append(ROUND_RECORD, seq, round.persistToBytes());
+            seqToVersionMap.put(seq, round.getVersion());
+        } catch (IOException e) {
+            log.error("problem writing paxos state", e);
+            throw Throwables.throwUncheckedException(e);
+        } finally {
+            lock.unlock();
+        }
+        syncer.get();
+    }
+
+    @Override
+    public byte[] readRound(long seq) throws IOException {
+        Location location = index.get(seq);
+        if (location == null) {
+            return null;
+        }
+        Segment segment = segments.get(location.segmentId);
+        if (segment == null) {
+            // truncated concurrently
+            return null;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.file, "r")) {
+            file.seek(location.offset);
+            int bodyLength = file.readInt();
+            int checksum = file.readInt();
+            if (bodyLength < RECORD_BODY_PREFIX_SIZE || bodyLength > file.length() - file.getFilePointer()) {
+                throw new CorruptLogFileException();
+            }
+            byte[] body = new byte[bodyLength];
+            file.readFully(body);
+            if (checksum(body, 0, bodyLength) != checksum) {
+                throw new CorruptLogFileException();
+            }
+            return Arrays.copyOfRange(body, RECORD_BODY_PREFIX_SIZE, bodyLength);
+        } catch (FileNotFoundException e) {
+            // the segment was deleted by a concurrent truncation
+            return null;
+        } catch (IOException e) {
+            log.error("Problem reading paxos state, specifically when reading round {} from segment {}",
+                    SafeArg.of("round", seq),
+                    SafeArg.of("segment", segment.file.getName()),
+                    e);
+            throw e;
+        }
+    }
+
+    @Override
+    public long getLeastLogEntry() {
+        Map.Entry<Long, Location> least = index.firstEntry();
+        return least == null ? PaxosAcceptor.NO_LOG_ENTRY : least.getKey();
+    }
+
+    @Override
+    public long getGreatestLogEntry() {
+        Map.Entry<Long, Location> greatest = index.lastEntry();
+        return greatest == null ? PaxosAcceptor.NO_LOG_ENTRY : greatest.getKey();
+    }
+
+    @Override
+    public void truncate(long toDeleteInclusive) {
+        lock.lock();
+        try {
+            long greatestLogEntry = getGreatestLogEntry();
+            // We never want to remove our most recent entry
+            long bound = greatestLogEntry >= 0 ? Math.min(greatestLogEntry - 1, toDeleteInclusive) : toDeleteInclusive;
+            if (bound <= truncatedUpTo) {
+                return;
+            }
+            append(TRUNCATION_RECORD, bound, EMPTY_PAYLOAD);
+            activeSegment.sync();
+            applyTruncation(bound);
+            deleteTruncatedSegments();
+            deleteLegacyRoundsUpTo(bound);
+        } catch (IOException e) {
+            log.error("problem truncating paxos state", e);
+            throw Throwables.throwUncheckedException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the active segment's writer; the next append reopens it.
+     */
+    @Override
+    public void releaseFileHandles() {
+        lock.lock();
+        try {
+            activeSegment.seal();
+        } catch (IOException e) {
+            log.error("problem releasing paxos state file handles", e);
+            throw Throwables.throwUncheckedException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyTruncation(long bound) {
+        truncatedUpTo = bound;
+        index.headMap(bound, true).clear();
+        seqToVersionMap.keySet().removeIf(seq -> seq <= bound);
+    }
+
+    /**
+     * Deletes the oldest sealed segments for as long as all rounds in them are truncated. The truncation record
+     * itself is always in the active segment, so it survives until a later truncation supersedes it.
+     */
+    private void deleteTruncatedSegments() {
+        for (Segment segment : segments.values()) {
+            if (segment == activeSegment || segment.greatestRound > truncatedUpTo) {
+                return;
+            }
+            segments.remove(segment.id);
+            if (!segment.file.delete()) {
+                log.warn("failed to delete paxos log segment {}", UnsafeArg.of("segment", segment.file));
+            }
+        }
+    }
+
+    private Void syncActiveSegment() {
+        try {
+            activeSegment.sync();
+        } catch (IOException e) {
+            log.error("problem syncing paxos state", e);
+            throw Throwables.throwUncheckedException(e);
+        }
+        return null;
+    }
+
+    private void append(byte type, long seq, byte[] payload) throws IOException {
+        byte[] record = encodeRecord(type, seq, payload);
+        if (activeSegment.size > SEGMENT_HEADER_SIZE && activeSegment.size + record.length > maxSegmentSize) {
+            activeSegment.seal();
+            startSegment(activeSegment.id + 1);
+        }
+        long offset = activeSegment.append(record);
+        if (type == ROUND_RECORD) {
+            activeSegment.greatestRound = Math.max(activeSegment.greatestRound, seq);
+            index.put(seq, new Location(activeSegment.id, offset));
+        }
+    }
+
+    private void startSegment(long id) throws IOException {
+        File file = new File(directory, segmentFileName(id));
+        RandomAccessFile writer = new RandomAccessFile(file, "rw");
+        writer.setLength(0);
+        writer.writeInt(SEGMENT_MAGIC);
+        writer.writeInt(SEGMENT_FORMAT_VERSION);
+        writer.getFD().sync();
+        syncDirectory();
+
+        Segment segment = new Segment(id, file);
+        segment.writer = writer;
+        segment.size = SEGMENT_HEADER_SIZE;
+        segments.put(id, segment);
+        activeSegment = segment;
+    }
+
+    /**
+     * Rebuilds the index from the existing segments. A torn record at the end of the last segment is the result of a
+     * write that was never acknowledged, and is discarded; a corrupt record anywhere else means acknowledged rounds
+     * may have been lost, so we refuse to start.
+     */
+    private void recoverSegments() throws IOException {
+        List<Long> segmentIds = new ArrayList<>();
+        File[] files = directory.listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            if (file.getName().endsWith(SEGMENT_SUFFIX)) {
+                segmentIds.add(Long.parseLong(
+                        file.getName().substring(0, file.getName().length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        segmentIds.sort(Long::compare);
+
+        for (int i = 0; i < segmentIds.size(); i++) {
+            Segment segment = new Segment(segmentIds.get(i), new File(directory, segmentFileName(segmentIds.get(i))));
+            long validLength = replaySegment(segment);
+            boolean isLast = i == segmentIds.size() - 1;
+            if (validLength < segment.file.length()) {
+                if (!isLast) {
+                    throw new SafeIllegalStateException("Corrupt record in sealed paxos log segment",
+                            SafeArg.of("segment", segment.file.getName()),
+                            SafeArg.of("offset", validLength));
+                }
+                log.warn("Discarding torn writes at the end of paxos log segment {}",
+                        SafeArg.of("segment", segment.file.getName()),
+                        SafeArg.of("discardedBytes", segment.file.length() - validLength));
+            }
+            if (!isLast) {
+                segments.put(segment.id, segment);
+            } else if (validLength < SEGMENT_HEADER_SIZE) {
+                // we crashed while starting this segment, so it has no records
+                startSegment(segment.id);
+            } else {
+                RandomAccessFile writer = new RandomAccessFile(segment.file, "rw");
+                writer.setLength(validLength);
+                writer.seek(validLength);
+                segment.writer = writer;
+                segment.size = validLength;
+                segments.put(segment.id, segment);
+                activeSegment = segment;
+            }
+        }
+
+        if (activeSegment == null) {
+            startSegment(segmentIds.isEmpty() ? 0 : segmentIds.get(segmentIds.size() - 1) + 1);
+        }
+    }
+
+    /**
+     * Applies the records of the given segment to the index and returns the length of its valid prefix.
+     */
+    private long replaySegment(Segment segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment.file.toPath()));
+        if (buffer.remaining() < SEGMENT_HEADER_SIZE
+                || buffer.getInt() != SEGMENT_MAGIC
+                || buffer.getInt() != SEGMENT_FORMAT_VERSION) {
+            return 0;
+        }
+        while (buffer.remaining() >= RECORD_HEADER_SIZE + RECORD_BODY_PREFIX_SIZE) {
+            int offset = buffer.position();
+            int bodyLength = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (bodyLength < RECORD_BODY_PREFIX_SIZE
+                    || bodyLength > buffer.remaining()
+                    || checksum(buffer.array(), buffer.position(), bodyLength) != checksum) {
+                return offset;
+            }
+            byte type = buffer.get();
+            long seq = buffer.getLong();
+            buffer.position(buffer.position() + bodyLength - RECORD_BODY_PREFIX_SIZE);
+            if (type == ROUND_RECORD) {
+                segment.greatestRound = Math.max(segment.greatestRound, seq);
+                index.put(seq, new Location(segment.id, offset));
+            } else if (type == TRUNCATION_RECORD) {
+                applyTruncation(Math.max(truncatedUpTo, seq));
+            } else {
+                return offset;
+            }
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Imports rounds written by {@link PaxosStateLogImpl} that are neither in the segmented log nor truncated, in order
+     * of their sequence numbers, and syncs them. The per-round files are kept so that the import never destroys the
+     * only copy of a round; if we fail part way through, the import is repeated on the next startup.
+     */
+    private void importLegacyRounds() throws IOException {
+        List<Long> legacyRounds = new ArrayList<>();
+        for (long seq : listLegacyRounds()) {
+            if (seq > truncatedUpTo && !index.containsKey(seq)) {
+                legacyRounds.add(seq);
+            }
+        }
+        if (legacyRounds.isEmpty()) {
+            return;
+        }
+        log.info("Importing {} paxos rounds in {} into a segmented log",
+                SafeArg.of("rounds", legacyRounds.size()),
+                UnsafeArg.of("directory", directory.getAbsolutePath()));
+        legacyRounds.sort(Long::compare);
+        PaxosStateLogImpl<V> legacyLog = new PaxosStateLogImpl<>(directory.getPath());
+        for (long seq : legacyRounds) {
+            byte[] bytes = seq == PaxosAcceptor.NO_LOG_ENTRY ? EMPTY_PAYLOAD : legacyLog.readRound(seq);
+            if (bytes != null) {
+                append(ROUND_RECORD, seq, bytes);
+            }
+        }
+        activeSegment.sync();
+    }
+
+    /**
+     * Writes every round in the segmented log as a per-round file, syncs them, and only then deletes the segments. If
+     * we fail part way through, the segments are still there and the export is repeated on the next startup.
+     */
+    private void exportAndDeleteSegments() throws IOException {
+        lock.lock();
+        try {
+            log.info("Exporting {} paxos rounds in {} to per-round files",
+                    SafeArg.of("rounds", index.size()),
+                    UnsafeArg.of("directory", directory.getAbsolutePath()));
+            PaxosStateLogImpl<RawRound> legacyLog = new PaxosStateLogImpl<>(directory.getPath());
+            for (long seq : index.keySet()) {
+                byte[] bytes = readRound(seq);
+                if (seq != PaxosAcceptor.NO_LOG_ENTRY && bytes != null) {
+                    legacyLog.writeRound(seq, new RawRound(bytes));
+                }
+            }
+            deleteLegacyRoundsUpTo(truncatedUpTo);
+            syncDirectory();
+
+            activeSegment.seal();
+            for (Segment segment : segments.values()) {
+                if (!segment.file.delete()) {
+                    throw new IOException("Failed to delete exported paxos log segment " + segment.file);
+                }
+            }
+            segments.clear();
+            index.clear();
+            syncDirectory();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deleteLegacyRoundsUpTo(long bound) {
+        for (long seq : listLegacyRounds()) {
+            File file = new File(directory, Long.toString(seq));
+            if (seq <= bound && !file.delete()) {
+                log.warn("failed to delete truncated log file {}", UnsafeArg.of("file", file.getAbsolutePath()));
+            }
+        }
+    }
+
+    private List<Long> listLegacyRounds() {
+        List<Long> legacyRounds = new ArrayList<>();
+        File[] files = directory.listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            try {
+                legacyRounds.add(Long.parseLong(file.getName()));
+            } catch (NumberFormatException e) {
+                // not a legacy round
+            }
+        }
+        return legacyRounds;
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on all platforms
+            log.debug("Could not sync paxos log directory", e);
+        }
+    }
+
+    private static byte[] encodeRecord(byte type, long seq, byte[] payload) {
+        int bodyLength = RECORD_BODY_PREFIX_SIZE + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+        buffer.putInt(bodyLength);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putLong(seq);
+        buffer.put(payload);
+        buffer.putInt(Integer.BYTES, checksum(buffer.array(), RECORD_HEADER_SIZE, bodyLength));
+        return buffer.array();
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static String segmentFileName(long id) {
+        return String.format("%019d%s", id, SEGMENT_SUFFIX);
+    }
+
+    private static final class RawRound implements Persistable, Versionable {
+        private final byte[] bytes;
+
+        RawRound(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public byte[] persistToBytes() {
+            return bytes;
+        }
+
+        @Override
+        public long getVersion() {
+            return 0;
+        }
+    }
+
+    private static final class Location {
+        private final long segmentId;
+        private final long offset;
+
+        Location(long segmentId, long offset) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * A segment file. Appends and sealing happen under the log's lock; syncs may happen concurrently with appends,
+     * and are serialized with sealing so that a sync never touches a closed file. Sealing the active segment only
+     * closes its writer, which the next append reopens.
+     */
+    private static final class Segment {
+        private final long id;
+        private final File file;
+        private long greatestRound = Long.MIN_VALUE;
+        private RandomAccessFile writer;
+        private long size;
+
+        Segment(long id, File file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        long append(byte[] record) throws IOException {
+            long offset = size;
+            openWriter().write(record);
+            size += record.length;
+            return offset;
+        }
+
+        private synchronized RandomAccessFile openWriter() throws IOException {
+            if (writer == null) {
+                writer = new RandomAccessFile(file, "rw");
+                writer.seek(size);
+            }
+            return writer;
+        }
+
+        synchronized void sync() throws IOException {
+            if (writer != null) {
+                writer.getFD().sync();
+            }
+        }
+
+        synchronized void seal() throws IOException {
+            if (writer != null) {
+                writer.getFD().sync();
+                writer.close();
+                writer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.palantir.leader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.paxos.LeaderPinger;
+import com.palantir.paxos.PaxosAcceptorNetworkClient;
+import com.palantir.paxos.PaxosLearner;
+import com.palantir.paxos.PaxosLearnerNetworkClient;
+import com.palantir.paxos.PaxosLong;
+import com.palantir.paxos.PaxosResponses;
+import com.palantir.paxos.PaxosValue;
+
+public class PaxosLeaderElectionServiceLeaseTest {
+    private static final UUID LEADER_UUID = UUID.randomUUID();
+    private static final long ROUND = 5L;
+    private static final PaxosValue LEADER_VALUE = new PaxosValue(LEADER_UUID.toString(), ROUND, null);
+    private static final PaxosValue NEXT_VALUE = new PaxosValue(UUID.randomUUID().toString(), ROUND + 1, null);
+
+    private final PaxosAcceptorNetworkClient acceptorClient = mock(PaxosAcceptorNetworkClient.class);
+    private final PaxosLearner knowledge = mock(PaxosLearner.class);
+
+    @Before
+    public void setUp() {
+        when(knowledge.getGreatestLearnedValue()).thenReturn(Optional.of(LEADER_VALUE));
+        when(acceptorClient.getLatestSequencePreparedOrAccepted()).thenReturn(PaxosResponses.of(2, ImmutableList.of(
+                PaxosLong.of(ROUND), PaxosLong.of(ROUND), PaxosLong.of(ROUND))));
+    }
+
+    @Test
+    public void checksWithQuorumOnEveryRequestWithoutLease() {
+        LeaderElectionService leaderElectionService = createService(Duration.ZERO);
+        LeadershipToken token = leaderElectionService.getCurrentTokenIfLeading().get();
+
+        assertThat(isStillLeading(leaderElectionService, token)).isEqualTo(StillLeadingStatus.LEADING);
+        assertThat(isStillLeading(leaderElectionService, token)).isEqualTo(StillLeadingStatus.LEADING);
+
+        verify(acceptorClient, times(3)).getLatestSequencePreparedOrAccepted();
+    }
+
+    @Test
+    public void doesNotCheckWithQuorumWhileLeaseIsValid() {
+        LeaderElectionService leaderElectionService = createService(Duration.ofMinutes(10));
+        LeadershipToken token = leaderElectionService.getCurrentTokenIfLeading().get();
+
+        assertThat(isStillLeading(leaderElectionService, token)).isEqualTo(StillLeadingStatus.LEADING);
+        assertThat(isStillLeading(leaderElectionService, token)).isEqualTo(StillLeadingStatus.LEADING);
+
+        verify(acceptorClient, times(1)).getLatestSequencePreparedOrAccepted();
+    }
+
+    @Test
+    public void leaseIsNotUsedOnceNewerRoundIsLearned() {
+        LeaderElectionService leaderElectionService = createService(Duration.ofMinutes(10));
+        LeadershipToken token = leaderElectionService.getCurrentTokenIfLeading().get();
+
+        when(knowledge.getGreatestLearnedValue()).thenReturn(Optional.of(NEXT_VALUE));
+
+        assertThat(isStillLeading(leaderElectionService, token)).isEqualTo(StillLeadingStatus.NOT_LEADING);
+    }
+
+    @Test
+    public void checksWithQuorumAfterLeaseExpires() throws InterruptedException {
+        LeaderElectionService leaderElectionService = createService(Duration.ofMillis(1));
+        LeadershipToken token = leaderElectionService.getCurrentTokenIfLeading().get();
+
+        Thread.sleep(10);
+        assertThat(isStillLeading(leaderElectionService, token)).isEqualTo(StillLeadingStatus.LEADING);
+
+        verify(acceptorClient, times(2)).getLatestSequencePreparedOrAccepted();
+    }
+
+    private LeaderElectionService createService(Duration leaseDuration) {
+        return new LeaderElectionServiceBuilder()
+                .leaderUuid(LEADER_UUID)
+                .pingRate(Duration.ZERO)
+                .randomWaitBeforeProposingLeadership(Duration.ZERO)
+                .leaderAddressCacheTtl(Duration.ZERO)
+                .knowledge(knowledge)
+                .acceptorClient(acceptorClient)
+                .learnerClient(mock(PaxosLearnerNetworkClient.class))
+                .leaderPinger(mock(LeaderPinger.class))
+                .leaderLease(leaseDuration, Duration.ZERO)
+                .build();
+    }
+
+    private static StillLeadingStatus isStillLeading(LeaderElectionService service, LeadershipToken token) {
+        return Futures.getUnchecked(service.isStillLeading(token));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PaxosAcceptorLeaderLeaseTest {
+    private static final PaxosProposalId PROPOSAL_ID = new PaxosProposalId(1L, UUID.randomUUID().toString());
+    private static final Duration LONG_LEASE = Duration.ofMinutes(10);
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void promisesLaterSequencesWithoutLeases() throws Exception {
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(logDir());
+
+        long latest = acceptor.getLatestSequencePreparedOrAccepted();
+
+        assertThat(acceptor.prepare(latest + 1, PROPOSAL_ID).isSuccessful()).isTrue();
+    }
+
+    @Test
+    public void doesNotPromiseLaterSequencesDuringLease() throws Exception {
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(logDir(), LONG_LEASE);
+        assertThat(acceptor.prepare(0L, PROPOSAL_ID).isSuccessful()).isTrue();
+
+        long latest = acceptor.getLatestSequencePreparedOrAccepted();
+
+        assertThat(acceptor.prepare(latest + 1, PROPOSAL_ID).isSuccessful()).isFalse();
+        assertThat(acceptor.getLatestSequencePreparedOrAccepted()).isEqualTo(latest);
+    }
+
+    @Test
+    public void stillPromisesSequencesCoveredByLease() throws Exception {
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(logDir(), LONG_LEASE);
+        assertThat(acceptor.prepare(0L, PROPOSAL_ID).isSuccessful()).isTrue();
+
+        long latest = acceptor.getLatestSequencePreparedOrAccepted();
+
+        PaxosProposalId laterProposalId = new PaxosProposalId(2L, UUID.randomUUID().toString());
+        assertThat(acceptor.prepare(latest, laterProposalId).isSuccessful()).isTrue();
+    }
+
+    @Test
+    public void promisesLaterSequencesBeforeAnyLeaseIsGranted() throws Exception {
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(logDir(), LONG_LEASE);
+
+        assertThat(acceptor.prepare(0L, PROPOSAL_ID).isSuccessful()).isTrue();
+    }
+
+    @Test
+    public void promisesLaterSequencesAfterLeaseExpires() throws Exception {
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(logDir(), Duration.ofMillis(1));
+
+        long latest = acceptor.getLatestSequencePreparedOrAccepted();
+        Thread.sleep(10);
+
+        assertThat(acceptor.prepare(latest + 1, PROPOSAL_ID).isSuccessful()).isTrue();
+    }
+
+    @Test
+    public void doesNotPromiseLaterSequencesAfterRestartingDuringLease() throws Exception {
+        String logDir = logDir();
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(logDir, LONG_LEASE);
+        assertThat(acceptor.prepare(0L, PROPOSAL_ID).isSuccessful()).isTrue();
+        long latest = acceptor.getLatestSequencePreparedOrAccepted();
+
+        PaxosAcceptor restartedAcceptor = PaxosAcceptorImpl.newAcceptor(logDir, LONG_LEASE);
+
+        PaxosProposalId competingProposalId = new PaxosProposalId(2L, UUID.randomUUID().toString());
+        assertThat(restartedAcceptor.prepare(latest + 1, competingProposalId).isSuccessful()).isFalse();
+        assertThat(restartedAcceptor.getLatestSequencePreparedOrAccepted()).isEqualTo(latest);
+    }
+
+    @Test
+    public void promisesLaterSequencesAfterRestartOnceLeaseExpires() throws Exception {
+        String logDir = logDir();
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(logDir, Duration.ofMillis(1));
+        long latest = acceptor.getLatestSequencePreparedOrAccepted();
+
+        PaxosAcceptor restartedAcceptor = PaxosAcceptorImpl.newAcceptor(logDir, Duration.ofMillis(1));
+        Thread.sleep(10);
+
+        assertThat(restartedAcceptor.prepare(latest + 1, PROPOSAL_ID).isSuccessful()).isTrue();
+    }
+
+    private String logDir() throws Exception {
+        return temporaryFolder.newFolder().getPath();
+    }
+}
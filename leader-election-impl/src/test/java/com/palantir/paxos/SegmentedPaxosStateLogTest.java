@@ -0,0 +1,321 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.paxos.PaxosStateLog.CorruptLogFileException;
+
+public class SegmentedPaxosStateLogTest {
+    private static final String LEADER_UUID = "leader";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private String path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = tempFolder.newFolder().getPath();
+    }
+
+    @Test
+    public void newLogHasMarkerEntry() {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+    }
+
+    @Test
+    public void readsBackWrittenRounds() throws IOException {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+        log.writeRound(0, value(0));
+        log.writeRound(1, value(1));
+
+        assertThat(readValue(log, 0)).isEqualTo(value(0));
+        assertThat(readValue(log, 1)).isEqualTo(value(1));
+        assertThat(log.readRound(2)).isNull();
+        assertThat(log.getGreatestLogEntry()).isEqualTo(1);
+    }
+
+    @Test
+    public void latestWriteForRoundWins() throws IOException {
+        PaxosStateLog<PaxosAcceptorState> log = SegmentedPaxosStateLog.create(path);
+        PaxosAcceptorState first = PaxosAcceptorState.newState(new PaxosProposalId(1, "a"));
+        PaxosAcceptorState second = first.withPromise(new PaxosProposalId(2, "b"));
+        log.writeRound(5, first);
+        log.writeRound(5, second);
+
+        assertThat(PaxosAcceptorState.BYTES_HYDRATOR.hydrateFromBytes(log.readRound(5)).lastPromisedId)
+                .isEqualTo(new PaxosProposalId(2, "b"));
+    }
+
+    @Test
+    public void rejectsOlderVersions() throws IOException {
+        PaxosStateLog<PaxosAcceptorState> log = SegmentedPaxosStateLog.create(path);
+        PaxosAcceptorState first = PaxosAcceptorState.newState(new PaxosProposalId(1, "a"));
+        PaxosAcceptorState second = first.withPromise(new PaxosProposalId(2, "b"));
+        log.writeRound(5, second);
+        log.writeRound(5, first);
+
+        assertThat(PaxosAcceptorState.BYTES_HYDRATOR.hydrateFromBytes(log.readRound(5)).getVersion())
+                .isEqualTo(second.getVersion());
+    }
+
+    @Test
+    public void roundsSurviveReopening() throws IOException {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path, 256);
+        for (long seq = 0; seq < 50; seq++) {
+            log.writeRound(seq, value(seq));
+        }
+
+        PaxosStateLog<PaxosValue> reopened = SegmentedPaxosStateLog.create(path, 256);
+        assertThat(reopened.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(reopened.getGreatestLogEntry()).isEqualTo(49);
+        for (long seq = 0; seq < 50; seq++) {
+            assertThat(readValue(reopened, seq)).isEqualTo(value(seq));
+        }
+    }
+
+    @Test
+    public void writesAfterReleasingFileHandlesAreAppended() throws IOException {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+        log.writeRound(0, value(0));
+        log.releaseFileHandles();
+        log.writeRound(1, value(1));
+
+        PaxosStateLog<PaxosValue> reopened = SegmentedPaxosStateLog.create(path);
+        assertThat(readValue(reopened, 0)).isEqualTo(value(0));
+        assertThat(readValue(reopened, 1)).isEqualTo(value(1));
+    }
+
+    @Test
+    public void truncationDeletesFullyTruncatedSegments() throws IOException {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path, 256);
+        for (long seq = 0; seq < 50; seq++) {
+            log.writeRound(seq, value(seq));
+        }
+        int segmentsBefore = segmentFiles().size();
+
+        log.truncate(40);
+
+        assertThat(segmentFiles().size()).isLessThan(segmentsBefore);
+        assertThat(log.getLeastLogEntry()).isEqualTo(41);
+        assertThat(log.readRound(40)).isNull();
+        assertThat(readValue(log, 41)).isEqualTo(value(41));
+
+        PaxosStateLog<PaxosValue> reopened = SegmentedPaxosStateLog.create(path, 256);
+        assertThat(reopened.getLeastLogEntry()).isEqualTo(41);
+        assertThat(reopened.readRound(40)).isNull();
+        assertThat(reopened.getGreatestLogEntry()).isEqualTo(49);
+    }
+
+    @Test
+    public void truncationKeepsGreatestEntry() {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+        log.writeRound(0, value(0));
+        log.writeRound(1, value(1));
+
+        log.truncate(5);
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(1);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(1);
+    }
+
+    @Test
+    public void discardsTornWriteAtEndOfLog() throws IOException {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+        log.writeRound(0, value(0));
+        log.writeRound(1, value(1));
+        File segment = lastSegmentFile();
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        PaxosStateLog<PaxosValue> reopened = SegmentedPaxosStateLog.create(path);
+        assertThat(reopened.getGreatestLogEntry()).isEqualTo(0);
+        reopened.writeRound(1, value(1));
+        assertThat(readValue(SegmentedPaxosStateLog.create(path), 1)).isEqualTo(value(1));
+    }
+
+    @Test
+    public void detectsCorruptionOnRead() throws IOException {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+        log.writeRound(0, value(0));
+        File segment = lastSegmentFile();
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(file.length() - 1);
+            byte last = file.readByte();
+            file.seek(file.length() - 1);
+            file.writeByte(last ^ 1);
+        }
+
+        assertThatThrownBy(() -> log.readRound(0)).isInstanceOf(CorruptLogFileException.class);
+    }
+
+    @Test
+    public void refusesToStartWithCorruptSealedSegment() throws IOException {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path, 256);
+        for (long seq = 0; seq < 20; seq++) {
+            log.writeRound(seq, value(seq));
+        }
+        File firstSegment = segmentFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(firstSegment, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        assertThatThrownBy(() -> SegmentedPaxosStateLog.create(path, 256)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void migratesLegacyLog() throws IOException {
+        PaxosStateLog<PaxosValue> legacyLog = new PaxosStateLogImpl<>(path);
+        legacyLog.writeRound(0, value(0));
+        legacyLog.writeRound(1, value(1));
+
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(1);
+        assertThat(readValue(log, 0)).isEqualTo(value(0));
+        assertThat(readValue(log, 1)).isEqualTo(value(1));
+    }
+
+    @Test
+    public void migrationKeepsLegacyRoundsForDowngrade() throws IOException {
+        PaxosProposalId promisedId = new PaxosProposalId(5L, LEADER_UUID);
+        PaxosStateLog<PaxosAcceptorState> legacyLog = new PaxosStateLogImpl<>(path);
+        legacyLog.writeRound(3, PaxosAcceptorState.newState(promisedId));
+
+        SegmentedPaxosStateLog.create(path);
+
+        PaxosStateLog<PaxosAcceptorState> downgradedLog = new PaxosStateLogImpl<>(path);
+        assertThat(readAcceptorState(downgradedLog, 3).lastPromisedId).isEqualTo(promisedId);
+    }
+
+    @Test
+    public void disablingSegmentedLogExportsPromisesMadeAfterMigration() throws IOException {
+        PaxosProposalId promisedId = new PaxosProposalId(5L, LEADER_UUID);
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(path, Duration.ZERO, true);
+        assertThat(acceptor.prepare(0L, promisedId).isSuccessful()).isTrue();
+        assertThat(acceptor.prepare(1L, promisedId).isSuccessful()).isTrue();
+
+        SegmentedPaxosStateLog.open(path, false);
+
+        assertThat(segmentFiles()).isEmpty();
+        PaxosStateLog<PaxosAcceptorState> downgradedLog = new PaxosStateLogImpl<>(path);
+        assertThat(downgradedLog.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(downgradedLog.getGreatestLogEntry()).isEqualTo(1L);
+        assertThat(readAcceptorState(downgradedLog, 0).lastPromisedId).isEqualTo(promisedId);
+        assertThat(readAcceptorState(downgradedLog, 1).lastPromisedId).isEqualTo(promisedId);
+    }
+
+    @Test
+    public void exportDropsLegacyRoundsThatWereTruncated() throws IOException {
+        PaxosStateLog<PaxosValue> legacyLog = new PaxosStateLogImpl<>(path);
+        legacyLog.writeRound(0, value(0));
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+        log.writeRound(1, value(1));
+        log.writeRound(2, value(2));
+        log.truncate(1);
+
+        SegmentedPaxosStateLog.open(path, false);
+
+        PaxosStateLog<PaxosValue> downgradedLog = new PaxosStateLogImpl<>(path);
+        assertThat(downgradedLog.getLeastLogEntry()).isEqualTo(2L);
+        assertThat(readValue(downgradedLog, 2)).isEqualTo(value(2));
+    }
+
+    @Test
+    public void reopeningDoesNotReimportStaleLegacyRounds() throws IOException {
+        PaxosStateLog<PaxosValue> legacyLog = new PaxosStateLogImpl<>(path);
+        legacyLog.writeRound(1, value(1));
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path);
+        PaxosValue newerValue = new PaxosValue(LEADER_UUID, 1, new byte[] {42});
+        log.writeRound(1, newerValue);
+
+        assertThat(readValue(SegmentedPaxosStateLog.create(path), 1)).isEqualTo(newerValue);
+    }
+
+    @Test
+    public void concurrentWritersAreAllDurable() throws Exception {
+        PaxosStateLog<PaxosValue> log = SegmentedPaxosStateLog.create(path, 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long seq = 0; seq < 200; seq++) {
+            long round = seq;
+            futures.add(executor.submit(() -> log.writeRound(round, value(round))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        PaxosStateLog<PaxosValue> reopened = SegmentedPaxosStateLog.create(path, 1024);
+        for (long seq = 0; seq < 200; seq++) {
+            assertThat(readValue(reopened, seq)).isEqualTo(value(seq));
+        }
+    }
+
+    private List<File> segmentFiles() {
+        List<File> segments = new ArrayList<>();
+        for (File file : new File(path).listFiles()) {
+            if (file.getName().endsWith(".segment")) {
+                segments.add(file);
+            }
+        }
+        segments.sort((first, second) -> first.getName().compareTo(second.getName()));
+        return segments;
+    }
+
+    private File lastSegmentFile() {
+        List<File> segments = segmentFiles();
+        return segments.get(segments.size() - 1);
+    }
+
+    private static PaxosValue value(long round) {
+        return new PaxosValue(LEADER_UUID, round, new byte[] {(byte) round});
+    }
+
+    private static PaxosValue readValue(PaxosStateLog<PaxosValue> log, long seq) throws IOException {
+        return PaxosValue.BYTES_HYDRATOR.hydrateFromBytes(log.readRound(seq));
+    }
+
+    private static PaxosAcceptorState readAcceptorState(PaxosStateLog<PaxosAcceptorState> log, long seq)
+            throws IOException {
+        return PaxosAcceptorState.BYTES_HYDRATOR.hydrateFromBytes(log.readRound(seq));
+    }
+}
@@ -42,6 +42,15 @@ public interface TimelockService {
 
     TimestampRange getFreshTimestamps(@Safe @QueryParam("number") int numTimestampsRequested);
 
+    /**
+     * Returns a fresh timestamp for use as the commit timestamp of a transaction. Implementations may coalesce
+     * concurrent calls into a single request to the timestamp service, and may use the request to keep lock watch
+     * state up to date.
+     */
+    default long getCommitTimestamp() {
+        return getFreshTimestamp();
+    }
+
     // TODO (jkong): Can this be deprecated? Are there users outside of Atlas transactions?
     LockImmutableTimestampResponse lockImmutableTimestamp();
 
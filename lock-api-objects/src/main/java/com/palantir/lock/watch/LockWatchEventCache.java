@@ -16,11 +16,35 @@
 
 package com.palantir.lock.watch;
 
+import java.util.Optional;
 import java.util.Set;
 
+import com.palantir.lock.LockDescriptor;
+
 public interface LockWatchEventCache {
     IdentifiedVersion lastKnownVersion();
     IdentifiedVersion processStartTransactionsUpdate(Set<Long> startTimestamps, LockWatchStateUpdate update);
     void processUpdate(LockWatchStateUpdate update);
     TransactionsLockWatchEvents getEventsForTransactions(Set<Long> startTimestamps, IdentifiedVersion version);
+
+    /**
+     * Returns the lock watch version that was current when the transaction with the given start timestamp was
+     * started, if it is known and still belongs to the current lock watch log.
+     */
+    Optional<IdentifiedVersion> getStartVersion(long startTimestamp);
+
+    /**
+     * Returns true if the descriptor was already watched at the given version, is not currently locked, and no lock
+     * watch event referenced it after that version. A value read at that version for data guarded by the descriptor
+     * is then guaranteed to still be the latest committed value.
+     */
+    boolean isWatchedAndUnchangedSince(LockDescriptor descriptor, IdentifiedVersion version);
+
+    /**
+     * Returns true if no lock watch event referenced the descriptor after startVersion, up to and including
+     * endVersion. Conservatively returns false if this cannot be determined from the retained events.
+     */
+    boolean isUnchangedBetween(LockDescriptor descriptor, IdentifiedVersion startVersion, IdentifiedVersion endVersion);
+
+    void removeTimestampFromCache(long startTimestamp);
 }
@@ -0,0 +1,327 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.watch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.watch.LockWatchReferences.LockWatchReference;
+
+/**
+ * Client side replica of the timelock lock watch event log.
+ *
+ * The cache keeps a bounded, contiguous window of the most recent lock watch events, the set of currently watched
+ * references and locked descriptors, and for every descriptor the version of the last event that referenced it. This
+ * is sufficient to decide whether a value read at some version can still be served at a later version without
+ * consulting the key value service.
+ */
+@ThreadSafe
+public final class LockWatchEventCacheImpl implements LockWatchEventCache {
+    private static final int DEFAULT_MAX_EVENTS = 10_000;
+    private static final int DEFAULT_MAX_TIMESTAMPS = 100_000;
+
+    private final int maxEvents;
+    private final int maxTimestamps;
+
+    private final NavigableMap<Long, LockWatchEvent> eventLog = new TreeMap<>();
+    private final NavigableMap<Long, IdentifiedVersion> timestampToVersion = new TreeMap<>();
+    private final Map<LockDescriptor, Long> lastEventForDescriptor = new HashMap<>();
+    private final Map<LockWatchReference, Long> watchedSince = new HashMap<>();
+    private final Set<LockDescriptor> locked = new HashSet<>();
+
+    private Optional<UUID> logId = Optional.empty();
+    private Optional<Long> version = Optional.empty();
+    private long earliestContiguousVersion = Long.MAX_VALUE;
+
+    private LockWatchEventCacheImpl(int maxEvents, int maxTimestamps) {
+        this.maxEvents = maxEvents;
+        this.maxTimestamps = maxTimestamps;
+    }
+
+    public static LockWatchEventCache create() {
+        return new LockWatchEventCacheImpl(DEFAULT_MAX_EVENTS, DEFAULT_MAX_TIMESTAMPS);
+    }
+
+    @VisibleForTesting
+    static LockWatchEventCacheImpl create(int maxEvents, int maxTimestamps) {
+        return new LockWatchEventCacheImpl(maxEvents, maxTimestamps);
+    }
+
+    @Override
+    public synchronized IdentifiedVersion lastKnownVersion() {
+        return currentVersion();
+    }
+
+    @Override
+    public synchronized IdentifiedVersion processStartTransactionsUpdate(
+            Set<Long> startTimestamps,
+            LockWatchStateUpdate update) {
+        Optional<Long> updateVersion = processUpdateInternal(update);
+        if (updateVersion.isPresent() && logId.isPresent()) {
+            IdentifiedVersion startVersion = ImmutableIdentifiedVersion.of(logId.get(), updateVersion);
+            startTimestamps.forEach(timestamp -> timestampToVersion.put(timestamp, startVersion));
+            while (timestampToVersion.size() > maxTimestamps) {
+                timestampToVersion.pollFirstEntry();
+            }
+        }
+        return currentVersion();
+    }
+
+    @Override
+    public synchronized void processUpdate(LockWatchStateUpdate update) {
+        processUpdateInternal(update);
+    }
+
+    @Override
+    public synchronized TransactionsLockWatchEvents getEventsForTransactions(
+            Set<Long> startTimestamps,
+            IdentifiedVersion lastKnownVersion) {
+        if (!logId.isPresent()
+                || !lastKnownVersion.id().equals(logId.get())
+                || !lastKnownVersion.version().isPresent()
+                || lastKnownVersion.version().get() < earliestContiguousVersion) {
+            return TransactionsLockWatchEvents.failure(currentSnapshot());
+        }
+
+        Map<Long, Long> startTsToSequence = new HashMap<>();
+        long toVersion = lastKnownVersion.version().get();
+        for (long startTimestamp : startTimestamps) {
+            Optional<Long> startVersion = getStartVersion(startTimestamp)
+                    .flatMap(IdentifiedVersion::version);
+            if (!startVersion.isPresent()) {
+                return TransactionsLockWatchEvents.failure(currentSnapshot());
+            }
+            startTsToSequence.put(startTimestamp, startVersion.get());
+            toVersion = Math.max(toVersion, startVersion.get());
+        }
+
+        List<LockWatchEvent> events = new ArrayList<>(
+                eventLog.subMap(lastKnownVersion.version().get(), false, toVersion, true).values());
+        return TransactionsLockWatchEvents.success(events, startTsToSequence);
+    }
+
+    @Override
+    public synchronized Optional<IdentifiedVersion> getStartVersion(long startTimestamp) {
+        return Optional.ofNullable(timestampToVersion.get(startTimestamp))
+                .filter(startVersion -> logId.map(startVersion.id()::equals).orElse(false));
+    }
+
+    @Override
+    public synchronized boolean isWatchedAndUnchangedSince(LockDescriptor descriptor, IdentifiedVersion since) {
+        if (!isInCurrentWindow(since)) {
+            return false;
+        }
+        long sinceVersion = since.version().get();
+        return isWatchedAt(descriptor, sinceVersion)
+                && !locked.contains(descriptor)
+                && lastEventForDescriptor.getOrDefault(descriptor, Long.MIN_VALUE) <= sinceVersion;
+    }
+
+    @Override
+    public synchronized boolean isUnchangedBetween(
+            LockDescriptor descriptor,
+            IdentifiedVersion startVersion,
+            IdentifiedVersion endVersion) {
+        if (!isInCurrentWindow(startVersion) || !isInCurrentWindow(endVersion)) {
+            return false;
+        }
+        long start = startVersion.version().get();
+        return start <= endVersion.version().get()
+                && lastEventForDescriptor.getOrDefault(descriptor, Long.MIN_VALUE) <= start;
+    }
+
+    @Override
+    public synchronized void removeTimestampFromCache(long startTimestamp) {
+        timestampToVersion.remove(startTimestamp);
+    }
+
+    private boolean isInCurrentWindow(IdentifiedVersion identifiedVersion) {
+        return logId.isPresent()
+                && identifiedVersion.id().equals(logId.get())
+                && identifiedVersion.version().isPresent()
+                && identifiedVersion.version().get() >= earliestContiguousVersion
+                && identifiedVersion.version().get() <= version.orElse(Long.MIN_VALUE);
+    }
+
+    private boolean isWatchedAt(LockDescriptor descriptor, long atVersion) {
+        return watchedSince.entrySet().stream()
+                .filter(entry -> entry.getValue() <= atVersion)
+                .map(entry -> entry.getKey().accept(LockWatchReferences.TO_RANGES_VISITOR))
+                .anyMatch(range -> range.contains(descriptor));
+    }
+
+    private IdentifiedVersion currentVersion() {
+        return ImmutableIdentifiedVersion.of(logId.orElseGet(UUID::randomUUID), version);
+    }
+
+    private LockWatchStateUpdate.Snapshot currentSnapshot() {
+        return LockWatchStateUpdate.snapshot(
+                logId.orElseGet(UUID::randomUUID),
+                version.orElse(-1L),
+                ImmutableSet.copyOf(locked),
+                ImmutableSet.copyOf(watchedSince.keySet()));
+    }
+
+    /**
+     * Applies the update and returns the version of the lock watch log the update corresponds to, or empty if the
+     * update could not be applied and the cache had to be reset.
+     */
+    private Optional<Long> processUpdateInternal(LockWatchStateUpdate update) {
+        return update.accept(new LockWatchStateUpdate.Visitor<Optional<Long>>() {
+            @Override
+            public Optional<Long> visit(LockWatchStateUpdate.Failed failed) {
+                reset();
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<Long> visit(LockWatchStateUpdate.Success success) {
+                return processSuccess(success);
+            }
+
+            @Override
+            public Optional<Long> visit(LockWatchStateUpdate.Snapshot snapshot) {
+                processSnapshot(snapshot);
+                return Optional.of(snapshot.lastKnownVersion());
+            }
+        });
+    }
+
+    private Optional<Long> processSuccess(LockWatchStateUpdate.Success success) {
+        if (!logId.isPresent() || !logId.get().equals(success.logId()) || !version.isPresent()) {
+            reset();
+            return Optional.empty();
+        }
+
+        for (LockWatchEvent event : success.events()) {
+            if (event.sequence() <= version.get()) {
+                // already applied as part of a concurrent update
+                continue;
+            }
+            if (event.sequence() != version.get() + 1) {
+                reset();
+                return Optional.empty();
+            }
+            applyEvent(event);
+        }
+        if (version.get() < success.lastKnownVersion()) {
+            reset();
+            return Optional.empty();
+        }
+        return Optional.of(success.lastKnownVersion());
+    }
+
+    private void processSnapshot(LockWatchStateUpdate.Snapshot snapshot) {
+        reset();
+        logId = Optional.of(snapshot.logId());
+        version = Optional.of(snapshot.lastKnownVersion());
+        earliestContiguousVersion = snapshot.lastKnownVersion();
+        snapshot.lockWatches().forEach(reference -> watchedSince.put(reference, snapshot.lastKnownVersion()));
+        locked.addAll(snapshot.locked());
+        snapshot.locked().forEach(descriptor ->
+                lastEventForDescriptor.put(descriptor, snapshot.lastKnownVersion()));
+    }
+
+    private void applyEvent(LockWatchEvent event) {
+        long sequence = event.sequence();
+        event.accept(new LockWatchEvent.Visitor<Void>() {
+            @Override
+            public Void visit(LockEvent lockEvent) {
+                locked.addAll(lockEvent.lockDescriptors());
+                markReferenced(lockEvent.lockDescriptors(), sequence);
+                return null;
+            }
+
+            @Override
+            public Void visit(UnlockEvent unlockEvent) {
+                locked.removeAll(unlockEvent.lockDescriptors());
+                markReferenced(unlockEvent.lockDescriptors(), sequence);
+                return null;
+            }
+
+            @Override
+            public Void visit(LockWatchCreatedEvent lockWatchCreatedEvent) {
+                lockWatchCreatedEvent.references().forEach(reference -> watchedSince.putIfAbsent(reference, sequence));
+                locked.addAll(lockWatchCreatedEvent.lockDescriptors());
+                markReferenced(lockWatchCreatedEvent.lockDescriptors(), sequence);
+                return null;
+            }
+        });
+        eventLog.put(sequence, event);
+        version = Optional.of(sequence);
+        evictOldEvents();
+    }
+
+    private void markReferenced(Set<LockDescriptor> descriptors, long sequence) {
+        descriptors.forEach(descriptor -> lastEventForDescriptor.put(descriptor, sequence));
+    }
+
+    /**
+     * Drops the oldest events once the window is full. Descriptors whose last event is dropped no longer need to be
+     * tracked, since every query for a version older than the window is rejected.
+     */
+    private void evictOldEvents() {
+        while (eventLog.size() > maxEvents) {
+            LockWatchEvent evicted = eventLog.pollFirstEntry().getValue();
+            earliestContiguousVersion = evicted.sequence();
+            descriptorsOf(evicted).forEach(descriptor ->
+                    lastEventForDescriptor.remove(descriptor, evicted.sequence()));
+        }
+    }
+
+    private static Set<LockDescriptor> descriptorsOf(LockWatchEvent event) {
+        return event.accept(new LockWatchEvent.Visitor<Set<LockDescriptor>>() {
+            @Override
+            public Set<LockDescriptor> visit(LockEvent lockEvent) {
+                return lockEvent.lockDescriptors();
+            }
+
+            @Override
+            public Set<LockDescriptor> visit(UnlockEvent unlockEvent) {
+                return unlockEvent.lockDescriptors();
+            }
+
+            @Override
+            public Set<LockDescriptor> visit(LockWatchCreatedEvent lockWatchCreatedEvent) {
+                return lockWatchCreatedEvent.lockDescriptors();
+            }
+        });
+    }
+
+    private void reset() {
+        logId = Optional.empty();
+        version = Optional.empty();
+        earliestContiguousVersion = Long.MAX_VALUE;
+        eventLog.clear();
+        lastEventForDescriptor.clear();
+        watchedSince.clear();
+        locked.clear();
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Set;
 import java.util.UUID;
 
 import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.LockDescriptor;
 
 @SuppressWarnings("FinalClass") // mocks
 public class NoOpLockWatchEventCache implements LockWatchEventCache {
@@ -53,4 +54,25 @@ public class NoOpLockWatchEventCache implements LockWatchEventCache {
     public TransactionsLockWatchEvents getEventsForTransactions(Set<Long> startTimestamps, IdentifiedVersion version) {
         return NONE;
     }
+
+    @Override
+    public Optional<IdentifiedVersion> getStartVersion(long startTimestamp) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isWatchedAndUnchangedSince(LockDescriptor descriptor, IdentifiedVersion version) {
+        return false;
+    }
+
+    @Override
+    public boolean isUnchangedBetween(LockDescriptor descriptor, IdentifiedVersion startVersion,
+            IdentifiedVersion endVersion) {
+        return false;
+    }
+
+    @Override
+    public void removeTimestampFromCache(long startTimestamp) {
+        // noop
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.watch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.AtlasRowLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.v2.LockToken;
+
+public class LockWatchEventCacheImplTest {
+    private static final UUID LOG_ID = UUID.randomUUID();
+    private static final String TABLE = "test.table";
+    private static final LockDescriptor DESCRIPTOR = AtlasRowLockDescriptor.of(TABLE, bytes("1"));
+    private static final LockDescriptor DESCRIPTOR_2 = AtlasRowLockDescriptor.of(TABLE, bytes("2"));
+    private static final LockDescriptor UNWATCHED = AtlasRowLockDescriptor.of("other.table", bytes("1"));
+    private static final LockToken TOKEN = LockToken.of(UUID.randomUUID());
+
+    private final LockWatchEventCacheImpl cache = LockWatchEventCacheImpl.create(3, 10);
+
+    @Test
+    public void startTransactionsAfterSnapshotAreMappedToSnapshotVersion() {
+        IdentifiedVersion version = cache.processStartTransactionsUpdate(ImmutableSet.of(1L, 2L), snapshot(5L));
+
+        assertThat(version).isEqualTo(ImmutableIdentifiedVersion.of(LOG_ID, Optional.of(5L)));
+        assertThat(cache.getStartVersion(1L)).contains(version);
+        assertThat(cache.getStartVersion(2L)).contains(version);
+        assertThat(cache.getStartVersion(3L)).isEmpty();
+    }
+
+    @Test
+    public void watchedDescriptorIsUnchangedUntilLocked() {
+        cache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        IdentifiedVersion startVersion = cache.getStartVersion(1L).get();
+        assertThat(cache.isWatchedAndUnchangedSince(DESCRIPTOR, startVersion)).isTrue();
+        assertThat(cache.isWatchedAndUnchangedSince(UNWATCHED, startVersion)).isFalse();
+
+        cache.processStartTransactionsUpdate(ImmutableSet.of(2L), success(6L, lock(6L, DESCRIPTOR)));
+        IdentifiedVersion laterVersion = cache.getStartVersion(2L).get();
+
+        assertThat(cache.isWatchedAndUnchangedSince(DESCRIPTOR, startVersion)).isFalse();
+        assertThat(cache.isWatchedAndUnchangedSince(DESCRIPTOR, laterVersion)).isFalse();
+        assertThat(cache.isUnchangedBetween(DESCRIPTOR, startVersion, laterVersion)).isFalse();
+        assertThat(cache.isUnchangedBetween(DESCRIPTOR_2, startVersion, laterVersion)).isTrue();
+    }
+
+    @Test
+    public void descriptorIsCacheableAgainAfterUnlock() {
+        cache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        cache.processStartTransactionsUpdate(
+                ImmutableSet.of(2L),
+                success(7L, lock(6L, DESCRIPTOR), unlock(7L, DESCRIPTOR)));
+        IdentifiedVersion afterUnlock = cache.getStartVersion(2L).get();
+
+        assertThat(cache.isWatchedAndUnchangedSince(DESCRIPTOR, afterUnlock)).isTrue();
+        assertThat(cache.isUnchangedBetween(DESCRIPTOR, cache.getStartVersion(1L).get(), afterUnlock)).isFalse();
+    }
+
+    @Test
+    public void eventsForTransactionsAreReturnedUpToLatestStartVersion() {
+        IdentifiedVersion initial = cache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        cache.processStartTransactionsUpdate(ImmutableSet.of(2L), success(6L, lock(6L, DESCRIPTOR)));
+        cache.processUpdate(success(7L, unlock(7L, DESCRIPTOR)));
+
+        TransactionsLockWatchEvents events = cache.getEventsForTransactions(ImmutableSet.of(1L, 2L), initial);
+
+        assertThat(events).isInstanceOf(TransactionsLockWatchEvents.Events.class);
+        TransactionsLockWatchEvents.Events success = (TransactionsLockWatchEvents.Events) events;
+        assertThat(success.events()).extracting(LockWatchEvent::sequence).containsExactly(6L);
+        assertThat(success.startTsToSequence()).containsEntry(1L, 5L).containsEntry(2L, 6L);
+    }
+
+    @Test
+    public void gapInEventsResetsCache() {
+        cache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        cache.processStartTransactionsUpdate(ImmutableSet.of(2L), success(7L, lock(7L, DESCRIPTOR)));
+
+        assertThat(cache.lastKnownVersion().version()).isEmpty();
+        assertThat(cache.getStartVersion(1L)).isEmpty();
+        assertThat(cache.getStartVersion(2L)).isEmpty();
+    }
+
+    @Test
+    public void evictedEventsInvalidateOlderVersions() {
+        cache.processStartTransactionsUpdate(ImmutableSet.of(1L), snapshot(5L));
+        IdentifiedVersion startVersion = cache.getStartVersion(1L).get();
+        cache.processStartTransactionsUpdate(
+                ImmutableSet.of(2L),
+                success(9L,
+                        lock(6L, DESCRIPTOR_2),
+                        unlock(7L, DESCRIPTOR_2),
+                        lock(8L, DESCRIPTOR_2),
+                        unlock(9L, DESCRIPTOR_2)));
+
+        assertThat(cache.isUnchangedBetween(DESCRIPTOR, startVersion, cache.getStartVersion(2L).get())).isFalse();
+        assertThat(cache.getEventsForTransactions(ImmutableSet.of(2L), startVersion))
+                .isInstanceOf(TransactionsLockWatchEvents.ForcedSnapshot.class);
+    }
+
+    private static LockWatchStateUpdate snapshot(long version) {
+        return LockWatchStateUpdate.snapshot(
+                LOG_ID,
+                version,
+                ImmutableSet.of(),
+                ImmutableSet.of(LockWatchReferences.entireTable(TABLE)));
+    }
+
+    private static LockWatchStateUpdate success(long version, LockWatchEvent... events) {
+        return LockWatchStateUpdate.success(LOG_ID, version, ImmutableList.copyOf(events));
+    }
+
+    private static LockWatchEvent lock(long sequence, LockDescriptor descriptor) {
+        return LockEvent.builder(ImmutableSet.of(descriptor), TOKEN).build(sequence);
+    }
+
+    private static LockWatchEvent unlock(long sequence, LockDescriptor descriptor) {
+        return UnlockEvent.builder(ImmutableSet.of(descriptor)).build(sequence);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -18,5 +18,11 @@ package com.palantir.lock;
 import java.io.Closeable;
 
 public interface CloseableLockService extends LockService, Closeable {
-
+    /**
+     * Returns whether this lock service holds any locks or grants, or has lock requests waiting to be granted.
+     * Implementations that cannot tell conservatively return true.
+     */
+    default boolean hasHeldOrPendingLocks() {
+        return true;
+    }
 }
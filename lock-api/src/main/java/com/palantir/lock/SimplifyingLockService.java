@@ -50,6 +50,12 @@ public abstract class SimplifyingLockService implements AutoDelegate_LockService
         return ret;
     }
 
+    @Override
+    public boolean hasHeldOrPendingLocks() {
+        return !(delegate() instanceof CloseableLockService)
+                || ((CloseableLockService) delegate()).hasHeldOrPendingLocks();
+    }
+
     @Override
     public void close() {
         if (delegate() instanceof AutoCloseable) {
@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
+import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
+import com.palantir.common.base.Throwables;
+import com.palantir.lock.watch.LockWatchEventCache;
+
+/**
+ * A service responsible for coalescing commit timestamp requests from concurrently committing transactions into a
+ * single getCommitTimestamps call. The lock watch update returned alongside each batch of commit timestamps is
+ * processed by the {@link LockWatchEventCache} before any of the timestamps are handed out.
+ */
+final class CommitTimestampGetter implements AutoCloseable {
+    private final DisruptorAutobatcher<Void, Long> autobatcher;
+
+    private CommitTimestampGetter(DisruptorAutobatcher<Void, Long> autobatcher) {
+        this.autobatcher = autobatcher;
+    }
+
+    static CommitTimestampGetter create(
+            NamespacedConjureTimelockService conjureTimelockService,
+            LockWatchEventCache lockWatchEventCache) {
+        DisruptorAutobatcher<Void, Long> autobatcher = Autobatchers
+                .independent(consumer(conjureTimelockService, lockWatchEventCache))
+                .safeLoggablePurpose("commit-timestamp-getter")
+                .build();
+        return new CommitTimestampGetter(autobatcher);
+    }
+
+    long getCommitTimestamp() {
+        try {
+            return autobatcher.apply(null).get();
+        } catch (ExecutionException e) {
+            throw Throwables.throwUncheckedException(e.getCause());
+        } catch (Throwable t) {
+            throw Throwables.throwUncheckedException(t);
+        }
+    }
+
+    @Override
+    public void close() {
+        autobatcher.close();
+    }
+
+    @VisibleForTesting
+    static Consumer<List<BatchElement<Void, Long>>> consumer(
+            NamespacedConjureTimelockService conjureTimelockService,
+            LockWatchEventCache lockWatchEventCache) {
+        return batch -> {
+            int numTimestamps = batch.size();
+            int served = 0;
+            while (served < numTimestamps) {
+                GetCommitTimestampsResponse response = conjureTimelockService.getCommitTimestamps(
+                        GetCommitTimestampsRequest.builder()
+                                .numTimestamps(numTimestamps - served)
+                                .lastKnownVersion(lockWatchEventCache.lastKnownVersion().version())
+                                .build());
+                lockWatchEventCache.processUpdate(response.getLockWatchUpdate());
+
+                for (long timestamp = response.getInclusiveLower();
+                        timestamp <= response.getInclusiveUpper() && served < numTimestamps;
+                        timestamp++) {
+                    batch.get(served).result().set(timestamp);
+                    served++;
+                }
+            }
+        };
+    }
+}
@@ -21,8 +21,10 @@ import java.util.UUID;
 
 import org.immutables.value.Value;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.ImmutableSet;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.v2.LockRequest;
 
@@ -43,6 +45,17 @@ public interface IdentifiedLockRequest {
     @Value.Parameter
     Optional<String> getClientDescription();
 
+    /**
+     * Descriptors to be locked in shared mode: any number of requests may hold a lock in shared mode at the same
+     * time, but not while it is held exclusively. Descriptors also present in {@link #getLockDescriptors()} are
+     * locked exclusively.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @Value.Default
+    default Set<LockDescriptor> getSharedLockDescriptors() {
+        return ImmutableSet.of();
+    }
+
     static IdentifiedLockRequest of(Set<LockDescriptor> lockDescriptors, long acquireTimeoutMs) {
         return ImmutableIdentifiedLockRequest.of(
                 UUID.randomUUID(),
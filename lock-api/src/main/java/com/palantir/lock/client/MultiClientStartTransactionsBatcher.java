@@ -0,0 +1,133 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.ConjureTimelockService;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.NamespacedStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.NamespacedStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulStartTransactionsResponse;
+import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import com.palantir.tokens.auth.AuthHeader;
+
+/**
+ * Coalesces start transactions calls for any number of namespaces on the same TimeLock cluster into a single
+ * startTransactionsForClients call. A single instance is intended to be shared by all clients of the cluster in a
+ * process, for example by passing it to each {@code TransactionManagers} builder; it is not closed by those clients,
+ * and should be closed by its owner once they are no longer in use.
+ *
+ * If the batch could not start transactions for some namespace, for example because the node serving the batch is
+ * not that namespace's leader, only that namespace's request is retried, on its own through startTransactions, so
+ * that it is subject to the usual redirection and error handling. A batch sent to a node that leads none of its
+ * namespaces is redirected as a whole.
+ */
+public final class MultiClientStartTransactionsBatcher implements AutoCloseable {
+    private static final AuthHeader AUTH_HEADER = AuthHeader.valueOf("Bearer omitted");
+
+    private final ConjureTimelockService conjureTimelockService;
+    private final DisruptorAutobatcher<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>
+            autobatcher;
+
+    private MultiClientStartTransactionsBatcher(
+            ConjureTimelockService conjureTimelockService,
+            DisruptorAutobatcher<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>
+                    autobatcher) {
+        this.conjureTimelockService = conjureTimelockService;
+        this.autobatcher = autobatcher;
+    }
+
+    public static MultiClientStartTransactionsBatcher create(ConjureTimelockService conjureTimelockService) {
+        DisruptorAutobatcher<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>
+                autobatcher = Autobatchers.independent(consumer(conjureTimelockService))
+                        .safeLoggablePurpose("multi-client-transaction-starter")
+                        .build();
+        return new MultiClientStartTransactionsBatcher(conjureTimelockService, autobatcher);
+    }
+
+    ConjureStartTransactionsResponse startTransactions(String namespace, ConjureStartTransactionsRequest request) {
+        try {
+            return autobatcher.apply(NamespacedStartTransactionsRequest.of(namespace, request)).get()
+                    .orElseGet(() -> conjureTimelockService.startTransactions(AUTH_HEADER, namespace, request));
+        } catch (ExecutionException e) {
+            throw Throwables.throwUncheckedException(e.getCause());
+        } catch (Throwable t) {
+            throw Throwables.throwUncheckedException(t);
+        }
+    }
+
+    @Override
+    public void close() {
+        autobatcher.close();
+    }
+
+    @VisibleForTesting
+    static Consumer<List<BatchElement<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>>>
+            consumer(ConjureTimelockService conjureTimelockService) {
+        return batch -> {
+            MultiClientStartTransactionsRequest request = MultiClientStartTransactionsRequest.of(batch.stream()
+                    .map(BatchElement::argument)
+                    .collect(Collectors.toList()));
+            MultiClientStartTransactionsResponse response =
+                    conjureTimelockService.startTransactionsForClients(AUTH_HEADER, request);
+            Preconditions.checkState(response.getResponses().size() == batch.size(),
+                    "Expected one response for each start transactions request",
+                    SafeArg.of("requests", batch.size()),
+                    SafeArg.of("responses", response.getResponses().size()));
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().set(response.getResponses().get(i).accept(ToOptionalResponse.INSTANCE));
+            }
+        };
+    }
+
+    private enum ToOptionalResponse
+            implements NamespacedStartTransactionsResponse.Visitor<Optional<ConjureStartTransactionsResponse>> {
+        INSTANCE;
+
+        @Override
+        public Optional<ConjureStartTransactionsResponse> visitSuccessful(ConjureStartTransactionsResponse value) {
+            return Optional.of(value);
+        }
+
+        @Override
+        public Optional<ConjureStartTransactionsResponse> visitUnsuccessful(
+                UnsuccessfulStartTransactionsResponse value) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<ConjureStartTransactionsResponse> visitUnknown(String unknownType) {
+            throw new SafeIllegalStateException("Unknown response type", SafeArg.of("type", unknownType));
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.palantir.lock.client;
 
+import java.util.Optional;
+
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
@@ -28,6 +30,8 @@ import com.palantir.atlasdb.timelock.api.ConjureTimelockService;
 import com.palantir.atlasdb.timelock.api.ConjureUnlockRequest;
 import com.palantir.atlasdb.timelock.api.ConjureUnlockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureWaitForLocksResponse;
+import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
+import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.tokens.auth.AuthHeader;
 
@@ -35,14 +39,29 @@ public class NamespacedConjureTimelockService {
     private static final AuthHeader AUTH_HEADER = AuthHeader.valueOf("Bearer omitted");
     private final String namespace;
     private final ConjureTimelockService conjureTimelockService;
+    private final Optional<MultiClientStartTransactionsBatcher> multiClientStartTransactionsBatcher;
 
     public NamespacedConjureTimelockService(ConjureTimelockService conjureTimelockService, String namespace) {
+        this(conjureTimelockService, namespace, Optional.empty());
+    }
+
+    /**
+     * If a {@link MultiClientStartTransactionsBatcher} is provided, start transactions calls are batched with those
+     * of other namespaces through it, rather than made directly on {@code conjureTimelockService}.
+     */
+    public NamespacedConjureTimelockService(
+            ConjureTimelockService conjureTimelockService,
+            String namespace,
+            Optional<MultiClientStartTransactionsBatcher> multiClientStartTransactionsBatcher) {
         this.namespace = namespace;
         this.conjureTimelockService = conjureTimelockService;
+        this.multiClientStartTransactionsBatcher = multiClientStartTransactionsBatcher;
     }
 
     public ConjureStartTransactionsResponse startTransactions(ConjureStartTransactionsRequest request) {
-        return conjureTimelockService.startTransactions(AUTH_HEADER, namespace, request);
+        return multiClientStartTransactionsBatcher
+                .map(batcher -> batcher.startTransactions(namespace, request))
+                .orElseGet(() -> conjureTimelockService.startTransactions(AUTH_HEADER, namespace, request));
     }
 
     public ConjureGetFreshTimestampsResponse getFreshTimestamps(ConjureGetFreshTimestampsRequest request) {
@@ -68,4 +87,8 @@ public class NamespacedConjureTimelockService {
     public ConjureUnlockResponse unlock(ConjureUnlockRequest request) {
         return conjureTimelockService.unlock(AUTH_HEADER, namespace, request);
     }
+
+    public GetCommitTimestampsResponse getCommitTimestamps(GetCommitTimestampsRequest request) {
+        return conjureTimelockService.getCommitTimestamps(AUTH_HEADER, namespace, request);
+    }
 }
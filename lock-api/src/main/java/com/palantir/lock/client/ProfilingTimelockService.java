@@ -100,6 +100,11 @@ public class ProfilingTimelockService implements AutoCloseable, TimelockService
         return runTaskTimed("getFreshTimestamps", () -> delegate.getFreshTimestamps(numTimestampsRequested));
     }
 
+    @Override
+    public long getCommitTimestamp() {
+        return runTaskTimed("getCommitTimestamp", delegate::getCommitTimestamp);
+    }
+
     @Override
     public LockImmutableTimestampResponse lockImmutableTimestamp() {
         // N.B. Immutable timestamp lock is not exclusive, so it should be fast.
@@ -39,6 +39,7 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
     private final NamespacedConjureTimelockService conjureTimelockService;
     private final LockLeaseService lockLeaseService;
     private final TransactionStarter transactionStarter;
+    private final CommitTimestampGetter commitTimestampGetter;
 
     private RemoteTimelockServiceAdapter(NamespacedTimelockRpcClient rpcClient,
             NamespacedConjureTimelockService conjureTimelockService,
@@ -46,6 +47,7 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
         this.rpcClient = rpcClient;
         this.lockLeaseService = LockLeaseService.create(conjureTimelockService);
         this.transactionStarter = TransactionStarter.create(lockLeaseService, lockWatchEventCache);
+        this.commitTimestampGetter = CommitTimestampGetter.create(conjureTimelockService, lockWatchEventCache);
         this.conjureTimelockService = conjureTimelockService;
     }
 
@@ -79,6 +81,11 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
         return TimestampRange.createInclusiveRange(response.getInclusiveLower(), response.getInclusiveUpper());
     }
 
+    @Override
+    public long getCommitTimestamp() {
+        return commitTimestampGetter.getCommitTimestamp();
+    }
+
     @Override
     public long getImmutableTimestamp() {
         return rpcClient.getImmutableTimestamp();
@@ -127,5 +134,6 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
     @Override
     public void close() {
         transactionStarter.close();
+        commitTimestampGetter.close();
     }
 }
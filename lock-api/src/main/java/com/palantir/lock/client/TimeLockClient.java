@@ -85,6 +85,11 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
         return timestampService.getFreshTimestamps(numTimestampsRequested);
     }
 
+    @Override
+    public long getCommitTimestamp() {
+        return executeOnTimeLock(delegate::getCommitTimestamp);
+    }
+
     @Override
     public LockImmutableTimestampResponse lockImmutableTimestamp() {
         LockImmutableTimestampResponse response = executeOnTimeLock(delegate::lockImmutableTimestamp);
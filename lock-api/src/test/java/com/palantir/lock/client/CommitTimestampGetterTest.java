@@ -0,0 +1,124 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import static java.util.stream.Collectors.toList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
+import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
+import com.palantir.lock.watch.LockWatchEventCache;
+import com.palantir.lock.watch.LockWatchStateUpdate;
+import com.palantir.lock.watch.NoOpLockWatchEventCache;
+
+public class CommitTimestampGetterTest {
+    private static final LockWatchStateUpdate UPDATE =
+            LockWatchStateUpdate.success(UUID.randomUUID(), 1, ImmutableList.of());
+
+    private final NamespacedConjureTimelockService conjureTimelockService =
+            mock(NamespacedConjureTimelockService.class);
+    private final LockWatchEventCache lockWatchEventCache = spy(NoOpLockWatchEventCache.INSTANCE);
+
+    @Test
+    public void servesWholeBatchWithSingleRequest() {
+        when(conjureTimelockService.getCommitTimestamps(any())).thenReturn(response(10, 12));
+
+        List<Long> commitTimestamps = requestBatch(3);
+
+        assertThat(commitTimestamps).containsExactly(10L, 11L, 12L);
+        verify(conjureTimelockService).getCommitTimestamps(request(3));
+    }
+
+    @Test
+    public void requestsRemainingTimestampsIfResponseIsShort() {
+        when(conjureTimelockService.getCommitTimestamps(any()))
+                .thenReturn(response(10, 11))
+                .thenReturn(response(20, 20));
+
+        List<Long> commitTimestamps = requestBatch(3);
+
+        assertThat(commitTimestamps).containsExactly(10L, 11L, 20L);
+        verify(conjureTimelockService).getCommitTimestamps(request(3));
+        verify(conjureTimelockService).getCommitTimestamps(request(1));
+    }
+
+    @Test
+    public void processesLockWatchUpdateBeforeReturningTimestamps() {
+        when(conjureTimelockService.getCommitTimestamps(any())).thenReturn(response(10, 10));
+
+        requestBatch(1);
+
+        InOrder inOrder = inOrder(lockWatchEventCache, conjureTimelockService);
+        inOrder.verify(lockWatchEventCache).lastKnownVersion();
+        inOrder.verify(conjureTimelockService).getCommitTimestamps(request(1));
+        inOrder.verify(lockWatchEventCache).processUpdate(UPDATE);
+    }
+
+    private List<Long> requestBatch(int size) {
+        List<BatchElement<Void, Long>> elements = IntStream.range(0, size)
+                .mapToObj(unused -> batchElement())
+                .collect(toList());
+        CommitTimestampGetter.consumer(conjureTimelockService, lockWatchEventCache).accept(elements);
+        return Futures.getUnchecked(Futures.allAsList(Lists.transform(elements, BatchElement::result)));
+    }
+
+    private static BatchElement<Void, Long> batchElement() {
+        SettableFuture<Long> result = SettableFuture.create();
+        return new BatchElement<Void, Long>() {
+            @Override
+            public Void argument() {
+                return null;
+            }
+
+            @Override
+            public SettableFuture<Long> result() {
+                return result;
+            }
+        };
+    }
+
+    private static GetCommitTimestampsRequest request(int numTimestamps) {
+        return GetCommitTimestampsRequest.builder()
+                .numTimestamps(numTimestamps)
+                .lastKnownVersion(Optional.empty())
+                .build();
+    }
+
+    private static GetCommitTimestampsResponse response(long inclusiveLower, long inclusiveUpper) {
+        return GetCommitTimestampsResponse.of(inclusiveLower, inclusiveUpper, UPDATE);
+    }
+}
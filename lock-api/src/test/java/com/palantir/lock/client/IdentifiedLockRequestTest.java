@@ -23,6 +23,7 @@ import org.junit.Test;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.palantir.lock.StringLockDescriptor;
 
 public class IdentifiedLockRequestTest {
     private static final String SERIALIZED_LOCK_REQUEST = "{"
@@ -30,6 +31,12 @@ public class IdentifiedLockRequestTest {
             + "\"lockDescriptors\":[{\"bytes\":\"Zm9v\"}],"
             + "\"acquireTimeoutMs\":123,"
             + "\"clientDescription\":\"Thread: main\"}";
+    private static final String SERIALIZED_LOCK_REQUEST_WITH_SHARED_LOCKS = "{"
+            + "\"requestId\":\"885afd9c-de62-44ff-a517-5db14b71bfaa\","
+            + "\"lockDescriptors\":[{\"bytes\":\"Zm9v\"}],"
+            + "\"acquireTimeoutMs\":123,"
+            + "\"clientDescription\":\"Thread: main\","
+            + "\"sharedLockDescriptors\":[{\"bytes\":\"YmFy\"}]}";
 
     private static final ObjectMapper mapper = new ObjectMapper()
             .registerModule(new Jdk8Module())
@@ -40,5 +47,17 @@ public class IdentifiedLockRequestTest {
         IdentifiedLockRequest request = mapper.readValue(SERIALIZED_LOCK_REQUEST, IdentifiedLockRequest.class);
         String deserialized = mapper.writeValueAsString(request);
         assertThat(mapper.readTree(deserialized)).isEqualTo(mapper.readTree(SERIALIZED_LOCK_REQUEST));
+        assertThat(request.getSharedLockDescriptors()).isEmpty();
+    }
+
+    @Test
+    public void serializesSharedLockDescriptors() throws Exception {
+        IdentifiedLockRequest request =
+                mapper.readValue(SERIALIZED_LOCK_REQUEST_WITH_SHARED_LOCKS, IdentifiedLockRequest.class);
+        String deserialized = mapper.writeValueAsString(request);
+
+        assertThat(request.getSharedLockDescriptors()).containsExactly(StringLockDescriptor.of("bar"));
+        assertThat(mapper.readTree(deserialized))
+                .isEqualTo(mapper.readTree(SERIALIZED_LOCK_REQUEST_WITH_SHARED_LOCKS));
     }
 }
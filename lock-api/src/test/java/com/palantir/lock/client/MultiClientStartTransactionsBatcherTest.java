@@ -0,0 +1,166 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import static java.util.stream.Collectors.toList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.ConjureTimelockService;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.NamespacedStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.NamespacedStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulStartTransactionsResponse;
+import com.palantir.lock.v2.Lease;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.PartitionedTimestamps;
+import com.palantir.lock.watch.LockWatchStateUpdate;
+
+public class MultiClientStartTransactionsBatcherTest {
+    private final ConjureTimelockService conjureTimelockService = mock(ConjureTimelockService.class);
+
+    @Test
+    public void sendsRequestsForAllNamespacesInOneCallAndSplitsResponses() {
+        NamespacedStartTransactionsRequest first = NamespacedStartTransactionsRequest.of("a", request());
+        NamespacedStartTransactionsRequest second = NamespacedStartTransactionsRequest.of("b", request());
+        NamespacedStartTransactionsRequest third = NamespacedStartTransactionsRequest.of("a", request());
+        List<ConjureStartTransactionsResponse> responses = Stream.generate(
+                MultiClientStartTransactionsBatcherTest::response)
+                .limit(3)
+                .collect(toList());
+        when(conjureTimelockService.startTransactionsForClients(any(), any()))
+                .thenReturn(MultiClientStartTransactionsResponse.of(responses.stream()
+                        .map(NamespacedStartTransactionsResponse::successful)
+                        .collect(toList())));
+
+        List<BatchElement<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>> batch =
+                batch(first, second, third);
+        MultiClientStartTransactionsBatcher.consumer(conjureTimelockService).accept(batch);
+
+        verify(conjureTimelockService).startTransactionsForClients(
+                any(), eq(MultiClientStartTransactionsRequest.of(ImmutableList.of(first, second, third))));
+        assertThat(batch)
+                .extracting(element -> Futures.getUnchecked(element.result()))
+                .containsExactlyElementsOf(responses.stream().map(Optional::of).collect(toList()));
+    }
+
+    @Test
+    public void failureForOneNamespaceDoesNotFailOtherNamespaces() {
+        ConjureStartTransactionsResponse response = response();
+        when(conjureTimelockService.startTransactionsForClients(any(), any()))
+                .thenReturn(MultiClientStartTransactionsResponse.of(ImmutableList.of(
+                        NamespacedStartTransactionsResponse.unsuccessful(UnsuccessfulStartTransactionsResponse.of()),
+                        NamespacedStartTransactionsResponse.successful(response))));
+
+        List<BatchElement<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>> batch =
+                batch(NamespacedStartTransactionsRequest.of("a", request()),
+                        NamespacedStartTransactionsRequest.of("b", request()));
+        MultiClientStartTransactionsBatcher.consumer(conjureTimelockService).accept(batch);
+
+        assertThat(batch)
+                .extracting(element -> Futures.getUnchecked(element.result()))
+                .containsExactly(Optional.empty(), Optional.of(response));
+    }
+
+    @Test
+    public void retriesOnlyFailedNamespacesOnTheirOwn() {
+        ConjureStartTransactionsRequest request = request();
+        ConjureStartTransactionsResponse response = response();
+        when(conjureTimelockService.startTransactionsForClients(any(), any()))
+                .thenReturn(MultiClientStartTransactionsResponse.of(ImmutableList.of(
+                        NamespacedStartTransactionsResponse.unsuccessful(
+                                UnsuccessfulStartTransactionsResponse.of()))));
+        when(conjureTimelockService.startTransactions(any(), eq("a"), eq(request))).thenReturn(response);
+
+        try (MultiClientStartTransactionsBatcher batcher =
+                MultiClientStartTransactionsBatcher.create(conjureTimelockService)) {
+            assertThat(batcher.startTransactions("a", request)).isEqualTo(response);
+        }
+        verify(conjureTimelockService).startTransactions(any(), eq("a"), eq(request));
+    }
+
+    @Test
+    public void throwsIfNumberOfResponsesDoesNotMatch() {
+        when(conjureTimelockService.startTransactionsForClients(any(), any()))
+                .thenReturn(MultiClientStartTransactionsResponse.of(ImmutableList.of()));
+
+        assertThatThrownBy(() -> MultiClientStartTransactionsBatcher.consumer(conjureTimelockService)
+                .accept(batch(NamespacedStartTransactionsRequest.of("a", request()))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<BatchElement<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>>
+            batch(NamespacedStartTransactionsRequest... requests) {
+        return Stream.of(requests)
+                .map(MultiClientStartTransactionsBatcherTest::batchElement)
+                .collect(toList());
+    }
+
+    private static BatchElement<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>
+            batchElement(NamespacedStartTransactionsRequest request) {
+        SettableFuture<Optional<ConjureStartTransactionsResponse>> result = SettableFuture.create();
+        return new BatchElement<NamespacedStartTransactionsRequest, Optional<ConjureStartTransactionsResponse>>() {
+            @Override
+            public NamespacedStartTransactionsRequest argument() {
+                return request;
+            }
+
+            @Override
+            public SettableFuture<Optional<ConjureStartTransactionsResponse>> result() {
+                return result;
+            }
+        };
+    }
+
+    private static ConjureStartTransactionsRequest request() {
+        return ConjureStartTransactionsRequest.builder()
+                .requestId(UUID.randomUUID())
+                .requestorId(UUID.randomUUID())
+                .numTransactions(1)
+                .lastKnownVersion(Optional.empty())
+                .build();
+    }
+
+    private static ConjureStartTransactionsResponse response() {
+        return ConjureStartTransactionsResponse.builder()
+                .immutableTimestamp(mock(LockImmutableTimestampResponse.class))
+                .timestamps(mock(PartitionedTimestamps.class))
+                .lease(mock(Lease.class))
+                .lockWatchUpdate(mock(LockWatchStateUpdate.class))
+                .build();
+    }
+}
@@ -1084,6 +1084,13 @@ public final class LockServiceImpl
         return logString;
     }
 
+    @Override
+    public boolean hasHeldOrPendingLocks() {
+        return !heldLocksTokenMap.isEmpty()
+                || !heldLocksGrantMap.isEmpty()
+                || !outstandingLockRequestMultimap.isEmpty();
+    }
+
     @Override
     public void close() {
         if (isShutDown.compareAndSet(false, true)) {
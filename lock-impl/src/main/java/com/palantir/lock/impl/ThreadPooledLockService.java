@@ -152,6 +152,11 @@ public class ThreadPooledLockService implements CloseableLockService {
         delegate.logCurrentState();
     }
 
+    @Override
+    public boolean hasHeldOrPendingLocks() {
+        return delegate.hasHeldOrPendingLocks();
+    }
+
     @Override
     public void close() throws IOException {
         delegate.close();
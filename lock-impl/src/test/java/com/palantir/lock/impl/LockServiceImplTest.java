@@ -158,6 +158,22 @@ public final class LockServiceImplTest {
         Assertions.assertThat(new ObjectMapper().writeValueAsString(tokens).length()).isLessThan(45_000);
     }
 
+    @Test
+    public void reportsHeldLocksUntilTheyAreUnlocked() throws InterruptedException {
+        LockServiceImpl lockService = createLockServiceWithSlowLogEnabled(false);
+        Assertions.assertThat(lockService.hasHeldOrPendingLocks()).isFalse();
+
+        LockRequest request = LockRequest.builder(
+                ImmutableSortedMap.of(StringLockDescriptor.of(TEST_LOCKID), LockMode.WRITE))
+                .build();
+        LockRefreshToken token = lockService.lock("test", request);
+        Assertions.assertThat(lockService.hasHeldOrPendingLocks()).isTrue();
+
+        lockService.unlock(token);
+        Assertions.assertThat(lockService.hasHeldOrPendingLocks()).isFalse();
+        lockService.close();
+    }
+
     private static void assertContainsMatchingLoggingEvent(List<LoggingEvent> actuals, LoggingEvent expected) {
         List<String> expectedParamStrings = extractArgumentsAsStringList(expected);
         assertThat(actuals.stream()
@@ -17,7 +17,9 @@
 package com.palantir.atlasdb.timelock.paxos;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 
 import com.google.common.collect.Maps;
 import com.palantir.leader.BatchingLeaderElectionService;
@@ -34,6 +36,17 @@ public class LeaderElectionServiceFactory {
                 _client -> createNewInstance(dependencies));
     }
 
+    public Collection<BatchingLeaderElectionService> leaderElectionServices() {
+        return leaderElectionServicesByClient.values();
+    }
+
+    /**
+     * Stops tracking the leader election service for the given paxos client, returning it so that it can be closed.
+     */
+    public Optional<BatchingLeaderElectionService> evict(Client paxosClient) {
+        return Optional.ofNullable(leaderElectionServicesByClient.remove(paxosClient));
+    }
+
     private static BatchingLeaderElectionService createNewInstance(Dependencies.LeaderElectionService dependencies) {
         return new BatchingLeaderElectionService(new LeaderElectionServiceBuilder()
                 .leaderPinger(dependencies.leaderPinger())
@@ -50,6 +63,9 @@ public class LeaderElectionServiceFactory {
                         dependencies.metrics(),
                         uninstrumentedPaxosProposer))
                 .leaderAddressCacheTtl(Duration.ofSeconds(1))
+                .leaderLease(
+                        dependencies.runtime().get().leaderLeaseDuration(),
+                        dependencies.runtime().get().leaderLeaseSafetyMargin())
                 .build());
     }
 
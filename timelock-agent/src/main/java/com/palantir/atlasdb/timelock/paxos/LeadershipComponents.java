@@ -18,8 +18,13 @@ package com.palantir.atlasdb.timelock.paxos;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 
@@ -29,8 +34,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
-import com.google.common.io.Closer;
-import com.palantir.atlasdb.timelock.paxos.NetworkClientFactories.Factory;
+import com.palantir.leader.BatchingLeaderElectionService;
 import com.palantir.leader.LeaderElectionService;
 import com.palantir.leader.NotCurrentLeaderException;
 import com.palantir.leader.proxy.AwaitingLeadershipProxy;
@@ -43,16 +47,23 @@ public class LeadershipComponents {
     private static final Logger log = LoggerFactory.getLogger(LeadershipComponents.class);
 
     private final ConcurrentMap<Client, LeadershipContext> leadershipContextByClient = Maps.newConcurrentMap();
+    private final Map<Object, Closeable> leadershipProxiesByInstance =
+            Collections.synchronizedMap(new IdentityHashMap<>());
     private final ShutdownAwareCloser closer = new ShutdownAwareCloser();
 
-    private final Factory<LeadershipContext> leadershipContextFactory;
+    private final LeadershipContextFactory leadershipContextFactory;
     private final List<HealthCheckPinger> healthCheckPingers;
 
     LeadershipComponents(
-            Factory<LeadershipContext> leadershipContextFactory,
+            LeadershipContextFactory leadershipContextFactory,
             List<HealthCheckPinger> healthCheckPingers) {
         this.leadershipContextFactory = leadershipContextFactory;
         this.healthCheckPingers = healthCheckPingers;
+        // Registered first so that they are closed last. Leader election services may be shared between clients, so
+        // those still in use are shut down here too, in case every context using them was evicted.
+        closer.register(leadershipContextFactory.leaderPingerFactory().closeables());
+        closer.register(() -> leadershipContextFactory.leaderElectionServiceFactory().leaderElectionServices()
+                .forEach(LeadershipComponents::shutdownAndCloseLeaderElectionService));
     }
 
     public <T> T wrapInLeadershipProxy(Client client, Class<T> clazz, Supplier<T> delegateSupplier) {
@@ -63,7 +74,33 @@ public class LeadershipComponents {
         Closeable closeableInstance = (Closeable) instance;
         closer.register(closeableInstance);
 
-        return context.leadershipMetrics().instrument(clazz, instance);
+        T instrumentedInstance = context.leadershipMetrics().instrument(clazz, instance);
+        leadershipProxiesByInstance.put(instrumentedInstance, closeableInstance);
+        return instrumentedInstance;
+    }
+
+    /**
+     * Closes a service returned by {@link #wrapInLeadershipProxy}, and stops tracking it for shutdown, so that
+     * neither the proxy nor its delegate outlive the service. This is a no-op if the service was already closed.
+     */
+    public void closeLeadershipProxy(Object instance) throws IOException {
+        Closeable closeableInstance = leadershipProxiesByInstance.remove(instance);
+        if (closeableInstance != null) {
+            closer.unregister(closeableInstance);
+            closeableInstance.close();
+        }
+    }
+
+    /**
+     * Releases the leadership context of a client whose services have been closed, along with the per-client state
+     * behind it (see {@link LeadershipContextFactory#evict}). It is recreated the next time the client is used.
+     */
+    public void evict(Client client) {
+        leadershipContextByClient.computeIfPresent(client, (unused, context) -> {
+            closer.unregister(context.shutdownHook());
+            leadershipContextFactory.evict(client);
+            return null;
+        });
     }
 
     public void shutdown() {
@@ -84,8 +121,7 @@ public class LeadershipComponents {
 
     private LeadershipContext createNewLeadershipContext(Client client) {
         LeadershipContext uninstrumentedLeadershipContext = leadershipContextFactory.create(client);
-        closer.register(uninstrumentedLeadershipContext.closeables());
-        closer.register(() -> shutdownLeaderElectionService(uninstrumentedLeadershipContext.leaderElectionService()));
+        closer.register(uninstrumentedLeadershipContext.shutdownHook());
         return uninstrumentedLeadershipContext;
     }
 
@@ -94,9 +130,14 @@ public class LeadershipComponents {
         leaderElectionService.stepDown();
     }
 
+    private static void shutdownAndCloseLeaderElectionService(BatchingLeaderElectionService leaderElectionService) {
+        shutdownLeaderElectionService(leaderElectionService);
+        leaderElectionService.close();
+    }
+
     private static class ShutdownAwareCloser {
         private boolean isShutdown = false;
-        private final Closer closer = Closer.create();
+        private final Deque<Closeable> closeables = new ArrayDeque<>();
 
         synchronized void register(Closeable closeable) {
             register(ImmutableList.of(closeable));
@@ -116,10 +157,18 @@ public class LeadershipComponents {
                 immediateCloser.shutdown();
                 throw new NotCurrentLeaderException("This timelock node is being shutdown");
             } else {
-                closeables.forEach(closer::register);
+                closeables.forEach(this.closeables::push);
             }
         }
 
+        /**
+         * Stops tracking a {@link Closeable} that was closed before timelock shut down. Closeables are compared by
+         * identity, as leadership proxies forward {@code equals} to their delegates.
+         */
+        synchronized void unregister(Closeable closeable) {
+            closeables.removeIf(registered -> registered == closeable);
+        }
+
         /**
          * This is to be called when timelock is shutting down. It will close in LIFO order any resources that were
          * registered during their creation.
@@ -129,12 +178,13 @@ public class LeadershipComponents {
                 return;
             }
 
-            try {
-                closer.close();
-            } catch (IOException e) {
-                log.warn("Received exceptions whilst trying to shutdown this timelock node.", e);
-            } finally {
-                isShutdown = true;
+            isShutdown = true;
+            while (!closeables.isEmpty()) {
+                try {
+                    closeables.pop().close();
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Received exceptions whilst trying to shutdown this timelock node.", e);
+                }
             }
         }
     }
@@ -144,5 +194,17 @@ public class LeadershipComponents {
         abstract LeaderElectionService leaderElectionService();
         abstract TimelockLeadershipMetrics leadershipMetrics();
         abstract List<Closeable> closeables();
+
+        /**
+         * Closes this context's resources when timelock shuts down. This is registered as a single closeable, so that
+         * it can be unregistered when the context is evicted.
+         */
+        @Value.Lazy
+        Closeable shutdownHook() {
+            ShutdownAwareCloser contextCloser = new ShutdownAwareCloser();
+            contextCloser.register(closeables());
+            contextCloser.register(() -> shutdownLeaderElectionService(leaderElectionService()));
+            return contextCloser::shutdown;
+        }
     }
 }
@@ -54,7 +54,9 @@ public abstract class LeadershipContextFactory implements
         return new LocalPaxosComponents(
                 metrics(),
                 useCase().logDirectoryRelativeToDataDirectory(install().dataDirectory()),
-                leaderUuid());
+                leaderUuid(),
+                runtime().get().leaderLeaseDuration(),
+                install().useSegmentedStateLog());
     }
 
     @Value.Derived
@@ -105,10 +107,21 @@ public abstract class LeadershipContextFactory implements
                 .leadershipMetrics(clientAwareComponents.leadershipMetrics())
                 .leaderElectionService(leaderElectionService)
                 .addCloseables(leaderElectionService)
-                .addAllCloseables(leaderPingerFactory().closeables())
                 .build();
     }
 
+    /**
+     * Releases the per-client state behind a {@link LeadershipContext} that is no longer in use. If the client has its
+     * own leader, its leader election service is closed without stepping down, and its paxos components are released
+     * to be recreated from its logs; a shared leader is left untouched.
+     */
+    void evict(Client client) {
+        if (useCase().resolveClient(client).equals(client)) {
+            leaderElectionServiceFactory().evict(client).ifPresent(BatchingLeaderElectionService::close);
+        }
+        components().evict(client);
+    }
+
     @Value.Derived
     public AutobatchingLeadershipObserverFactory leadershipObserverFactory() {
         return TimelockLeadershipMetrics.createFactory(metrics());
@@ -69,6 +69,15 @@ public abstract class PaxosResources {
                 leadershipContextFactory().healthCheckPingers());
     }
 
+    /**
+     * Releases the paxos components, leadership context and metrics of a client whose services have been closed. They
+     * are recreated from the client's paxos logs the next time the client is used.
+     */
+    public void evictClient(Client client) {
+        timestampPaxosComponents().evict(client);
+        leadershipComponents().evict(client);
+    }
+
     private static BatchPaxosResources batchResourcesFromComponents(LocalPaxosComponents components) {
         BatchPaxosAcceptorResource acceptorResource = new BatchPaxosAcceptorResource(components.batchAcceptor());
         BatchPaxosLearnerResource learnerResource = new BatchPaxosLearnerResource(components.batchLearner());
@@ -17,6 +17,7 @@
 package com.palantir.atlasdb.timelock.paxos;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -170,7 +171,9 @@ public final class PaxosResourcesFactory {
         LocalPaxosComponents paxosComponents = new LocalPaxosComponents(
                 timelockMetrics,
                 PaxosUseCase.TIMESTAMP.logDirectoryRelativeToDataDirectory(install.dataDirectory()),
-                install.nodeUuid());
+                install.nodeUuid(),
+                Duration.ZERO,
+                install.useSegmentedStateLog());
 
         NetworkClientFactories batchClientFactories = ImmutableBatchingNetworkClientFactories.builder()
                 .useCase(PaxosUseCase.TIMESTAMP)
@@ -281,6 +284,11 @@ public final class PaxosResourcesFactory {
                     .map(SslSocketFactories::createTrustContext);
         }
 
+        @Value.Derived
+        default boolean useSegmentedStateLog() {
+            return install().paxos().useSegmentedStateLog();
+        }
+
         @Value.Derived
         default boolean useLeaderForEachClient() {
             return install().paxos().leaderMode() == PaxosLeaderMode.LEADER_PER_CLIENT;
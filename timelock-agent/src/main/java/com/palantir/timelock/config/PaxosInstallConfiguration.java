@@ -57,6 +57,17 @@ public interface PaxosInstallConfiguration {
         return PaxosLeaderMode.SINGLE_LEADER;
     }
 
+    /**
+     * Store paxos state in append-only segment files instead of one file per round. Existing rounds are imported when
+     * this is turned on. Turning it off again exports them back to per-round files on the next startup; this must be
+     * done before rolling back to a version of timelock that does not support segmented logs.
+     */
+    @JsonProperty("use-segmented-state-log")
+    @Value.Default
+    default boolean useSegmentedStateLog() {
+        return false;
+    }
+
     @Value.Check
     default void checkLeaderModeIsNotInAutoMigrationMode() {
         Preconditions.checkState(
@@ -68,6 +68,41 @@ public interface PaxosRuntimeConfiguration {
         return Duration.ofMillis(leaderPingResponseWaitMs());
     }
 
+    /**
+     * Duration of leader leases; zero disables them. While its lease is valid, the leader serves requests without
+     * checking with a quorum that it is still the leader, and other nodes cannot take over leadership until the lease
+     * has expired. This is read at startup, and must be the same on all nodes of the cluster.
+     */
+    @JsonProperty("leader-lease-duration-in-ms")
+    @Value.Default
+    default long leaderLeaseDurationMs() {
+        return 0L;
+    }
+
+    @JsonIgnore
+    @Value.Derived
+    @Value.Auxiliary
+    default Duration leaderLeaseDuration() {
+        return Duration.ofMillis(leaderLeaseDurationMs());
+    }
+
+    /**
+     * How much earlier than the other nodes the leader considers its lease expired, to allow for clocks on different
+     * nodes running at different rates.
+     */
+    @JsonProperty("leader-lease-safety-margin-in-ms")
+    @Value.Default
+    default long leaderLeaseSafetyMarginMs() {
+        return 100L;
+    }
+
+    @JsonIgnore
+    @Value.Derived
+    @Value.Auxiliary
+    default Duration leaderLeaseSafetyMargin() {
+        return Duration.ofMillis(leaderLeaseSafetyMarginMs());
+    }
+
     @JsonProperty("only-log-on-quorum-failure")
     @Value.Default
     default boolean onlyLogOnQuorumFailure() {
@@ -104,5 +139,11 @@ public interface PaxosRuntimeConfiguration {
                 "Maximum wait before proposal must be positive; found '%s'.", maximumWaitBeforeProposalMs());
         Preconditions.checkArgument(leaderPingResponseWaitMs() > 0,
                 "Leader ping response wait interval must be positive; found '%s'.", leaderPingResponseWaitMs());
+        Preconditions.checkArgument(leaderLeaseDurationMs() >= 0,
+                "Leader lease duration must not be negative; found '%s'.", leaderLeaseDurationMs());
+        Preconditions.checkArgument(leaderLeaseDurationMs() == 0
+                        || (leaderLeaseSafetyMarginMs() >= 0 && leaderLeaseSafetyMarginMs() < leaderLeaseDurationMs()),
+                "Leader lease safety margin must be non-negative and shorter than the lease; found '%s'.",
+                leaderLeaseSafetyMarginMs());
     }
 }
@@ -58,6 +58,16 @@ public abstract class TimeLockRuntimeConfiguration {
         return 10000;
     }
 
+    /**
+     * Clients that have not made a request for at least this many milliseconds, and hold no locks on this node, have
+     * their services closed to reclaim memory; they are recreated on their next request. Zero disables eviction.
+     */
+    @JsonProperty("idle-client-eviction-threshold-in-ms")
+    @Value.Default
+    public long idleClientEvictionThresholdMillis() {
+        return 0;
+    }
+
     @JsonProperty("test-only-lock-watches")
     @Value.Default
     public LockWatchTestRuntimeConfig lockWatchTestConfig() {
@@ -70,5 +80,8 @@ public abstract class TimeLockRuntimeConfiguration {
                 "Maximum number of clients must be non-negative, but found %s", maxNumberOfClients());
         Preconditions.checkState(slowLockLogTriggerMillis() >= 0,
                 "Slow lock log trigger threshold must be non-negative, but found %s", slowLockLogTriggerMillis());
+        Preconditions.checkState(idleClientEvictionThresholdMillis() >= 0,
+                "Idle client eviction threshold must be non-negative, but found %s",
+                idleClientEvictionThresholdMillis());
     }
 }
@@ -18,13 +18,13 @@ package com.palantir.timelock.paxos;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.codahale.metrics.InstrumentedScheduledExecutorService;
-import com.google.common.base.Suppliers;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.palantir.atlasdb.debug.LockDiagnosticConfig;
 import com.palantir.atlasdb.timelock.AsyncTimelockResource;
@@ -39,6 +39,7 @@ import com.palantir.atlasdb.timelock.paxos.Client;
 import com.palantir.atlasdb.timelock.paxos.LeadershipComponents;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.lock.CloseableLockService;
 import com.palantir.lock.LockService;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.timestamp.ManagedTimestampService;
@@ -80,10 +81,17 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
                 new AsyncTimelockResource(maybeEnhancedLockLog, asyncTimelockService);
         LockWatchingResource lockWatchingResource = new LockWatchingResource(asyncTimelockService);
 
+        // The leadership proxy creates a new delegate each time this node gains leadership; the latest one is the
+        // only one that can hold locks.
+        AtomicReference<CloseableLockService> currentLockService = new AtomicReference<>();
         LockService lockService = leadershipComponents.wrapInLeadershipProxy(
                 client,
                 LockService.class,
-                Suppliers.compose(NonTransactionalLockService::new, rawLockServiceSupplier::get));
+                () -> {
+                    CloseableLockService delegate = new NonTransactionalLockService(rawLockServiceSupplier.get());
+                    currentLockService.set(delegate);
+                    return delegate;
+                });
 
         return TimeLockServices.create(
                 asyncTimelockService,
@@ -91,7 +99,15 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
                 asyncTimelockService,
                 asyncTimelockResource,
                 lockWatchingResource,
-                asyncTimelockService);
+                asyncTimelockService,
+                () -> {
+                    CloseableLockService delegate = currentLockService.get();
+                    return delegate != null && delegate.hasHeldOrPendingLocks();
+                },
+                () -> {
+                    leadershipComponents.closeLeadershipProxy(asyncTimelockService);
+                    leadershipComponents.closeLeadershipProxy(lockService);
+                });
     }
 
     private AsyncTimelockService createRawAsyncTimelockService(
@@ -16,9 +16,12 @@
 package com.palantir.timelock.paxos;
 
 import java.net.URL;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -34,6 +37,7 @@ import com.palantir.atlasdb.http.NotCurrentLeaderExceptionMapper;
 import com.palantir.atlasdb.http.RedirectRetryTargeter;
 import com.palantir.atlasdb.timelock.AsyncTimelockService;
 import com.palantir.atlasdb.timelock.ConjureTimelockResource;
+import com.palantir.atlasdb.timelock.ImmutableTimeLockServices;
 import com.palantir.atlasdb.timelock.TimeLockResource;
 import com.palantir.atlasdb.timelock.TimeLockServices;
 import com.palantir.atlasdb.timelock.TimelockNamespaces;
@@ -74,6 +78,11 @@ public class TimeLockAgent {
     private final TimeLockServicesCreator timelockCreator;
     private final NoSimultaneousServiceCheck noSimultaneousServiceCheck;
 
+    private static final long IDLE_CLIENT_EVICTION_INTERVAL_SECONDS = 10;
+
+    private final ScheduledExecutorService idleClientEvictor = PTExecutors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("timelock-idle-client-evictor-%d").setDaemon(true).build());
+
     private LeaderPingHealthCheck healthCheck;
     private TimelockNamespaces namespaces;
 
@@ -169,7 +178,13 @@ public class TimeLockAgent {
         namespaces = new TimelockNamespaces(
                 metricsManager,
                 this::createInvalidatingTimeLockServices,
-                Suppliers.compose(TimeLockRuntimeConfiguration::maxNumberOfClients, runtime::get));
+                Suppliers.compose(TimeLockRuntimeConfiguration::maxNumberOfClients, runtime::get),
+                () -> Duration.ofMillis(runtime.get().idleClientEvictionThresholdMillis()));
+        idleClientEvictor.scheduleWithFixedDelay(
+                namespaces::evictIdleClients,
+                IDLE_CLIENT_EVICTION_INTERVAL_SECONDS,
+                IDLE_CLIENT_EVICTION_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
 
         // Finally, register the health check, and endpoints associated with the clients.
         TimeLockResource resource = TimeLockResource.create(namespaces);
@@ -260,10 +275,16 @@ public class TimeLockAgent {
         Supplier<ManagedTimestampService> rawTimestampServiceSupplier = timestampCreator
                 .createTimestampService(typedClient, leaderConfig);
         Supplier<LockService> rawLockServiceSupplier = lockCreator::createThreadPoolingLockService;
-        return timelockCreator.createTimeLockServices(typedClient, rawTimestampServiceSupplier, rawLockServiceSupplier);
+        TimeLockServices services = timelockCreator.createTimeLockServices(
+                typedClient, rawTimestampServiceSupplier, rawLockServiceSupplier);
+        return ImmutableTimeLockServices.copyOf(services).withCloser(() -> {
+            services.getCloser().close();
+            paxosResources.evictClient(typedClient);
+        });
     }
 
     public void shutdown() {
+        idleClientEvictor.shutdownNow();
         paxosResources.leadershipComponents().shutdown();
     }
 }
@@ -70,4 +70,9 @@ public interface AsyncTimelockService extends ManagedTimestampService, LockWatch
     ListenableFuture<LeaderTime> leaderTime();
 
     ListenableFuture<TimestampRange> getFreshTimestampsAsync(int timestampsToRequest);
+
+    /**
+     * Returns true if any locks, including immutable timestamp locks, are held or being acquired through this service.
+     */
+    boolean hasHeldOrPendingLocks();
 }
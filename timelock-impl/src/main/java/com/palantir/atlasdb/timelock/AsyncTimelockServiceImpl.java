@@ -104,6 +104,7 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         AsyncResult<Leased<LockToken>> result = lockService.lock(
                 request.getRequestId(),
                 request.getLockDescriptors(),
+                request.getSharedLockDescriptors(),
                 TimeLimit.of(request.getAcquireTimeoutMs()));
         lockLog.registerRequest(request, result);
         SettableFuture<LockResponseV2> response = SettableFuture.create();
@@ -253,6 +254,11 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         return timestampService.ping();
     }
 
+    @Override
+    public boolean hasHeldOrPendingLocks() {
+        return lockService.hasHeldOrPendingLocks();
+    }
+
     @Override
     public void close() {
         lockService.close();
@@ -17,13 +17,22 @@
 package com.palantir.atlasdb.timelock;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -47,9 +56,14 @@ import com.palantir.atlasdb.timelock.api.ConjureUnlockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureWaitForLocksResponse;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.NamespacedStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.NamespacedStartTransactionsResponse;
 import com.palantir.atlasdb.timelock.api.SuccessfulLockResponse;
 import com.palantir.atlasdb.timelock.api.UndertowConjureTimelockService;
 import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulStartTransactionsResponse;
 import com.palantir.conjure.java.api.errors.QosException;
 import com.palantir.conjure.java.undertow.lib.UndertowService;
 import com.palantir.leader.NotCurrentLeaderException;
@@ -69,10 +83,13 @@ import com.palantir.lock.v2.StartTransactionRequestV5;
 import com.palantir.lock.v2.StartTransactionResponseV5;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
+import com.palantir.logsafe.SafeArg;
 import com.palantir.timestamp.TimestampRange;
 import com.palantir.tokens.auth.AuthHeader;
 
 public final class ConjureTimelockResource implements UndertowConjureTimelockService {
+    private static final Logger log = LoggerFactory.getLogger(ConjureTimelockResource.class);
+
     private final RedirectRetryTargeter redirectRetryTargeter;
     private final Function<String, AsyncTimelockService> timelockServices;
 
@@ -99,27 +116,100 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
     @Override
     public ListenableFuture<ConjureStartTransactionsResponse> startTransactions(
             AuthHeader authHeader, String namespace, ConjureStartTransactionsRequest request) {
+        return handleExceptions(() -> startTransactions(forNamespace(namespace), request));
+    }
+
+    private static ListenableFuture<ConjureStartTransactionsResponse> startTransactions(
+            AsyncTimelockService timelockService, ConjureStartTransactionsRequest request) {
+        StartTransactionRequestV5 legacyRequest = ImmutableStartTransactionRequestV5.builder()
+                .requestId(request.getRequestId())
+                .requestorId(request.getRequestorId())
+                .numTransactions(request.getNumTransactions())
+                .lastKnownLockLogVersion(request.getLastKnownVersion()
+                        .map(OptionalLong::of)
+                        .orElseGet(OptionalLong::empty))
+                .build();
+        ListenableFuture<StartTransactionResponseV5> responseFuture =
+                timelockService.startTransactionsWithWatches(legacyRequest);
+        return Futures.transform(responseFuture, response -> ConjureStartTransactionsResponse.builder()
+                        .immutableTimestamp(response.immutableTimestamp())
+                        .timestamps(response.timestamps())
+                        .lease(response.lease())
+                        .lockWatchUpdate(response.lockWatchUpdate())
+                        .build(),
+                MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Namespaces that this node does not lead, and namespaces whose services could not be created, are reported as
+     * unsuccessful responses for that namespace rather than failing the whole batch. If this node leads none of the
+     * namespaces, the whole batch is redirected as usual. Any other failure fails the whole batch.
+     */
+    @Override
+    public ListenableFuture<MultiClientStartTransactionsResponse> startTransactionsForClients(
+            AuthHeader authHeader, MultiClientStartTransactionsRequest request) {
         return handleExceptions(() -> {
-            StartTransactionRequestV5 legacyRequest = ImmutableStartTransactionRequestV5.builder()
-                    .requestId(request.getRequestId())
-                    .requestorId(request.getRequestorId())
-                    .numTransactions(request.getNumTransactions())
-                    .lastKnownLockLogVersion(request.getLastKnownVersion()
-                            .map(OptionalLong::of)
-                            .orElseGet(OptionalLong::empty))
-                    .build();
-            ListenableFuture<StartTransactionResponseV5> responseFuture =
-                    forNamespace(namespace).startTransactionsWithWatches(legacyRequest);
-            return Futures.transform(responseFuture, response -> ConjureStartTransactionsResponse.builder()
-                            .immutableTimestamp(response.immutableTimestamp())
-                            .timestamps(response.timestamps())
-                            .lease(response.lease())
-                            .lockWatchUpdate(response.lockWatchUpdate())
-                            .build(),
-                    MoreExecutors.directExecutor());
+            List<ListenableFuture<Optional<ConjureStartTransactionsResponse>>> responses = request.getRequests()
+                    .stream()
+                    .map(this::startTransactionsForClient)
+                    .collect(Collectors.toList());
+            return Futures.whenAllComplete(responses)
+                    .call(() -> toMultiClientResponse(responses), MoreExecutors.directExecutor());
         });
     }
 
+    private ListenableFuture<Optional<ConjureStartTransactionsResponse>> startTransactionsForClient(
+            NamespacedStartTransactionsRequest namespacedRequest) {
+        AsyncTimelockService timelockService;
+        try {
+            timelockService = forNamespace(namespacedRequest.getNamespace());
+        } catch (NotCurrentLeaderException e) {
+            return Futures.immediateFailedFuture(e);
+        } catch (RuntimeException e) {
+            log.info("Could not create services for namespace {} in a multi-client start transactions batch",
+                    SafeArg.of("namespace", namespacedRequest.getNamespace()),
+                    e);
+            return Futures.immediateFuture(Optional.empty());
+        }
+        return Futures.transform(
+                Futures.submitAsync(
+                        () -> startTransactions(timelockService, namespacedRequest.getRequest()),
+                        MoreExecutors.directExecutor()),
+                Optional::of,
+                MoreExecutors.directExecutor());
+    }
+
+    private static MultiClientStartTransactionsResponse toMultiClientResponse(
+            List<ListenableFuture<Optional<ConjureStartTransactionsResponse>>> responseFutures) throws Exception {
+        List<NamespacedStartTransactionsResponse> responses = new ArrayList<>(responseFutures.size());
+        NotCurrentLeaderException notCurrentLeader = null;
+        int notLedNamespaces = 0;
+        for (ListenableFuture<Optional<ConjureStartTransactionsResponse>> responseFuture : responseFutures) {
+            try {
+                responses.add(Futures.getDone(responseFuture)
+                        .map(NamespacedStartTransactionsResponse::successful)
+                        .orElseGet(ConjureTimelockResource::unsuccessfulStartTransactionsResponse));
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof NotCurrentLeaderException)) {
+                    Throwables.throwIfInstanceOf(e.getCause(), Exception.class);
+                    Throwables.throwIfUnchecked(e.getCause());
+                    throw e;
+                }
+                notCurrentLeader = (NotCurrentLeaderException) e.getCause();
+                notLedNamespaces++;
+                responses.add(unsuccessfulStartTransactionsResponse());
+            }
+        }
+        if (notCurrentLeader != null && notLedNamespaces == responseFutures.size()) {
+            throw notCurrentLeader;
+        }
+        return MultiClientStartTransactionsResponse.of(responses);
+    }
+
+    private static NamespacedStartTransactionsResponse unsuccessfulStartTransactionsResponse() {
+        return NamespacedStartTransactionsResponse.unsuccessful(UnsuccessfulStartTransactionsResponse.of());
+    }
+
     @Override
     public ListenableFuture<ConjureGetFreshTimestampsResponse> getFreshTimestamps(
             AuthHeader authHeader, String namespace, ConjureGetFreshTimestampsRequest request) {
@@ -144,6 +234,7 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
         return handleExceptions(() -> {
             IdentifiedLockRequest lockRequest = ImmutableIdentifiedLockRequest.builder()
                     .lockDescriptors(fromConjureLockDescriptors(request.getLockDescriptors()))
+                    .sharedLockDescriptors(fromConjureLockDescriptors(request.getSharedLockDescriptors()))
                     .clientDescription(request.getClientDescription())
                     .requestId(request.getRequestId())
                     .acquireTimeoutMs(request.getAcquireTimeoutMs())
@@ -265,6 +356,13 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
             return unwrap(resource.startTransactions(authHeader, namespace, request));
         }
 
+        @Override
+        public MultiClientStartTransactionsResponse startTransactionsForClients(
+                AuthHeader authHeader,
+                MultiClientStartTransactionsRequest request) {
+            return unwrap(resource.startTransactionsForClients(authHeader, request));
+        }
+
         @Override
         public ConjureGetFreshTimestampsResponse getFreshTimestamps(
                 AuthHeader authHeader,
@@ -15,6 +15,9 @@
  */
 package com.palantir.atlasdb.timelock;
 
+import java.io.Closeable;
+import java.util.function.BooleanSupplier;
+
 import org.immutables.value.Value;
 
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingResource;
@@ -30,7 +33,9 @@ public interface TimeLockServices {
             AsyncTimelockService timelockService,
             AsyncTimelockResource timelockResource,
             LockWatchingResource lockWatchingResource,
-            TimestampManagementService timestampManagementService) {
+            TimestampManagementService timestampManagementService,
+            BooleanSupplier legacyLockServiceHasHeldOrPendingLocks,
+            Closeable closer) {
         return ImmutableTimeLockServices.builder()
                 .timestampService(timestampService)
                 .lockService(lockService)
@@ -38,6 +43,8 @@ public interface TimeLockServices {
                 .timelockService(timelockService)
                 .timelockResource(timelockResource)
                 .lockWatchingResource(lockWatchingResource)
+                .legacyLockServiceHasHeldOrPendingLocks(legacyLockServiceHasHeldOrPendingLocks)
+                .closer(closer)
                 .build();
     }
 
@@ -49,4 +56,10 @@ public interface TimeLockServices {
     AsyncTimelockService getTimelockService();
     LockWatchingResource getLockWatchingResource();
     TimestampManagementService getTimestampManagementService();
+    // Whether the legacy lock service holds or is waiting to grant any locks on this node
+    @Value.Auxiliary
+    BooleanSupplier getLegacyLockServiceHasHeldOrPendingLocks();
+    // Closes the leadership proxies backing these services, after which they must not be used
+    @Value.Auxiliary
+    Closeable getCloser();
 }
@@ -18,10 +18,14 @@ package com.palantir.atlasdb.timelock;
 
 import static java.util.stream.Collectors.toSet;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
@@ -34,6 +38,7 @@ import com.google.common.base.Preconditions;
 import com.palantir.atlasdb.timelock.paxos.Client;
 import com.palantir.atlasdb.timelock.paxos.PaxosTimeLockConstants;
 import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.leader.NotCurrentLeaderException;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 
@@ -44,21 +49,108 @@ public final class TimelockNamespaces {
     private static final Predicate<String> isValidName = Pattern.compile("^(?!tl$)[a-zA-Z0-9_-]+$").asPredicate();
     private static final Logger log = LoggerFactory.getLogger(TimelockNamespaces.class);
 
-    private final ConcurrentMap<String, TimeLockServices> services = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ActiveClient> services = new ConcurrentHashMap<>();
     private final Function<String, TimeLockServices> factory;
     private final Supplier<Integer> maxNumberOfClients;
+    private final Supplier<Duration> idleClientEvictionThreshold;
+    private final LongSupplier nanoClock;
 
     public TimelockNamespaces(
             MetricsManager metrics,
             Function<String, TimeLockServices> factory,
             Supplier<Integer> maxNumberOfClients) {
+        this(metrics, factory, maxNumberOfClients, () -> Duration.ZERO);
+    }
+
+    /**
+     * Clients that have not been used for at least {@code idleClientEvictionThreshold} and have no held or pending
+     * locks are closed by {@link #evictIdleClients()}, and are transparently recreated from their persisted state the
+     * next time they are requested. A threshold of zero disables eviction.
+     */
+    public TimelockNamespaces(
+            MetricsManager metrics,
+            Function<String, TimeLockServices> factory,
+            Supplier<Integer> maxNumberOfClients,
+            Supplier<Duration> idleClientEvictionThreshold) {
+        this(metrics, factory, maxNumberOfClients, idleClientEvictionThreshold, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    TimelockNamespaces(
+            MetricsManager metrics,
+            Function<String, TimeLockServices> factory,
+            Supplier<Integer> maxNumberOfClients,
+            Supplier<Duration> idleClientEvictionThreshold,
+            LongSupplier nanoClock) {
         this.factory = factory;
         this.maxNumberOfClients = maxNumberOfClients;
+        this.idleClientEvictionThreshold = idleClientEvictionThreshold;
+        this.nanoClock = nanoClock;
         registerClientCapacityMetrics(metrics);
     }
 
     public TimeLockServices get(String namespace) {
-        return services.computeIfAbsent(namespace, this::createNewClient);
+        while (true) {
+            ActiveClient client = services.get(namespace);
+            if (client == null) {
+                if (getNumberOfActiveClients() >= getMaxNumberOfClients()) {
+                    evictIdleClients();
+                }
+                client = services.computeIfAbsent(namespace, this::createNewClient);
+            }
+            if (client.markAccessed(nanoClock.getAsLong())) {
+                return client.services();
+            }
+            // the client was evicted after we looked it up, so it must be recreated
+            services.remove(namespace, client);
+        }
+    }
+
+    /**
+     * Closes and removes clients that have been idle for at least the idle client eviction threshold, and that have
+     * no held or pending locks on this node, either through the async timelock service or the legacy lock service.
+     */
+    public void evictIdleClients() {
+        Duration threshold = idleClientEvictionThreshold.get();
+        if (threshold.isZero()) {
+            return;
+        }
+        long idleSinceNanos = nanoClock.getAsLong() - threshold.toNanos();
+        services.forEach((namespace, client) -> {
+            if (client.isIdleSince(idleSinceNanos) && !hasHeldOrPendingLocks(client.services())) {
+                // closed before it is removed, so that the client is not recreated until its resources are released
+                services.computeIfPresent(namespace, (unused, current) -> {
+                    if (current != client || !client.tryMarkEvicted(idleSinceNanos)) {
+                        return current;
+                    }
+                    close(namespace, client.services());
+                    return null;
+                });
+            }
+        });
+    }
+
+    private static boolean hasHeldOrPendingLocks(TimeLockServices services) {
+        try {
+            // the async service is asked first, as it throws if this node is not the leader
+            return services.getTimelockService().hasHeldOrPendingLocks()
+                    || services.getLegacyLockServiceHasHeldOrPendingLocks().getAsBoolean();
+        } catch (NotCurrentLeaderException e) {
+            // locks are only ever held on the leader
+            return false;
+        } catch (RuntimeException e) {
+            log.info("Could not determine whether an idle TimeLock client holds locks; not evicting it.", e);
+            return true;
+        }
+    }
+
+    private static void close(String namespace, TimeLockServices services) {
+        try {
+            services.getCloser().close();
+            log.info("Closed services for idle TimeLock client {}.", SafeArg.of("client", namespace));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to close services for idle TimeLock client {}.", SafeArg.of("client", namespace), e);
+        }
     }
 
     public Set<Client> getActiveClients() {
@@ -73,7 +165,7 @@ public final class TimelockNamespaces {
         return maxNumberOfClients.get();
     }
 
-    private TimeLockServices createNewClient(String namespace) {
+    private ActiveClient createNewClient(String namespace) {
         Preconditions.checkArgument(isValidName.test(namespace),
                 "Invalid namespace", SafeArg.of("namespace", namespace));
         Preconditions.checkArgument(!namespace.equals(PaxosTimeLockConstants.LEADER_ELECTION_NAMESPACE),
@@ -93,11 +185,55 @@ public final class TimelockNamespaces {
 
         TimeLockServices services = factory.apply(namespace);
         log.info("Successfully created services for a new TimeLock client {}.", SafeArg.of("client", namespace));
-        return services;
+        return new ActiveClient(services, nanoClock.getAsLong());
     }
 
     private void registerClientCapacityMetrics(MetricsManager metricsManager) {
         metricsManager.registerMetric(TimelockNamespaces.class, ACTIVE_CLIENTS, this::getNumberOfActiveClients);
         metricsManager.registerMetric(TimelockNamespaces.class, MAX_CLIENTS, this::getMaxNumberOfClients);
     }
+
+    private static final class ActiveClient {
+        private static final long EVICTED = Long.MIN_VALUE;
+
+        private final TimeLockServices services;
+        private final AtomicLong lastAccessNanos;
+
+        private ActiveClient(TimeLockServices services, long createdNanos) {
+            this.services = services;
+            this.lastAccessNanos = new AtomicLong(createdNanos);
+        }
+
+        TimeLockServices services() {
+            return services;
+        }
+
+        /**
+         * Records an access, unless the client has been evicted; once this returns true, the client cannot be evicted
+         * until it has been idle again for the full threshold.
+         */
+        boolean markAccessed(long nowNanos) {
+            while (true) {
+                long lastAccess = lastAccessNanos.get();
+                if (lastAccess == EVICTED) {
+                    return false;
+                }
+                if (lastAccessNanos.compareAndSet(lastAccess, Math.max(lastAccess, nowNanos))) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isIdleSince(long idleSinceNanos) {
+            long lastAccess = lastAccessNanos.get();
+            return lastAccess != EVICTED && lastAccess - idleSinceNanos <= 0;
+        }
+
+        boolean tryMarkEvicted(long idleSinceNanos) {
+            long lastAccess = lastAccessNanos.get();
+            return lastAccess != EVICTED
+                    && lastAccess - idleSinceNanos <= 0
+                    && lastAccessNanos.compareAndSet(lastAccess, EVICTED);
+        }
+    }
 }
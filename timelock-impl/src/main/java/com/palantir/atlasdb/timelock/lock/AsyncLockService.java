@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.timelock.lock;
 
 import java.io.Closeable;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -39,6 +40,13 @@ public class AsyncLockService implements Closeable {
 
     private static final Logger log = LoggerFactory.getLogger(AsyncLockService.class);
 
+    /**
+     * Reaping only visits lock requests whose leases may have expired, so it can run much more often than the lease
+     * timeout and detect expired locks promptly.
+     */
+    @VisibleForTesting
+    static final Duration REAPER_PERIOD = Duration.ofSeconds(1);
+
     private final LockCollection locks;
     private final LockAcquirer lockAcquirer;
     private final ScheduledExecutorService reaperExecutor;
@@ -114,13 +122,25 @@ public class AsyncLockService implements Closeable {
             } catch (Throwable t) {
                 log.warn("Error while removing expired lock requests. Trying again on next iteration.", t);
             }
-        }, 0, LockLeaseContract.SERVER_LEASE_TIMEOUT.toMillis() / 2, TimeUnit.MILLISECONDS);
+        }, 0, REAPER_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
     }
 
     public AsyncResult<Leased<LockToken>> lock(UUID requestId, Set<LockDescriptor> lockDescriptors, TimeLimit timeout) {
+        return lock(requestId, lockDescriptors, ImmutableSet.of(), timeout);
+    }
+
+    /**
+     * Acquires {@code lockDescriptors} exclusively and {@code sharedLockDescriptors} in shared mode, as a single
+     * request.
+     */
+    public AsyncResult<Leased<LockToken>> lock(
+            UUID requestId,
+            Set<LockDescriptor> lockDescriptors,
+            Set<LockDescriptor> sharedLockDescriptors,
+            TimeLimit timeout) {
         return heldLocks.getExistingOrAcquire(
                 requestId,
-                () -> acquireLocks(requestId, lockDescriptors, timeout));
+                () -> acquireLocks(requestId, lockDescriptors, sharedLockDescriptors, timeout));
     }
 
     public AsyncResult<Leased<LockToken>> lockImmutableTimestamp(UUID requestId, long timestamp) {
@@ -143,8 +163,10 @@ public class AsyncLockService implements Closeable {
     }
 
     private AsyncResult<HeldLocks> acquireLocks(UUID requestId, Set<LockDescriptor> lockDescriptors,
-            TimeLimit timeout) {
-        OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
+            Set<LockDescriptor> sharedLockDescriptors, TimeLimit timeout) {
+        OrderedLocks orderedLocks = sharedLockDescriptors.isEmpty()
+                ? locks.getAll(lockDescriptors)
+                : locks.getAll(lockDescriptors, sharedLockDescriptors);
         return lockAcquirer.acquireLocks(requestId, orderedLocks, timeout);
     }
 
@@ -159,6 +181,10 @@ public class AsyncLockService implements Closeable {
         return lockAcquirer.acquireLocks(requestId, OrderedLocks.fromSingleLock(immutableTsLock), TimeLimit.zero());
     }
 
+    public boolean hasHeldOrPendingLocks() {
+        return !heldLocks.isEmpty();
+    }
+
     public boolean unlock(LockToken token) {
         return unlock(ImmutableSet.of(token)).contains(token);
     }
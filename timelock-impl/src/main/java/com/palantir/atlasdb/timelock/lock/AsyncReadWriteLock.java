@@ -0,0 +1,322 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.timelock.util.LoggableIllegalStateException;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * A lock that is held either exclusively by a single request, or shared by any number of requests, with a FIFO queue
+ * of waiting requests. Methods of this class act on the lock in exclusive mode; {@link #shared()} is a view of the
+ * same lock that acts in shared mode.
+ *
+ * Requests that can be served while no requests are queued are served with a CAS on the set of holders, without
+ * taking the monitor. Requests that cannot are queued under the monitor, and are served by whichever thread releases
+ * the lock. A releasing thread publishes the release before checking for queued requests, and a queueing thread
+ * publishes its request before checking the holders, so at least one of them always sees the other and no queued
+ * request is stranded. Shared requests queue up behind waiting exclusive requests, so that a stream of shared
+ * requests cannot starve exclusive ones.
+ */
+public class AsyncReadWriteLock implements AsyncLock {
+
+    private final LockDescriptor descriptor;
+    private final AsyncLock sharedView = new SharedView();
+
+    private final AtomicReference<Holders> holders = new AtomicReference<>(Holders.NONE);
+    private final AtomicInteger queuedRequests = new AtomicInteger();
+    @GuardedBy("this")
+    private final LockRequestQueue queue = new LockRequestQueue();
+
+    public AsyncReadWriteLock(LockDescriptor descriptor) {
+        this.descriptor = descriptor;
+    }
+
+    /**
+     * Returns a view of this lock whose {@link AsyncLock#lock} and {@link AsyncLock#waitUntilAvailable} act in shared
+     * mode. Unlocking and timing out requests behaves the same on either view.
+     */
+    public AsyncLock shared() {
+        return sharedView;
+    }
+
+    @Override
+    public AsyncResult<Void> lock(UUID requestId) {
+        if (queuedRequests.get() == 0 && holders.compareAndSet(Holders.NONE, Holders.exclusive(requestId))) {
+            return AsyncResult.completedResult();
+        }
+        return submit(new LockRequest(requestId, Mode.EXCLUSIVE, false));
+    }
+
+    @Override
+    public AsyncResult<Void> waitUntilAvailable(UUID requestId) {
+        if (queuedRequests.get() == 0 && holders.get() == Holders.NONE) {
+            return AsyncResult.completedResult();
+        }
+        return submit(new LockRequest(requestId, Mode.EXCLUSIVE, true));
+    }
+
+    @Override
+    public void unlock(UUID requestId) {
+        while (true) {
+            Holders current = holders.get();
+            Holders released = current.without(requestId);
+            if (released == current) {
+                return;
+            }
+            if (holders.compareAndSet(current, released)) {
+                if (queuedRequests.get() > 0) {
+                    synchronized (this) {
+                        processQueue();
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void timeout(UUID requestId) {
+        if (queue.timeoutAndRemoveIfStillQueued(requestId)) {
+            queuedRequests.decrementAndGet();
+            // shared requests queued behind a timed out exclusive request may now be servable
+            processQueue();
+        }
+    }
+
+    @Override
+    public LockDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    @VisibleForTesting
+    @Nullable
+    UUID getExclusiveHolder() {
+        return holders.get().exclusiveHolder;
+    }
+
+    @VisibleForTesting
+    Set<UUID> getSharedHolders() {
+        return holders.get().sharedHolders;
+    }
+
+    private AsyncResult<Void> lockShared(UUID requestId) {
+        if (queuedRequests.get() == 0) {
+            while (true) {
+                Holders current = holders.get();
+                if (current.isHeldExclusively()) {
+                    break;
+                }
+                if (holders.compareAndSet(current, current.withShared(requestId))) {
+                    return AsyncResult.completedResult();
+                }
+            }
+        }
+        return submit(new LockRequest(requestId, Mode.SHARED, false));
+    }
+
+    private AsyncResult<Void> waitUntilAvailableForShared(UUID requestId) {
+        if (queuedRequests.get() == 0 && !holders.get().isHeldExclusively()) {
+            return AsyncResult.completedResult();
+        }
+        return submit(new LockRequest(requestId, Mode.SHARED, true));
+    }
+
+    private synchronized AsyncResult<Void> submit(LockRequest request) {
+        queue.enqueue(request);
+        queuedRequests.incrementAndGet();
+        processQueue();
+
+        return request.result;
+    }
+
+    @GuardedBy("this")
+    private void processQueue() {
+        while (!queue.isEmpty()) {
+            LockRequest head = queue.peek();
+            if (!tryServe(head)) {
+                return;
+            }
+
+            queue.dequeue();
+            queuedRequests.decrementAndGet();
+            head.result.complete(null);
+        }
+    }
+
+    private boolean tryServe(LockRequest request) {
+        while (true) {
+            Holders current = holders.get();
+            if (!current.isAvailableFor(request.mode)) {
+                return false;
+            }
+            if (request.releaseImmediately) {
+                return true;
+            }
+            Holders acquired = request.mode == Mode.EXCLUSIVE
+                    ? Holders.exclusive(request.requestId)
+                    : current.withShared(request.requestId);
+            if (holders.compareAndSet(current, acquired)) {
+                return true;
+            }
+        }
+    }
+
+    private enum Mode {
+        EXCLUSIVE,
+        SHARED
+    }
+
+    private static final class Holders {
+        private static final Holders NONE = new Holders(null, ImmutableSet.of());
+
+        @Nullable
+        private final UUID exclusiveHolder;
+        private final Set<UUID> sharedHolders;
+
+        private Holders(@Nullable UUID exclusiveHolder, Set<UUID> sharedHolders) {
+            this.exclusiveHolder = exclusiveHolder;
+            this.sharedHolders = sharedHolders;
+        }
+
+        static Holders exclusive(UUID requestId) {
+            return new Holders(requestId, ImmutableSet.of());
+        }
+
+        boolean isHeldExclusively() {
+            return exclusiveHolder != null;
+        }
+
+        boolean isAvailableFor(Mode mode) {
+            return mode == Mode.EXCLUSIVE ? this == NONE : !isHeldExclusively();
+        }
+
+        Holders withShared(UUID requestId) {
+            if (sharedHolders.contains(requestId)) {
+                return this;
+            }
+            return new Holders(null, ImmutableSet.<UUID>builder().addAll(sharedHolders).add(requestId).build());
+        }
+
+        /**
+         * Returns the holders after {@code requestId} has released the lock, or this instance if it did not hold it.
+         */
+        Holders without(UUID requestId) {
+            if (requestId.equals(exclusiveHolder)) {
+                return NONE;
+            }
+            if (!sharedHolders.contains(requestId)) {
+                return this;
+            }
+            if (sharedHolders.size() == 1) {
+                return NONE;
+            }
+            return new Holders(null, ImmutableSet.copyOf(Sets.difference(sharedHolders, ImmutableSet.of(requestId))));
+        }
+    }
+
+    private final class SharedView implements AsyncLock {
+        @Override
+        public AsyncResult<Void> lock(UUID requestId) {
+            return lockShared(requestId);
+        }
+
+        @Override
+        public AsyncResult<Void> waitUntilAvailable(UUID requestId) {
+            return waitUntilAvailableForShared(requestId);
+        }
+
+        @Override
+        public void unlock(UUID requestId) {
+            AsyncReadWriteLock.this.unlock(requestId);
+        }
+
+        @Override
+        public void timeout(UUID requestId) {
+            AsyncReadWriteLock.this.timeout(requestId);
+        }
+
+        @Override
+        public LockDescriptor getDescriptor() {
+            return descriptor;
+        }
+    }
+
+    private static class LockRequest {
+        private final AsyncResult<Void> result = new AsyncResult<>();
+        private final UUID requestId;
+        private final Mode mode;
+        private final boolean releaseImmediately;
+
+        LockRequest(UUID requestId, Mode mode, boolean releaseImmediately) {
+            this.requestId = requestId;
+            this.mode = mode;
+            this.releaseImmediately = releaseImmediately;
+        }
+    }
+
+    @NotThreadSafe
+    private static class LockRequestQueue {
+
+        @SuppressWarnings("checkstyle:illegaltype")
+        private final LinkedHashMap<UUID, LockRequest> queue = Maps.newLinkedHashMap();
+
+        public void enqueue(LockRequest request) {
+            LockRequest existingRequest = queue.put(request.requestId, request);
+            if (existingRequest != null) {
+                queue.put(request.requestId, existingRequest);
+                throw new LoggableIllegalStateException(
+                        "Cannot enqueue the same request id twice.",
+                        SafeArg.of("requestId", request.requestId));
+            }
+        }
+
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        public LockRequest peek() {
+            return queue.values().iterator().next();
+        }
+
+        public LockRequest dequeue() {
+            return queue.remove(queue.keySet().iterator().next());
+        }
+
+        public boolean timeoutAndRemoveIfStillQueued(UUID requestId) {
+            LockRequest request = queue.remove(requestId);
+            if (request != null) {
+                request.result.timeout();
+                return true;
+            }
+            return false;
+        }
+    }
+}
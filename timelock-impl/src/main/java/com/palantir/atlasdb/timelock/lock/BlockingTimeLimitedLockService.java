@@ -238,6 +238,11 @@ public class BlockingTimeLimitedLockService implements CloseableLockService {
         return new BlockingTimeoutException(errorMessage);
     }
 
+    @Override
+    public boolean hasHeldOrPendingLocks() {
+        return delegate.hasHeldOrPendingLocks();
+    }
+
     @Override
     public void close() throws IOException {
         delegate.close();
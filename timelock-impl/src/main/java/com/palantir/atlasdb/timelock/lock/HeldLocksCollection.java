@@ -15,9 +15,12 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -36,10 +39,12 @@ public class HeldLocksCollection {
     final ConcurrentMap<UUID, AsyncResult<HeldLocks>> heldLocksById = Maps.newConcurrentMap();
 
     private final LeaderClock leaderClock;
+    private final LeaseExpiryIndex expiryIndex;
 
     @VisibleForTesting
     HeldLocksCollection(LeaderClock leaderClock) {
         this.leaderClock = leaderClock;
+        this.expiryIndex = new LeaseExpiryIndex(leaderClock.time().currentTime());
     }
 
     public static HeldLocksCollection create(LeaderClock leaderClock) {
@@ -49,9 +54,35 @@ public class HeldLocksCollection {
     public AsyncResult<Leased<LockToken>> getExistingOrAcquire(
             UUID requestId,
             Supplier<AsyncResult<HeldLocks>> lockAcquirer) {
-        return heldLocksById.computeIfAbsent(
-                requestId, ignored -> lockAcquirer.get())
-                .map(this::createLeasableLockToken);
+        AtomicReference<AsyncResult<HeldLocks>> acquired = new AtomicReference<>();
+        AsyncResult<HeldLocks> result = heldLocksById.computeIfAbsent(requestId, ignored -> {
+            acquired.set(lockAcquirer.get());
+            return acquired.get();
+        });
+        if (result == acquired.get()) {
+            // only track the expiry once the request is visible in heldLocksById, so the reaper cannot miss it
+            result.onComplete(() -> trackExpiry(requestId, result));
+        }
+        return result.map(this::createLeasableLockToken);
+    }
+
+    /**
+     * Held locks are indexed by the expiry of their lease; failed and timed out requests are due for removal
+     * immediately.
+     */
+    private void trackExpiry(UUID requestId, AsyncResult<HeldLocks> result) {
+        if (result.isCompletedSuccessfully()) {
+            expiryIndex.add(requestId, LeaseExpiryIndex.expiryForRefreshTime(result.get().lastRefreshTime()));
+        } else {
+            expiryIndex.add(requestId, leaderClock.time().currentTime());
+        }
+    }
+
+    /**
+     * Returns true if no lock requests are held, pending or awaiting removal by the reaper.
+     */
+    public boolean isEmpty() {
+        return heldLocksById.isEmpty();
     }
 
     public Set<LockToken> unlock(Set<LockToken> tokens) {
@@ -64,11 +95,45 @@ public class HeldLocksCollection {
 
     public Leased<Set<LockToken>> refresh(Set<LockToken> tokens) {
         Lease lease = leaseWithStart(leaderClock.time());
-        return Leased.of(filter(tokens, HeldLocks::refresh), lease);
+        return Leased.of(filter(tokens, this::refreshAndReindex), lease);
+    }
+
+    private boolean refreshAndReindex(HeldLocks heldLocks) {
+        NanoTime previousRefreshTime = heldLocks.lastRefreshTime();
+        if (!heldLocks.refresh()) {
+            return false;
+        }
+        expiryIndex.move(
+                heldLocks.getRequestId(),
+                LeaseExpiryIndex.expiryForRefreshTime(previousRefreshTime),
+                LeaseExpiryIndex.expiryForRefreshTime(heldLocks.lastRefreshTime()));
+        return true;
     }
 
+    /**
+     * Removes requests that failed, timed out or whose leases have expired. Only requests in expiry buckets that are
+     * due are visited; requests that turn out to have been refreshed are put back into the bucket of their current
+     * expiry, and requests that were already unlocked are dropped from the index.
+     */
     public void removeExpired() {
-        heldLocksById.values().removeIf(this::shouldRemove);
+        List<UUID> stillHeld = new ArrayList<>();
+        for (UUID requestId : expiryIndex.pollDue(leaderClock.time().currentTime())) {
+            AsyncResult<HeldLocks> result = heldLocksById.get(requestId);
+            if (result == null) {
+                continue;
+            }
+            if (shouldRemove(result)) {
+                heldLocksById.remove(requestId, result);
+            } else if (result.isCompletedSuccessfully()) {
+                stillHeld.add(requestId);
+            }
+        }
+        for (UUID requestId : stillHeld) {
+            AsyncResult<HeldLocks> result = heldLocksById.get(requestId);
+            if (result != null) {
+                expiryIndex.add(requestId, LeaseExpiryIndex.expiryForRefreshTime(result.get().lastRefreshTime()));
+            }
+        }
     }
 
     public void failAllOutstandingRequestsWithNotCurrentLeaderException() {
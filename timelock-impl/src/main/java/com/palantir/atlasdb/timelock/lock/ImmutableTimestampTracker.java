@@ -15,22 +15,24 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import java.util.Map;
 import java.util.Optional;
-import java.util.SortedMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
 
-import com.google.common.collect.Maps;
 import com.palantir.atlasdb.timelock.util.LoggableIllegalStateException;
 import com.palantir.logsafe.SafeArg;
 
-import net.jcip.annotations.GuardedBy;
-
+/**
+ * Tracks the timestamps locked by open transactions. Holders are kept in a concurrent skip list, so that locking,
+ * unlocking and reading the minimum locked timestamp never contend on a shared monitor; the minimum is read from the
+ * head of the list.
+ */
 public class ImmutableTimestampTracker {
 
-    @GuardedBy("this")
-    private final SortedMap<Long, UUID> holdersByTimestamp = Maps.newTreeMap();
+    private final ConcurrentSkipListMap<Long, UUID> holdersByTimestamp = new ConcurrentSkipListMap<>();
 
-    public synchronized void lock(long timestamp, UUID requestId) {
+    public void lock(long timestamp, UUID requestId) {
         boolean wasAdded = holdersByTimestamp.putIfAbsent(timestamp, requestId) == null;
         if (!wasAdded) {
             throw new LoggableIllegalStateException(
@@ -41,7 +43,7 @@ public class ImmutableTimestampTracker {
         }
     }
 
-    public synchronized void unlock(long timestamp, UUID requestId) {
+    public void unlock(long timestamp, UUID requestId) {
         boolean wasRemoved = holdersByTimestamp.remove(timestamp, requestId);
         if (!wasRemoved) {
             throw new LoggableIllegalStateException(
@@ -52,11 +54,8 @@ public class ImmutableTimestampTracker {
         }
     }
 
-    public synchronized Optional<Long> getImmutableTimestamp() {
-        if (holdersByTimestamp.isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(holdersByTimestamp.firstKey());
+    public Optional<Long> getImmutableTimestamp() {
+        return Optional.ofNullable(holdersByTimestamp.firstEntry()).map(Map.Entry::getKey);
     }
 
     // TODO(nziebart): should these locks should be created by LockCollection for consistency?
@@ -0,0 +1,88 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import com.palantir.common.time.NanoTime;
+
+/**
+ * Buckets lock requests by the leader clock time at which they are due to expire, so that reaping only visits
+ * requests that may have expired instead of every outstanding request.
+ *
+ * A request may transiently be in several buckets, or in a bucket earlier than its actual expiry (for example if it
+ * was refreshed concurrently), but never only in buckets later than its expiry. Callers of {@link #pollDue} must
+ * therefore check whether each request has actually expired, and {@link #add} it again if it has not.
+ */
+final class LeaseExpiryIndex {
+    private static final long BUCKET_WIDTH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentSkipListMap<Long, Set<UUID>> buckets = new ConcurrentSkipListMap<>();
+    private final NanoTime origin;
+
+    LeaseExpiryIndex(NanoTime origin) {
+        this.origin = origin;
+    }
+
+    void add(UUID requestId, NanoTime expiry) {
+        // the remapping function may be retried, which is harmless since adding to a set is idempotent
+        buckets.compute(bucket(expiry), (ignored, requestIds) -> {
+            Set<UUID> bucket = requestIds == null ? ConcurrentHashMap.newKeySet() : requestIds;
+            bucket.add(requestId);
+            return bucket;
+        });
+    }
+
+    void move(UUID requestId, NanoTime oldExpiry, NanoTime newExpiry) {
+        long oldBucket = bucket(oldExpiry);
+        if (oldBucket == bucket(newExpiry)) {
+            return;
+        }
+        add(requestId, newExpiry);
+        Set<UUID> requestIds = buckets.get(oldBucket);
+        if (requestIds != null) {
+            requestIds.remove(requestId);
+        }
+    }
+
+    /**
+     * Removes and returns the requests in every bucket that contains expiry times at or before {@code now}.
+     */
+    List<UUID> pollDue(NanoTime now) {
+        List<UUID> due = new ArrayList<>();
+        for (Long bucket : buckets.headMap(bucket(now), true).keySet()) {
+            Set<UUID> requestIds = buckets.remove(bucket);
+            if (requestIds != null) {
+                due.addAll(requestIds);
+            }
+        }
+        return due;
+    }
+
+    static NanoTime expiryForRefreshTime(NanoTime lastRefreshTime) {
+        return lastRefreshTime.plus(LockLeaseContract.SERVER_LEASE_TIMEOUT);
+    }
+
+    private long bucket(NanoTime time) {
+        return Math.floorDiv(time.nanosSince(origin), BUCKET_WIDTH_NANOS);
+    }
+}
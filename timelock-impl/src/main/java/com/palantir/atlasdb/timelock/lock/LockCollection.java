@@ -22,25 +22,37 @@ import java.util.Set;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.palantir.lock.LockDescriptor;
 
 public class LockCollection {
 
-    private final LoadingCache<LockDescriptor, AsyncLock> locksById;
+    private final LoadingCache<LockDescriptor, AsyncReadWriteLock> locksById;
 
     public LockCollection() {
         locksById = Caffeine.newBuilder()
                 .weakValues()
-                .build(ExclusiveLock::new);
+                .build(AsyncReadWriteLock::new);
     }
 
     public OrderedLocks getAll(Set<LockDescriptor> descriptors) {
-        List<LockDescriptor> orderedDescriptors = sort(descriptors);
+        return getAll(descriptors, ImmutableSet.of());
+    }
+
+    /**
+     * Returns the locks for the given descriptors, in the order in which they must be acquired. Locks for
+     * {@code exclusiveDescriptors} act in exclusive mode, and locks for the remaining {@code sharedDescriptors} act
+     * in shared mode; a descriptor present in both sets is locked exclusively.
+     */
+    public OrderedLocks getAll(Set<LockDescriptor> exclusiveDescriptors, Set<LockDescriptor> sharedDescriptors) {
+        List<LockDescriptor> orderedDescriptors = sort(Sets.union(exclusiveDescriptors, sharedDescriptors));
 
-        List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(descriptors.size());
+        List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(orderedDescriptors.size());
         for (LockDescriptor descriptor : orderedDescriptors) {
-            locks.add(getLock(descriptor));
+            AsyncReadWriteLock lock = getLock(descriptor);
+            locks.add(exclusiveDescriptors.contains(descriptor) ? lock : lock.shared());
         }
 
         return OrderedLocks.fromOrderedList(locks);
@@ -52,7 +64,7 @@ public class LockCollection {
         return orderedDescriptors;
     }
 
-    private AsyncLock getLock(LockDescriptor descriptor) {
+    private AsyncReadWriteLock getLock(LockDescriptor descriptor) {
         return locksById.get(descriptor);
     }
 
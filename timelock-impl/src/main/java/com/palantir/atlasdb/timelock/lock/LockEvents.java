@@ -22,6 +22,7 @@ import java.util.UUID;
 
 import org.immutables.value.Value;
 
+import com.google.common.collect.Sets;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.client.IdentifiedLockRequest;
 import com.palantir.lock.v2.WaitForLocksRequest;
@@ -51,7 +52,7 @@ public interface LockEvents {
             return ImmutableRequestInfo.of(
                     request.getRequestId(),
                     request.getClientDescription().orElse(EMPTY_DESCRIPTION),
-                    request.getLockDescriptors());
+                    Sets.union(request.getLockDescriptors(), request.getSharedLockDescriptors()));
         }
 
         static RequestInfo of(WaitForLocksRequest request) {
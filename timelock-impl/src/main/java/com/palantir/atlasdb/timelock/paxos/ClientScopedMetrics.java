@@ -43,7 +43,21 @@ public class ClientScopedMetrics {
     }
 
     public void deregisterMetric(Client client, Predicate<MetricName> metricNamePredicate) {
-        getOrCreateMetricsManager(client).deregisterTaggedMetrics(metricNamePredicate);
+        MetricsManager metricsManager = clientScopedMetricRegistry.get(client);
+        if (metricsManager != null) {
+            metricsManager.deregisterTaggedMetrics(metricNamePredicate);
+        }
+    }
+
+    /**
+     * Deregisters all metrics for the given client. The client's registry stays attached to the parent until it is
+     * replaced by the one created when the client next records a metric, but it no longer reports anything.
+     */
+    public void evict(Client client) {
+        MetricsManager metricsManager = clientScopedMetricRegistry.remove(client);
+        if (metricsManager != null) {
+            metricsManager.deregisterTaggedMetrics(unused -> true);
+        }
     }
 
     private MetricsManager getOrCreateMetricsManager(Client client) {
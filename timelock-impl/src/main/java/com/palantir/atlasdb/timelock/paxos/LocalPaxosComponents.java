@@ -17,6 +17,7 @@ package com.palantir.atlasdb.timelock.paxos;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Supplier;
@@ -24,8 +25,10 @@ import java.util.function.Supplier;
 import org.immutables.value.Value;
 
 import com.google.common.base.Suppliers;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import com.palantir.leader.LocalPingableLeader;
+import com.palantir.leader.PaxosKnowledgeEventRecorder;
 import com.palantir.leader.PingableLeader;
 import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosAcceptorImpl;
@@ -37,15 +40,38 @@ public class LocalPaxosComponents {
     private final TimelockPaxosMetrics metrics;
     private final Path logDirectory;
     private final UUID leaderUuid;
+    private final Duration leaderLeaseDuration;
+    private final boolean useSegmentedLog;
     private final Map<Client, Components> componentsByClient = Maps.newConcurrentMap();
+    // Acceptors and learners of evicted clients, which may still be in use by requests that started before eviction.
+    // They are reused if the client comes back while they are still reachable, so that each log directory is only ever
+    // written through a single instance.
+    private final Map<Client, PaxosAcceptorImpl> evictedAcceptors = new MapMaker().weakValues().makeMap();
+    private final Map<Client, PaxosLearnerImpl> evictedLearners = new MapMaker().weakValues().makeMap();
     private final Supplier<BatchPaxosAcceptor> memoizedBatchAcceptor;
     private final Supplier<BatchPaxosLearner> memoizedBatchLearner;
     private final Supplier<BatchPingableLeader> memoizedBatchPingableLeader;
 
     LocalPaxosComponents(TimelockPaxosMetrics metrics, Path logDirectory, UUID leaderUuid) {
+        this(metrics, logDirectory, leaderUuid, Duration.ZERO, false);
+    }
+
+    /**
+     * Acceptors created by these components back leader leases of {@code leaderLeaseDuration}; this should only be
+     * positive for components used for leader election. Acceptors and learners store their state in segmented logs
+     * if {@code useSegmentedLog} is set.
+     */
+    LocalPaxosComponents(
+            TimelockPaxosMetrics metrics,
+            Path logDirectory,
+            UUID leaderUuid,
+            Duration leaderLeaseDuration,
+            boolean useSegmentedLog) {
         this.metrics = metrics;
         this.logDirectory = logDirectory;
         this.leaderUuid = leaderUuid;
+        this.leaderLeaseDuration = leaderLeaseDuration;
+        this.useSegmentedLog = useSegmentedLog;
         this.memoizedBatchAcceptor = Suppliers.memoize(this::createBatchAcceptor);
         this.memoizedBatchLearner = Suppliers.memoize(this::createBatchLearner);
         this.memoizedBatchPingableLeader = Suppliers.memoize(this::createBatchPingableLeader);
@@ -63,6 +89,21 @@ public class LocalPaxosComponents {
         return getOrCreateComponents(client).pingableLeader();
     }
 
+    /**
+     * Releases the components of the given client, along with its metrics and the file handles of its logs. They are
+     * recreated from the client's logs the next time they are requested.
+     */
+    public void evict(Client client) {
+        componentsByClient.computeIfPresent(client, (unused, components) -> {
+            components.acceptor().releaseFileHandles();
+            components.learner().releaseFileHandles();
+            evictedAcceptors.put(client, components.acceptor());
+            evictedLearners.put(client, components.learner());
+            return null;
+        });
+        metrics.clientScopedMetrics().evict(client);
+    }
+
     public BatchPaxosAcceptor batchAcceptor() {
         return memoizedBatchAcceptor.get();
     }
@@ -83,10 +124,17 @@ public class LocalPaxosComponents {
         Path clientDirectory = logDirectory.resolve(client.value());
         Path learnerLogDir = Paths.get(clientDirectory.toString(), PaxosTimeLockConstants.LEARNER_SUBDIRECTORY_PATH);
 
-        PaxosLearner learner = PaxosLearnerImpl.newLearner(learnerLogDir.toString());
+        PaxosLearnerImpl evictedLearner = evictedLearners.remove(client);
+        PaxosLearnerImpl learner = evictedLearner != null
+                ? evictedLearner
+                : PaxosLearnerImpl.newLearner(
+                        learnerLogDir.toString(), PaxosKnowledgeEventRecorder.NO_OP, useSegmentedLog);
 
         Path acceptorLogDir = Paths.get(clientDirectory.toString(), PaxosTimeLockConstants.ACCEPTOR_SUBDIRECTORY_PATH);
-        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(acceptorLogDir.toString());
+        PaxosAcceptorImpl evictedAcceptor = evictedAcceptors.remove(client);
+        PaxosAcceptorImpl acceptor = evictedAcceptor != null
+                ? evictedAcceptor
+                : PaxosAcceptorImpl.newAcceptor(acceptorLogDir.toString(), leaderLeaseDuration, useSegmentedLog);
 
         PingableLeader localPingableLeader = new LocalPingableLeader(learner, leaderUuid);
 
@@ -119,8 +167,8 @@ public class LocalPaxosComponents {
 
     @Value.Immutable
     interface Components {
-        PaxosAcceptor acceptor();
-        PaxosLearner learner();
+        PaxosAcceptorImpl acceptor();
+        PaxosLearnerImpl learner();
         PingableLeader pingableLeader();
     }
 
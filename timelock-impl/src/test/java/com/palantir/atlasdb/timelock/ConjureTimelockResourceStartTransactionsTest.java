@@ -0,0 +1,198 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.atlasdb.http.RedirectRetryTargeter;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.MultiClientStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.NamespacedStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.NamespacedStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulStartTransactionsResponse;
+import com.palantir.conjure.java.api.errors.QosException;
+import com.palantir.leader.NotCurrentLeaderException;
+import com.palantir.lock.v2.Lease;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.PartitionedTimestamps;
+import com.palantir.lock.v2.StartTransactionResponseV5;
+import com.palantir.lock.watch.LockWatchStateUpdate;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import com.palantir.tokens.auth.AuthHeader;
+
+public class ConjureTimelockResourceStartTransactionsTest {
+    private static final AuthHeader AUTH_HEADER = AuthHeader.valueOf("Bearer test");
+    private static final URL LOCAL = url("https://localhost:1234");
+    private static final RedirectRetryTargeter TARGETER = RedirectRetryTargeter.create(
+            LOCAL,
+            ImmutableList.of(LOCAL, url("https://localhost:4321")));
+
+    private static final String NAMESPACE = "test";
+    private static final String OTHER_NAMESPACE = "other";
+
+    private final AsyncTimelockService timelockService = mock(AsyncTimelockService.class);
+    private final AsyncTimelockService otherTimelockService = mock(AsyncTimelockService.class);
+    private final ConjureTimelockResource resource = new ConjureTimelockResource(
+            TARGETER, namespace -> namespace.equals(NAMESPACE) ? timelockService : otherTimelockService);
+
+    @Test
+    public void startsTransactionsForEachNamespaceInRequestOrder() {
+        StartTransactionResponseV5 response = startTransactionResponse();
+        StartTransactionResponseV5 otherResponse = startTransactionResponse();
+        when(timelockService.startTransactionsWithWatches(any())).thenReturn(Futures.immediateFuture(response));
+        when(otherTimelockService.startTransactionsWithWatches(any()))
+                .thenReturn(Futures.immediateFuture(otherResponse));
+
+        assertThat(startTransactionsForClients(OTHER_NAMESPACE, NAMESPACE))
+                .extracting(namespacedResponse -> successful(namespacedResponse).map(
+                        ConjureStartTransactionsResponse::getTimestamps))
+                .containsExactly(Optional.of(otherResponse.timestamps()), Optional.of(response.timestamps()));
+    }
+
+    @Test
+    public void failureForOneNamespaceIsReportedWithoutFailingOtherNamespaces() {
+        StartTransactionResponseV5 response = startTransactionResponse();
+        when(timelockService.startTransactionsWithWatches(any())).thenReturn(Futures.immediateFuture(response));
+        when(otherTimelockService.startTransactionsWithWatches(any()))
+                .thenReturn(Futures.immediateFailedFuture(new NotCurrentLeaderException("not the leader")));
+
+        assertThat(startTransactionsForClients(OTHER_NAMESPACE, NAMESPACE))
+                .extracting(namespacedResponse -> successful(namespacedResponse).map(
+                        ConjureStartTransactionsResponse::getTimestamps))
+                .containsExactly(Optional.empty(), Optional.of(response.timestamps()));
+    }
+
+    @Test
+    public void redirectsWholeBatchIfNotTheLeaderOfAnyNamespace() {
+        when(timelockService.startTransactionsWithWatches(any()))
+                .thenReturn(Futures.immediateFailedFuture(notCurrentLeader()));
+        when(otherTimelockService.startTransactionsWithWatches(any())).thenThrow(notCurrentLeader());
+
+        assertThatThrownBy(() -> startTransactionsForClients(NAMESPACE, OTHER_NAMESPACE))
+                .hasCauseInstanceOf(QosException.RetryOther.class);
+    }
+
+    @Test
+    public void otherFailuresFailTheWholeBatch() {
+        StartTransactionResponseV5 response = startTransactionResponse();
+        when(timelockService.startTransactionsWithWatches(any())).thenReturn(Futures.immediateFuture(response));
+        when(otherTimelockService.startTransactionsWithWatches(any()))
+                .thenThrow(new IllegalStateException("failed"));
+
+        assertThatThrownBy(() -> startTransactionsForClients(NAMESPACE, OTHER_NAMESPACE))
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void namespacesWhoseServicesCannotBeCreatedAreReportedWithoutFailingOtherNamespaces() {
+        StartTransactionResponseV5 response = startTransactionResponse();
+        when(timelockService.startTransactionsWithWatches(any())).thenReturn(Futures.immediateFuture(response));
+        ConjureTimelockResource resourceWithFullNamespaces = new ConjureTimelockResource(TARGETER, namespace -> {
+            if (namespace.equals(NAMESPACE)) {
+                return timelockService;
+            }
+            throw new SafeIllegalStateException("Maximum number of clients exceeded");
+        });
+
+        MultiClientStartTransactionsRequest request = MultiClientStartTransactionsRequest.of(ImmutableList.of(
+                NamespacedStartTransactionsRequest.of(OTHER_NAMESPACE, startTransactionsRequest()),
+                NamespacedStartTransactionsRequest.of(NAMESPACE, startTransactionsRequest())));
+        MultiClientStartTransactionsResponse response = Futures.getUnchecked(
+                resourceWithFullNamespaces.startTransactionsForClients(AUTH_HEADER, request));
+
+        assertThat(response.getResponses())
+                .extracting(namespacedResponse -> successful(namespacedResponse).isPresent())
+                .containsExactly(false, true);
+    }
+
+    private ImmutableList<NamespacedStartTransactionsResponse> startTransactionsForClients(String... namespaces) {
+        ImmutableList.Builder<NamespacedStartTransactionsRequest> requests = ImmutableList.builder();
+        for (String namespace : namespaces) {
+            requests.add(NamespacedStartTransactionsRequest.of(namespace, startTransactionsRequest()));
+        }
+        MultiClientStartTransactionsResponse response = Futures.getUnchecked(resource.startTransactionsForClients(
+                AUTH_HEADER, MultiClientStartTransactionsRequest.of(requests.build())));
+        return ImmutableList.copyOf(response.getResponses());
+    }
+
+    private static Optional<ConjureStartTransactionsResponse> successful(NamespacedStartTransactionsResponse response) {
+        return response.accept(new NamespacedStartTransactionsResponse.Visitor<
+                Optional<ConjureStartTransactionsResponse>>() {
+            @Override
+            public Optional<ConjureStartTransactionsResponse> visitSuccessful(
+                    ConjureStartTransactionsResponse value) {
+                return Optional.of(value);
+            }
+
+            @Override
+            public Optional<ConjureStartTransactionsResponse> visitUnsuccessful(
+                    UnsuccessfulStartTransactionsResponse value) {
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<ConjureStartTransactionsResponse> visitUnknown(String unknownType) {
+                throw new IllegalStateException("Unknown response type " + unknownType);
+            }
+        });
+    }
+
+    private static ConjureStartTransactionsRequest startTransactionsRequest() {
+        return ConjureStartTransactionsRequest.builder()
+                .requestId(UUID.randomUUID())
+                .requestorId(UUID.randomUUID())
+                .numTransactions(1)
+                .lastKnownVersion(Optional.empty())
+                .build();
+    }
+
+    private static StartTransactionResponseV5 startTransactionResponse() {
+        return StartTransactionResponseV5.of(
+                mock(LockImmutableTimestampResponse.class),
+                mock(PartitionedTimestamps.class),
+                mock(Lease.class),
+                mock(LockWatchStateUpdate.class));
+    }
+
+    private static NotCurrentLeaderException notCurrentLeader() {
+        return new NotCurrentLeaderException("not the leader", HostAndPort.fromParts("localhost", 4321));
+    }
+
+    private static URL url(String url) {
+        try {
+            return new URL(url);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
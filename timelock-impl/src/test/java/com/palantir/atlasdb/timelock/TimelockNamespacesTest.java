@@ -20,13 +20,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -38,6 +43,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import com.codahale.metrics.MetricRegistry;
 import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.leader.NotCurrentLeaderException;
 import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -46,6 +52,7 @@ public class TimelockNamespacesTest {
     private static final String CLIENT_B = "b-client";
     
     private static final int DEFAULT_MAX_NUMBER_OF_CLIENTS = 5;
+    private static final Duration EVICTION_THRESHOLD = Duration.ofMinutes(10);
 
     private final TimeLockServices servicesA = mock(TimeLockServices.class);
     private final TimeLockServices servicesB = mock(TimeLockServices.class);
@@ -57,6 +64,7 @@ public class TimelockNamespacesTest {
             new MetricRegistry(),
             DefaultTaggedMetricRegistry.getDefault(),
             unused -> false);
+    private final AtomicLong clock = new AtomicLong();
     private TimelockNamespaces namespaces;
 
     @Before
@@ -148,6 +156,138 @@ public class TimelockNamespacesTest {
         assertMaxClientsIs(77);
     }
 
+    @Test
+    public void evictsAndClosesIdleClients() throws IOException {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        mockLockState(servicesA, false, false);
+        Closeable closer = mockCloser(servicesA);
+        evictingNamespaces.get(CLIENT_A);
+
+        clock.addAndGet(EVICTION_THRESHOLD.toNanos());
+        evictingNamespaces.evictIdleClients();
+
+        assertThat(evictingNamespaces.getNumberOfActiveClients()).isEqualTo(0);
+        verify(closer).close();
+    }
+
+    @Test
+    public void doesNotEvictRecentlyUsedClients() {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        evictingNamespaces.get(CLIENT_A);
+
+        clock.addAndGet(EVICTION_THRESHOLD.toNanos() - 1);
+        evictingNamespaces.get(CLIENT_A);
+        clock.addAndGet(1);
+        evictingNamespaces.evictIdleClients();
+
+        assertThat(evictingNamespaces.getNumberOfActiveClients()).isEqualTo(1);
+        verify(servicesA, never()).getCloser();
+    }
+
+    @Test
+    public void doesNotEvictClientsWithHeldOrPendingLocks() {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        mockLockState(servicesA, true, false);
+        evictingNamespaces.get(CLIENT_A);
+
+        clock.addAndGet(EVICTION_THRESHOLD.toNanos());
+        evictingNamespaces.evictIdleClients();
+
+        assertThat(evictingNamespaces.getNumberOfActiveClients()).isEqualTo(1);
+        verify(servicesA, never()).getCloser();
+    }
+
+    @Test
+    public void doesNotEvictClientsWithHeldOrPendingLegacyLocks() {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        mockLockState(servicesA, false, true);
+        evictingNamespaces.get(CLIENT_A);
+
+        clock.addAndGet(EVICTION_THRESHOLD.toNanos());
+        evictingNamespaces.evictIdleClients();
+
+        assertThat(evictingNamespaces.getNumberOfActiveClients()).isEqualTo(1);
+        verify(servicesA, never()).getCloser();
+    }
+
+    @Test
+    public void evictsClientsWhenNotTheLeader() throws IOException {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        AsyncTimelockService timelockService = mock(AsyncTimelockService.class);
+        when(timelockService.hasHeldOrPendingLocks()).thenThrow(new NotCurrentLeaderException("not the leader"));
+        when(servicesA.getTimelockService()).thenReturn(timelockService);
+        Closeable closer = mockCloser(servicesA);
+        evictingNamespaces.get(CLIENT_A);
+
+        clock.addAndGet(EVICTION_THRESHOLD.toNanos());
+        evictingNamespaces.evictIdleClients();
+
+        assertThat(evictingNamespaces.getNumberOfActiveClients()).isEqualTo(0);
+        verify(closer).close();
+    }
+
+    @Test
+    public void recreatesEvictedClientsOnNextRequest() {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        mockLockState(servicesA, false, false);
+        mockCloser(servicesA);
+        evictingNamespaces.get(CLIENT_A);
+
+        clock.addAndGet(EVICTION_THRESHOLD.toNanos());
+        evictingNamespaces.evictIdleClients();
+
+        assertThat(evictingNamespaces.get(CLIENT_A)).isEqualTo(servicesA);
+        verify(serviceFactory, times(2)).apply(CLIENT_A);
+    }
+
+    @Test
+    public void evictsIdleClientsToMakeRoomForNewClientsAtMaximum() {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        when(maxNumberOfClientsSupplier.get()).thenReturn(1);
+        mockLockState(servicesA, false, false);
+        mockCloser(servicesA);
+        evictingNamespaces.get(CLIENT_A);
+
+        clock.addAndGet(EVICTION_THRESHOLD.toNanos());
+
+        assertThat(evictingNamespaces.get(CLIENT_B)).isEqualTo(servicesB);
+        assertThat(evictingNamespaces.getNumberOfActiveClients()).isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotEvictClientsWhenEvictionIsDisabled() {
+        namespaces.get(CLIENT_A);
+
+        clock.addAndGet(EVICTION_THRESHOLD.toNanos());
+        namespaces.evictIdleClients();
+
+        assertThat(namespaces.getNumberOfActiveClients()).isEqualTo(1);
+    }
+
+    private TimelockNamespaces createEvictingNamespaces() {
+        return new TimelockNamespaces(
+                new MetricsManager(new MetricRegistry(), DefaultTaggedMetricRegistry.getDefault(), unused -> false),
+                serviceFactory,
+                maxNumberOfClientsSupplier,
+                () -> EVICTION_THRESHOLD,
+                clock::get);
+    }
+
+    private static void mockLockState(TimeLockServices services, boolean hasLocks, boolean hasLegacyLocks) {
+        AsyncTimelockService timelockService = mock(AsyncTimelockService.class);
+        when(timelockService.hasHeldOrPendingLocks()).thenReturn(hasLocks);
+        when(services.getTimelockService()).thenReturn(timelockService);
+        if (!hasLocks) {
+            when(services.getLegacyLockServiceHasHeldOrPendingLocks()).thenReturn(() -> hasLegacyLocks);
+        }
+    }
+
+    private static Closeable mockCloser(TimeLockServices services) {
+        Closeable closer = mock(Closeable.class);
+        when(services.getCloser()).thenReturn(closer);
+        return closer;
+    }
+
     private void createMaximumNumberOfClients() {
         for (int i = 0; i < DEFAULT_MAX_NUMBER_OF_CLIENTS; i++) {
             namespaces.get(uniqueClient());
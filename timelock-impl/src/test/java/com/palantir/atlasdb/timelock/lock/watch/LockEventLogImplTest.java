@@ -36,7 +36,7 @@ import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.watch.LockWatchReferenceUtils;
 import com.palantir.atlasdb.timelock.lock.AsyncLock;
-import com.palantir.atlasdb.timelock.lock.ExclusiveLock;
+import com.palantir.atlasdb.timelock.lock.AsyncReadWriteLock;
 import com.palantir.atlasdb.timelock.lock.HeldLocks;
 import com.palantir.atlasdb.timelock.lock.HeldLocksCollection;
 import com.palantir.lock.AtlasRowLockDescriptor;
@@ -60,8 +60,8 @@ public class LockEventLogImplTest {
     private static final LockDescriptor DESCRIPTOR = AtlasRowLockDescriptor.of(TABLE, PtBytes.toBytes("1"));
     private static final LockDescriptor DESCRIPTOR_2 = AtlasRowLockDescriptor.of(TABLE, PtBytes.toBytes("2"));
     private static final LockDescriptor DESCRIPTOR_3 = AtlasRowLockDescriptor.of(TABLE, PtBytes.toBytes("3"));
-    private static final AsyncLock LOCK_2 = new ExclusiveLock(DESCRIPTOR_2);
-    private static final AsyncLock LOCK_3 = new ExclusiveLock(DESCRIPTOR_3);
+    private static final AsyncLock LOCK_2 = new AsyncReadWriteLock(DESCRIPTOR_2);
+    private static final AsyncLock LOCK_3 = new AsyncReadWriteLock(DESCRIPTOR_3);
     private static final LockToken TOKEN = LockToken.of(UUID.randomUUID());
 
     @Before
@@ -35,7 +35,7 @@ import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.watch.LockWatchReferenceUtils;
 import com.palantir.atlasdb.timelock.lock.AsyncLock;
-import com.palantir.atlasdb.timelock.lock.ExclusiveLock;
+import com.palantir.atlasdb.timelock.lock.AsyncReadWriteLock;
 import com.palantir.atlasdb.timelock.lock.HeldLocks;
 import com.palantir.atlasdb.timelock.lock.HeldLocksCollection;
 import com.palantir.lock.AtlasCellLockDescriptor;
@@ -60,8 +60,8 @@ public class LockWatchingServiceImplTest {
     private static final LockDescriptor CELL_DESCRIPTOR = AtlasCellLockDescriptor
             .of(TABLE.getQualifiedName(), CELL.getRowName(), CELL.getColumnName());
     private static final LockDescriptor ROW_DESCRIPTOR = AtlasRowLockDescriptor.of(TABLE.getQualifiedName(), ROW);
-    private static final AsyncLock LOCK = new ExclusiveLock(ROW_DESCRIPTOR);
-    private static final AsyncLock LOCK_2 = new ExclusiveLock(descriptorForOtherTable());
+    private static final AsyncLock LOCK = new AsyncReadWriteLock(ROW_DESCRIPTOR);
+    private static final AsyncLock LOCK_2 = new AsyncReadWriteLock(descriptorForOtherTable());
 
     private final HeldLocksCollection locks = mock(HeldLocksCollection.class);
     private final LockWatchingService lockWatcher = new LockWatchingServiceImpl(locks);
@@ -91,7 +91,7 @@ public class LockWatchingServiceImplTest {
     public void registeringWatchWithWiderScopeLogsAlreadyWatchedLocksAgain() {
         LockDescriptor secondRow = AtlasRowLockDescriptor.of(TABLE.getQualifiedName(),
                 PtBytes.toBytes("other_row"));
-        when(heldLocks.getLocks()).thenReturn(ImmutableList.of(LOCK, new ExclusiveLock(secondRow)));
+        when(heldLocks.getLocks()).thenReturn(ImmutableList.of(LOCK, new AsyncReadWriteLock(secondRow)));
 
         LockWatchRequest prefixRequest = prefixRequest(ROW);
         lockWatcher.startWatching(prefixRequest);
@@ -111,7 +111,7 @@ public class LockWatchingServiceImplTest {
         LockDescriptor bc = AtlasRowLockDescriptor.of(TABLE.getQualifiedName(), PtBytes.toBytes("bc"));
         LockDescriptor cd = AtlasRowLockDescriptor.of(TABLE.getQualifiedName(), PtBytes.toBytes("cd"));
         when(heldLocks.getLocks()).thenReturn(ImmutableList.of(
-                LOCK, new ExclusiveLock(ab), new ExclusiveLock(bc), new ExclusiveLock(cd)));
+                LOCK, new AsyncReadWriteLock(ab), new AsyncReadWriteLock(bc), new AsyncReadWriteLock(cd)));
 
         LockWatchReference acRange = LockWatchReferenceUtils
                 .rowRange(TABLE, PtBytes.toBytes("a"), PtBytes.toBytes("c"));
@@ -28,6 +28,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import com.palantir.leader.PingableLeader;
 import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosLearner;
 import com.palantir.paxos.PaxosProposal;
@@ -74,6 +75,28 @@ public class LocalPaxosComponentsTest {
         assertThat(acceptor.getLatestSequencePreparedOrAccepted()).isEqualTo(PAXOS_ROUND_TWO);
     }
 
+    @Test
+    public void evictedClientIsRecreatedFromItsLogs() {
+        paxosComponents.learner(CLIENT).learn(PAXOS_ROUND_ONE, PAXOS_VALUE);
+        paxosComponents.acceptor(CLIENT).accept(PAXOS_ROUND_TWO, PAXOS_PROPOSAL);
+        paxosComponents.evict(CLIENT);
+
+        assertThat(paxosComponents.learner(CLIENT).getGreatestLearnedValue()).contains(PAXOS_VALUE);
+        assertThat(paxosComponents.acceptor(CLIENT).getLatestSequencePreparedOrAccepted()).isEqualTo(PAXOS_ROUND_TWO);
+    }
+
+    @Test
+    public void evictedComponentsStillInUseAreReused() {
+        PaxosLearner learner = paxosComponents.learner(CLIENT);
+        PaxosAcceptor acceptor = paxosComponents.acceptor(CLIENT);
+        PingableLeader pingableLeader = paxosComponents.pingableLeader(CLIENT);
+        paxosComponents.evict(CLIENT);
+
+        assertThat(paxosComponents.learner(CLIENT)).isSameAs(learner);
+        assertThat(paxosComponents.acceptor(CLIENT)).isSameAs(acceptor);
+        assertThat(paxosComponents.pingableLeader(CLIENT)).isNotSameAs(pingableLeader);
+    }
+
     @Test
     public void addsClientsInSubdirectory() {
         paxosComponents.learner(CLIENT);
@@ -50,7 +50,7 @@ public class AsyncLockServiceTest {
 
     private static final String LOCK_A = "a";
     private static final String LOCK_B = "b";
-    private static final long REAPER_PERIOD_MS = LockLeaseContract.SERVER_LEASE_TIMEOUT.toMillis() / 2;
+    private static final long REAPER_PERIOD_MS = AsyncLockService.REAPER_PERIOD.toMillis();
 
     private static final TimeLimit DEADLINE = TimeLimit.of(123L);
 
@@ -164,8 +164,8 @@ public class AsyncLockServiceTest {
         assertThat(result.isTimedOut()).isTrue();
     }
 
-    private static ExclusiveLock newLock() {
-        return new ExclusiveLock(LOCK_DESCRIPTOR);
+    private static AsyncReadWriteLock newLock() {
+        return new AsyncReadWriteLock(LOCK_DESCRIPTOR);
     }
 
     private static Set<LockDescriptor> descriptors(String... lockNames) {
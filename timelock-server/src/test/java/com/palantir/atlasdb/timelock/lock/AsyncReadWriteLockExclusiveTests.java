@@ -20,13 +20,19 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertTrue;
 
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.StringLockDescriptor;
 
-public class ExclusiveLockTests {
+public class AsyncReadWriteLockExclusiveTests {
 
     private static final UUID REQUEST_1 = UUID.randomUUID();
     private static final UUID REQUEST_2 = UUID.randomUUID();
@@ -34,7 +40,7 @@ public class ExclusiveLockTests {
 
     private static final LockDescriptor LOCK_DESCRIPTOR = StringLockDescriptor.of("foo");
 
-    private final ExclusiveLock lock = new ExclusiveLock(LOCK_DESCRIPTOR);
+    private final AsyncReadWriteLock lock = new AsyncReadWriteLock(LOCK_DESCRIPTOR);
 
     @Test
     public void canLockAndUnlock() {
@@ -89,7 +95,7 @@ public class ExclusiveLockTests {
         lockSynchronously(REQUEST_1);
 
         unlock(UUID.randomUUID());
-        assertThat(lock.getCurrentHolder()).isEqualTo(REQUEST_1);
+        assertThat(lock.getExclusiveHolder()).isEqualTo(REQUEST_1);
     }
 
     @Test
@@ -99,7 +105,7 @@ public class ExclusiveLockTests {
         AsyncResult<Void> request2 = lockAsync(REQUEST_2);
         unlock(REQUEST_2);
 
-        assertThat(lock.getCurrentHolder()).isEqualTo(REQUEST_1);
+        assertThat(lock.getExclusiveHolder()).isEqualTo(REQUEST_1);
         assertThat(request2.isComplete()).isFalse();
 
         // request2 should still get the lock when it's available
@@ -184,7 +190,7 @@ public class ExclusiveLockTests {
         lock.timeout(REQUEST_2);
         unlock(REQUEST_1);
 
-        assertThat(lock.getCurrentHolder()).isNull();
+        assertThat(lock.getExclusiveHolder()).isNull();
         lockSynchronously(REQUEST_1);
     }
 
@@ -222,6 +228,37 @@ public class ExclusiveLockTests {
         assertThat(request2.isCompletedSuccessfully()).isTrue();
     }
 
+    @Test
+    public void lockIsExclusiveUnderConcurrentLockAndUnlock() throws InterruptedException {
+        int numThreads = 8;
+        int iterationsPerThread = 2_000;
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        for (int i = 0; i < numThreads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < iterationsPerThread; j++) {
+                    UUID requestId = UUID.randomUUID();
+                    CountDownLatch acquired = new CountDownLatch(1);
+                    lock.lock(requestId).onComplete(acquired::countDown);
+                    Uninterruptibles.awaitUninterruptibly(acquired);
+
+                    if (holders.incrementAndGet() != 1) {
+                        violations.incrementAndGet();
+                    }
+                    holders.decrementAndGet();
+                    lock.unlock(requestId);
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(violations.get()).isZero();
+        assertThat(lock.getExclusiveHolder()).isNull();
+    }
+
     private AsyncResult<Void> waitUntilAvailableAsync(UUID request) {
         return lock.waitUntilAvailable(request);
     }
@@ -0,0 +1,154 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.StringLockDescriptor;
+
+public class AsyncReadWriteLockTest {
+
+    private static final UUID REQUEST_1 = UUID.randomUUID();
+    private static final UUID REQUEST_2 = UUID.randomUUID();
+    private static final UUID REQUEST_3 = UUID.randomUUID();
+
+    private static final LockDescriptor LOCK_DESCRIPTOR = StringLockDescriptor.of("foo");
+
+    private final AsyncReadWriteLock lock = new AsyncReadWriteLock(LOCK_DESCRIPTOR);
+    private final AsyncLock shared = lock.shared();
+
+    @Test
+    public void sharedLockCanBeHeldByMultipleRequests() {
+        assertThat(shared.lock(REQUEST_1).isCompletedSuccessfully()).isTrue();
+        assertThat(shared.lock(REQUEST_2).isCompletedSuccessfully()).isTrue();
+
+        assertThat(lock.getSharedHolders()).containsExactlyInAnyOrder(REQUEST_1, REQUEST_2);
+        assertThat(lock.getExclusiveHolder()).isNull();
+    }
+
+    @Test
+    public void exclusiveRequestWaitsForAllSharedHolders() {
+        shared.lock(REQUEST_1).get();
+        shared.lock(REQUEST_2).get();
+        AsyncResult<Void> exclusive = lock.lock(REQUEST_3);
+
+        shared.unlock(REQUEST_1);
+        assertThat(exclusive.isComplete()).isFalse();
+
+        shared.unlock(REQUEST_2);
+        assertThat(exclusive.isCompletedSuccessfully()).isTrue();
+        assertThat(lock.getExclusiveHolder()).isEqualTo(REQUEST_3);
+    }
+
+    @Test
+    public void sharedRequestWaitsForExclusiveHolder() {
+        lock.lock(REQUEST_1).get();
+        AsyncResult<Void> sharedRequest = shared.lock(REQUEST_2);
+
+        assertThat(sharedRequest.isComplete()).isFalse();
+
+        lock.unlock(REQUEST_1);
+        assertThat(sharedRequest.isCompletedSuccessfully()).isTrue();
+        assertThat(lock.getSharedHolders()).containsExactly(REQUEST_2);
+    }
+
+    @Test
+    public void sharedRequestsQueueBehindWaitingExclusiveRequest() {
+        shared.lock(REQUEST_1).get();
+        AsyncResult<Void> exclusive = lock.lock(REQUEST_2);
+        AsyncResult<Void> sharedRequest = shared.lock(REQUEST_3);
+
+        assertThat(sharedRequest.isComplete()).isFalse();
+
+        shared.unlock(REQUEST_1);
+        assertThat(exclusive.isCompletedSuccessfully()).isTrue();
+        assertThat(sharedRequest.isComplete()).isFalse();
+
+        lock.unlock(REQUEST_2);
+        assertThat(sharedRequest.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void queuedSharedRequestsAreGrantedTogether() {
+        lock.lock(REQUEST_1).get();
+        AsyncResult<Void> shared2 = shared.lock(REQUEST_2);
+        AsyncResult<Void> shared3 = shared.lock(REQUEST_3);
+
+        lock.unlock(REQUEST_1);
+
+        assertThat(shared2.isCompletedSuccessfully()).isTrue();
+        assertThat(shared3.isCompletedSuccessfully()).isTrue();
+        assertThat(lock.getSharedHolders()).containsExactlyInAnyOrder(REQUEST_2, REQUEST_3);
+    }
+
+    @Test
+    public void unlockOnEitherViewReleasesTheLock() {
+        shared.lock(REQUEST_1).get();
+        lock.unlock(REQUEST_1);
+        assertThat(lock.getSharedHolders()).isEmpty();
+
+        lock.lock(REQUEST_2).get();
+        shared.unlock(REQUEST_2);
+        assertThat(lock.getExclusiveHolder()).isNull();
+    }
+
+    @Test
+    public void unlockByNonHolderNoOps() {
+        shared.lock(REQUEST_1).get();
+
+        shared.unlock(REQUEST_2);
+
+        assertThat(lock.getSharedHolders()).containsExactly(REQUEST_1);
+    }
+
+    @Test
+    public void sharedWaitUntilAvailableDoesNotWaitForSharedHolders() {
+        shared.lock(REQUEST_1).get();
+
+        assertThat(shared.waitUntilAvailable(REQUEST_2).isCompletedSuccessfully()).isTrue();
+        assertThat(lock.waitUntilAvailable(REQUEST_3).isComplete()).isFalse();
+    }
+
+    @Test
+    public void timedOutSharedRequestDoesNotGetTheLock() {
+        lock.lock(REQUEST_1).get();
+        AsyncResult<Void> sharedRequest = shared.lock(REQUEST_2);
+
+        shared.timeout(REQUEST_2);
+        lock.unlock(REQUEST_1);
+
+        assertThat(sharedRequest.isTimedOut()).isTrue();
+        assertThat(lock.getSharedHolders()).isEmpty();
+        assertThat(lock.getExclusiveHolder()).isNull();
+    }
+
+    @Test
+    public void timingOutQueuedExclusiveRequestUnblocksSharedRequests() {
+        shared.lock(REQUEST_1).get();
+        lock.lock(REQUEST_2);
+        AsyncResult<Void> sharedRequest = shared.lock(REQUEST_3);
+
+        lock.timeout(REQUEST_2);
+
+        assertThat(sharedRequest.isCompletedSuccessfully()).isTrue();
+        assertThat(lock.getSharedHolders()).containsExactlyInAnyOrder(REQUEST_1, REQUEST_3);
+    }
+}
@@ -17,6 +17,7 @@ package com.palantir.atlasdb.timelock.lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -82,9 +83,10 @@ public class HeldLocksCollectionTest {
 
     @Test
     public void removesExpiredAndFailedRequests() {
-        UUID nonExpiredRequest = mockNonExpiredRequest().getRequestId();
         mockExpiredRequest();
         mockFailedRequest();
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(Duration.ofSeconds(1)));
+        UUID nonExpiredRequest = mockNonExpiredRequest().getRequestId();
 
         assertThat(heldLocksCollection.heldLocksById.size()).isEqualTo(3);
 
@@ -104,6 +106,45 @@ public class HeldLocksCollectionTest {
         assertThat(heldLocksCollection.heldLocksById.size()).isEqualTo(0);
     }
 
+    @Test
+    public void doesNotVisitRequestsThatAreNotDueToExpire() {
+        HeldLocks heldLocks = mock(HeldLocks.class);
+        mockHeldLocksForNewRequest(heldLocks);
+
+        heldLocksCollection.removeExpired();
+
+        verify(heldLocks, never()).unlockIfExpired();
+    }
+
+    @Test
+    public void refreshedLocksAreNotReapedAtTheirOriginalExpiry() {
+        setTime(123);
+        lockSync(REQUEST_ID);
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.dividedBy(2));
+        heldLocksCollection.refresh(ImmutableSet.of(LockToken.of(REQUEST_ID)));
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.dividedBy(2).plus(Duration.ofSeconds(1)));
+        assertLocked(REQUEST_ID);
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.dividedBy(2));
+        assertUnlocked(REQUEST_ID);
+    }
+
+    @Test
+    public void unlockedRequestsAreNotReaped() {
+        setTime(123);
+        LockToken token = lockSync(REQUEST_ID);
+        heldLocksCollection.unlock(ImmutableSet.of(token));
+        AsyncResult<HeldLocks> result = new AsyncResult<>();
+        heldLocksCollection.getExistingOrAcquire(REQUEST_ID, () -> result);
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(Duration.ofSeconds(1)));
+        heldLocksCollection.removeExpired();
+
+        assertThat(heldLocksCollection.heldLocksById.get(REQUEST_ID)).isEqualTo(result);
+    }
+
     @Test
     public void refreshReturnsSubsetOfUnlockedLocks() {
         LockToken unlockableRequest = mockRefreshableRequest();
@@ -276,7 +317,7 @@ public class HeldLocksCollectionTest {
 
     private HeldLocks heldLocksForId(UUID id) {
         return HeldLocks.create(new LockLog(new MetricRegistry(), () -> 2L),
-                ImmutableSet.of(new ExclusiveLock(LOCK_DESCRIPTOR)),
+                ImmutableSet.of(new AsyncReadWriteLock(LOCK_DESCRIPTOR)),
                 id,
                 leaderClock,
                 lockWatcher);
@@ -338,9 +379,14 @@ public class HeldLocksCollectionTest {
     }
 
     private LockToken mockHeldLocksForNewRequest(Consumer<HeldLocks> mockApplier) {
-        LockToken request = LockToken.of(UUID.randomUUID());
         HeldLocks heldLocks = mock(HeldLocks.class);
         mockApplier.accept(heldLocks);
+        return mockHeldLocksForNewRequest(heldLocks);
+    }
+
+    private LockToken mockHeldLocksForNewRequest(HeldLocks heldLocks) {
+        LockToken request = LockToken.of(UUID.randomUUID());
+        when(heldLocks.getRequestId()).thenReturn(request.getRequestId());
         when(heldLocks.lastRefreshTime()).thenReturn(time.get());
 
         AsyncResult<HeldLocks> completedResult = new AsyncResult<>();
@@ -39,8 +39,8 @@ public class HeldLocksTest {
 
     private static final LockDescriptor LOCK_DESCRIPTOR = StringLockDescriptor.of("foo");
 
-    private final ExclusiveLock lockA = spy(new ExclusiveLock(LOCK_DESCRIPTOR));
-    private final ExclusiveLock lockB = spy(new ExclusiveLock(LOCK_DESCRIPTOR));
+    private final AsyncReadWriteLock lockA = spy(new AsyncReadWriteLock(LOCK_DESCRIPTOR));
+    private final AsyncReadWriteLock lockB = spy(new AsyncReadWriteLock(LOCK_DESCRIPTOR));
 
     private final LeaseExpirationTimer timer = mock(LeaseExpirationTimer.class);
 
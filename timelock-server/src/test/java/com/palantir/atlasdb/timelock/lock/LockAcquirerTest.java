@@ -55,9 +55,9 @@ public class LockAcquirerTest {
     private final DeterministicScheduler executor = new DeterministicScheduler();
     private final LeaderClock leaderClock = LeaderClock.create();
 
-    private final ExclusiveLock lockA = spy(new ExclusiveLock(LOCK_DESCRIPTOR));
-    private final ExclusiveLock lockB = spy(new ExclusiveLock(LOCK_DESCRIPTOR));
-    private final ExclusiveLock lockC = spy(new ExclusiveLock(LOCK_DESCRIPTOR));
+    private final AsyncReadWriteLock lockA = spy(new AsyncReadWriteLock(LOCK_DESCRIPTOR));
+    private final AsyncReadWriteLock lockB = spy(new AsyncReadWriteLock(LOCK_DESCRIPTOR));
+    private final AsyncReadWriteLock lockC = spy(new AsyncReadWriteLock(LOCK_DESCRIPTOR));
 
     private final LockAcquirer lockAcquirer = new LockAcquirer(
             new LockLog(new MetricRegistry(), () -> 2L),
@@ -98,7 +98,7 @@ public class LockAcquirerTest {
     @Test(timeout = 10_000)
     public void doesNotStackOverflowIfLocksAreAcquiredSynchronously() {
         List<AsyncLock> locks = IntStream.range(0, 10_000)
-                .mapToObj(i -> new ExclusiveLock(LOCK_DESCRIPTOR))
+                .mapToObj(i -> new AsyncReadWriteLock(LOCK_DESCRIPTOR))
                 .collect(Collectors.toList());
 
         AsyncResult<HeldLocks> acquisitions = acquire(locks);
@@ -237,7 +237,7 @@ public class LockAcquirerTest {
         return lockAcquirer.acquireLocks(REQUEST_ID, OrderedLocks.fromOrderedList(locks), TIMEOUT);
     }
 
-    private void assertNotLocked(ExclusiveLock lock) {
+    private void assertNotLocked(AsyncReadWriteLock lock) {
         assertThat(lock.lock(UUID.randomUUID()).isCompletedSuccessfully()).isTrue();
     }
 
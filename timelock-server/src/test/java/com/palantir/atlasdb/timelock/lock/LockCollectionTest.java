@@ -70,6 +70,22 @@ public class LockCollectionTest {
         assertThat(actualOrder).isEqualTo(expectedOrder);
     }
 
+    @Test
+    public void returnsSharedViewsForDescriptorsOnlyLockedInSharedMode() {
+        LockDescriptor exclusive = StringLockDescriptor.of("foo");
+        LockDescriptor shared = StringLockDescriptor.of("bar");
+        LockDescriptor both = StringLockDescriptor.of("baz");
+
+        List<AsyncLock> locks = lockCollection.getAll(
+                ImmutableSet.of(exclusive, both), ImmutableSet.of(shared, both)).get();
+        List<AsyncLock> exclusiveLocks = lockCollection.getAll(ImmutableSet.of(exclusive, shared, both)).get();
+
+        assertThat(locks).containsExactly(
+                ((AsyncReadWriteLock) exclusiveLocks.get(0)).shared(),
+                exclusiveLocks.get(1),
+                exclusiveLocks.get(2));
+    }
+
     private static Set<LockDescriptor> descriptors(String... names) {
         return Arrays.stream(names)
                 .map(StringLockDescriptor::of)